@@ -19,6 +19,8 @@ import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
 
 import java.time.Duration;
 
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+
 /**
  * Gateway Configuration for Routing and Filtering
  *
@@ -55,6 +57,7 @@ public class ApiGatewayConfig {
      * 4. Circuit breaker configuration
      * 5. Rate limiting per service
      * 6. Request transformation
+     * 7. Per-route response timeouts, also used as the request deadline budget
      */
     @Bean
     public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
@@ -75,6 +78,7 @@ public class ApiGatewayConfig {
                                         .setRetries(3)
                                         .setBackoff(Duration.ofMillis(100), Duration.ofMillis(1000), 2, false))
                         )
+                        .metadata(RESPONSE_TIMEOUT_ATTR, 5000)
                         .uri("lb://user-service"))
 
                 // PRODUCT SERVICE ROUTES
@@ -90,6 +94,7 @@ public class ApiGatewayConfig {
                                         .setName("product-service-read-cb")
                                         .setFallbackUri("forward:/fallback/product-service"))
                         )
+                        .metadata(RESPONSE_TIMEOUT_ATTR, 3000)
                         .uri("lb://product-service"))
 
                 .route("product-service-write", r -> r
@@ -104,9 +109,30 @@ public class ApiGatewayConfig {
                                         .setName("product-service-write-cb")
                                         .setFallbackUri("forward:/fallback/product-service"))
                         )
+                        .metadata(RESPONSE_TIMEOUT_ATTR, 3000)
                         .uri("lb://product-service"))
 
                 // ORDER SERVICE ROUTES
+                // Checkout event streams stay open until the checkout finishes: no response timeout
+                .route("order-checkout-events", r -> r
+                        .path("/api/orders/checkouts/*/events")
+                        .filters(f -> f
+                                .filter(loggingFilter.apply(new LoggingFilter.Config("ORDER-CHECKOUT-EVENTS")))
+                                .filter(jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config()))
+                        )
+                        .metadata(RESPONSE_TIMEOUT_ATTR, -1)
+                        .uri("lb://order-service"))
+
+                // Customer status streams are long-lived too; heartbeats keep them alive
+                .route("order-status-events", r -> r
+                        .path("/api/orders/customer/*/status-events")
+                        .filters(f -> f
+                                .filter(loggingFilter.apply(new LoggingFilter.Config("ORDER-STATUS-EVENTS")))
+                                .filter(jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config()))
+                        )
+                        .metadata(RESPONSE_TIMEOUT_ATTR, -1)
+                        .uri("lb://order-service"))
+
                 .route("order-service", r -> r
                         .path("/api/orders/**")
                         .filters(f -> f
@@ -123,6 +149,7 @@ public class ApiGatewayConfig {
                                         .setRetries(2)
                                         .setBackoff(Duration.ofMillis(200), Duration.ofMillis(2000), 2, false))
                         )
+                        .metadata(RESPONSE_TIMEOUT_ATTR, 10000)
                         .uri("lb://order-service"))
 
                 // ADMIN ROUTES (Higher security)
@@ -134,6 +161,7 @@ public class ApiGatewayConfig {
                                 .filter(rateLimitingFilter.apply(new RateLimitingFilter.Config(20, Duration.ofMinutes(1))))
                                 .rewritePath("/api/admin/users/(?<segment>.*)", "/api/users/${segment}")
                         )
+                        .metadata(RESPONSE_TIMEOUT_ATTR, 5000)
                         .uri("lb://user-service"))
 
                 // MONITORING ROUTES (Service health checks)
@@ -2,11 +2,25 @@ package com.msproj.apigateway.config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.annotation.Configuration; /**
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
  * Custom Load Balancer Configuration
  * Demonstrates advanced load balancing strategies
+ * <p>
+ * order-service keeps carts in instance memory, so its cart requests are
+ * routed by customer (CustomerAffinityLoadBalancer); the other services use
+ * the default round robin.
  */
 @Configuration
+@LoadBalancerClient(name = "order-service", configuration = CustomLoadBalancerConfiguration.OrderServiceLoadBalancer.class)
 public class CustomLoadBalancerConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomLoadBalancerConfiguration.class);
@@ -15,6 +29,15 @@ public class CustomLoadBalancerConfiguration {
         logger.info("Configuring custom load balancer strategies");
     }
 
-    // Custom load balancer configurations can be added here
-    // For example: weighted round-robin, health-based selection, etc.
+    // Loaded into the order-service load balancer context only; not a @Configuration, so not picked up globally
+    static class OrderServiceLoadBalancer {
+
+        @Bean
+        public ReactorLoadBalancer<ServiceInstance> customerAffinityLoadBalancer(Environment environment,
+                                                                                 LoadBalancerClientFactory factory) {
+            String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+            return new CustomerAffinityLoadBalancer(
+                    factory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), serviceId);
+        }
+    }
 }
@@ -0,0 +1,108 @@
+package com.msproj.apigateway.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Customer Affinity Load Balancer
+ * Sends every cart request of a customer (/api/orders/carts/{customerId}/**)
+ * to the same order-service instance, which holds that customer's cart in
+ * memory. The instance is picked by rendezvous hashing of customer and
+ * instance id, so an instance joining or leaving moves only the customers
+ * it gains or loses. All other requests are spread round robin.
+ */
+public class CustomerAffinityLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerAffinityLoadBalancer.class);
+
+    private static final Pattern CART_PATH = Pattern.compile("^/api/orders/carts/(\\d+)(/.*)?$");
+
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final String serviceId;
+    private final AtomicInteger position = new AtomicInteger();
+
+    public CustomerAffinityLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> suppliers, String serviceId) {
+        this.suppliers = suppliers;
+        this.serviceId = serviceId;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = suppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        String customerId = customerId(request);
+
+        return supplier.get(request).next().map(instances -> {
+            if (instances.isEmpty()) {
+                logger.warn("No instances available for {}", serviceId);
+                return new EmptyResponse();
+            }
+            ServiceInstance chosen = customerId != null
+                    ? byCustomer(instances, customerId)
+                    : instances.get(Math.floorMod(position.getAndIncrement(), instances.size()));
+            return new DefaultResponse(chosen);
+        });
+    }
+
+    static String customerId(Request<?> request) {
+        if (request != null && request.getContext() instanceof RequestDataContext context
+                && context.getClientRequest() != null) {
+            Matcher matcher = CART_PATH.matcher(context.getClientRequest().getUrl().getPath());
+            if (matcher.matches()) {
+                return matcher.group(1);
+            }
+        }
+        return null;
+    }
+
+    // Highest hash of (instance, customer) wins; independent of the order the instances are listed in
+    static ServiceInstance byCustomer(List<ServiceInstance> instances, String customerId) {
+        ServiceInstance chosen = null;
+        long best = Long.MIN_VALUE;
+        for (ServiceInstance instance : instances) {
+            long score = hash(instanceKey(instance) + "#" + customerId);
+            if (chosen == null || score > best) {
+                chosen = instance;
+                best = score;
+            }
+        }
+        return chosen;
+    }
+
+    private static String instanceKey(ServiceInstance instance) {
+        return instance.getInstanceId() != null
+                ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+    }
+
+    // FNV-1a followed by the murmur3 finalizer
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe1a85ec5L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,65 @@
+package com.msproj.apigateway.config;
+
+import com.msproj.servicesupport.deadline.RequestDeadline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Global Deadline Filter
+ * Stamps an absolute deadline (X-Request-Deadline, epoch millis) on every
+ * routed request. The budget is the route's response-timeout metadata, so
+ * downstream services stop working on a request when the gateway stops
+ * waiting for it. A tighter deadline sent by the client is kept.
+ */
+@Component
+public class GlobalDeadlineFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalDeadlineFilter.class);
+
+    @Value("${gateway.deadline.default-budget-ms:10000}")
+    private long defaultBudgetMs;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long routeDeadline = System.currentTimeMillis() + budgetMillis(exchange);
+        Long requested = RequestDeadline.parse(exchange.getRequest().getHeaders().getFirst(RequestDeadline.HEADER));
+        long deadline = requested != null ? Math.min(requested, routeDeadline) : routeDeadline;
+
+        logger.debug("Request {} deadline {}", exchange.getRequest().getPath(), deadline);
+
+        ServerHttpRequest mutatedRequest = exchange.getRequest().mutate()
+                .headers(headers -> headers.set(RequestDeadline.HEADER, String.valueOf(deadline)))
+                .build();
+
+        return chain.filter(exchange.mutate()
+                .request(mutatedRequest)
+                .build());
+    }
+
+    @Override
+    public int getOrder() {
+        return -90; // Right after the correlation ID filter
+    }
+
+    private long budgetMillis(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route != null) {
+            Object timeout = route.getMetadata().get(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR);
+            if (timeout instanceof Number number && number.longValue() > 0) {
+                return number.longValue();
+            }
+        }
+        return defaultBudgetMs;
+    }
+}
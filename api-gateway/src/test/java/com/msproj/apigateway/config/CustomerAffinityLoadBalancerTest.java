@@ -0,0 +1,102 @@
+package com.msproj.apigateway.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.LinkedMultiValueMap;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CustomerAffinityLoadBalancer: a customer's cart requests always reach the
+ * same instance, losing an instance moves only its own customers, and other
+ * requests are spread round robin.
+ */
+class CustomerAffinityLoadBalancerTest {
+
+    private final List<ServiceInstance> instances = new ArrayList<>(List.of(
+            instance("order-1"), instance("order-2"), instance("order-3")));
+
+    private final CustomerAffinityLoadBalancer loadBalancer = loadBalancer();
+
+    @Test
+    void cartRequestsOfACustomerReachOneInstance() {
+        Set<String> chosen = new HashSet<>();
+        for (String path : List.of("/api/orders/carts/42", "/api/orders/carts/42/items",
+                "/api/orders/carts/42/items/7", "/api/orders/carts/42/checkout")) {
+            for (int i = 0; i < 5; i++) {
+                chosen.add(choose(path));
+            }
+        }
+
+        assertThat(chosen).hasSize(1);
+    }
+
+    @Test
+    void losingAnInstanceMovesOnlyItsCustomers() {
+        List<String> before = IntStream.range(0, 300).mapToObj(customer -> choose("/api/orders/carts/" + customer)).toList();
+        assertThat(Set.copyOf(before)).containsExactlyInAnyOrder("order-1", "order-2", "order-3");
+
+        instances.removeIf(instance -> instance.getInstanceId().equals("order-2"));
+
+        for (int customer = 0; customer < 300; customer++) {
+            String after = choose("/api/orders/carts/" + customer);
+            if (!before.get(customer).equals("order-2")) {
+                assertThat(after).isEqualTo(before.get(customer));
+            }
+        }
+    }
+
+    @Test
+    void otherRequestsAreSpreadRoundRobin() {
+        List<String> chosen = IntStream.range(0, 6).mapToObj(i -> choose("/api/orders/customer/42")).toList();
+
+        assertThat(chosen).containsExactly("order-1", "order-2", "order-3", "order-1", "order-2", "order-3");
+    }
+
+    private String choose(String path) {
+        RequestData requestData = new RequestData(HttpMethod.GET, URI.create("http://localhost:8080" + path),
+                new HttpHeaders(), new LinkedMultiValueMap<>(), Map.of());
+        return loadBalancer.choose(new DefaultRequest<>(new RequestDataContext(requestData)))
+                .block()
+                .getServer()
+                .getInstanceId();
+    }
+
+    private CustomerAffinityLoadBalancer loadBalancer() {
+        ServiceInstanceListSupplier supplier = new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return "order-service";
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(List.copyOf(instances));
+            }
+        };
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("supplier", supplier));
+        return new CustomerAffinityLoadBalancer(beanFactory.getBeanProvider(ServiceInstanceListSupplier.class),
+                "order-service");
+    }
+
+    private static ServiceInstance instance(String id) {
+        return new DefaultServiceInstance(id, "order-service", id + ".local", 8083, false);
+    }
+}
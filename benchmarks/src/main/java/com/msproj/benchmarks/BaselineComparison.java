@@ -0,0 +1,150 @@
+package com.msproj.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files benchmark by benchmark.
+ * <p>
+ * A time change counts only when it exceeds the threshold and the two 99.9%
+ * confidence intervals (score +/- scoreError) do not overlap, so run-to-run
+ * noise is not reported as a regression. Allocation per operation
+ * (gc.alloc.rate.norm, from the GC profiler) is nearly deterministic and is
+ * judged on the threshold alone; operations allocating under 1 KB are ignored.
+ * <pre>
+ * java -cp target/benchmarks.jar com.msproj.benchmarks.BaselineComparison baseline.json current.json [threshold%]
+ * </pre>
+ */
+public final class BaselineComparison {
+
+    public static final double DEFAULT_THRESHOLD_PERCENT = 5.0;
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    private static final double MIN_COMPARED_ALLOCATION = 1024;
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <current.json> [threshold%]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        int regressions = compare(Path.of(args[0]), Path.of(args[1]), threshold, System.out);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * Print the comparison table.
+     *
+     * @return the number of regressed benchmarks (time or allocation)
+     */
+    public static int compare(Path baselineFile, Path currentFile, double thresholdPercent, PrintStream out)
+            throws IOException {
+        Map<String, JsonNode> baseline = read(baselineFile);
+        Map<String, JsonNode> current = read(currentFile);
+
+        out.printf("%n%-70s %14s %14s %9s %14s %14s %9s  %s%n", "Benchmark",
+                "baseline", "current", "time", "base B/op", "curr B/op", "alloc", "verdict");
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            if (before == null) {
+                out.printf("%-70s %14s %14s%n", entry.getKey(), "-", format(after.path("primaryMetric")));
+                continue;
+            }
+
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            JsonNode beforeMetric = before.path("primaryMetric");
+            JsonNode afterMetric = after.path("primaryMetric");
+            double beforeScore = beforeMetric.path("score").asDouble();
+            double afterScore = afterMetric.path("score").asDouble();
+            double timeChange = percentChange(beforeScore, afterScore);
+            double worsening = higherIsBetter ? -timeChange : timeChange;
+            boolean significant = Math.abs(timeChange) > thresholdPercent && !overlap(beforeMetric, afterMetric);
+
+            double beforeAllocation = before.path("secondaryMetrics").path(ALLOCATION_METRIC).path("score").asDouble(Double.NaN);
+            double afterAllocation = after.path("secondaryMetrics").path(ALLOCATION_METRIC).path("score").asDouble(Double.NaN);
+            double allocationChange = percentChange(beforeAllocation, afterAllocation);
+            boolean allocationCompared = !Double.isNaN(allocationChange)
+                    && Math.max(beforeAllocation, afterAllocation) >= MIN_COMPARED_ALLOCATION;
+
+            String verdict;
+            if (significant && worsening > 0) {
+                verdict = "REGRESSION";
+            } else if (allocationCompared && allocationChange > thresholdPercent) {
+                verdict = "REGRESSION (allocation)";
+            } else if (significant) {
+                verdict = "improved";
+            } else if (allocationCompared && allocationChange < -thresholdPercent) {
+                verdict = "improved (allocation)";
+            } else {
+                verdict = "~";
+            }
+            if (verdict.startsWith("REGRESSION")) {
+                regressions++;
+            }
+
+            out.printf("%-70s %14s %14s %+8.1f%% %14.0f %14.0f %+8.1f%%  %s%n", entry.getKey(),
+                    format(beforeMetric), format(afterMetric), timeChange,
+                    beforeAllocation, afterAllocation, allocationChange, verdict);
+        }
+
+        out.printf("%n%d regression(s) at a %.1f%% threshold%n", regressions, thresholdPercent);
+        return regressions;
+    }
+
+    // Benchmark name plus sorted parameters, e.g. ProductCatalogBenchmark.filter(catalogSize=10000)
+    private static Map<String, JsonNode> read(Path file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            String benchmark = result.path("benchmark").asText();
+            String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> param = fields.next();
+                params.put(param.getKey(), param.getValue().asText());
+            }
+            results.put(params.isEmpty() ? name : name + params.toString().replace('{', '(').replace('}', ')'),
+                    result);
+        }
+        return results;
+    }
+
+    private static boolean overlap(JsonNode before, JsonNode after) {
+        double beforeError = error(before);
+        double afterError = error(after);
+        double beforeScore = before.path("score").asDouble();
+        double afterScore = after.path("score").asDouble();
+        return beforeScore - beforeError <= afterScore + afterError
+                && afterScore - afterError <= beforeScore + beforeError;
+    }
+
+    // scoreError is NaN with a single measurement; treat that as no interval
+    private static double error(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static double percentChange(double before, double after) {
+        return before == 0 ? Double.NaN : (after - before) / before * 100;
+    }
+
+    private static String format(JsonNode metric) {
+        return String.format("%.3f %s", metric.path("score").asDouble(),
+                metric.path("scoreUnit").asText()).trim();
+    }
+}
@@ -0,0 +1,65 @@
+package com.msproj.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar: runs JMH with the GC profiler, writes the
+ * results as JSON and optionally compares them with an earlier run.
+ * <pre>
+ * java -jar target/benchmarks.jar                                   # everything, results in jmh-result.json
+ * java -jar target/benchmarks.jar -p catalogSize=10000 filter       # any JMH option or benchmark regexp
+ * java -jar target/benchmarks.jar -baseline main.json -result pr.json
+ * </pre>
+ * Options of its own, removed before the rest goes to JMH:
+ * <ul>
+ *   <li>-result FILE - where to write the JSON results (default jmh-result.json)</li>
+ *   <li>-baseline FILE - results of an earlier run to compare with (see BaselineComparison);
+ *       the exit status is 1 when something regressed</li>
+ *   <li>-threshold PERCENT - smallest change reported as a regression or improvement (default 5)</li>
+ * </ul>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path result = Path.of("jmh-result.json");
+        Path baseline = null;
+        double thresholdPercent = BaselineComparison.DEFAULT_THRESHOLD_PERCENT;
+
+        List<String> jmhArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-result" -> result = Path.of(args[++i]);
+                case "-baseline" -> baseline = Path.of(args[++i]);
+                case "-threshold" -> thresholdPercent = Double.parseDouble(args[++i]);
+                default -> jmhArgs.add(args[i]);
+            }
+        }
+
+        CommandLineOptions commandLine = new CommandLineOptions(jmhArgs.toArray(String[]::new));
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build())
+                .run();
+
+        if (baseline != null) {
+            int regressions = BaselineComparison.compare(baseline, result, thresholdPercent, System.out);
+            if (regressions > 0) {
+                System.exit(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.msproj.benchmarks;
+
+import com.msproj.productservice.entity.Category;
+import com.msproj.productservice.entity.Product;
+import com.msproj.productservice.entity.ProductReview;
+import com.msproj.productservice.entity.ProductStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Builds in-memory product catalogs shaped like the real one, for benchmarks.
+ * <p>
+ * The same size and seed always produce the same catalog, so runs compared
+ * against a baseline measure the code and not the data. Products spread over
+ * 24 categories; 80% are active, each has one to four tags out of 60, up to
+ * five attributes, one to three images, and about a third carry reviews.
+ * Tag, attribute and category strings are shared, as they would be after
+ * loading from the database with a warm string pool, which keeps a million
+ * products within a 4 GB heap.
+ */
+public final class CatalogGenerator {
+
+    public static final long DEFAULT_SEED = 20240611L;
+
+    private static final int CATEGORIES = 24;
+    private static final int TAGS = 60;
+
+    private static final String[] ATTRIBUTE_NAMES = {"color", "size", "material", "brand", "warranty", "weight"};
+    private static final String[][] ATTRIBUTE_VALUES = {
+            {"black", "white", "red", "blue", "green", "silver"},
+            {"XS", "S", "M", "L", "XL"},
+            {"cotton", "steel", "plastic", "wood", "leather", "glass"},
+            {"Acme", "Globex", "Initech", "Umbrella", "Stark", "Wayne"},
+            {"1 year", "2 years", "3 years"},
+            {"light", "medium", "heavy"}
+    };
+
+    private static final String[] NOUNS = {"Lamp", "Chair", "Phone", "Jacket", "Kettle", "Backpack", "Monitor",
+            "Novel", "Blender", "Sneakers", "Desk", "Headphones", "Camera", "Watch", "Tent", "Guitar"};
+    private static final String[] ADJECTIVES = {"Classic", "Compact", "Deluxe", "Eco", "Pro", "Smart", "Ultra",
+            "Vintage", "Wireless", "Portable", "Premium", "Rugged"};
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+    private CatalogGenerator() {
+    }
+
+    public static List<Product> generate(int size) {
+        return generate(size, DEFAULT_SEED);
+    }
+
+    public static List<Product> generate(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        List<Category> categories = new ArrayList<>(CATEGORIES);
+        for (int i = 0; i < CATEGORIES; i++) {
+            Category category = new Category("Category " + i, "Generated category " + i);
+            category.setId((long) i + 1);
+            categories.add(category);
+        }
+
+        String[] tags = new String[TAGS];
+        for (int i = 0; i < TAGS; i++) {
+            tags[i] = "tag" + i;
+        }
+
+        List<Product> catalog = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            catalog.add(product(i, random, categories, tags));
+        }
+        return catalog;
+    }
+
+    private static Product product(int i, SplittableRandom random, List<Category> categories, String[] tags) {
+        String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)]
+                + " " + i;
+        BigDecimal price = BigDecimal.valueOf(99 + random.nextInt(99_900), 2);
+        Category category = categories.get(random.nextInt(categories.size()));
+
+        Product product = new Product(name, "Generated product " + i, price, random.nextInt(500), category);
+        product.setId((long) i + 1);
+        product.setSku("SKU-" + i);
+        product.setStatus(random.nextInt(10) < 8 ? ProductStatus.ACTIVE : ProductStatus.values()[random.nextInt(5)]);
+        product.setCreatedAt(EPOCH.plusMinutes(random.nextInt(1_000_000)));
+        product.setUpdatedAt(product.getCreatedAt());
+
+        for (int t = 1 + random.nextInt(4); t > 0; t--) {
+            product.addTag(tags[random.nextInt(tags.length)]);
+        }
+        for (int a = random.nextInt(ATTRIBUTE_NAMES.length); a > 0; a--) {
+            int attribute = random.nextInt(ATTRIBUTE_NAMES.length);
+            String[] values = ATTRIBUTE_VALUES[attribute];
+            product.addAttribute(ATTRIBUTE_NAMES[attribute], values[random.nextInt(values.length)]);
+        }
+        for (int m = 1 + random.nextInt(3); m > 0; m--) {
+            product.addImageUrl("https://cdn.example.com/p/" + i + "/" + m + ".jpg");
+        }
+        if (random.nextInt(3) == 0) {
+            for (int r = 1 + random.nextInt(5); r > 0; r--) {
+                product.getReviews().add(new ProductReview(product, (long) random.nextInt(100_000),
+                        "Customer", 1 + random.nextInt(5), null));
+            }
+        }
+        return product;
+    }
+}
@@ -0,0 +1,101 @@
+package com.msproj.productservice.service;
+
+import com.msproj.benchmarks.BenchmarkRunner;
+import com.msproj.benchmarks.CatalogGenerator;
+import com.msproj.productservice.dto.ProductResponseDto;
+import com.msproj.productservice.dto.ProductSearchCriteria;
+import com.msproj.productservice.dto.ProductStatisticsDto;
+import com.msproj.productservice.entity.Product;
+import com.msproj.productservice.entity.ProductStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory stages of the catalog endpoints over generated catalogs of
+ * 10k, 100k and 1M products (CatalogGenerator):
+ * <ul>
+ *   <li>filter - searchProducts' createProductFilter predicate</li>
+ *   <li>sort - getProductsWithFilters' createSortComparator, first page of the sorted catalog</li>
+ *   <li>similarity - calculateSimilarity of one product against the catalog (findSimilarProducts)</li>
+ *   <li>statistics - ProductStatisticsDto.collector() (getProductStatistics)</li>
+ *   <li>mapToDto - ProductResponseDto.fromEntity for every product (all list endpoints)</li>
+ * </ul>
+ * Lives in the service package because the helpers are package-private. The
+ * service is built without repositories: none of these paths touch them.
+ * <p>
+ * Run through BenchmarkRunner (java -jar target/benchmarks.jar), which adds
+ * the GC profiler for allocation rates and compares against a baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ProductCatalogBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int catalogSize;
+
+    private final ProductServiceImpl productService = new ProductServiceImpl(null, null, null, null, null);
+
+    private List<Product> catalog;
+    private ProductSearchCriteria criteria;
+    private Product baseProduct;
+
+    @Setup
+    public void setUp() {
+        catalog = CatalogGenerator.generate(catalogSize);
+        baseProduct = catalog.get(catalog.size() / 2);
+        criteria = ProductSearchCriteria.builder()
+                .name("wireless")
+                .priceRange(new BigDecimal("50.00"), new BigDecimal("400.00"))
+                .category(baseProduct.getCategory().getId())
+                .statuses(List.of(ProductStatus.ACTIVE))
+                .tags("tag7", "tag13", "tag42")
+                .build();
+    }
+
+    @Benchmark
+    public long filter() {
+        return catalog.stream()
+                .filter(productService.createProductFilter(criteria))
+                .count();
+    }
+
+    @Benchmark
+    public List<Product> sort() {
+        return catalog.stream()
+                .sorted(productService.createSortComparator("price", "desc"))
+                .limit(20)
+                .toList();
+    }
+
+    @Benchmark
+    public long similarity() {
+        long total = 0;
+        for (Product candidate : catalog) {
+            total += productService.calculateSimilarity(baseProduct, candidate).getScore();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public ProductStatisticsDto statistics() {
+        return catalog.stream().collect(ProductStatisticsDto.collector());
+    }
+
+    @Benchmark
+    public List<ProductResponseDto> mapToDto() {
+        return catalog.stream()
+                .map(ProductResponseDto::fromEntity)
+                .toList();
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner.main(new String[]{ProductCatalogBenchmark.class.getSimpleName()});
+    }
+}
@@ -0,0 +1,177 @@
+package com.msproj.datagen;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates and loads entities 1..count in chunks of chunk-size on a fixed
+ * number of threads, each with its own connection. A chunk's rows for all
+ * its tables are loaded in one transaction, parent tables first, so foreign
+ * keys hold without deferring constraints; the first failing chunk stops the
+ * load.
+ */
+public final class BulkLoader {
+
+    /**
+     * Fills a chunk with the rows of entities [fromId, toId).
+     */
+    @FunctionalInterface
+    public interface ChunkGenerator {
+        void generate(long fromId, long toId, Chunk chunk);
+    }
+
+    /**
+     * The row buffers of one chunk, one per table, loaded in table order.
+     */
+    public static final class Chunk {
+
+        private final Map<Table, RowBuffer> buffers = new LinkedHashMap<>();
+
+        private Chunk(List<Table> tables) {
+            tables.forEach(table -> buffers.put(table, new RowBuffer(table)));
+        }
+
+        public RowBuffer rows(Table table) {
+            RowBuffer buffer = buffers.get(table);
+            if (buffer == null) {
+                throw new IllegalArgumentException(table.name() + " is not loaded by this generator");
+            }
+            return buffer;
+        }
+
+        private long rowCount() {
+            return buffers.values().stream().mapToLong(buffer -> buffer.rows().size()).sum();
+        }
+    }
+
+    private final Database database;
+    private final LoadMethod loadMethod;
+    private final int threads;
+    private final int chunkSize;
+
+    public BulkLoader(Database database, LoadMethod loadMethod, int threads, int chunkSize) {
+        this.database = database;
+        this.loadMethod = loadMethod;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return the number of rows loaded over all tables
+     */
+    public long load(String label, long count, List<Table> tables, ChunkGenerator generator)
+            throws SQLException, InterruptedException {
+        BlockingQueue<Connection> connections = new ArrayBlockingQueue<>(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Progress progress = new Progress(label, count);
+        try {
+            for (int i = 0; i < threads; i++) {
+                connections.add(database.connect());
+            }
+
+            List<Future<?>> chunks = new ArrayList<>();
+            for (long fromId = 1; fromId <= count; fromId += chunkSize) {
+                long from = fromId;
+                long to = Math.min(fromId + chunkSize, count + 1);
+                chunks.add(executor.submit(() -> {
+                    Chunk chunk = new Chunk(tables);
+                    generator.generate(from, to, chunk);
+                    Connection connection = connections.take();
+                    try {
+                        loadChunk(connection, chunk);
+                    } finally {
+                        connections.offer(connection);
+                    }
+                    progress.chunkDone(to - from, chunk.rowCount());
+                    return null;
+                }));
+            }
+
+            for (Future<?> chunk : chunks) {
+                try {
+                    chunk.get();
+                } catch (ExecutionException e) {
+                    executor.shutdownNow();
+                    Throwable cause = e.getCause();
+                    if (cause instanceof SQLException sqlException) {
+                        throw sqlException;
+                    }
+                    throw new IllegalStateException(label + " failed", cause);
+                }
+            }
+            progress.finish();
+            return progress.rows.get();
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    private void loadChunk(Connection connection, Chunk chunk) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            for (RowBuffer buffer : chunk.buffers.values()) {
+                if (!buffer.rows().isEmpty()) {
+                    loadMethod.load(connection, buffer.table(), buffer.rows());
+                }
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    // One line per tenth of the entities, and a summary
+    private static final class Progress {
+
+        private final String label;
+        private final long count;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong entities = new AtomicLong();
+        private final AtomicLong rows = new AtomicLong();
+        private long nextReport;
+
+        Progress(String label, long count) {
+            this.label = label;
+            this.count = count;
+            this.nextReport = Math.max(1, count / 10);
+        }
+
+        void chunkDone(long chunkEntities, long chunkRows) {
+            long done = entities.addAndGet(chunkEntities);
+            rows.addAndGet(chunkRows);
+            synchronized (this) {
+                if (done >= nextReport && done < count) {
+                    print(done);
+                    nextReport = done + Math.max(1, count / 10);
+                }
+            }
+        }
+
+        void finish() {
+            print(entities.get());
+        }
+
+        private void print(long done) {
+            double seconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+            System.out.printf("%-10s %,14d / %,d  %,12d rows  %,10.0f rows/s  %6.1fs%n", label, done, count,
+                    rows.get(), rows.get() / seconds, seconds);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.msproj.datagen;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entry point of data-generator.jar: fills the user, product and order
+ * databases with production-sized data for performance work.
+ * <pre>
+ * mvn -B -DskipTests package
+ * java -jar data-generator/target/data-generator.jar user.password=... product.password=... order.password=...
+ * java -jar data-generator/target/data-generator.jar generate=orders orders.count=50000000 threads=16
+ * java -jar data-generator/target/data-generator.jar -config small.properties
+ * </pre>
+ * Each entity's rows are derived only from the seed and its ID, so a run
+ * is reproducible and orders can copy customer and product details without
+ * reading the other databases; generate=orders alone yields the same orders
+ * as a full run.
+ */
+public final class DataGenerator {
+
+    private DataGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        GeneratorConfig config = GeneratorConfig.load(args);
+        UserGenerator users = new UserGenerator(config);
+        ProductGenerator products = new ProductGenerator(config, users);
+        OrderGenerator orders = new OrderGenerator(config, users, products);
+
+        long startNanos = System.nanoTime();
+        for (String target : config.getList("generate")) {
+            switch (target) {
+                case "users" -> generate(config, new Database(config, "user"), users.tables(), users.nextIds(),
+                        users::load);
+                case "products" -> generate(config, new Database(config, "product"), products.tables(),
+                        products.nextIds(), products::load);
+                case "orders" -> generate(config, new Database(config, "order"), orders.tables(),
+                        orders.nextIds(), orders::load);
+                default -> throw new IllegalArgumentException("Unknown generate target " + target
+                        + ", expected users, products or orders");
+            }
+        }
+        System.out.printf("Done in %.1fs%n", (System.nanoTime() - startNanos) / 1e9);
+    }
+
+    private static void generate(GeneratorConfig config, Database database, List<Table> tables,
+                                 Map<Table, Long> nextIds, Generator generator) throws Exception {
+        LoadMethod loadMethod = database.loadMethod(config.get("load-method"));
+        System.out.printf("%s database: %s with %d threads%n", database.getName(), loadMethod,
+                config.getInt("threads"));
+
+        if (config.getBoolean("truncate")) {
+            database.truncate(tables);
+        }
+        generator.load(new BulkLoader(database, loadMethod, config.getInt("threads"), config.getInt("chunk-size")));
+        for (Map.Entry<Table, Long> nextId : nextIds.entrySet()) {
+            database.restartIdentity(nextId.getKey(), nextId.getValue());
+        }
+        if (config.getBoolean("analyze")) {
+            database.analyze(tables);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Generator {
+        void load(BulkLoader loader) throws Exception;
+    }
+}
@@ -0,0 +1,103 @@
+package com.msproj.datagen;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One service's database (user, product or order): &lt;name&gt;.jdbc-url,
+ * .username and .password. Knows the few statements that differ between
+ * PostgreSQL and the other databases the generator supports (H2).
+ */
+public final class Database {
+
+    private final String name;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    public Database(GeneratorConfig config, String name) {
+        this.name = name;
+        this.url = config.get(name + ".jdbc-url");
+        this.username = config.get(name + ".username");
+        this.password = config.get(name + ".password");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isPostgres() {
+        return url.startsWith("jdbc:postgresql:");
+    }
+
+    public LoadMethod loadMethod(String configured) {
+        return switch (configured.toLowerCase(Locale.ROOT)) {
+            case "copy" -> {
+                if (!isPostgres()) {
+                    throw new IllegalArgumentException("load-method=copy needs PostgreSQL, " + name + " is " + url);
+                }
+                yield LoadMethod.COPY;
+            }
+            case "batch" -> LoadMethod.BATCH;
+            case "auto" -> isPostgres() ? LoadMethod.COPY : LoadMethod.BATCH;
+            default -> throw new IllegalArgumentException("Unknown load-method " + configured);
+        };
+    }
+
+    public Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, username, password);
+    }
+
+    /**
+     * Remove all rows. Tables are given parents first; PostgreSQL truncates
+     * them in one statement, elsewhere they are deleted children first.
+     */
+    public void truncate(List<Table> tables) throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            if (isPostgres()) {
+                statement.execute("TRUNCATE " + String.join(", ", tables.stream().map(Table::name).toList()));
+            } else {
+                for (int i = tables.size() - 1; i >= 0; i--) {
+                    statement.execute("DELETE FROM " + tables.get(i).name());
+                }
+            }
+        }
+    }
+
+    /**
+     * Point the table's identity column past the generated IDs, so rows the
+     * service inserts later do not collide with them.
+     */
+    public void restartIdentity(Table table, long nextId) throws SQLException {
+        try (Connection connection = connect()) {
+            if (isPostgres()) {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "SELECT setval(pg_get_serial_sequence(?, 'id'), ?, false)")) {
+                    statement.setString(1, table.name());
+                    statement.setLong(2, nextId);
+                    statement.execute();
+                }
+            } else {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ALTER TABLE " + table.name() + " ALTER COLUMN id RESTART WITH " + nextId);
+                }
+            }
+        }
+    }
+
+    public void analyze(List<Table> tables) throws SQLException {
+        if (!isPostgres()) {
+            return;
+        }
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            for (Table table : tables) {
+                statement.execute("ANALYZE " + table.name());
+            }
+        }
+    }
+}
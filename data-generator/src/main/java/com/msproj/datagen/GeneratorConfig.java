@@ -0,0 +1,91 @@
+package com.msproj.datagen;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Settings of a generator run: datagen.properties from the classpath,
+ * overlaid by an optional file (-config FILE) and then by key=value
+ * arguments, so a single setting can be changed without a file.
+ */
+public final class GeneratorConfig {
+
+    private static final String DEFAULTS = "/datagen.properties";
+
+    private final Properties properties;
+
+    private GeneratorConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    public static GeneratorConfig load(String[] args) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream defaults = GeneratorConfig.class.getResourceAsStream(DEFAULTS)) {
+            if (defaults == null) {
+                throw new IllegalStateException(DEFAULTS + " is missing from the classpath");
+            }
+            properties.load(defaults);
+        }
+
+        for (int i = 0; i < args.length; i++) {
+            if ("-config".equals(args[i])) {
+                try (Reader file = Files.newBufferedReader(Path.of(args[++i]))) {
+                    properties.load(file);
+                }
+            } else if (args[i].contains("=")) {
+                int separator = args[i].indexOf('=');
+                properties.setProperty(args[i].substring(0, separator), args[i].substring(separator + 1));
+            } else {
+                throw new IllegalArgumentException("Expected -config FILE or key=value, got " + args[i]);
+            }
+        }
+        return new GeneratorConfig(properties);
+    }
+
+    public String get(String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing setting " + key);
+        }
+        return value.trim();
+    }
+
+    public int getInt(String key) {
+        return Integer.parseInt(get(key));
+    }
+
+    public long getLong(String key) {
+        return Long.parseLong(get(key));
+    }
+
+    public double getDouble(String key) {
+        return Double.parseDouble(get(key));
+    }
+
+    public boolean getBoolean(String key) {
+        return Boolean.parseBoolean(get(key));
+    }
+
+    // "today" for the current date
+    public LocalDate getDate(String key) {
+        String value = get(key);
+        return "today".equalsIgnoreCase(value) ? LocalDate.now() : LocalDate.parse(value);
+    }
+
+    // Comma-separated, e.g. generate
+    public List<String> getList(String key) {
+        String value = get(key);
+        return value.isEmpty() ? List.of() : Arrays.asList(value.split("\\s*,\\s*"));
+    }
+
+    public int[] getInts(String key) {
+        return getList(key).stream().mapToInt(Integer::parseInt).toArray();
+    }
+}
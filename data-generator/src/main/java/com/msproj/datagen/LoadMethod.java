@@ -0,0 +1,100 @@
+package com.msproj.datagen;
+
+import org.postgresql.PGConnection;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * How a chunk's rows reach a table. Both run inside the chunk's transaction.
+ */
+public enum LoadMethod {
+
+    /**
+     * PostgreSQL COPY ... FROM STDIN in CSV, one stream per table and chunk.
+     * Several times faster than batched INSERTs: no statement per row, no
+     * per-row parameter binding on the server.
+     */
+    COPY {
+        @Override
+        void load(Connection connection, Table table, List<Object[]> rows) throws SQLException {
+            StringBuilder csv = new StringBuilder(rows.size() * 128);
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) {
+                        csv.append(',');
+                    }
+                    appendCsv(csv, row[i]);
+                }
+                csv.append('\n');
+            }
+            String sql = "COPY " + table.name() + " (" + table.columnList() + ") FROM STDIN WITH (FORMAT csv)";
+            try {
+                connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new SQLException("COPY into " + table.name() + " failed", e);
+            }
+        }
+    },
+
+    /**
+     * INSERT with addBatch/executeBatch, for any JDBC database. On PostgreSQL
+     * add reWriteBatchedInserts=true to the URL to send multi-row INSERTs.
+     */
+    BATCH {
+        @Override
+        void load(Connection connection, Table table, List<Object[]> rows) throws SQLException {
+            String sql = "INSERT INTO " + table.name() + " (" + table.columnList() + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(table.columns().size(), "?")) + ")";
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int pending = 0;
+                for (Object[] row : rows) {
+                    for (int i = 0; i < row.length; i++) {
+                        statement.setObject(i + 1, row[i]);
+                    }
+                    statement.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+        }
+    };
+
+    private static final int BATCH_SIZE = 1000;
+
+    abstract void load(Connection connection, Table table, List<Object[]> rows) throws SQLException;
+
+    // NULL is an empty unquoted field; every other text is quoted so commas, quotes and newlines survive
+    private static void appendCsv(StringBuilder csv, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Number number) {
+            csv.append(number instanceof BigDecimal decimal ? decimal.toPlainString() : number.toString());
+        } else if (value instanceof Boolean) {
+            csv.append(value);
+        } else {
+            String text = value.toString();
+            csv.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    csv.append('"');
+                }
+                csv.append(c);
+            }
+            csv.append('"');
+        }
+    }
+}
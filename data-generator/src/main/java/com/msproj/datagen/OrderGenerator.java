@@ -0,0 +1,185 @@
+package com.msproj.datagen;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * order-service rows: orders spread evenly over orders.history-days, with IDs
+ * ascending by order date as they are in production, and their items.
+ * <p>
+ * Customers and products are Zipf-distributed (orders.customer-skew,
+ * orders.product-skew), so a few customers have long order histories and a
+ * few products appear in a large share of order lines. Customer and product
+ * details are recomputed from the user and product generators, and amounts
+ * follow the default pricing (8.5% tax, GOLD/PLATINUM discount, free shipping
+ * from $100), so the copied fields match the other services' data.
+ */
+public final class OrderGenerator {
+
+    static final Table ORDERS = new Table("orders",
+            "id", "customer_id", "customer_name", "customer_email", "order_date", "status",
+            "total_amount", "tax_amount", "shipping_amount", "discount_amount", "final_amount",
+            "ship_to_name", "ship_street_address", "ship_city", "ship_state", "ship_postal_code", "ship_country",
+            "ship_phone",
+            "bill_to_name", "bill_street_address", "bill_city", "bill_state", "bill_postal_code", "bill_country",
+            "notes", "payment_method", "payment_transaction_id", "shipped_date", "delivered_date", "tracking_number",
+            "created_at", "updated_at", "version");
+    static final Table ORDER_ITEMS = new Table("order_items",
+            "id", "order_id", "product_id", "product_name", "product_sku", "product_category",
+            "unit_price", "quantity", "subtotal", "discount_amount", "created_at", "updated_at", "version");
+
+    private static final String[] PAYMENT_METHODS = {"CREDIT_CARD", "DEBIT_CARD", "PAYPAL", "BANK_TRANSFER",
+            "CASH_ON_DELIVERY"};
+    private static final Weighted PAYMENT_WEIGHTS = new Weighted(55, 20, 15, 5, 5);
+    private static final Weighted QUANTITY_WEIGHTS = new Weighted(70, 18, 7, 3, 2);
+    private static final String[] NOTES = {"Leave at the front door", "Gift wrap please", "Call before delivery",
+            "Deliver after 5pm"};
+
+    // Statuses by order age: settled, in transit, and still being worked on
+    private static final String[] SETTLED = {"DELIVERED", "CANCELLED"};
+    private static final Weighted SETTLED_WEIGHTS = new Weighted(92, 8);
+    private static final String[] IN_TRANSIT = {"SHIPPED", "DELIVERED", "CANCELLED"};
+    private static final Weighted IN_TRANSIT_WEIGHTS = new Weighted(45, 47, 8);
+    private static final String[] RECENT = {"PENDING", "CONFIRMED", "PROCESSING", "SHIPPED", "CANCELLED"};
+    private static final Weighted RECENT_WEIGHTS = new Weighted(20, 25, 30, 20, 5);
+
+    private static final long TAX_PER_MILLE = 85;
+    private static final long FREE_SHIPPING_CENTS = 10_000;
+    private static final long SHIPPING_CENTS = 999;
+
+    private final long seed;
+    private final UserGenerator users;
+    private final ProductGenerator products;
+    private final long orders;
+    private final int maxItems;
+    private final LocalDateTime newest;
+    private final LocalDateTime oldest;
+    private final long spacingSeconds;
+    private final ZipfSampler customerSampler;
+    private final ZipfSampler productSampler;
+
+    public OrderGenerator(GeneratorConfig config, UserGenerator users, ProductGenerator products) {
+        this.seed = config.getLong("seed");
+        this.users = users;
+        this.products = products;
+        this.orders = config.getLong("orders.count");
+        this.maxItems = config.getInt("orders.max-items");
+        this.newest = config.getDate("reference-date").atTime(23, 59, 59);
+        this.oldest = newest.minusDays(config.getInt("orders.history-days"));
+        this.spacingSeconds = Math.max(1, Duration.between(oldest, newest).getSeconds() / Math.max(1, orders));
+        this.customerSampler = new ZipfSampler(Math.toIntExact(users.customers()),
+                config.getDouble("orders.customer-skew"));
+        this.productSampler = new ZipfSampler(Math.toIntExact(products.products()),
+                config.getDouble("orders.product-skew"));
+    }
+
+    public List<Table> tables() {
+        return List.of(ORDERS, ORDER_ITEMS);
+    }
+
+    // Item ids are (order id - 1) * orders.max-items + line, leaving gaps
+    public Map<Table, Long> nextIds() {
+        return Map.of(ORDERS, orders + 1, ORDER_ITEMS, orders * maxItems + 1);
+    }
+
+    public void load(BulkLoader loader) throws SQLException, InterruptedException {
+        loader.load("orders", orders, tables(), (fromId, toId, chunk) -> {
+            for (long id = fromId; id < toId; id++) {
+                addOrder(chunk, id);
+            }
+        });
+    }
+
+    private void addOrder(BulkLoader.Chunk chunk, long id) {
+        SplittableRandom random = Seeds.of(seed, Seeds.ORDERS, id);
+        LocalDateTime orderDate = oldest.plusSeconds((id - 1) * spacingSeconds + random.nextLong(spacingSeconds));
+        UserGenerator.CustomerProfile customer = users.customer(customerSampler.sampleId(random));
+
+        // Mostly one or two lines, distinct products
+        int lines = Math.min(maxItems, 1 + (int) (Math.pow(random.nextDouble(), 2) * maxItems));
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (int attempt = 0; productIds.size() < lines && attempt < lines * 4; attempt++) {
+            productIds.add(productSampler.sampleId(random));
+        }
+
+        long totalCents = 0;
+        int line = 0;
+        for (long productId : productIds) {
+            ProductGenerator.ProductProfile product = products.product(productId);
+            int quantity = 1 + QUANTITY_WEIGHTS.pick(random);
+            long subtotalCents = product.priceCents() * quantity;
+            totalCents += subtotalCents;
+            chunk.rows(ORDER_ITEMS).add((id - 1) * maxItems + line + 1, id, productId, product.name(),
+                    product.sku(), product.categoryName(), product.price(), quantity, cents(subtotalCents),
+                    BigDecimal.ZERO.setScale(2), orderDate, orderDate, 0L);
+            line++;
+        }
+
+        long discountCents = switch (customer.tier()) {
+            case "PLATINUM" -> percentOf(totalCents, 15);
+            case "GOLD" -> percentOf(totalCents, 10);
+            default -> 0;
+        };
+        long taxCents = (totalCents * TAX_PER_MILLE + 500) / 1000;
+        long shippingCents = totalCents >= FREE_SHIPPING_CENTS ? 0 : SHIPPING_CENTS;
+        long finalCents = totalCents - discountCents + taxCents + shippingCents;
+
+        String status = status(orderDate, random);
+        LocalDateTime shipped = null;
+        LocalDateTime delivered = null;
+        if ("SHIPPED".equals(status) || "DELIVERED".equals(status)) {
+            shipped = latest(orderDate.plusHours(12 + random.nextInt(60)));
+        }
+        if ("DELIVERED".equals(status)) {
+            delivered = latest(shipped.plusHours(24 + random.nextInt(120)));
+        }
+        LocalDateTime updated = delivered != null ? delivered
+                : shipped != null ? shipped
+                : "PENDING".equals(status) ? orderDate
+                : latest(orderDate.plusHours(1 + random.nextInt(24)));
+
+        String paymentMethod = PAYMENT_METHODS[PAYMENT_WEIGHTS.pick(random)];
+        boolean paid = !"PENDING".equals(status) && !"CASH_ON_DELIVERY".equals(paymentMethod);
+        String notes = random.nextInt(100) < 5 ? NOTES[random.nextInt(NOTES.length)] : null;
+
+        chunk.rows(ORDERS).add(id, customer.id(), customer.fullName(), customer.email(), orderDate, status,
+                cents(totalCents), cents(taxCents), cents(shippingCents), cents(discountCents), cents(finalCents),
+                customer.fullName(), customer.streetAddress(), customer.city(), customer.state(),
+                customer.postalCode(), customer.country(), customer.phone(),
+                customer.fullName(), customer.streetAddress(), customer.city(), customer.state(),
+                customer.postalCode(), customer.country(),
+                notes, paymentMethod, paid ? String.format("TXN%012d", id) : null,
+                shipped, delivered, shipped != null ? String.format("TRK%012d", id) : null,
+                orderDate, updated, 0L);
+    }
+
+    private String status(LocalDateTime orderDate, SplittableRandom random) {
+        long ageDays = Duration.between(orderDate, newest).toDays();
+        if (ageDays > 14) {
+            return SETTLED[SETTLED_WEIGHTS.pick(random)];
+        }
+        if (ageDays >= 3) {
+            return IN_TRANSIT[IN_TRANSIT_WEIGHTS.pick(random)];
+        }
+        return RECENT[RECENT_WEIGHTS.pick(random)];
+    }
+
+    private LocalDateTime latest(LocalDateTime time) {
+        return time.isAfter(newest) ? newest : time;
+    }
+
+    private static long percentOf(long amountCents, long percent) {
+        return (amountCents * percent + 50) / 100;
+    }
+
+    private static BigDecimal cents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,298 @@
+package com.msproj.datagen;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * product-service rows: a full category tree of categories.fanout children
+ * per node and categories.depth levels, numbered breadth first, and products
+ * in its leaves with tags, attributes, images and reviews.
+ * <p>
+ * Prices are log-normal around $30, tag use is Zipf-skewed so popular-tag
+ * queries have real winners, and review counts lean towards a handful per
+ * product with a long tail. Reviewers are existing customers.
+ */
+public final class ProductGenerator {
+
+    static final Table CATEGORIES = new Table("categories",
+            "id", "name", "description", "image_url", "parent_id", "created_at", "updated_at", "version");
+    static final Table CATEGORY_TAGS = new Table("category_tags", "category_id", "tag");
+    static final Table PRODUCTS = new Table("products",
+            "id", "name", "description", "price", "stock_quantity", "sku", "status", "category_id",
+            "created_at", "updated_at", "version");
+    static final Table PRODUCT_TAGS = new Table("product_tags", "product_id", "tag");
+    static final Table PRODUCT_ATTRIBUTES = new Table("product_attributes",
+            "product_id", "attribute_name", "attribute_value");
+    static final Table PRODUCT_IMAGES = new Table("product_images", "product_id", "image_url", "image_order");
+    static final Table PRODUCT_REVIEWS = new Table("product_reviews",
+            "id", "product_id", "customer_id", "customer_name", "rating", "title", "comment", "verified_purchase",
+            "created_at", "updated_at", "version");
+
+    private static final String[] DEPARTMENTS = {"Electronics", "Clothing", "Books", "Home & Garden", "Sports",
+            "Toys", "Beauty", "Automotive", "Grocery", "Health", "Office", "Pets", "Music", "Tools", "Jewelry"};
+    private static final String[] LEVEL_WORDS = {"", "Collection", "Line", "Series", "Range", "Edition", "Set"};
+
+    private static final String[] ADJECTIVES = {"Classic", "Compact", "Deluxe", "Eco", "Pro", "Smart", "Ultra",
+            "Vintage", "Wireless", "Portable", "Premium", "Rugged", "Slim", "Heavy-Duty", "Essential", "Signature"};
+    private static final String[] NOUNS = {"Lamp", "Chair", "Phone", "Jacket", "Kettle", "Backpack", "Monitor",
+            "Novel", "Blender", "Sneakers", "Desk", "Headphones", "Camera", "Watch", "Tent", "Guitar", "Drill",
+            "Mattress", "Speaker", "Bicycle", "Sweater", "Cookbook", "Vacuum", "Router", "Stroller", "Mug"};
+    private static final String[] TAG_WORDS = {"sale", "new", "bestseller", "eco", "gift", "premium", "outdoor",
+            "kids", "office", "wireless", "organic", "handmade", "limited", "bundle", "travel", "vintage", "smart",
+            "waterproof", "compact", "refurbished", "clearance", "seasonal", "luxury", "budget", "durable",
+            "lightweight", "family", "professional", "classic", "trending", "imported", "local", "vegan",
+            "recycled", "portable", "ergonomic", "energy-saving", "unisex", "collectible", "exclusive"};
+
+    private static final String[] ATTRIBUTE_NAMES = {"color", "size", "material", "brand", "warranty", "weight",
+            "origin", "style"};
+    private static final String[][] ATTRIBUTE_VALUES = {
+            {"black", "white", "red", "blue", "green", "silver", "gold", "grey"},
+            {"XS", "S", "M", "L", "XL", "XXL"},
+            {"cotton", "steel", "plastic", "wood", "leather", "glass", "aluminium", "wool"},
+            {"Acme", "Globex", "Initech", "Umbrella", "Stark", "Wayne", "Hooli", "Soylent"},
+            {"1 year", "2 years", "3 years", "5 years"},
+            {"light", "medium", "heavy"},
+            {"USA", "Germany", "Japan", "China", "Italy", "Mexico"},
+            {"modern", "classic", "minimal", "industrial"}
+    };
+
+    private static final String[] STATUSES = {"ACTIVE", "INACTIVE", "OUT_OF_STOCK", "DISCONTINUED", "DRAFT"};
+    private static final Weighted STATUS_WEIGHTS = new Weighted(85, 4, 6, 3, 2);
+
+    private static final Weighted RATING_WEIGHTS = new Weighted(5, 7, 13, 30, 45);
+    private static final String[] REVIEW_TITLES = {"Terrible", "Disappointing", "It's okay", "Very good",
+            "Excellent"};
+    private static final String[] REVIEW_COMMENTS = {
+            "Stopped working after a week.", "Not as described.", "Does the job, nothing special.",
+            "Good value for the money.", "Exactly what I needed.", "Would buy again.",
+            "Shipping was fast and the quality is great.", "Exceeded my expectations."};
+
+    private final long seed;
+    private final UserGenerator users;
+    private final long products;
+    private final int fanout;
+    private final int depth;
+    private final long categories;
+    private final long firstLeaf;
+    private final int maxTags;
+    private final int maxAttributes;
+    private final int maxImages;
+    private final int reviewedPercent;
+    private final int maxReviews;
+    private final LocalDateTime newest;
+    private final ZipfSampler tagSampler = new ZipfSampler(TAG_WORDS.length, 1.0);
+
+    public ProductGenerator(GeneratorConfig config, UserGenerator users) {
+        this.seed = config.getLong("seed");
+        this.users = users;
+        this.products = config.getLong("products.count");
+        this.fanout = config.getInt("categories.fanout");
+        this.depth = config.getInt("categories.depth");
+        long total = 0;
+        long level = 1;
+        for (int l = 1; l <= depth; l++) {
+            level *= fanout;
+            total += level;
+        }
+        this.categories = total;
+        this.firstLeaf = total - level + 1;
+        this.maxTags = Math.min(config.getInt("products.max-tags"), TAG_WORDS.length);
+        this.maxAttributes = Math.min(config.getInt("products.max-attributes"), ATTRIBUTE_NAMES.length);
+        this.maxImages = config.getInt("products.max-images");
+        this.reviewedPercent = config.getInt("products.reviewed-percent");
+        this.maxReviews = config.getInt("products.max-reviews");
+        this.newest = config.getDate("reference-date").atTime(23, 59, 59);
+    }
+
+    public long products() {
+        return products;
+    }
+
+    public List<Table> tables() {
+        return List.of(CATEGORIES, CATEGORY_TAGS, PRODUCTS, PRODUCT_TAGS, PRODUCT_ATTRIBUTES, PRODUCT_IMAGES,
+                PRODUCT_REVIEWS);
+    }
+
+    // Review ids are (product id - 1) * products.max-reviews + n, leaving gaps
+    public Map<Table, Long> nextIds() {
+        return Map.of(CATEGORIES, categories + 1, PRODUCTS, products + 1,
+                PRODUCT_REVIEWS, products * maxReviews + 1);
+    }
+
+    public void load(BulkLoader loader) throws SQLException, InterruptedException {
+        // The whole tree in one chunk, so parents are always in before their children
+        loader.load("categories", 1, List.of(CATEGORIES, CATEGORY_TAGS), (fromId, toId, chunk) -> {
+            for (long id = 1; id <= categories; id++) {
+                addCategory(chunk, id);
+            }
+        });
+
+        loader.load("products", products,
+                List.of(PRODUCTS, PRODUCT_TAGS, PRODUCT_ATTRIBUTES, PRODUCT_IMAGES, PRODUCT_REVIEWS),
+                (fromId, toId, chunk) -> {
+                    for (long id = fromId; id < toId; id++) {
+                        addProduct(chunk, id);
+                    }
+                });
+    }
+
+    /**
+     * The product with this id as order lines see it; the same values as its products row.
+     */
+    public ProductProfile product(long id) {
+        return product(id, Seeds.of(seed, Seeds.PRODUCTS, id));
+    }
+
+    // The first draws of the product's stream; the rest of its rows continue from there
+    private ProductProfile product(long id, SplittableRandom random) {
+        String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)]
+                + " " + id;
+        long priceCents = Math.max(99, Math.min(999_999, Math.round(Math.exp(8.0 + random.nextGaussian()))));
+        long categoryId = firstLeaf + random.nextLong(categories - firstLeaf + 1);
+        return new ProductProfile(id, name, "SKU-" + id, priceCents, categoryId, categoryName(categoryId));
+    }
+
+    private void addProduct(BulkLoader.Chunk chunk, long id) {
+        SplittableRandom random = Seeds.of(seed, Seeds.PRODUCTS, id);
+        ProductProfile profile = product(id, random);
+
+        String status = STATUSES[STATUS_WEIGHTS.pick(random)];
+        int stock = "OUT_OF_STOCK".equals(status) ? 0 : random.nextInt(1000);
+        LocalDateTime created = newest.minusDays(random.nextInt(1095)).minusSeconds(random.nextInt(86_400));
+        chunk.rows(PRODUCTS).add(id, profile.name(),
+                "Generated " + profile.name().toLowerCase() + " in " + profile.categoryName(),
+                profile.price(), stock, profile.sku(), status, profile.categoryId(), created,
+                latest(created.plusDays(random.nextInt(180))), 0L);
+
+        Set<String> tags = new LinkedHashSet<>();
+        for (int t = 1 + random.nextInt(maxTags); t > 0; t--) {
+            tags.add(TAG_WORDS[tagSampler.sample(random) - 1]);
+        }
+        tags.forEach(tag -> chunk.rows(PRODUCT_TAGS).add(id, tag));
+
+        int[] attributes = shuffledIndexes(ATTRIBUTE_NAMES.length, random);
+        for (int a = 0; a < random.nextInt(maxAttributes + 1); a++) {
+            String[] values = ATTRIBUTE_VALUES[attributes[a]];
+            chunk.rows(PRODUCT_ATTRIBUTES).add(id, ATTRIBUTE_NAMES[attributes[a]], values[random.nextInt(values.length)]);
+        }
+
+        for (int m = 0, images = 1 + random.nextInt(maxImages); m < images; m++) {
+            chunk.rows(PRODUCT_IMAGES).add(id, "https://cdn.example.com/products/" + id + "/" + (m + 1) + ".jpg", m);
+        }
+
+        if (random.nextInt(100) < reviewedPercent) {
+            // Mostly a few reviews, occasionally up to products.max-reviews
+            int reviews = 1 + (int) (Math.pow(random.nextDouble(), 3) * maxReviews);
+            for (int r = 0; r < Math.min(reviews, maxReviews); r++) {
+                addReview(chunk, id, (id - 1) * maxReviews + r + 1, created, random);
+            }
+        }
+    }
+
+    private void addReview(BulkLoader.Chunk chunk, long productId, long reviewId, LocalDateTime productCreated,
+                           SplittableRandom random) {
+        UserGenerator.CustomerProfile customer = users.customer(1 + random.nextLong(users.customers()));
+        int rating = 1 + RATING_WEIGHTS.pick(random);
+        String comment = REVIEW_COMMENTS[Math.min(REVIEW_COMMENTS.length - 1,
+                (rating - 1) * 2 + random.nextInt(2))];
+        LocalDateTime created = latest(productCreated.plusDays(1 + random.nextInt(365)));
+        chunk.rows(PRODUCT_REVIEWS).add(reviewId, productId, customer.id(), customer.fullName(), rating,
+                REVIEW_TITLES[rating - 1], comment, random.nextInt(10) < 7, created, created, 0L);
+    }
+
+    private void addCategory(BulkLoader.Chunk chunk, long id) {
+        SplittableRandom random = Seeds.of(seed, Seeds.CATEGORIES, id);
+        long parentId = parentOf(id);
+        LocalDateTime created = newest.minusDays(1095 + random.nextInt(365));
+        String name = categoryName(id);
+        chunk.rows(CATEGORIES).add(id, name, "Generated category " + name,
+                "https://cdn.example.com/categories/" + id + ".jpg", parentId == 0 ? null : parentId,
+                created, created, 0L);
+
+        Set<String> tags = new LinkedHashSet<>();
+        for (int t = 1 + random.nextInt(3); t > 0; t--) {
+            tags.add(TAG_WORDS[random.nextInt(TAG_WORDS.length)]);
+        }
+        tags.forEach(tag -> chunk.rows(CATEGORY_TAGS).add(id, tag));
+    }
+
+    /**
+     * Roots are departments, deeper levels "Electronics Line 3 Series 2" and so on.
+     */
+    String categoryName(long id) {
+        long parentId = parentOf(id);
+        if (parentId == 0) {
+            int index = (int) (id - 1);
+            return index < DEPARTMENTS.length ? DEPARTMENTS[index] : "Department " + (index + 1);
+        }
+        int level = levelOf(id);
+        String word = LEVEL_WORDS[Math.min(level - 1, LEVEL_WORDS.length - 1)];
+        return categoryName(parentId) + " " + word + " " + ((id - levelStart(level)) % fanout + 1);
+    }
+
+    // 0 for roots; breadth-first numbering makes node i of a level the child of node i / fanout above it
+    private long parentOf(long id) {
+        int level = levelOf(id);
+        if (level == 1) {
+            return 0;
+        }
+        return levelStart(level - 1) + (id - levelStart(level)) / fanout;
+    }
+
+    private int levelOf(long id) {
+        int level = 1;
+        long start = 1;
+        long size = fanout;
+        while (id >= start + size) {
+            start += size;
+            size *= fanout;
+            level++;
+        }
+        return level;
+    }
+
+    private long levelStart(int level) {
+        long start = 1;
+        long size = fanout;
+        for (int l = 1; l < level; l++) {
+            start += size;
+            size *= fanout;
+        }
+        return start;
+    }
+
+    private LocalDateTime latest(LocalDateTime time) {
+        return time.isAfter(newest) ? newest : time;
+    }
+
+    private static int[] shuffledIndexes(int n, SplittableRandom random) {
+        int[] indexes = new int[n];
+        for (int i = 0; i < n; i++) {
+            indexes[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = swap;
+        }
+        return indexes;
+    }
+
+    /**
+     * What order lines copy from a product. The category is always a leaf.
+     */
+    public record ProductProfile(long id, String name, String sku, long priceCents, long categoryId,
+                                 String categoryName) {
+
+        public BigDecimal price() {
+            return BigDecimal.valueOf(priceCents, 2);
+        }
+    }
+}
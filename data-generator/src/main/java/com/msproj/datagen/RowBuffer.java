@@ -0,0 +1,33 @@
+package com.msproj.datagen;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The rows of one table generated for a chunk, loaded when the chunk completes.
+ */
+public final class RowBuffer {
+
+    private final Table table;
+    private final List<Object[]> rows = new ArrayList<>();
+
+    public RowBuffer(Table table) {
+        this.table = table;
+    }
+
+    public void add(Object... values) {
+        if (values.length != table.columns().size()) {
+            throw new IllegalArgumentException(table.name() + " has " + table.columns().size()
+                    + " columns, got " + values.length + " values");
+        }
+        rows.add(values);
+    }
+
+    public Table table() {
+        return table;
+    }
+
+    public List<Object[]> rows() {
+        return rows;
+    }
+}
@@ -0,0 +1,31 @@
+package com.msproj.datagen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random streams derived from the run seed. Every entity draws from its own
+ * stream, keyed by kind and ID, so a row does not depend on chunking or
+ * thread scheduling, and an order line can recompute the product it refers
+ * to without reading it back.
+ */
+public final class Seeds {
+
+    public static final long USERS = 1;
+    public static final long CATEGORIES = 2;
+    public static final long PRODUCTS = 3;
+    public static final long ORDERS = 4;
+
+    private Seeds() {
+    }
+
+    public static SplittableRandom of(long seed, long kind, long id) {
+        return new SplittableRandom(mix(mix(seed + kind * 0x9E3779B97F4A7C15L) + id));
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,17 @@
+package com.msproj.datagen;
+
+import java.util.List;
+
+/**
+ * A target table and the columns generated for it, in row order.
+ */
+public record Table(String name, List<String> columns) {
+
+    public Table(String name, String... columns) {
+        this(name, List.of(columns));
+    }
+
+    String columnList() {
+        return String.join(", ", columns);
+    }
+}
@@ -0,0 +1,204 @@
+package com.msproj.datagen;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * user-service rows: the four roles of data.sql, customers with ids
+ * 1..customers() and admins after them in the single-table users table, and
+ * one user_roles row each.
+ * <p>
+ * Customer tiers follow users.tier-weights, with loyalty points inside the
+ * tier's range (Customer.updateCustomerTier), so tier recalculation on the
+ * next points update keeps them in place.
+ */
+public final class UserGenerator {
+
+    static final Table ROLES = new Table("roles",
+            "id", "name", "description", "created_at", "updated_at", "version");
+    static final Table USERS = new Table("users",
+            "id", "user_type", "username", "email", "password", "first_name", "last_name", "status",
+            "created_at", "updated_at", "version",
+            "phone_number", "date_of_birth", "loyalty_points", "customer_tier",
+            "street_address", "city", "state", "postal_code", "country",
+            "employee_id", "department", "admin_level");
+    static final Table USER_ROLES = new Table("user_roles",
+            "id", "user_id", "role_id", "is_active", "created_at", "updated_at", "version");
+
+    private static final long ADMIN_ROLE_ID = 1;
+    private static final long CUSTOMER_ROLE_ID = 2;
+
+    private static final String[] TIERS = {"BRONZE", "SILVER", "GOLD", "PLATINUM"};
+    private static final int[][] TIER_POINTS = {{0, 999}, {1000, 4999}, {5000, 9999}, {10000, 50000}};
+
+    private static final String[] STATUSES = {"ACTIVE", "PENDING_VERIFICATION", "INACTIVE", "SUSPENDED"};
+    private static final Weighted STATUS_WEIGHTS = new Weighted(94, 3, 2, 1);
+
+    private static final String[] ADMIN_LEVELS = {"JUNIOR", "SENIOR", "SUPER_ADMIN"};
+    private static final Weighted ADMIN_LEVEL_WEIGHTS = new Weighted(70, 25, 5);
+    private static final String[] DEPARTMENTS = {"IT", "Support", "Operations", "Finance", "Marketing", "Logistics"};
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer",
+            "Michael", "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica",
+            "Thomas", "Sarah", "Charles", "Karen", "Daniel", "Nancy", "Matthew", "Lisa", "Anthony", "Betty",
+            "Mark", "Margaret", "Steven", "Sandra", "Paul", "Ashley", "Andrew", "Emily", "Joshua", "Donna",
+            "Wei", "Priya", "Carlos", "Fatima", "Hiroshi", "Amara", "Lukas", "Sofia", "Omar", "Ingrid"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson",
+            "Thomas", "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris",
+            "Clark", "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright", "Scott", "Nguyen",
+            "Chen", "Patel", "Kim", "Okafor", "Schmidt", "Rossi", "Tanaka", "Silva", "Novak", "Haddad"};
+    private static final String[] STREETS = {"Main St", "Oak Ave", "Maple Dr", "Cedar Ln", "Pine St", "Elm St",
+            "Washington Blvd", "Lake Rd", "Hill St", "Park Ave", "River Rd", "Sunset Blvd", "Highland Ave"};
+    // city, state, postal code prefix; weighted towards the large cities
+    private static final String[][] CITIES = {
+            {"New York", "NY", "100"}, {"Los Angeles", "CA", "900"}, {"Chicago", "IL", "606"},
+            {"Houston", "TX", "770"}, {"Phoenix", "AZ", "850"}, {"Philadelphia", "PA", "191"},
+            {"San Antonio", "TX", "782"}, {"San Diego", "CA", "921"}, {"Dallas", "TX", "752"},
+            {"San Jose", "CA", "951"}, {"Austin", "TX", "787"}, {"Seattle", "WA", "981"},
+            {"Denver", "CO", "802"}, {"Boston", "MA", "021"}, {"Miami", "FL", "331"},
+            {"Atlanta", "GA", "303"}, {"Portland", "OR", "972"}, {"Minneapolis", "MN", "554"}};
+    private static final Weighted CITY_WEIGHTS = new Weighted(
+            20, 14, 10, 8, 6, 6, 5, 5, 5, 4, 4, 4, 3, 3, 3, 3, 2, 2);
+
+    private final long seed;
+    private final long customers;
+    private final long admins;
+    private final Weighted tierWeights;
+    private final LocalDateTime newest;
+    private final int historyDays;
+
+    public UserGenerator(GeneratorConfig config) {
+        this.seed = config.getLong("seed");
+        this.admins = config.getLong("users.admins");
+        this.customers = config.getLong("users.count") - admins;
+        if (customers < 1) {
+            throw new IllegalArgumentException("users.count must be larger than users.admins");
+        }
+        this.tierWeights = new Weighted(config.getInts("users.tier-weights"));
+        if (tierWeights.size() != TIERS.length) {
+            throw new IllegalArgumentException("users.tier-weights needs " + TIERS.length + " weights");
+        }
+        this.newest = config.getDate("reference-date").atTime(23, 59, 59);
+        this.historyDays = config.getInt("users.history-days");
+    }
+
+    public long customers() {
+        return customers;
+    }
+
+    public List<Table> tables() {
+        return List.of(ROLES, USERS, USER_ROLES);
+    }
+
+    // Next identity value per table; user_roles rows share their user's id
+    public Map<Table, Long> nextIds() {
+        long next = customers + admins + 1;
+        return Map.of(ROLES, 5L, USERS, next, USER_ROLES, next);
+    }
+
+    public void load(BulkLoader loader) throws SQLException, InterruptedException {
+        loader.load("roles", 1, List.of(ROLES), (fromId, toId, chunk) -> {
+            LocalDateTime created = newest.minusDays(historyDays);
+            RowBuffer roles = chunk.rows(ROLES);
+            roles.add(1L, "ADMIN", "Administrator with full access", created, created, 0L);
+            roles.add(2L, "CUSTOMER", "Regular customer", created, created, 0L);
+            roles.add(3L, "MODERATOR", "Content moderator", created, created, 0L);
+            roles.add(4L, "SUPPORT", "Support agent", created, created, 0L);
+        });
+
+        loader.load("users", customers + admins, List.of(USERS, USER_ROLES), (fromId, toId, chunk) -> {
+            RowBuffer users = chunk.rows(USERS);
+            RowBuffer userRoles = chunk.rows(USER_ROLES);
+            for (long id = fromId; id < toId; id++) {
+                LocalDateTime created;
+                if (id <= customers) {
+                    created = addCustomer(users, id);
+                    userRoles.add(id, id, CUSTOMER_ROLE_ID, true, created, created, 0L);
+                } else {
+                    created = addAdmin(users, id);
+                    userRoles.add(id, id, ADMIN_ROLE_ID, true, created, created, 0L);
+                }
+            }
+        });
+    }
+
+    /**
+     * The customer with this id as the order and product generators see it;
+     * the same values as its users row.
+     */
+    public CustomerProfile customer(long id) {
+        return customer(id, Seeds.of(seed, Seeds.USERS, id));
+    }
+
+    // The first draws of the customer's stream; the rest of its row continues from there
+    private CustomerProfile customer(long id, SplittableRandom random) {
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String tier = TIERS[tierWeights.pick(random)];
+        String[] city = CITIES[CITY_WEIGHTS.pick(random)];
+        String street = (1 + random.nextInt(9999)) + " " + STREETS[random.nextInt(STREETS.length)];
+        String postalCode = city[2] + String.format("%02d", random.nextInt(100));
+        String phone = String.format("+1%03d%07d", 200 + random.nextInt(800), random.nextInt(10_000_000));
+        return new CustomerProfile(id, firstName, lastName, "customer" + id + "@example.com", tier,
+                street, city[0], city[1], postalCode, "USA", phone);
+    }
+
+    private LocalDateTime addCustomer(RowBuffer users, long id) {
+        SplittableRandom random = Seeds.of(seed, Seeds.USERS, id);
+        CustomerProfile profile = customer(id, random);
+
+        int tier = Arrays.asList(TIERS).indexOf(profile.tier());
+        int points = TIER_POINTS[tier][0] + random.nextInt(TIER_POINTS[tier][1] - TIER_POINTS[tier][0] + 1);
+        String status = STATUSES[STATUS_WEIGHTS.pick(random)];
+        LocalDate dateOfBirth = newest.toLocalDate().minusYears(18 + random.nextInt(62)).minusDays(random.nextInt(365));
+        LocalDateTime created = createdAt(random);
+
+        users.add(id, "CUSTOMER", "customer" + id, profile.email(), "password123",
+                profile.firstName(), profile.lastName(), status, created, updatedAt(created, random), 0L,
+                profile.phone(), dateOfBirth, points, profile.tier(),
+                profile.streetAddress(), profile.city(), profile.state(), profile.postalCode(), profile.country(),
+                null, null, null);
+        return created;
+    }
+
+    private LocalDateTime addAdmin(RowBuffer users, long id) {
+        SplittableRandom random = Seeds.of(seed, Seeds.USERS, id);
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        LocalDateTime created = createdAt(random);
+
+        users.add(id, "ADMIN", "admin" + id, "admin" + id + "@ecommerce.com", "admin123",
+                firstName, lastName, "ACTIVE", created, updatedAt(created, random), 0L,
+                null, null, null, null, null, null, null, null, null,
+                String.format("EMP%07d", id), DEPARTMENTS[random.nextInt(DEPARTMENTS.length)],
+                ADMIN_LEVELS[ADMIN_LEVEL_WEIGHTS.pick(random)]);
+        return created;
+    }
+
+    private LocalDateTime createdAt(SplittableRandom random) {
+        return newest.minusDays(random.nextInt(historyDays)).minusSeconds(random.nextInt(86_400));
+    }
+
+    private LocalDateTime updatedAt(LocalDateTime created, SplittableRandom random) {
+        LocalDateTime updated = created.plusDays(random.nextInt(90));
+        return updated.isAfter(newest) ? newest : updated;
+    }
+
+    /**
+     * What orders and reviews copy from a customer.
+     */
+    public record CustomerProfile(long id, String firstName, String lastName, String email, String tier,
+                                  String streetAddress, String city, String state, String postalCode,
+                                  String country, String phone) {
+
+        public String fullName() {
+            return firstName + " " + lastName;
+        }
+    }
+}
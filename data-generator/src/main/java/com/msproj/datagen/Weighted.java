@@ -0,0 +1,39 @@
+package com.msproj.datagen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Index i drawn with probability weights[i] / sum(weights).
+ */
+public final class Weighted {
+
+    private final int[] cumulative;
+
+    public Weighted(int... weights) {
+        cumulative = new int[weights.length];
+        int sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("Negative weight " + weights[i]);
+            }
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("Weights must add up to more than 0");
+        }
+    }
+
+    public int pick(SplittableRandom random) {
+        int draw = random.nextInt(cumulative[cumulative.length - 1]);
+        for (int i = 0; ; i++) {
+            if (draw < cumulative[i]) {
+                return i;
+            }
+        }
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+}
@@ -0,0 +1,111 @@
+package com.msproj.datagen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zipf-distributed ranks 1..n: rank k is drawn with probability proportional
+ * to 1/k^exponent. Uses rejection-inversion sampling (Hörmann and Derflinger,
+ * "Rejection-inversion to generate variates from monotone discrete
+ * distributions", 1996), which needs no tables and a couple of draws per
+ * sample, so n can be in the millions.
+ * <p>
+ * Ranks are mapped to IDs through a fixed permutation (see {@link #sampleId}),
+ * so the most popular products or customers are spread over the ID range
+ * instead of being the oldest rows.
+ */
+public final class ZipfSampler {
+
+    private final int numberOfElements;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralNumberOfElements;
+    private final double s;
+    private final long multiplier;
+
+    public ZipfSampler(int numberOfElements, double exponent) {
+        if (numberOfElements < 1) {
+            throw new IllegalArgumentException("numberOfElements must be at least 1");
+        }
+        if (exponent <= 0) {
+            throw new IllegalArgumentException("exponent must be positive");
+        }
+        this.numberOfElements = numberOfElements;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1d;
+        this.hIntegralNumberOfElements = hIntegral(numberOfElements + 0.5);
+        this.s = 2d - hIntegralInverse(hIntegral(2.5) - h(2));
+        this.multiplier = coprimeMultiplier(numberOfElements);
+    }
+
+    /**
+     * A rank, 1 being the most frequent.
+     */
+    public int sample(SplittableRandom random) {
+        while (true) {
+            double u = hIntegralNumberOfElements + random.nextDouble() * (hIntegralX1 - hIntegralNumberOfElements);
+            double x = hIntegralInverse(u);
+            int k = (int) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > numberOfElements) {
+                k = numberOfElements;
+            }
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    /**
+     * An ID in 1..n: the sampled rank through the permutation
+     * rank -> (rank - 1) * multiplier mod n + 1.
+     */
+    public long sampleId(SplittableRandom random) {
+        return (sample(random) - 1L) * multiplier % numberOfElements + 1;
+    }
+
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return helper2((1d - exponent) * logX) * logX;
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = x * (1d - exponent);
+        if (t < -1d) {
+            t = -1d;
+        }
+        return Math.exp(helper1(t) * x);
+    }
+
+    // log(1 + x) / x, accurate near 0
+    private static double helper1(double x) {
+        return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1d / 3 - 0.25 * x));
+    }
+
+    // (exp(x) - 1) / x, accurate near 0
+    private static double helper2(double x) {
+        return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+    }
+
+    // A multiplier near n * golden ratio with no factor in common with n, so the mapping is a bijection
+    private static long coprimeMultiplier(long n) {
+        long candidate = Math.max(1, (long) (n * 0.6180339887)) | 1;
+        while (gcd(candidate, n) != 1) {
+            candidate += 2;
+        }
+        return candidate;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,143 @@
+package com.msproj.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Summary of a measured run: per operation and overall, the requests issued,
+ * throughput of successful requests, p50/p99/p99.9/max latency and the error
+ * rate with a breakdown by kind.
+ * <p>
+ * Written to report.dir as load-test-report.txt (the table printed at the end
+ * of the run), load-test-report.json (the same numbers, for comparing runs)
+ * and &lt;operation&gt;.hgrm, HdrHistogram percentile distributions in
+ * milliseconds that plot directly in the HdrHistogram plotter.
+ */
+public final class LoadReport {
+
+    private final Map<Operation, OperationStats> stats;
+    private final double measuredSeconds;
+    private final double targetRate;
+
+    public LoadReport(Map<Operation, OperationStats> stats, double measuredSeconds, double targetRate) {
+        this.stats = stats;
+        this.measuredSeconds = measuredSeconds;
+        this.targetRate = targetRate;
+    }
+
+    public void write(Path dir, PrintStream out) throws IOException {
+        Files.createDirectories(dir);
+
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        try (PrintStream table = new PrintStream(text, true, StandardCharsets.UTF_8)) {
+            printTable(table);
+        }
+        out.print(text.toString(StandardCharsets.UTF_8));
+        Files.write(dir.resolve("load-test-report.txt"), text.toByteArray());
+
+        new ObjectMapper().writerWithDefaultPrettyPrinter()
+                .writeValue(dir.resolve("load-test-report.json").toFile(), toJson());
+
+        for (OperationStats operationStats : stats.values()) {
+            try (PrintStream hgrm = new PrintStream(dir.resolve(operationStats.getOperation().key() + ".hgrm").toFile(),
+                    StandardCharsets.UTF_8)) {
+                operationStats.getTotal().outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+        out.printf("Report written to %s%n", dir.toAbsolutePath());
+    }
+
+    /**
+     * Errors as a percentage of the requests sent, over all operations.
+     */
+    public double errorPercent() {
+        long requests = 0;
+        long errors = 0;
+        for (OperationStats operationStats : stats.values()) {
+            requests += operationStats.getTotal().getTotalCount() + operationStats.getTotalErrors();
+            errors += operationStats.getTotalErrors();
+        }
+        return requests == 0 ? 0 : errors * 100.0 / requests;
+    }
+
+    private void printTable(PrintStream out) {
+        out.printf("%nMeasured %.0fs at a target of %.1f requests/s%n%n", measuredSeconds, targetRate);
+        out.printf("%-10s %9s %9s %8s %8s %9s %10s %10s %10s %10s%n", "operation", "requests", "ok/s",
+                "errors", "error%", "skipped", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        Histogram overall = null;
+        long overallErrors = 0;
+        long overallSkipped = 0;
+        for (OperationStats operationStats : stats.values()) {
+            Histogram latency = operationStats.getTotal();
+            printRow(out, operationStats.getOperation().key(), latency, operationStats.getTotalErrors(),
+                    operationStats.getTotalSkipped());
+            if (overall == null) {
+                overall = latency.copy();
+            } else {
+                overall.add(latency);
+            }
+            overallErrors += operationStats.getTotalErrors();
+            overallSkipped += operationStats.getTotalSkipped();
+        }
+        if (overall != null) {
+            printRow(out, "all", overall, overallErrors, overallSkipped);
+        }
+
+        for (OperationStats operationStats : stats.values()) {
+            Map<String, Long> kinds = operationStats.getErrorKinds();
+            if (!kinds.isEmpty()) {
+                out.printf("%n%s errors: %s%n", operationStats.getOperation().key(), kinds);
+            }
+        }
+        out.println();
+    }
+
+    private void printRow(PrintStream out, String name, Histogram latency, long errors, long skipped) {
+        long requests = latency.getTotalCount() + errors;
+        out.printf("%-10s %9d %9.1f %8d %7.2f%% %9d %10.1f %10.1f %10.1f %10.1f%n", name, requests,
+                latency.getTotalCount() / measuredSeconds, errors, requests == 0 ? 0 : errors * 100.0 / requests,
+                skipped, millis(latency, 50), millis(latency, 99), millis(latency, 99.9),
+                OperationStats.microsToMillis(latency.getMaxValue()));
+    }
+
+    private ObjectNode toJson() {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode root = mapper.createObjectNode();
+        root.put("measuredSeconds", measuredSeconds);
+        root.put("targetRate", targetRate);
+        root.put("errorPercent", errorPercent());
+
+        ArrayNode operations = root.putArray("operations");
+        for (OperationStats operationStats : stats.values()) {
+            Histogram latency = operationStats.getTotal();
+            ObjectNode node = operations.addObject();
+            node.put("operation", operationStats.getOperation().key());
+            node.put("requests", latency.getTotalCount() + operationStats.getTotalErrors());
+            node.put("successes", latency.getTotalCount());
+            node.put("throughputPerSecond", latency.getTotalCount() / measuredSeconds);
+            node.put("errors", operationStats.getTotalErrors());
+            node.put("skipped", operationStats.getTotalSkipped());
+            node.put("p50Millis", millis(latency, 50));
+            node.put("p99Millis", millis(latency, 99));
+            node.put("p999Millis", millis(latency, 99.9));
+            node.put("maxMillis", OperationStats.microsToMillis(latency.getMaxValue()));
+            node.set("errorKinds", mapper.valueToTree(operationStats.getErrorKinds()));
+        }
+        return root;
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return OperationStats.microsToMillis(latency.getValueAtPercentile(percentile));
+    }
+}
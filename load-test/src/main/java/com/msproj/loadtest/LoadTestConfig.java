@@ -0,0 +1,89 @@
+package com.msproj.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Settings of a load test run: loadtest.properties from the classpath,
+ * overlaid by an optional file (-config FILE) and then by key=value
+ * arguments, so a single setting can be changed without a file.
+ */
+public final class LoadTestConfig {
+
+    private static final String DEFAULTS = "/loadtest.properties";
+
+    private final Properties properties;
+
+    private LoadTestConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    public static LoadTestConfig load(String[] args) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream defaults = LoadTestConfig.class.getResourceAsStream(DEFAULTS)) {
+            if (defaults == null) {
+                throw new IllegalStateException(DEFAULTS + " is missing from the classpath");
+            }
+            properties.load(defaults);
+        }
+
+        for (int i = 0; i < args.length; i++) {
+            if ("-config".equals(args[i])) {
+                try (Reader file = Files.newBufferedReader(Path.of(args[++i]))) {
+                    properties.load(file);
+                }
+            } else if (args[i].contains("=")) {
+                int separator = args[i].indexOf('=');
+                properties.setProperty(args[i].substring(0, separator), args[i].substring(separator + 1));
+            } else {
+                throw new IllegalArgumentException("Expected -config FILE or key=value, got " + args[i]);
+            }
+        }
+        return new LoadTestConfig(properties);
+    }
+
+    public String get(String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing setting " + key);
+        }
+        return value.trim();
+    }
+
+    public int getInt(String key) {
+        return Integer.parseInt(get(key));
+    }
+
+    public long getLong(String key) {
+        return Long.parseLong(get(key));
+    }
+
+    public double getDouble(String key) {
+        return Double.parseDouble(get(key));
+    }
+
+    public boolean getBoolean(String key) {
+        return Boolean.parseBoolean(get(key));
+    }
+
+    public Path getPath(String key) {
+        return Path.of(get(key));
+    }
+
+    public Duration getSeconds(String key) {
+        return Duration.ofSeconds(getLong(key));
+    }
+
+    // Whitespace-separated, e.g. services.jvm-args
+    public List<String> getList(String key) {
+        String value = get(key);
+        return value.isEmpty() ? List.of() : Arrays.asList(value.split("\\s+"));
+    }
+}
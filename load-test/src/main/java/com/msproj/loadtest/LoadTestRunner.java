@@ -0,0 +1,62 @@
+package com.msproj.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Entry point of load-test.jar: boots the three services on embedded H2
+ * databases, seeds customers and products, drives the open workload and
+ * writes the report. Everything runs on one machine without network access.
+ * <pre>
+ * mvn -B -DskipTests package
+ * java -jar load-test/target/load-test.jar                                  # defaults from loadtest.properties
+ * java -jar load-test/target/load-test.jar workload.rate=100 workload.mix.browse=70
+ * java -jar load-test/target/load-test.jar -config my-run.properties services.start=false
+ * </pre>
+ * Run from the repository root (jar, log and report paths are relative to
+ * it). The exit status is 1 when the error rate exceeds report.max-error-percent.
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.load(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        LoadReport report;
+        try (ServiceLauncher launcher = new ServiceLauncher(config, client)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(launcher::close, "load-test-shutdown"));
+
+            ServiceEndpoints endpoints = config.getBoolean("services.start")
+                    ? launcher.startAll()
+                    : ServiceEndpoints.fromConfig(config);
+
+            SeedData seedData = new Seeder(client, objectMapper,
+                    Duration.ofMillis(config.getLong("workload.request-timeout-ms")))
+                    .seed(config, endpoints);
+
+            Map<Operation, OperationStats> stats = new OpenWorkload(config, client, objectMapper, endpoints, seedData)
+                    .run();
+
+            report = new LoadReport(stats, config.getLong("workload.duration-seconds"),
+                    config.getDouble("workload.rate"));
+            report.write(config.getPath("report.dir"), System.out);
+        }
+
+        double maxErrorPercent = config.getDouble("report.max-error-percent");
+        if (maxErrorPercent >= 0 && report.errorPercent() > maxErrorPercent) {
+            System.out.printf("Error rate %.2f%% is above report.max-error-percent=%.2f%n",
+                    report.errorPercent(), maxErrorPercent);
+            System.exit(1);
+        }
+    }
+}
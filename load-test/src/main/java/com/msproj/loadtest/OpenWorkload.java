@@ -0,0 +1,321 @@
+package com.msproj.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Open-model workload: requests arrive on a schedule at workload.rate per
+ * second, independent of how fast earlier ones complete, as production
+ * traffic does. A slow service therefore builds up outstanding requests
+ * instead of slowing the load down.
+ * <p>
+ * Every request carries its intended arrival time and its latency is measured
+ * from there, so when the single scheduling thread falls behind the delay is
+ * charged to the requests that waited (no coordinated omission).
+ * <p>
+ * Orders created during the run feed process (newest first) and cancel
+ * (oldest first); each order is used by at most one of them.
+ */
+public final class OpenWorkload {
+
+    // Orders waiting for process or cancel; the oldest are forgotten beyond this
+    private static final int MAX_OPEN_ORDERS = 10_000;
+
+    private final LoadTestConfig config;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final ServiceEndpoints endpoints;
+    private final SeedData seedData;
+    private final Duration requestTimeout;
+    private final int maxInFlight;
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final ConcurrentLinkedDeque<Long> openOrders = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger openOrderCount = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean measuring;
+
+    public OpenWorkload(LoadTestConfig config, HttpClient client, ObjectMapper objectMapper,
+                        ServiceEndpoints endpoints, SeedData seedData) {
+        this.config = config;
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.endpoints = endpoints;
+        this.seedData = seedData;
+        this.requestTimeout = Duration.ofMillis(config.getLong("workload.request-timeout-ms"));
+        this.maxInFlight = config.getInt("workload.max-in-flight");
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats(operation));
+        }
+    }
+
+    /**
+     * Run warm-up then measurement, printing one progress line per report
+     * interval, and wait for outstanding requests before returning.
+     *
+     * @return the stats of each operation, totals covering the measurement only
+     */
+    public Map<Operation, OperationStats> run() throws InterruptedException {
+        double rate = config.getDouble("workload.rate");
+        boolean poisson = "poisson".equalsIgnoreCase(config.get("workload.arrivals"));
+        Mix mix = new Mix(config);
+        SplittableRandom random = new SplittableRandom(config.getLong("seed.random-seed"));
+
+        long warmupNanos = config.getSeconds("workload.warmup-seconds").toNanos();
+        long durationNanos = config.getSeconds("workload.duration-seconds").toNanos();
+        long meanGapNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-test-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = config.getLong("report.interval-seconds");
+        reporter.scheduleAtFixedRate(this::printInterval, interval, interval, TimeUnit.SECONDS);
+
+        System.out.printf("Running %.1f requests/s (%s arrivals): %ds warm-up, %ds measured%n", rate,
+                poisson ? "poisson" : "uniform", TimeUnit.NANOSECONDS.toSeconds(warmupNanos),
+                TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        long next = start;
+        while (next < end) {
+            if (!measuring && next >= measureFrom) {
+                beginMeasurement();
+            }
+            long wait;
+            while ((wait = next - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            issue(mix.pick(random), next, random);
+            next += poisson ? exponentialGap(meanGapNanos, random) : meanGapNanos;
+        }
+
+        awaitOutstanding();
+        reporter.shutdownNow();
+        stats.values().forEach(operationStats -> operationStats.sample(true));
+        return stats;
+    }
+
+    private void beginMeasurement() {
+        synchronized (stats) {
+            stats.values().forEach(operationStats -> operationStats.sample(false));
+            measuring = true;
+        }
+        System.out.println("Warm-up done, measuring");
+    }
+
+    private void printInterval() {
+        List<OperationStats.IntervalSample> samples = new ArrayList<>();
+        boolean measured;
+        synchronized (stats) {
+            measured = measuring;
+            for (OperationStats operationStats : stats.values()) {
+                samples.add(operationStats.sample(measured));
+            }
+        }
+        StringBuilder line = new StringBuilder(measured ? "[measure]" : "[warm-up]");
+        for (OperationStats.IntervalSample sample : samples) {
+            line.append(String.format("  %s %d ok/%d err p50=%.1fms p99=%.1fms", sample.operation().key(),
+                    sample.successes(), sample.errors(), sample.p50Millis(), sample.p99Millis()));
+        }
+        line.append("  in-flight=").append(inFlight.get());
+        System.out.println(line);
+    }
+
+    private void issue(Operation operation, long intendedStart, SplittableRandom random) {
+        OperationStats operationStats = stats.get(operation);
+        if (inFlight.get() >= maxInFlight) {
+            operationStats.recordError("dropped: max in flight");
+            return;
+        }
+
+        HttpRequest request;
+        Consumer<HttpResponse<String>> onSuccess = response -> { };
+        switch (operation) {
+            case CREATE -> {
+                request = post(endpoints.orderService().resolve("/api/orders"), createOrderBody(random));
+                onSuccess = this::addOpenOrder;
+            }
+            case PROCESS -> {
+                Long orderId = takeOpenOrder(true);
+                if (orderId == null) {
+                    operationStats.recordSkipped();
+                    return;
+                }
+                request = post(endpoints.orderService().resolve("/api/orders/" + orderId + "/process"), null);
+            }
+            case CANCEL -> {
+                Long orderId = takeOpenOrder(false);
+                if (orderId == null) {
+                    operationStats.recordSkipped();
+                    return;
+                }
+                request = json(endpoints.orderService().resolve("/api/orders/" + orderId), "DELETE",
+                        Map.of("reason", "Load test cancellation"));
+            }
+            default -> request = get(browseUri(random));
+        }
+
+        inFlight.incrementAndGet();
+        Consumer<HttpResponse<String>> successHandler = onSuccess;
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, failure) -> {
+                    long latency = System.nanoTime() - intendedStart;
+                    inFlight.decrementAndGet();
+                    if (failure != null) {
+                        Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+                        operationStats.recordError(cause.getClass().getSimpleName());
+                    } else if (response.statusCode() / 100 != 2) {
+                        operationStats.recordError("HTTP " + response.statusCode());
+                    } else {
+                        operationStats.recordSuccess(latency);
+                        successHandler.accept(response);
+                    }
+                });
+    }
+
+    // A product page, a category listing or a customer's order list, in equal parts
+    private URI browseUri(SplittableRandom random) {
+        return switch (random.nextInt(3)) {
+            case 0 -> endpoints.productService().resolve("/api/products/" + pick(seedData.productIds(), random));
+            case 1 -> endpoints.productService().resolve("/api/products/category/"
+                    + (1 + random.nextInt(seedData.categories())));
+            default -> endpoints.orderService().resolve("/api/orders/customer/"
+                    + pick(seedData.customerIds(), random));
+        };
+    }
+
+    private Map<String, Object> createOrderBody(SplittableRandom random) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int line = 1 + random.nextInt(3); line > 0; line--) {
+            items.add(Map.of("productId", pick(seedData.productIds(), random), "quantity", 1 + random.nextInt(3)));
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("customerId", pick(seedData.customerIds(), random));
+        body.put("items", items);
+        body.put("paymentMethod", "CREDIT_CARD");
+        body.put("paymentDetails", Map.of(
+                "cardNumber", "4111111111111111",
+                "cardHolderName", "Load Tester",
+                "expiryMonth", "12",
+                "expiryYear", "2030",
+                "cvv", "123"));
+        return body;
+    }
+
+    private void addOpenOrder(HttpResponse<String> created) {
+        long orderId;
+        try {
+            orderId = objectMapper.readTree(created.body()).path("id").asLong();
+        } catch (JsonProcessingException e) {
+            return;
+        }
+        openOrders.addLast(orderId);
+        if (openOrderCount.incrementAndGet() > MAX_OPEN_ORDERS && openOrders.pollFirst() != null) {
+            openOrderCount.decrementAndGet();
+        }
+    }
+
+    private Long takeOpenOrder(boolean newest) {
+        Long orderId = newest ? openOrders.pollLast() : openOrders.pollFirst();
+        if (orderId != null) {
+            openOrderCount.decrementAndGet();
+        }
+        return orderId;
+    }
+
+    private void awaitOutstanding() throws InterruptedException {
+        long deadline = System.nanoTime() + requestTimeout.plusSeconds(1).toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private HttpRequest get(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(URI uri, Object body) {
+        return json(uri, "POST", body);
+    }
+
+    private HttpRequest json(URI uri, String method, Object body) {
+        try {
+            return HttpRequest.newBuilder(uri)
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "application/json")
+                    .method(method, body == null
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize request body", e);
+        }
+    }
+
+    private static long exponentialGap(long meanGapNanos, SplittableRandom random) {
+        return (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+    }
+
+    private static long pick(List<Long> ids, SplittableRandom random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    /**
+     * Weighted choice among the operations (workload.mix.&lt;operation&gt;).
+     */
+    static final class Mix {
+
+        private final Operation[] operations = Operation.values();
+        private final int[] cumulativeWeights = new int[operations.length];
+
+        Mix(LoadTestConfig config) {
+            int sum = 0;
+            for (int i = 0; i < operations.length; i++) {
+                sum += config.getInt("workload.mix." + operations[i].key());
+                cumulativeWeights[i] = sum;
+            }
+            if (sum <= 0) {
+                throw new IllegalArgumentException("workload.mix weights must add up to more than 0");
+            }
+        }
+
+        Operation pick(SplittableRandom random) {
+            int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < operations.length; i++) {
+                if (draw < cumulativeWeights[i]) {
+                    return operations[i];
+                }
+            }
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.msproj.loadtest;
+
+import java.util.Locale;
+
+/**
+ * The operations of the workload mix (workload.mix.&lt;operation&gt;).
+ */
+public enum Operation {
+
+    /** POST /api/orders for a random customer and one to three random products */
+    CREATE,
+
+    /** POST /api/orders/{id}/process on the newest order created in the run and not yet used */
+    PROCESS,
+
+    /** DELETE /api/orders/{id} on the oldest order created in the run and not yet used */
+    CANCEL,
+
+    /** One of: a product, a category's products, a customer's orders */
+    BROWSE;
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,109 @@
+package com.msproj.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counts of one operation.
+ * <p>
+ * Response threads record into an HdrHistogram Recorder without locking;
+ * the workload samples it once per report interval. Intervals sampled during
+ * warm-up are dropped, later ones are added to the run totals. Latencies are
+ * kept in microseconds, from the intended arrival time to the response, for
+ * successful requests only; failures are counted by kind (HTTP status or
+ * exception).
+ */
+public final class OperationStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Operation operation;
+    private final Recorder recorder = new Recorder(MAX_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> errorKinds = new ConcurrentHashMap<>();
+
+    private final Histogram total = new Histogram(MAX_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+    private Histogram interval;
+    private long totalErrors;
+    private long totalSkipped;
+
+    public OperationStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    public void recordSuccess(long latencyNanos) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+    }
+
+    public void recordError(String kind) {
+        errors.increment();
+        errorKinds.computeIfAbsent(kind, k -> new LongAdder()).increment();
+    }
+
+    // Nothing to act on yet, e.g. process before any order was created
+    public void recordSkipped() {
+        skipped.increment();
+    }
+
+    /**
+     * Take the interval since the last sample, adding it to the totals when
+     * measuring. Sampling with measuring=false at the end of warm-up discards
+     * everything recorded so far.
+     */
+    public synchronized IntervalSample sample(boolean measuring) {
+        interval = recorder.getIntervalHistogram(interval);
+        long intervalErrors = errors.sumThenReset();
+        long intervalSkipped = skipped.sumThenReset();
+        if (measuring) {
+            total.add(interval);
+            totalErrors += intervalErrors;
+            totalSkipped += intervalSkipped;
+        } else {
+            errorKinds.clear();
+        }
+        return new IntervalSample(operation, interval.getTotalCount(), intervalErrors,
+                microsToMillis(interval.getValueAtPercentile(50)), microsToMillis(interval.getValueAtPercentile(99)));
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public synchronized Histogram getTotal() {
+        return total.copy();
+    }
+
+    public synchronized long getTotalErrors() {
+        return totalErrors;
+    }
+
+    public synchronized long getTotalSkipped() {
+        return totalSkipped;
+    }
+
+    public Map<String, Long> getErrorKinds() {
+        Map<String, Long> kinds = new TreeMap<>();
+        errorKinds.forEach((kind, count) -> kinds.put(kind, count.sum()));
+        return kinds;
+    }
+
+    static double microsToMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * Successes, errors and latency percentiles (ms) of one report interval.
+     */
+    public record IntervalSample(Operation operation, long successes, long errors, double p50Millis,
+                                 double p99Millis) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.msproj.loadtest;
+
+import java.util.List;
+
+/**
+ * IDs of the customers and products created by the Seeder, and the number of
+ * categories (1..categories) products were spread over.
+ */
+public record SeedData(List<Long> customerIds, List<Long> productIds, int categories) {
+}
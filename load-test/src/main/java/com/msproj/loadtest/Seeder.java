@@ -0,0 +1,104 @@
+package com.msproj.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Creates the customers and products the workload orders against, through
+ * the same REST APIs clients use. Usernames, emails and SKUs carry a per-run
+ * suffix so runs against long-lived services (services.start=false) do not
+ * collide; stock is high enough that orders never run out during a run.
+ */
+public final class Seeder {
+
+    private static final int STOCK = 10_000_000;
+    private static final String[] TAGS = {"sale", "new", "eco", "gift", "premium", "outdoor", "kids", "office"};
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    public Seeder(HttpClient client, ObjectMapper objectMapper, Duration timeout) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+    }
+
+    public SeedData seed(LoadTestConfig config, ServiceEndpoints endpoints) throws IOException, InterruptedException {
+        SplittableRandom random = new SplittableRandom(config.getLong("seed.random-seed"));
+        int categories = config.getInt("seed.categories");
+
+        List<Long> customerIds = new ArrayList<>();
+        for (int i = 0; i < config.getInt("seed.customers"); i++) {
+            customerIds.add(create(endpoints.userService().resolve("/api/users"), customer(i)));
+        }
+
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < config.getInt("seed.products"); i++) {
+            productIds.add(create(endpoints.productService().resolve("/api/products"),
+                    product(i, 1 + random.nextInt(categories), random)));
+        }
+
+        System.out.printf("Seeded %d customers and %d products%n", customerIds.size(), productIds.size());
+        return new SeedData(List.copyOf(customerIds), List.copyOf(productIds), categories);
+    }
+
+    private Map<String, Object> customer(int i) {
+        String username = "lt_" + runId + "_" + i;
+        Map<String, Object> customer = new LinkedHashMap<>();
+        customer.put("username", username);
+        customer.put("email", username + "@loadtest.example.com");
+        customer.put("password", "loadtest123");
+        customer.put("firstName", "Load");
+        customer.put("lastName", "Tester " + i);
+        customer.put("userType", "CUSTOMER");
+        customer.put("streetAddress", i + " Benchmark Way");
+        customer.put("city", "Springfield");
+        customer.put("state", "IL");
+        customer.put("postalCode", "62701");
+        customer.put("country", "USA");
+        return customer;
+    }
+
+    private Map<String, Object> product(int i, long categoryId, SplittableRandom random) {
+        Map<String, Object> product = new LinkedHashMap<>();
+        product.put("name", "Load Test Product " + i);
+        product.put("description", "Product " + i + " created by the load test");
+        product.put("price", BigDecimal.valueOf(199 + random.nextInt(49_800), 2));
+        product.put("stockQuantity", STOCK);
+        product.put("categoryId", categoryId);
+        product.put("sku", "LT-" + runId + "-" + i);
+        product.put("tags", List.of(TAGS[random.nextInt(TAGS.length)], TAGS[random.nextInt(TAGS.length)]));
+        product.put("attributes", Map.of("batch", runId));
+        product.put("imageUrls", List.of("https://cdn.example.com/loadtest/" + i + ".jpg"));
+        return product;
+    }
+
+    private long create(URI uri, Map<String, Object> body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("POST " + uri + " failed with HTTP " + response.statusCode()
+                    + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body()).path("id").asLong();
+    }
+}
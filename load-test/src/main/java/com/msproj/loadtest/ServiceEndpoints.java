@@ -0,0 +1,15 @@
+package com.msproj.loadtest;
+
+import java.net.URI;
+
+/**
+ * Base URLs of the services under test.
+ */
+public record ServiceEndpoints(URI userService, URI productService, URI orderService) {
+
+    public static ServiceEndpoints fromConfig(LoadTestConfig config) {
+        return new ServiceEndpoints(URI.create(config.get("user-service.url")),
+                URI.create(config.get("product-service.url")),
+                URI.create(config.get("order-service.url")));
+    }
+}
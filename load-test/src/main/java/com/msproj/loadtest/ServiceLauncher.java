@@ -0,0 +1,130 @@
+package com.msproj.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts user-service, product-service and order-service as separate JVMs
+ * from their executable jars, with the loadtest profile: each on its own
+ * embedded H2 database and without Eureka. order-service finds the other two
+ * through the simple discovery client, pointed at the ports chosen here.
+ * <p>
+ * Separate processes keep each service's own application.yml and data.sql,
+ * which would collide on a shared classpath. Output goes to
+ * services.log-dir/&lt;service&gt;.log; close() stops them all.
+ */
+public final class ServiceLauncher implements AutoCloseable {
+
+    private static final Duration HEALTH_POLL_INTERVAL = Duration.ofMillis(500);
+
+    private final LoadTestConfig config;
+    private final HttpClient client;
+    private final Map<String, Process> processes = new LinkedHashMap<>();
+
+    public ServiceLauncher(LoadTestConfig config, HttpClient client) {
+        this.config = config;
+        this.client = client;
+    }
+
+    public ServiceEndpoints startAll() throws IOException, InterruptedException {
+        URI userService = localhost(config.getInt("user-service.port"));
+        URI productService = localhost(config.getInt("product-service.port"));
+        URI orderService = localhost(config.getInt("order-service.port"));
+
+        // order-service resolves the others lazily, so all three can boot at once
+        start("user-service", List.of());
+        start("product-service", List.of());
+        start("order-service", List.of(
+                "--spring.cloud.discovery.client.simple.instances.user-service[0].uri=" + userService,
+                "--spring.cloud.discovery.client.simple.instances.product-service[0].uri=" + productService));
+
+        long deadline = System.nanoTime() + config.getSeconds("services.startup-timeout-seconds").toNanos();
+        awaitHealthy("user-service", userService, deadline);
+        awaitHealthy("product-service", productService, deadline);
+        awaitHealthy("order-service", orderService, deadline);
+
+        return new ServiceEndpoints(userService, productService, orderService);
+    }
+
+    private void start(String service, List<String> extraArgs) throws IOException {
+        Path jar = config.getPath(service + ".jar");
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(jar.toAbsolutePath() + " not found; build it with mvn -DskipTests package");
+        }
+        Path logDir = config.getPath("services.log-dir");
+        Files.createDirectories(logDir);
+
+        List<String> command = new ArrayList<>();
+        command.add(config.get("services.java"));
+        command.addAll(config.getList("services.jvm-args"));
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + config.getInt(service + ".port"));
+        command.add("--spring.profiles.active=loadtest");
+        command.addAll(extraArgs);
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logDir.resolve(service + ".log").toFile())
+                .start();
+        processes.put(service, process);
+        System.out.printf("Started %s (pid %d) on port %d%n", service, process.pid(), config.getInt(service + ".port"));
+    }
+
+    private void awaitHealthy(String service, URI baseUri, long deadline) throws InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(baseUri.resolve("/actuator/health"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        while (System.nanoTime() < deadline) {
+            Process process = processes.get(service);
+            if (!process.isAlive()) {
+                throw new IllegalStateException(service + " exited with status " + process.exitValue()
+                        + ", see " + config.getPath("services.log-dir").resolve(service + ".log"));
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    System.out.printf("%s is up at %s%n", service, baseUri);
+                    return;
+                }
+            } catch (IOException notListeningYet) {
+                // still starting
+            }
+            Thread.sleep(HEALTH_POLL_INTERVAL.toMillis());
+        }
+        throw new IllegalStateException(service + " did not become healthy within "
+                + config.get("services.startup-timeout-seconds") + "s");
+    }
+
+    @Override
+    public void close() {
+        processes.values().forEach(Process::destroy);
+        for (Process process : processes.values()) {
+            try {
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        processes.clear();
+    }
+
+    private static URI localhost(int port) {
+        return URI.create("http://localhost:" + port);
+    }
+}
@@ -0,0 +1,102 @@
+package com.msproj.orderservice.archive;
+
+import com.msproj.orderservice.dto.OrderResponseDto;
+import com.msproj.orderservice.entity.Order;
+import com.msproj.orderservice.entity.OrderArchiveBatch;
+import com.msproj.orderservice.entity.OrderArchiveEntry;
+import com.msproj.orderservice.repository.OrderArchiveBatchRepository;
+import com.msproj.orderservice.repository.OrderArchiveEntryRepository;
+import com.msproj.orderservice.repository.OrderDocumentStore;
+import com.msproj.orderservice.repository.OrderItemRepository;
+import com.msproj.orderservice.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Moves one keyset chunk of terminal orders to the archive in its own transaction.
+ * <p>
+ * Rows are claimed with FOR UPDATE SKIP LOCKED, so replicas archive disjoint
+ * chunks. The batch, its index entries and the deletion from orders,
+ * order_items and order_documents commit together: an order is always in
+ * exactly one tier.
+ */
+@Component
+public class OrderArchiveChunkProcessor {
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderArchiveBatchRepository orderArchiveBatchRepository;
+    private final OrderArchiveEntryRepository orderArchiveEntryRepository;
+    private final OrderDocumentStore orderDocumentStore;
+    private final OrderArchiveCodec orderArchiveCodec;
+
+    @Autowired
+    public OrderArchiveChunkProcessor(OrderRepository orderRepository,
+                                      OrderItemRepository orderItemRepository,
+                                      OrderArchiveBatchRepository orderArchiveBatchRepository,
+                                      OrderArchiveEntryRepository orderArchiveEntryRepository,
+                                      OrderDocumentStore orderDocumentStore,
+                                      OrderArchiveCodec orderArchiveCodec) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.orderArchiveBatchRepository = orderArchiveBatchRepository;
+        this.orderArchiveEntryRepository = orderArchiveEntryRepository;
+        this.orderDocumentStore = orderDocumentStore;
+        this.orderArchiveCodec = orderArchiveCodec;
+    }
+
+    /**
+     * @return the committed batch, or null when no archivable order above afterId is left
+     */
+    @Transactional(
+            propagation = Propagation.REQUIRES_NEW,
+            isolation = Isolation.READ_COMMITTED,
+            timeout = 60
+    )
+    public OrderArchiveBatch archiveNextChunk(LocalDateTime cutoff, long afterId, int chunkSize) {
+        List<Long> orderIds = orderRepository.claimArchivableOrders(cutoff, afterId, chunkSize);
+
+        if (orderIds.isEmpty()) {
+            return null;
+        }
+
+        List<Order> orders = orderRepository.findAllWithItemsByIdIn(orderIds).stream()
+                .sorted(Comparator.comparing(Order::getId))
+                .toList();
+
+        // Rows are locked, so a mismatch means the data changed underneath us - roll the chunk back
+        if (orders.size() != orderIds.size()) {
+            throw new IllegalStateException(String.format(
+                    "Claimed %d orders for archiving but loaded %d", orderIds.size(), orders.size()));
+        }
+
+        List<OrderResponseDto> documents = orders.stream().map(OrderResponseDto::fromEntity).toList();
+        OrderArchiveCodec.Encoded encoded = orderArchiveCodec.encode(documents);
+
+        LocalDateTime firstOrderDate = orders.stream().map(Order::getOrderDate).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime lastOrderDate = orders.stream().map(Order::getOrderDate).max(Comparator.naturalOrder()).orElseThrow();
+
+        OrderArchiveBatch batch = orderArchiveBatchRepository.save(new OrderArchiveBatch(
+                orders.get(0).getId(), orders.get(orders.size() - 1).getId(),
+                firstOrderDate, lastOrderDate, orders.size(), encoded.rawBytes(), encoded.payload()));
+
+        orderArchiveEntryRepository.saveAll(orders.stream()
+                .map(order -> new OrderArchiveEntry(order.getId(), order.getCustomerId(), order.getOrderDate(), batch.getId()))
+                .toList());
+
+        // Flush the archive rows before the bulk deletes bypass the persistence context
+        orderArchiveEntryRepository.flush();
+        orderItemRepository.deleteByOrderIdIn(orderIds);
+        orderRepository.deleteByIdIn(orderIds);
+        orderDocumentStore.deleteAll(orderIds);
+
+        return batch;
+    }
+}
@@ -0,0 +1,58 @@
+package com.msproj.orderservice.archive;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.msproj.orderservice.dto.OrderResponseDto;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archive batch encoding: a Smile array of order documents, gzip-compressed.
+ * Smile back-references repeated property names within the batch and gzip
+ * folds the remaining repetition (statuses, addresses, product names).
+ */
+@Component
+public class OrderArchiveCodec {
+
+    private static final TypeReference<List<OrderResponseDto>> ORDER_LIST = new TypeReference<>() {};
+
+    private final ObjectMapper smileMapper;
+
+    public OrderArchiveCodec(Jackson2ObjectMapperBuilder builder) {
+        this.smileMapper = builder.factory(new SmileFactory()).build();
+    }
+
+    public record Encoded(byte[] payload, int rawBytes) {}
+
+    public Encoded encode(List<OrderResponseDto> orders) {
+        try {
+            byte[] raw = smileMapper.writeValueAsBytes(orders);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+            try (OutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(raw);
+            }
+            return new Encoded(compressed.toByteArray(), raw.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode archive batch", e);
+        }
+    }
+
+    public List<OrderResponseDto> decode(byte[] payload) {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return smileMapper.readValue(gzip, ORDER_LIST);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode archive batch", e);
+        }
+    }
+}
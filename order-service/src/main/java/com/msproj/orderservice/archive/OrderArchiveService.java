@@ -0,0 +1,131 @@
+package com.msproj.orderservice.archive;
+
+import com.msproj.orderservice.dto.OrderResponseDto;
+import com.msproj.orderservice.entity.OrderArchiveEntry;
+import com.msproj.orderservice.repository.OrderArchiveBatchRepository;
+import com.msproj.orderservice.repository.OrderArchiveEntryRepository;
+import com.msproj.orderservice.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Read path of the archive tier.
+ * <p>
+ * Lookups go through order_archive_index to the batches holding the orders;
+ * each batch is decompressed once per lookup and recently read batches are
+ * kept decoded in a small LRU cache (batches are immutable). Slower than the
+ * hot tables by design: it serves order detail links and history ranges
+ * older than the retention window.
+ */
+@Service
+public class OrderArchiveService {
+
+    private final OrderArchiveEntryRepository orderArchiveEntryRepository;
+    private final OrderArchiveBatchRepository orderArchiveBatchRepository;
+    private final OrderArchiveCodec orderArchiveCodec;
+    private final OrderArchiver orderArchiver;
+    private final ShardRouter shardRouter;
+
+    private final Map<Long, Map<Long, OrderResponseDto>> batchCache;
+
+    @Autowired
+    public OrderArchiveService(OrderArchiveEntryRepository orderArchiveEntryRepository,
+                               OrderArchiveBatchRepository orderArchiveBatchRepository,
+                               OrderArchiveCodec orderArchiveCodec,
+                               OrderArchiver orderArchiver,
+                               ShardRouter shardRouter,
+                               @Value("${order.archive.batch-cache-size:32}") int batchCacheSize) {
+        this.orderArchiveEntryRepository = orderArchiveEntryRepository;
+        this.orderArchiveBatchRepository = orderArchiveBatchRepository;
+        this.orderArchiveCodec = orderArchiveCodec;
+        this.orderArchiver = orderArchiver;
+        this.shardRouter = shardRouter;
+        this.batchCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Map<Long, OrderResponseDto>> eldest) {
+                return size() > batchCacheSize;
+            }
+        });
+    }
+
+    /**
+     * Orders dated before the cutoff may be archived; newer ones are always hot.
+     */
+    public LocalDateTime getCutoff() {
+        return orderArchiver.getCutoff();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OrderResponseDto> findOrder(Long orderId) {
+        return orderArchiveEntryRepository.findById(orderId)
+                .map(entry -> loadBatch(entry.getBatchId()).get(orderId));
+    }
+
+    /**
+     * Archived orders of the customer dated within [fromDate, toDate], newest first.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderResponseDto> findCustomerOrders(Long customerId, LocalDateTime fromDate, LocalDateTime toDate) {
+        List<OrderArchiveEntry> entries = orderArchiveEntryRepository
+                .findByCustomerIdAndOrderDateBetweenOrderByOrderDateDesc(customerId, fromDate, toDate);
+
+        Map<Long, List<Long>> orderIdsByBatch = entries.stream().collect(Collectors.groupingBy(
+                OrderArchiveEntry::getBatchId, LinkedHashMap::new,
+                Collectors.mapping(OrderArchiveEntry::getOrderId, Collectors.toList())));
+
+        Map<Long, OrderResponseDto> found = new HashMap<>();
+        orderIdsByBatch.forEach((batchId, orderIds) -> {
+            Map<Long, OrderResponseDto> batch = loadBatch(batchId);
+            orderIds.forEach(orderId -> found.put(orderId, batch.get(orderId)));
+        });
+
+        return entries.stream()
+                .map(entry -> found.get(entry.getOrderId()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStatistics() {
+        // batches, orders, raw bytes, compressed bytes summed over all shards
+        long[] totals = new long[4];
+        for (Object[] shardTotals : shardRouter.scatter(orderArchiveBatchRepository::summarize)) {
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += ((Number) shardTotals[i]).longValue();
+            }
+        }
+        long rawBytes = totals[2];
+        long compressedBytes = totals[3];
+
+        Map<String, Object> stats = new HashMap<>(orderArchiver.getProgress());
+        stats.put("batches", totals[0]);
+        stats.put("archivedOrders", totals[1]);
+        stats.put("rawBytes", rawBytes);
+        stats.put("compressedBytes", compressedBytes);
+        stats.put("compressionRatio", compressedBytes > 0 ? (double) rawBytes / compressedBytes : 0.0);
+        stats.put("cachedBatches", batchCache.size());
+        stats.put("timestamp", LocalDateTime.now());
+        return stats;
+    }
+
+    private Map<Long, OrderResponseDto> loadBatch(Long batchId) {
+        Map<Long, OrderResponseDto> cached = batchCache.get(batchId);
+        if (cached != null) {
+            return cached;
+        }
+
+        Map<Long, OrderResponseDto> orders = orderArchiveBatchRepository.findById(batchId)
+                .map(batch -> orderArchiveCodec.decode(batch.getPayload()).stream()
+                        .collect(Collectors.toUnmodifiableMap(OrderResponseDto::getId, order -> order)))
+                .orElse(Map.of());
+
+        batchCache.put(batchId, orders);
+        return orders;
+    }
+}
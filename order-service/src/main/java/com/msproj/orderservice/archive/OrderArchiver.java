@@ -0,0 +1,197 @@
+package com.msproj.orderservice.archive;
+
+import com.msproj.orderservice.entity.OrderArchiveBatch;
+import com.msproj.orderservice.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves DELIVERED and CANCELLED orders older than order.archive.retention-days
+ * out of the hot tables, chunk by chunk, into compressed archive batches.
+ * <p>
+ * Each chunk is its own transaction (OrderArchiveChunkProcessor), so a run can
+ * stop at any point; the next run continues from whatever is still hot. A
+ * pause between chunks keeps the deletes from competing with checkout traffic.
+ */
+@Component
+public class OrderArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiver.class);
+
+    private final OrderArchiveChunkProcessor orderArchiveChunkProcessor;
+    private final Counter ordersArchived;
+    private final Counter bytesArchived;
+    private final ShardRouter shardRouter;
+
+    @Value("${order.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.archive.retention-days:180}")
+    private long retentionDays;
+
+    @Value("${order.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${order.archive.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Value("${order.archive.pause-between-chunks-ms:100}")
+    private long pauseBetweenChunksMs;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // Progress of the current (or last) run
+    private volatile LocalDateTime runStartedAt;
+    private volatile LocalDateTime runFinishedAt;
+    private final AtomicLong runOrders = new AtomicLong();
+    private final AtomicLong runBatches = new AtomicLong();
+    private final AtomicLong runRawBytes = new AtomicLong();
+    private final AtomicLong runCompressedBytes = new AtomicLong();
+
+    @Autowired
+    public OrderArchiver(OrderArchiveChunkProcessor orderArchiveChunkProcessor,
+                         MeterRegistry meterRegistry,
+                         ShardRouter shardRouter) {
+        this.orderArchiveChunkProcessor = orderArchiveChunkProcessor;
+        this.shardRouter = shardRouter;
+        this.ordersArchived = Counter.builder("order.archive.orders")
+                .description("Orders moved from the hot tables to the archive")
+                .register(meterRegistry);
+        this.bytesArchived = Counter.builder("order.archive.bytes")
+                .description("Compressed archive payload bytes written")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${order.archive.interval-ms:3600000}",
+            initialDelayString = "${order.archive.initial-delay-ms:300000}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    @Async("taskExecutor")
+    public void runAsync() {
+        run();
+    }
+
+    /**
+     * @return false when a run was already in progress on this instance
+     */
+    public boolean run() {
+        if (!running.compareAndSet(false, true)) {
+            logger.debug("Order archiver already running, skipping");
+            return false;
+        }
+
+        try {
+            resetProgress();
+            LocalDateTime cutoff = getCutoff();
+
+            // Orders are archived on their own shard; each shard gets max-chunks-per-run
+            shardRouter.forEachShard(shard -> {
+                if (!Thread.currentThread().isInterrupted()) {
+                    archiveShard(cutoff);
+                }
+            });
+
+            runFinishedAt = LocalDateTime.now();
+            if (runOrders.get() > 0) {
+                logger.info("Order archiver moved {} orders older than {} into {} batches ({} -> {} bytes)",
+                        runOrders.get(), cutoff, runBatches.get(), runRawBytes.get(), runCompressedBytes.get());
+            }
+            return true;
+
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void archiveShard(LocalDateTime cutoff) {
+        long afterId = 0;
+
+        for (int i = 0; i < maxChunksPerRun; i++) {
+            OrderArchiveBatch batch;
+            try {
+                batch = orderArchiveChunkProcessor.archiveNextChunk(cutoff, afterId, chunkSize);
+            } catch (Exception e) {
+                logger.error("Archiving orders after ID {} failed, stopping run: {}", afterId, e.getMessage());
+                return;
+            }
+
+            if (batch == null) {
+                return;
+            }
+
+            afterId = batch.getLastOrderId();
+            runOrders.addAndGet(batch.getOrderCount());
+            runBatches.incrementAndGet();
+            runRawBytes.addAndGet(batch.getRawBytes());
+            runCompressedBytes.addAndGet(batch.getCompressedBytes());
+            ordersArchived.increment(batch.getOrderCount());
+            bytesArchived.increment(batch.getCompressedBytes());
+
+            if (!pause()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Orders dated before this may be archived; newer orders are always in the hot tables.
+     */
+    public LocalDateTime getCutoff() {
+        return LocalDateTime.now().minusDays(retentionDays);
+    }
+
+    public Map<String, Object> getProgress() {
+        Map<String, Object> progress = new HashMap<>();
+        progress.put("enabled", enabled);
+        progress.put("running", running.get());
+        progress.put("retentionDays", retentionDays);
+        progress.put("cutoff", getCutoff());
+        progress.put("runStartedAt", runStartedAt);
+        progress.put("runFinishedAt", runFinishedAt);
+        progress.put("runOrders", runOrders.get());
+        progress.put("runBatches", runBatches.get());
+        progress.put("runRawBytes", runRawBytes.get());
+        progress.put("runCompressedBytes", runCompressedBytes.get());
+        return progress;
+    }
+
+    private boolean pause() {
+        if (pauseBetweenChunksMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseBetweenChunksMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void resetProgress() {
+        runStartedAt = LocalDateTime.now();
+        runFinishedAt = null;
+        runOrders.set(0);
+        runBatches.set(0);
+        runRawBytes.set(0);
+        runCompressedBytes.set(0);
+    }
+}
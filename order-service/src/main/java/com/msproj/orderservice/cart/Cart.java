@@ -0,0 +1,212 @@
+package com.msproj.orderservice.cart;
+
+import com.msproj.orderservice.dto.UserDto;
+import com.msproj.orderservice.exception.InvalidOrderStateException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * One customer's cart, kept compact for the in-memory store: lines are two
+ * parallel primitive arrays (product id, quantity) and product details live in
+ * the shared CartCatalog, not in the cart. All methods synchronize on the cart.
+ * <p>
+ * version counts changes; the write-behind flusher persists a version and
+ * records it, so a cart is clean when persistedVersion == version. An empty
+ * cart is persisted by deleting its row, and a checked-out cart is just emptied.
+ */
+final class Cart {
+
+    private static final long[] NO_PRODUCTS = new long[0];
+    private static final int[] NO_QUANTITIES = new int[0];
+    // Persisted line: product id + quantity
+    private static final int LINE_BYTES = Long.BYTES + Integer.BYTES;
+
+    private final long customerId;
+
+    private long[] productIds = NO_PRODUCTS;
+    private int[] quantities = NO_QUANTITIES;
+    private int size;
+
+    private UserDto customer;
+    private long customerFetchedAtMs;
+
+    // Guarded by the InMemoryCartStore segment lock, not the cart
+    long lastAccessMs;
+
+    private long version;
+    private long persistedVersion;
+    private boolean queued;
+    private boolean checkingOut;
+
+    /**
+     * Immutable copy of the lines at one version.
+     */
+    record Lines(long version, long[] productIds, int[] quantities) {
+
+        int size() {
+            return productIds.length;
+        }
+    }
+
+    Cart(long customerId) {
+        this.customerId = customerId;
+    }
+
+    long customerId() {
+        return customerId;
+    }
+
+    synchronized int quantityOf(long productId) {
+        int index = indexOf(productId);
+        return index >= 0 ? quantities[index] : 0;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Set a line's quantity; 0 removes the line.
+     */
+    synchronized void setQuantity(long productId, int quantity) {
+        ensureEditable();
+        int index = indexOf(productId);
+
+        if (quantity <= 0) {
+            if (index >= 0) {
+                // Keep line order stable for the cart view
+                System.arraycopy(productIds, index + 1, productIds, index, size - index - 1);
+                System.arraycopy(quantities, index + 1, quantities, index, size - index - 1);
+                size--;
+                version++;
+            }
+            return;
+        }
+
+        if (index < 0) {
+            if (size == productIds.length) {
+                int capacity = Math.max(4, size + (size >> 1));
+                productIds = Arrays.copyOf(productIds, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+            }
+            index = size++;
+            productIds[index] = productId;
+        }
+        quantities[index] = quantity;
+        version++;
+    }
+
+    synchronized void clear() {
+        ensureEditable();
+        empty();
+    }
+
+    private void empty() {
+        productIds = NO_PRODUCTS;
+        quantities = NO_QUANTITIES;
+        size = 0;
+        version++;
+    }
+
+    synchronized Lines lines() {
+        return new Lines(version, Arrays.copyOf(productIds, size), Arrays.copyOf(quantities, size));
+    }
+
+    synchronized UserDto customerIfFresh(long nowMs, long ttlMs) {
+        return customer != null && nowMs - customerFetchedAtMs <= ttlMs ? customer : null;
+    }
+
+    synchronized void setCustomer(UserDto customer, long fetchedAtMs) {
+        this.customer = customer;
+        this.customerFetchedAtMs = fetchedAtMs;
+    }
+
+    /**
+     * @return false if a checkout of this cart is already running
+     */
+    synchronized boolean beginCheckout() {
+        if (checkingOut) {
+            return false;
+        }
+        checkingOut = true;
+        return true;
+    }
+
+    /**
+     * @param ordered true once the order is created: the cart is emptied
+     */
+    synchronized void endCheckout(boolean ordered) {
+        checkingOut = false;
+        if (ordered) {
+            empty();
+        }
+    }
+
+    synchronized boolean isDirty() {
+        return persistedVersion != version;
+    }
+
+    /**
+     * @return true if the caller should queue the cart for flushing
+     */
+    synchronized boolean markQueued() {
+        if (queued || persistedVersion == version) {
+            return false;
+        }
+        queued = true;
+        return true;
+    }
+
+    synchronized void markPersisted(long persisted) {
+        queued = false;
+        persistedVersion = Math.max(persistedVersion, persisted);
+    }
+
+    synchronized void markFlushFailed() {
+        queued = false;
+    }
+
+    static byte[] encode(Lines lines) {
+        ByteBuffer buffer = ByteBuffer.allocate(lines.size() * LINE_BYTES);
+        for (int i = 0; i < lines.size(); i++) {
+            buffer.putLong(lines.productIds()[i]).putInt(lines.quantities()[i]);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Rebuild a persisted cart; it starts clean at the persisted version.
+     */
+    static Cart decode(long customerId, long version, byte[] lines) {
+        Cart cart = new Cart(customerId);
+        ByteBuffer buffer = ByteBuffer.wrap(lines);
+        int count = lines.length / LINE_BYTES;
+
+        cart.productIds = new long[count];
+        cart.quantities = new int[count];
+        for (int i = 0; i < count; i++) {
+            cart.productIds[i] = buffer.getLong();
+            cart.quantities[i] = buffer.getInt();
+        }
+        cart.size = count;
+        cart.version = version;
+        cart.persistedVersion = version;
+        return cart;
+    }
+
+    private void ensureEditable() {
+        if (checkingOut) {
+            throw new InvalidOrderStateException("Cart of customer " + customerId + " is being checked out");
+        }
+    }
+
+    private int indexOf(long productId) {
+        for (int i = 0; i < size; i++) {
+            if (productIds[i] == productId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
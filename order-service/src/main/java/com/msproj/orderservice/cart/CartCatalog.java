@@ -0,0 +1,108 @@
+package com.msproj.orderservice.cart;
+
+import com.msproj.orderservice.coalescing.DownstreamLookupCoalescer;
+import com.msproj.orderservice.dto.ProductDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Product snapshots shared by all carts on this node.
+ * <p>
+ * Carts hold only product ids; price, stock and availability come from here.
+ * A snapshot younger than order.cart.product-ttl-ms counts as fresh and is
+ * used without asking Product Service again, both to validate items as they
+ * are added and at checkout. Stale and missing products are fetched together
+ * in one batch through the lookup coalescer, so concurrent carts share calls.
+ */
+@Component
+public class CartCatalog {
+
+    private record Snapshot(ProductDto product, long fetchedAtMs) {
+    }
+
+    private final DownstreamLookupCoalescer downstreamLookupCoalescer;
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final Counter freshHits;
+    private final Counter fetched;
+
+    @Value("${order.cart.product-ttl-ms:30000}")
+    private long productTtlMs;
+
+    @Value("${order.cart.max-products:50000}")
+    private int maxProducts;
+
+    @Autowired
+    public CartCatalog(DownstreamLookupCoalescer downstreamLookupCoalescer, MeterRegistry meterRegistry) {
+        this.downstreamLookupCoalescer = downstreamLookupCoalescer;
+
+        this.freshHits = Counter.builder("order.carts.product_lookups")
+                .description("Product snapshots needed by carts, by where they came from")
+                .tag("source", "fresh")
+                .register(meterRegistry);
+        this.fetched = Counter.builder("order.carts.product_lookups")
+                .description("Product snapshots needed by carts, by where they came from")
+                .tag("source", "fetched")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return null if Product Service does not know the product
+     */
+    public ProductDto get(long productId) {
+        return getAll(new long[]{productId}).get(productId);
+    }
+
+    /**
+     * Fresh snapshots for the given products; unknown products are absent from the result.
+     */
+    public Map<Long, ProductDto> getAll(long[] productIds) {
+        long now = System.currentTimeMillis();
+        Map<Long, ProductDto> products = new HashMap<>();
+        List<Long> stale = new ArrayList<>();
+
+        for (long productId : productIds) {
+            Snapshot snapshot = snapshots.get(productId);
+            if (snapshot != null && now - snapshot.fetchedAtMs() <= productTtlMs) {
+                products.put(productId, snapshot.product());
+            } else {
+                stale.add(productId);
+            }
+        }
+        freshHits.increment(products.size());
+
+        if (!stale.isEmpty()) {
+            fetched.increment(stale.size());
+            for (ProductDto product : downstreamLookupCoalescer.getProductsByIds(stale)) {
+                products.put(product.id(), product);
+                if (snapshots.size() < maxProducts || snapshots.containsKey(product.id())) {
+                    snapshots.put(product.id(), new Snapshot(product, now));
+                }
+            }
+            // Forget products that no longer exist
+            stale.stream().filter(id -> !products.containsKey(id)).forEach(snapshots::remove);
+        }
+
+        return products;
+    }
+
+    @Scheduled(fixedDelayString = "${order.cart.sweep-interval-ms:60000}")
+    public void evictStale() {
+        long staleBefore = System.currentTimeMillis() - productTtlMs;
+        snapshots.values().removeIf(snapshot -> snapshot.fetchedAtMs() < staleBefore);
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+}
@@ -0,0 +1,305 @@
+package com.msproj.orderservice.cart;
+
+import com.msproj.orderservice.coalescing.DownstreamLookupCoalescer;
+import com.msproj.orderservice.dto.*;
+import com.msproj.orderservice.entity.Order;
+import com.msproj.orderservice.entity.OrderItem;
+import com.msproj.orderservice.exception.InsufficientStockException;
+import com.msproj.orderservice.exception.InvalidOrderStateException;
+import com.msproj.orderservice.exception.ProductNotAvailableException;
+import com.msproj.orderservice.exception.ProductNotFoundException;
+import com.msproj.orderservice.pricing.OrderPricingEngine;
+import com.msproj.orderservice.service.OrderService;
+import com.msproj.orderservice.service.PrevalidatedLookups;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Server-side shopping carts: validated as items are added, pre-priced on every
+ * view and checked out into createOrder in one call.
+ * <p>
+ * Items are checked against a fresh product snapshot (CartCatalog) when added,
+ * so checkout only refetches products whose snapshot has gone stale, and the
+ * customer fetched for pricing the cart is reused too. Carts live in this
+ * node's InMemoryCartStore and are persisted write-behind; a customer's cart
+ * requests are expected to reach the same instance, as any other instance
+ * would serve the last persisted copy.
+ */
+@Service
+public class CartService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartService.class);
+
+    private final InMemoryCartStore inMemoryCartStore;
+    private final CartWriteBehind cartWriteBehind;
+    private final CartCatalog cartCatalog;
+    private final DownstreamLookupCoalescer downstreamLookupCoalescer;
+    private final OrderService orderService;
+    private final OrderPricingEngine orderPricingEngine;
+
+    private final Counter checkouts;
+
+    @Value("${order.cart.max-lines:100}")
+    private int maxLines;
+
+    @Value("${order.cart.customer-ttl-ms:300000}")
+    private long customerTtlMs;
+
+    @Autowired
+    public CartService(InMemoryCartStore inMemoryCartStore,
+                       CartWriteBehind cartWriteBehind,
+                       CartCatalog cartCatalog,
+                       DownstreamLookupCoalescer downstreamLookupCoalescer,
+                       OrderService orderService,
+                       OrderPricingEngine orderPricingEngine,
+                       MeterRegistry meterRegistry) {
+        this.inMemoryCartStore = inMemoryCartStore;
+        this.cartWriteBehind = cartWriteBehind;
+        this.cartCatalog = cartCatalog;
+        this.downstreamLookupCoalescer = downstreamLookupCoalescer;
+        this.orderService = orderService;
+        this.orderPricingEngine = orderPricingEngine;
+
+        this.checkouts = Counter.builder("order.carts.checkouts")
+                .description("Carts checked out into orders")
+                .register(meterRegistry);
+    }
+
+    public CartDto getCart(Long customerId) {
+        return view(cart(customerId));
+    }
+
+    /**
+     * Add to the line's quantity, validated against a fresh product snapshot
+     */
+    public CartDto addItem(Long customerId, CreateOrderItemDto item) {
+        return changeItem(customerId, item, true);
+    }
+
+    /**
+     * Replace the line's quantity, validated against a fresh product snapshot
+     */
+    public CartDto setItem(Long customerId, CreateOrderItemDto item) {
+        return changeItem(customerId, item, false);
+    }
+
+    public CartDto removeItem(Long customerId, Long productId) {
+        Cart cart = cart(customerId);
+        cart.setQuantity(productId, 0);
+        cartWriteBehind.markDirty(cart);
+        return view(cart);
+    }
+
+    public void clearCart(Long customerId) {
+        Cart cart = cart(customerId);
+        cart.clear();
+        cartWriteBehind.markDirty(cart);
+    }
+
+    /**
+     * Turn the cart into an order; the cart is emptied once the order is created.
+     */
+    public OrderResponseDto checkout(Long customerId, CartCheckoutRequestDto checkoutDto) {
+        Cart cart = cart(customerId);
+        if (!cart.beginCheckout()) {
+            throw new InvalidOrderStateException("Cart of customer " + customerId + " is already being checked out");
+        }
+
+        boolean ordered = false;
+        try {
+            Cart.Lines lines = cart.lines();
+            if (lines.size() == 0) {
+                throw new InvalidOrderStateException("Cart of customer " + customerId + " is empty");
+            }
+
+            // Only stale snapshots are fetched again, in one batch
+            Map<Long, ProductDto> products = cartCatalog.getAll(lines.productIds());
+            UserDto customer = cart.customerIfFresh(System.currentTimeMillis(), customerTtlMs);
+
+            CreateOrderRequestDto requestDto = new CreateOrderRequestDto();
+            requestDto.setCustomerId(customerId);
+            requestDto.setItems(orderItems(lines));
+            requestDto.setShippingAddress(checkoutDto.getShippingAddress());
+            requestDto.setBillingAddress(checkoutDto.getBillingAddress());
+            requestDto.setPaymentMethod(checkoutDto.getPaymentMethod());
+            requestDto.setPaymentDetails(checkoutDto.getPaymentDetails());
+            requestDto.setNotes(checkoutDto.getNotes());
+
+            OrderResponseDto order = orderService.createOrder(requestDto, new PrevalidatedLookups(customer, products));
+            ordered = true;
+            checkouts.increment();
+
+            logger.info("Checked out cart of customer {} into order {}", customerId, order.getId());
+            return order;
+
+        } finally {
+            cart.endCheckout(ordered);
+            if (ordered) {
+                cartWriteBehind.markDirty(cart);
+            }
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>(cartWriteBehind.getStatistics());
+        stats.put("activeCarts", inMemoryCartStore.size());
+        stats.put("cachedProducts", cartCatalog.size());
+        stats.put("checkouts", (long) checkouts.count());
+        stats.put("timestamp", LocalDateTime.now());
+        return stats;
+    }
+
+    private CartDto changeItem(Long customerId, CreateOrderItemDto item, boolean add) {
+        Cart cart = cart(customerId);
+        ProductDto product = cartCatalog.get(item.getProductId());
+        if (product == null) {
+            throw new ProductNotFoundException(item.getProductId());
+        }
+
+        synchronized (cart) {
+            int current = cart.quantityOf(product.id());
+            int quantity = add ? current + item.getQuantity() : item.getQuantity();
+
+            if (current == 0 && cart.size() >= maxLines) {
+                throw new InvalidOrderStateException("A cart can hold at most " + maxLines + " products");
+            }
+            validate(product, quantity);
+            cart.setQuantity(product.id(), quantity);
+        }
+
+        cartWriteBehind.markDirty(cart);
+        return view(cart);
+    }
+
+    private Cart cart(Long customerId) {
+        Cart cart = inMemoryCartStore.get(customerId);
+        if (cart != null) {
+            return cart;
+        }
+
+        // Loaded outside the segment lock; a concurrent load of the same cart loses the race harmlessly
+        Cart loaded = cartWriteBehind.load(customerId);
+        return inMemoryCartStore.putIfAbsent(loaded != null ? loaded : new Cart(customerId));
+    }
+
+    /**
+     * Price the orderable lines the way createOrder will, without a shipping address.
+     */
+    private CartDto view(Cart cart) {
+        Cart.Lines lines = cart.lines();
+        Map<Long, ProductDto> products = cartCatalog.getAll(lines.productIds());
+
+        Order order = new Order();
+        List<OrderItem> priced = new ArrayList<>();
+        List<String> problems = new ArrayList<>();
+
+        for (int i = 0; i < lines.size(); i++) {
+            ProductDto product = products.get(lines.productIds()[i]);
+            String problem = problem(product, lines.quantities()[i]);
+            problems.add(problem);
+
+            if (problem == null) {
+                OrderItem item = new OrderItem(product.id(), product.name(), product.sku(),
+                        product.price(), lines.quantities()[i]);
+                item.setProductCategory(product.categoryName());
+                order.addOrderItem(item);
+                priced.add(item);
+            } else {
+                priced.add(null);
+            }
+        }
+
+        UserDto customer = customer(cart);
+        orderPricingEngine.price(order, customer != null ? customer.customerTier() : null);
+
+        List<CartLineDto> lineDtos = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            long productId = lines.productIds()[i];
+            ProductDto product = products.get(productId);
+            OrderItem item = priced.get(i);
+            lineDtos.add(new CartLineDto(
+                    productId,
+                    product != null ? product.name() : null,
+                    product != null ? product.sku() : null,
+                    product != null ? product.price() : null,
+                    lines.quantities()[i],
+                    item != null ? item.getSubtotal() : null,
+                    product != null ? product.stockQuantity() : null,
+                    problems.get(i)));
+        }
+
+        return new CartDto(
+                cart.customerId(),
+                lineDtos,
+                lines.size(),
+                order.getTotalAmount(),
+                order.getDiscountAmount(),
+                order.getTaxAmount(),
+                order.getShippingAmount(),
+                order.getFinalAmount(),
+                lines.size() > 0 && problems.stream().allMatch(p -> p == null));
+    }
+
+    /**
+     * The customer for tier pricing, cached on the cart; null if User Service cannot be reached.
+     */
+    private UserDto customer(Cart cart) {
+        long now = System.currentTimeMillis();
+        UserDto customer = cart.customerIfFresh(now, customerTtlMs);
+        if (customer != null) {
+            return customer;
+        }
+
+        try {
+            customer = downstreamLookupCoalescer.getUserById(cart.customerId());
+            if (customer != null) {
+                cart.setCustomer(customer, now);
+            }
+            return customer;
+        } catch (Exception e) {
+            logger.warn("Pricing cart of customer {} without tier: {}", cart.customerId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static void validate(ProductDto product, int quantity) {
+        if (!Boolean.TRUE.equals(product.isAvailable())) {
+            throw new ProductNotAvailableException(product.name());
+        }
+        if (product.stockQuantity() == null || product.stockQuantity() < quantity) {
+            throw new InsufficientStockException(product.name(), product.stockQuantity(), quantity);
+        }
+    }
+
+    private static String problem(ProductDto product, int quantity) {
+        if (product == null) {
+            return "Product no longer exists";
+        }
+        if (!Boolean.TRUE.equals(product.isAvailable())) {
+            return "Product is not available";
+        }
+        if (product.stockQuantity() == null || product.stockQuantity() < quantity) {
+            return "Only " + product.stockQuantity() + " in stock";
+        }
+        return null;
+    }
+
+    private static List<CreateOrderItemDto> orderItems(Cart.Lines lines) {
+        List<CreateOrderItemDto> items = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            items.add(new CreateOrderItemDto(lines.productIds()[i], lines.quantities()[i]));
+        }
+        return items;
+    }
+}
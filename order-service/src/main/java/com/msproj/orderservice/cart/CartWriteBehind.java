@@ -0,0 +1,193 @@
+package com.msproj.orderservice.cart;
+
+import com.msproj.orderservice.repository.SavedCartStore;
+import com.msproj.orderservice.repository.SavedCartStore.CartRow;
+import com.msproj.orderservice.sharding.ShardContext;
+import com.msproj.orderservice.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind persistence of carts into the carts table.
+ * <p>
+ * Cart changes only queue the cart; the flusher drains the queue every
+ * order.cart.flush-interval-ms and writes each cart's latest lines, batched
+ * per shard of the customer. A cart changed again while queued is written
+ * once. A failed batch is re-queued and retried on the next flush, and the
+ * queue is drained on shutdown, so at most one flush interval of changes is
+ * at risk on a crash.
+ */
+@Component
+public class CartWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartWriteBehind.class);
+
+    private record Pending(Cart cart, CartRow row) {
+    }
+
+    private final SavedCartStore savedCartStore;
+    private final ShardRouter shardRouter;
+
+    private final Queue<Cart> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Counter flushed;
+    private final Counter flushFailures;
+    private final Counter loaded;
+
+    @Value("${order.cart.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    @Value("${order.cart.ttl-hours:168}")
+    private long ttlHours;
+
+    @Autowired
+    public CartWriteBehind(SavedCartStore savedCartStore, ShardRouter shardRouter, MeterRegistry meterRegistry) {
+        this.savedCartStore = savedCartStore;
+        this.shardRouter = shardRouter;
+
+        this.flushed = Counter.builder("order.carts.flushed")
+                .description("Cart versions written to or deleted from the carts table")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("order.carts.flush_failures")
+                .description("Cart flush batches that failed and were re-queued")
+                .register(meterRegistry);
+        this.loaded = Counter.builder("order.carts.loaded")
+                .description("Carts restored from the carts table into memory")
+                .register(meterRegistry);
+        Gauge.builder("order.carts.flush_queue", queued, AtomicInteger::get)
+                .description("Changed carts waiting to be persisted")
+                .register(meterRegistry);
+    }
+
+    public void markDirty(Cart cart) {
+        if (cart.markQueued()) {
+            queue.add(cart);
+            queued.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return the persisted cart, an empty cart if its row has expired, or null if there is none
+     */
+    public Cart load(long customerId) {
+        return ShardContext.callOn(shardRouter.shardForCustomer(customerId), () -> savedCartStore.find(customerId))
+                .map(row -> {
+                    loaded.increment();
+                    // Keep the row's version so the next write is not rejected as older
+                    byte[] lines = row.expiresAt().isAfter(LocalDateTime.now()) ? row.lines() : new byte[0];
+                    return Cart.decode(customerId, row.version(), lines);
+                })
+                .orElse(null);
+    }
+
+    @Scheduled(fixedDelayString = "${order.cart.flush-interval-ms:1000}")
+    public void flush() {
+        List<Cart> batch = new ArrayList<>(flushBatchSize);
+
+        while (!queue.isEmpty()) {
+            batch.clear();
+            Cart cart;
+            while (batch.size() < flushBatchSize && (cart = queue.poll()) != null) {
+                queued.decrementAndGet();
+                batch.add(cart);
+            }
+
+            if (!flushBatch(batch)) {
+                break;
+            }
+        }
+    }
+
+    private boolean flushBatch(List<Cart> batch) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(ttlHours);
+        Map<Integer, List<Pending>> byShard = new TreeMap<>();
+
+        for (Cart cart : batch) {
+            Cart.Lines lines = cart.lines();
+            CartRow row = new CartRow(cart.customerId(), lines.version(), Cart.encode(lines), expiresAt);
+            byShard.computeIfAbsent(shardRouter.shardForCustomer(cart.customerId()), shard -> new ArrayList<>())
+                    .add(new Pending(cart, row));
+        }
+
+        boolean succeeded = true;
+        for (Map.Entry<Integer, List<Pending>> entry : byShard.entrySet()) {
+            List<Pending> pending = entry.getValue();
+            try {
+                ShardContext.runOn(entry.getKey(), () -> {
+                    savedCartStore.upsertAll(pending.stream()
+                            .map(Pending::row).filter(row -> row.lines().length > 0).toList());
+                    savedCartStore.deleteAll(pending.stream()
+                            .map(Pending::row).filter(row -> row.lines().length == 0).toList());
+                });
+                pending.forEach(p -> p.cart().markPersisted(p.row().version()));
+                flushed.increment(pending.size());
+
+            } catch (Exception e) {
+                logger.warn("Flushing {} carts on shard {} failed, will retry: {}",
+                        pending.size(), entry.getKey(), e.getMessage());
+                flushFailures.increment();
+                pending.forEach(p -> {
+                    p.cart().markFlushFailed();
+                    markDirty(p.cart());
+                });
+                succeeded = false;
+            }
+        }
+
+        // Changed again while being written: queue the newer version
+        batch.forEach(this::markDirty);
+        return succeeded;
+    }
+
+    @Scheduled(fixedDelayString = "${order.cart.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        AtomicInteger purged = new AtomicInteger();
+
+        try {
+            shardRouter.forEachShard(shard -> purged.addAndGet(savedCartStore.purgeExpired(now)));
+        } catch (Exception e) {
+            logger.warn("Purging expired carts failed: {}", e.getMessage());
+        }
+
+        if (purged.get() > 0) {
+            logger.info("Purged {} expired carts", purged.get());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        logger.info("Flushing {} queued carts before shutdown", queued.get());
+        flush();
+    }
+
+    public int queueSize() {
+        return queued.get();
+    }
+
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+                "flushQueue", queued.get(),
+                "flushed", (long) flushed.count(),
+                "flushFailures", (long) flushFailures.count(),
+                "loaded", (long) loaded.count());
+    }
+}
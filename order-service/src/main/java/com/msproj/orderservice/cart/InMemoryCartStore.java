@@ -0,0 +1,167 @@
+package com.msproj.orderservice.cart;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Active carts of this node, split into lock-striped segments by customer id.
+ * <p>
+ * Each segment is an access-ordered LinkedHashMap, so the least recently used
+ * carts sit at the head: idle eviction and the per-segment capacity bound both
+ * walk from there and stop at the first cart that must stay. Only clean carts
+ * are evicted; a dirty one stays until the write-behind flush has persisted
+ * it, so eviction never loses a change. An evicted cart is reloaded from the
+ * carts table on its next access.
+ * <p>
+ * Footprint is roughly 250 bytes per cart plus 12 bytes per line.
+ */
+@Component
+public class InMemoryCartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryCartStore.class);
+
+    private static final class Segment {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<Long, Cart> carts = new LinkedHashMap<>(256, 0.75f, true);
+    }
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final int maxCartsPerSegment;
+    private final long idleTtlMs;
+
+    private final Counter evictedIdle;
+    private final Counter evictedCapacity;
+
+    @Autowired
+    public InMemoryCartStore(@Value("${order.cart.segments:64}") int segments,
+                             @Value("${order.cart.max-carts:150000}") int maxCarts,
+                             @Value("${order.cart.idle-ttl-ms:1800000}") long idleTtlMs,
+                             MeterRegistry meterRegistry) {
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(1, segments) - 1);
+        this.segments = new Segment[1 << bits];
+        for (int i = 0; i < this.segments.length; i++) {
+            this.segments[i] = new Segment();
+        }
+        this.segmentShift = 32 - bits;
+        this.maxCartsPerSegment = Math.max(1, maxCarts / this.segments.length);
+        this.idleTtlMs = idleTtlMs;
+
+        this.evictedIdle = Counter.builder("order.carts.evicted")
+                .description("Carts dropped from memory; they stay persisted")
+                .tag("reason", "idle")
+                .register(meterRegistry);
+        this.evictedCapacity = Counter.builder("order.carts.evicted")
+                .description("Carts dropped from memory; they stay persisted")
+                .tag("reason", "capacity")
+                .register(meterRegistry);
+        Gauge.builder("order.carts.active", this, InMemoryCartStore::size)
+                .description("Carts held in memory on this node")
+                .register(meterRegistry);
+    }
+
+    Cart get(long customerId) {
+        Segment segment = segmentFor(customerId);
+        segment.lock.lock();
+        try {
+            Cart cart = segment.carts.get(customerId);
+            if (cart != null) {
+                cart.lastAccessMs = System.currentTimeMillis();
+            }
+            return cart;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * @return the cart already held for the customer, or the given one once added
+     */
+    Cart putIfAbsent(Cart cart) {
+        Segment segment = segmentFor(cart.customerId());
+        segment.lock.lock();
+        try {
+            Cart existing = segment.carts.get(cart.customerId());
+            if (existing != null) {
+                existing.lastAccessMs = System.currentTimeMillis();
+                return existing;
+            }
+
+            cart.lastAccessMs = System.currentTimeMillis();
+            segment.carts.put(cart.customerId(), cart);
+
+            if (segment.carts.size() > maxCartsPerSegment) {
+                // The new cart is the most recent entry, so the walk stops before reaching it
+                evict(segment, cart.lastAccessMs, segment.carts.size() - maxCartsPerSegment, evictedCapacity);
+            }
+            return cart;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.cart.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long idleSince = System.currentTimeMillis() - idleTtlMs;
+        int evicted = 0;
+
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                evicted += evict(segment, idleSince, Integer.MAX_VALUE, evictedIdle);
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle carts, {} remain in memory", evicted, size());
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.carts.size();
+        }
+        return size;
+    }
+
+    /**
+     * Remove up to limit clean carts last accessed before the cutoff, least recent first.
+     * Stops at the first cart accessed at or after the cutoff.
+     */
+    private static int evict(Segment segment, long accessedBefore, int limit, Counter counter) {
+        int evicted = 0;
+        Iterator<Cart> iterator = segment.carts.values().iterator();
+
+        while (evicted < limit && iterator.hasNext()) {
+            Cart cart = iterator.next();
+            if (cart.lastAccessMs >= accessedBefore) {
+                break;
+            }
+            if (!cart.isDirty()) {
+                iterator.remove();
+                evicted++;
+            }
+        }
+
+        counter.increment(evicted);
+        return evicted;
+    }
+
+    private Segment segmentFor(long customerId) {
+        return segments[(Long.hashCode(customerId) * 0x9E3779B9) >>> segmentShift & (segments.length - 1)];
+    }
+}
@@ -1,9 +1,12 @@
 package com.msproj.orderservice.client;
 
+import com.msproj.orderservice.dto.BulkStockAdjustmentResultDto;
 import com.msproj.orderservice.dto.ProductDto;
 import com.msproj.orderservice.fallback.ProductServiceFallback;
+import com.msproj.orderservice.request.BulkStockAdjustmentRequest;
 import com.msproj.orderservice.request.ProductAvailabilityRequest;
 import com.msproj.orderservice.request.StockUpdateRequest;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -21,20 +24,31 @@ public interface ProductServiceClient {
 
     @GetMapping("/api/products/{id}")
     @CircuitBreaker(name = "product-service", fallbackMethod = "getProductByIdFallback")
+    @Bulkhead(name = "product-service")
     @Retry(name = "product-service")
     ProductDto getProductById(@PathVariable("id") Long id);
 
     @PostMapping("/api/products/batch1")
     @CircuitBreaker(name = "product-service")
+    @Bulkhead(name = "product-service")
     @Retry(name = "product-service")
     List<ProductDto> getProductsByIds(@RequestBody List<Long> productIds);
 
     @PatchMapping("/api/products/{id}/stock")
     @CircuitBreaker(name = "product-service")
+    @Bulkhead(name = "product-service")
     @Retry(name = "product-service")
     ProductDto updateProductStock(@PathVariable("id") Long productId, @RequestBody StockUpdateRequest request);
 
+    // Idempotent on the request's referenceId, so it is safe to retry
+    @PostMapping("/api/products/stock/adjustments")
+    @CircuitBreaker(name = "product-service")
+    @Bulkhead(name = "product-service")
+    @Retry(name = "product-service")
+    BulkStockAdjustmentResultDto applyStockAdjustments(@RequestBody BulkStockAdjustmentRequest request);
+
     @PostMapping("/api/products/check-availability")
     @CircuitBreaker(name = "product-service")
+    @Bulkhead(name = "product-service")
     Map<Long, Boolean> checkProductsAvailability(@RequestBody List<ProductAvailabilityRequest> requests);
 }
@@ -1,8 +1,11 @@
 package com.msproj.orderservice.client;
 
+import com.msproj.orderservice.dto.BulkLoyaltyPointsResultDto;
 import com.msproj.orderservice.dto.UserDto;
 import com.msproj.orderservice.fallback.UserServiceFallback;
+import com.msproj.orderservice.request.BulkLoyaltyPointsRequest;
 import com.msproj.orderservice.request.LoyaltyPointsRequest;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -19,12 +22,20 @@ public interface UserServiceClient {
 
     @GetMapping("/api/users/{id}")
     @CircuitBreaker(name = "user-service")
+    @Bulkhead(name = "user-service")
     @Retry(name = "user-service")
     UserDto getUserById(@PathVariable("id") Long id);
 
     @PostMapping("/api/users/{id}/loyalty-points")
     @CircuitBreaker(name = "user-service")
+    @Bulkhead(name = "user-service")
     @Retry(name = "user-service")
     void addLoyaltyPoints(@PathVariable("id") Long customerId, @RequestBody LoyaltyPointsRequest request);
+
+    @PostMapping("/api/users/loyalty-points/bulk")
+    @CircuitBreaker(name = "user-service")
+    @Bulkhead(name = "user-service")
+    @Retry(name = "user-service")
+    BulkLoyaltyPointsResultDto applyLoyaltyPointsBatch(@RequestBody BulkLoyaltyPointsRequest request);
 }
 
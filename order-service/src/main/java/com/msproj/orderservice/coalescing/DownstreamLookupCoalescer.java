@@ -0,0 +1,157 @@
+package com.msproj.orderservice.coalescing;
+
+import com.msproj.orderservice.client.ProductServiceClient;
+import com.msproj.orderservice.client.UserServiceClient;
+import com.msproj.orderservice.dto.ProductDto;
+import com.msproj.orderservice.dto.UserDto;
+import com.msproj.orderservice.exception.ConcurrencyLimitExceededException;
+import com.msproj.orderservice.exception.DeadlineExceededException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces the lookups on the checkout path:
+ * - getUserById: concurrent calls for the same user share one Feign call
+ * - getProductsByIds: concurrent batch lookups within order.coalescing.batch-window-micros
+ *   are merged into one batch call for the union of their product IDs
+ * <p>
+ * Metrics (tag client): order.coalescing.requests / order.coalescing.calls
+ * (dedup ratio = 1 - calls / requests, in keys for products),
+ * order.coalescing.window for the latency added by holding batches open and
+ * order.coalescing.latency for the lookup time callers see.
+ */
+@Component
+public class DownstreamLookupCoalescer {
+
+    private static final String USER_CLIENT = "user-service";
+    private static final String PRODUCT_CLIENT = "product-service";
+
+    private final UserServiceClient userServiceClient;
+    private final ProductServiceClient productServiceClient;
+    private final boolean enabled;
+
+    private final SingleFlight<Long, UserDto> userLookups = new SingleFlight<>(DownstreamLookupCoalescer::isCallerSpecific);
+    private final MicroBatcher<Long, ProductDto> productLookups;
+
+    private final Timer userLatency;
+    private final Timer productLatency;
+
+    @Autowired
+    public DownstreamLookupCoalescer(UserServiceClient userServiceClient,
+                                     ProductServiceClient productServiceClient,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${order.coalescing.enabled:true}") boolean enabled,
+                                     @Value("${order.coalescing.batch-window-micros:2000}") long batchWindowMicros,
+                                     @Value("${order.coalescing.max-batch-size:200}") int maxBatchSize) {
+        this.userServiceClient = userServiceClient;
+        this.productServiceClient = productServiceClient;
+        this.enabled = enabled;
+        this.productLookups = new MicroBatcher<>(this::loadProducts, DownstreamLookupCoalescer::isCallerSpecific,
+                TimeUnit.MICROSECONDS.toNanos(batchWindowMicros), maxBatchSize);
+
+        register(meterRegistry, USER_CLIENT, userLookups, SingleFlight::getRequests, SingleFlight::getExecutions);
+        register(meterRegistry, PRODUCT_CLIENT, productLookups, MicroBatcher::getRequestedKeys, MicroBatcher::getLoadedKeys);
+        FunctionTimer.builder("order.coalescing.window", productLookups,
+                        MicroBatcher::getBatches, MicroBatcher::getWindowNanosTotal, TimeUnit.NANOSECONDS)
+                .description("Time batches were held open to collect lookups")
+                .tag("client", PRODUCT_CLIENT)
+                .register(meterRegistry);
+
+        this.userLatency = latencyTimer(meterRegistry, USER_CLIENT);
+        this.productLatency = latencyTimer(meterRegistry, PRODUCT_CLIENT);
+    }
+
+    public UserDto getUserById(Long userId) {
+        if (!enabled) {
+            return userServiceClient.getUserById(userId);
+        }
+        return userLatency.record(() -> userLookups.execute(userId, () -> userServiceClient.getUserById(userId)));
+    }
+
+    /**
+     * @return the products found, in no particular order, like the batch endpoint
+     */
+    public List<ProductDto> getProductsByIds(List<Long> productIds) {
+        if (!enabled) {
+            return productServiceClient.getProductsByIds(productIds);
+        }
+        return productLatency.record(() -> new ArrayList<>(productLookups.getAll(productIds).values()));
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put(USER_CLIENT, Map.of(
+                "requests", userLookups.getRequests(),
+                "calls", userLookups.getExecutions(),
+                "dedupRatio", dedupRatio(userLookups.getRequests(), userLookups.getExecutions()),
+                "meanLatencyMs", userLatency.mean(TimeUnit.MILLISECONDS)));
+        stats.put(PRODUCT_CLIENT, Map.of(
+                "requestedKeys", productLookups.getRequestedKeys(),
+                "loadedKeys", productLookups.getLoadedKeys(),
+                "batches", productLookups.getBatches(),
+                "dedupRatio", dedupRatio(productLookups.getRequestedKeys(), productLookups.getLoadedKeys()),
+                "meanWindowMs", productLookups.getBatches() == 0 ? 0.0
+                        : productLookups.getWindowNanosTotal() / productLookups.getBatches() / 1_000_000.0,
+                "meanLatencyMs", productLatency.mean(TimeUnit.MILLISECONDS)));
+        stats.put("timestamp", LocalDateTime.now());
+        return stats;
+    }
+
+    private Map<Long, ProductDto> loadProducts(Set<Long> productIds) {
+        return productServiceClient.getProductsByIds(new ArrayList<>(productIds)).stream()
+                .collect(Collectors.toMap(ProductDto::id, Function.identity(), (first, second) -> first));
+    }
+
+    /**
+     * The deadline and the bulkhead or concurrency limit slot belong to the caller that made the
+     * call, so callers that shared it retry on their own instead of failing with it.
+     */
+    static boolean isCallerSpecific(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof DeadlineExceededException
+                    || t instanceof ConcurrencyLimitExceededException
+                    || t instanceof BulkheadFullException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double dedupRatio(long requests, long calls) {
+        return requests == 0 ? 0.0 : 1.0 - (double) calls / requests;
+    }
+
+    private static <T> void register(MeterRegistry registry, String client, T source,
+                                     ToDoubleFunction<T> requests, ToDoubleFunction<T> calls) {
+        FunctionCounter.builder("order.coalescing.requests", source, requests)
+                .description("Lookups requested by callers (keys for batch lookups)")
+                .tag("client", client)
+                .register(registry);
+        FunctionCounter.builder("order.coalescing.calls", source, calls)
+                .description("Lookups sent downstream after coalescing (keys for batch lookups)")
+                .tag("client", client)
+                .register(registry);
+    }
+
+    private static Timer latencyTimer(MeterRegistry registry, String client) {
+        return Timer.builder("order.coalescing.latency")
+                .description("Time callers spend in a coalesced lookup, including any batch window")
+                .tag("client", client)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+    }
+}
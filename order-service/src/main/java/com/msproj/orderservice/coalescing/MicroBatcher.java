@@ -0,0 +1,177 @@
+package com.msproj.orderservice.coalescing;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Merges concurrent multi-key lookups into one batch call per time window.
+ * <p>
+ * The first caller to find no open batch opens one and becomes its leader:
+ * it waits for the window, closes the batch and loads the union of all keys
+ * requested meanwhile on its own thread. Keys already in a dispatched batch
+ * are not requested again but share that batch's result. Once a batch holds
+ * maxBatchSize keys the next key opens a new batch, led by that caller.
+ * <p>
+ * Keys shared from another caller's batch are waited for within this
+ * caller's request deadline. Those its deadline runs out on, or whose batch
+ * failed for a reason that belongs to that batch's leader (callerSpecific),
+ * are loaded again in one call on this caller's thread.
+ */
+public class MicroBatcher<K, V> {
+
+    private final Function<Set<K>, Map<K, V>> batchLoader;
+    private final Predicate<Throwable> callerSpecific;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+    private Batch<K, V> open;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder requestedKeys = new LongAdder();
+    private final LongAdder loadedKeys = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder windowNanosTotal = new LongAdder();
+
+    /**
+     * @param callerSpecific failures of a batch call that are not shared with the other callers in it
+     */
+    public MicroBatcher(Function<Set<K>, Map<K, V>> batchLoader, Predicate<Throwable> callerSpecific,
+                        long windowNanos, int maxBatchSize) {
+        this.batchLoader = batchLoader;
+        this.callerSpecific = callerSpecific;
+        this.windowNanos = windowNanos;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * @return values of the requested keys that the loader found
+     */
+    public Map<K, V> getAll(Collection<K> keys) {
+        Set<K> distinct = new LinkedHashSet<>(keys);
+        Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        List<Batch<K, V>> led = new ArrayList<>();
+
+        synchronized (lock) {
+            for (K key : distinct) {
+                CompletableFuture<V> future = inFlight.get(key);
+
+                if (future == null) {
+                    if (open == null || open.futures.size() >= maxBatchSize) {
+                        open = new Batch<>();
+                        led.add(open);
+                    }
+                    future = open.futures.computeIfAbsent(key, k -> new CompletableFuture<>());
+                }
+                futures.put(key, future);
+            }
+        }
+        requestedKeys.add(distinct.size());
+
+        if (!led.isEmpty()) {
+            long start = System.nanoTime();
+            LockSupport.parkNanos(windowNanos);
+            windowNanosTotal.add(System.nanoTime() - start);
+            dispatch(led);
+        }
+
+        Set<K> ownKeys = new HashSet<>();
+        led.forEach(batch -> ownKeys.addAll(batch.futures.keySet()));
+
+        Map<K, V> values = new LinkedHashMap<>();
+        Set<K> unanswered = new LinkedHashSet<>();
+        futures.forEach((key, future) -> {
+            V value;
+            if (ownKeys.contains(key)) {
+                value = SingleFlight.await(future);
+            } else {
+                SingleFlight.Shared<V> shared = SingleFlight.awaitShared(future, callerSpecific);
+                if (shared == null) {
+                    unanswered.add(key);
+                    return;
+                }
+                value = shared.value();
+            }
+            if (value != null) {
+                values.put(key, value);
+            }
+        });
+
+        if (!unanswered.isEmpty()) {
+            batches.increment();
+            loadedKeys.add(unanswered.size());
+            Map<K, V> loaded = batchLoader.apply(Collections.unmodifiableSet(unanswered));
+            if (loaded != null) {
+                unanswered.forEach(key -> {
+                    V value = loaded.get(key);
+                    if (value != null) {
+                        values.put(key, value);
+                    }
+                });
+            }
+        }
+        return values;
+    }
+
+    public long getRequestedKeys() {
+        return requestedKeys.sum();
+    }
+
+    public long getLoadedKeys() {
+        return loadedKeys.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * Total time batches were held open, the latency added on top of the call
+     */
+    public double getWindowNanosTotal() {
+        return windowNanosTotal.sum();
+    }
+
+    /**
+     * Close the batches this caller leads to new keys, then load them.
+     */
+    private void dispatch(List<Batch<K, V>> led) {
+        synchronized (lock) {
+            for (Batch<K, V> batch : led) {
+                if (open == batch) {
+                    open = null;
+                }
+                inFlight.putAll(batch.futures);
+            }
+        }
+
+        led.forEach(this::load);
+    }
+
+    private void load(Batch<K, V> batch) {
+        if (batch.futures.isEmpty()) {
+            return;
+        }
+
+        batches.increment();
+        loadedKeys.add(batch.futures.size());
+        try {
+            Map<K, V> loaded = batchLoader.apply(Collections.unmodifiableSet(batch.futures.keySet()));
+            batch.futures.forEach((key, future) -> future.complete(loaded != null ? loaded.get(key) : null));
+        } catch (Throwable e) {
+            batch.futures.values().forEach(future -> future.completeExceptionally(e));
+        } finally {
+            batch.futures.forEach(inFlight::remove);
+        }
+    }
+
+    // Only the open batch takes new keys, and only while the lock is held
+    private static final class Batch<K, V> {
+        private final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+    }
+}
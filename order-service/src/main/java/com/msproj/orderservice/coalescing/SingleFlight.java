@@ -0,0 +1,127 @@
+package com.msproj.orderservice.coalescing;
+
+import com.msproj.servicesupport.deadline.RequestDeadline;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one execution.
+ * <p>
+ * The first caller for a key runs the loader on its own thread; callers
+ * arriving while it is in flight wait for and share its result or exception.
+ * Nothing is cached: once the call completes the next caller loads again.
+ * <p>
+ * A waiting caller is bounded by its own request deadline, not the leader's.
+ * When its deadline passes first, or the leader's call failed for a reason
+ * that belongs to the leader (callerSpecific, e.g. the leader's deadline or
+ * bulkhead rejection), it runs the loader itself.
+ */
+public class SingleFlight<K, V> {
+
+    private final Predicate<Throwable> callerSpecific;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+
+    /**
+     * @param callerSpecific failures of the leader's call that are not shared with its followers
+     */
+    public SingleFlight(Predicate<Throwable> callerSpecific) {
+        this.callerSpecific = callerSpecific;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        requests.increment();
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+
+        if (existing != null) {
+            Shared<V> shared = awaitShared(existing, callerSpecific);
+            if (shared != null) {
+                return shared.value();
+            }
+            executions.increment();
+            return loader.get();
+        }
+
+        executions.increment();
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * Waits for a call made by another caller, within the current request deadline.
+     *
+     * @return the shared outcome, or null when this caller has to make the call itself
+     */
+    static <V> Shared<V> awaitShared(CompletableFuture<V> future, Predicate<Throwable> callerSpecific) {
+        long remaining = RequestDeadline.remainingMillis();
+        try {
+            V value = remaining == Long.MAX_VALUE
+                    ? future.get()
+                    : future.get(Math.max(remaining, 0), TimeUnit.MILLISECONDS);
+            return new Shared<>(value);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (ExecutionException e) {
+            if (callerSpecific.test(e.getCause())) {
+                return null;
+            }
+            throw propagate(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced call", e);
+        }
+    }
+
+    /**
+     * Result of a call this caller made itself, already completed.
+     */
+    static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw propagate(e.getCause());
+        }
+    }
+
+    private static RuntimeException propagate(Throwable failure) {
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        if (failure instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new CompletionException(failure);
+    }
+
+    record Shared<V>(V value) {
+    }
+}
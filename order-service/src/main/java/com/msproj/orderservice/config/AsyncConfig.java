@@ -1,8 +1,10 @@
 package com.msproj.orderservice.config;
 
+import com.msproj.orderservice.sharding.ShardContextTaskDecorator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
@@ -45,6 +47,7 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(30);
 
+        executor.setTaskDecorator(new ShardContextTaskDecorator());
         executor.initialize();
         return executor;
     }
@@ -67,6 +70,7 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(60);
 
+        executor.setTaskDecorator(new ShardContextTaskDecorator());
         executor.initialize();
         return executor;
     }
@@ -89,6 +93,7 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(45);
 
+        executor.setTaskDecorator(new ShardContextTaskDecorator());
         executor.initialize();
         return executor;
     }
@@ -111,6 +116,105 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.setWaitForTasksToCompleteOnShutdown(false);
         executor.setAwaitTerminationSeconds(10);
 
+        executor.setTaskDecorator(new ShardContextTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Stale order reaper executor - one thread per parallel chunk worker
+     */
+    @Bean(name = "staleOrderReaperExecutor")
+    public Executor staleOrderReaperExecutor(@Value("${order.stale-reaper.parallelism:2}") int parallelism) {
+        logger.info("Creating stale order reaper executor with {} workers", parallelism);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(parallelism);
+        executor.setThreadNamePrefix("StaleReaper-");
+        executor.setKeepAliveSeconds(60);
+        executor.setAllowCoreThreadTimeOut(true);
+
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+
+        executor.setTaskDecorator(new ShardContextTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Checkout executor - bounded worker pipeline behind the asynchronous checkout API.
+     * A full queue rejects the task; the submission stays PENDING for the recovery pass.
+     */
+    @Bean(name = "checkoutExecutor")
+    public Executor checkoutExecutor(@Value("${order.checkout.worker-threads:8}") int workerThreads,
+                                     @Value("${order.checkout.queue-capacity:500}") int queueCapacity) {
+        logger.info("Creating checkout executor with {} workers and queue capacity {}", workerThreads, queueCapacity);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workerThreads);
+        executor.setMaxPoolSize(workerThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("Checkout-");
+        executor.setKeepAliveSeconds(60);
+
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+
+        executor.setTaskDecorator(new ShardContextTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Status stream executor - drains per-subscriber SSE buffers. A subscription has at
+     * most one drain task queued, so the queue is bounded by the subscriber limit.
+     */
+    @Bean(name = "statusStreamExecutor")
+    public Executor statusStreamExecutor(@Value("${order.status-stream.dispatcher-threads:4}") int dispatcherThreads,
+                                         @Value("${order.status-stream.max-subscribers:50000}") int maxSubscribers) {
+        logger.info("Creating status stream executor with {} dispatcher threads", dispatcherThreads);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(dispatcherThreads);
+        executor.setMaxPoolSize(dispatcherThreads);
+        executor.setQueueCapacity(maxSubscribers);
+        executor.setThreadNamePrefix("OrderSse-");
+        executor.setKeepAliveSeconds(60);
+
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.setAwaitTerminationSeconds(5);
+
+        executor.setTaskDecorator(new ShardContextTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Shard query executor - runs the per-shard legs of cross-shard reads in parallel.
+     * Callers wait for every leg, so a full queue runs the leg on the caller.
+     */
+    @Bean(name = "shardQueryExecutor")
+    public Executor shardQueryExecutor(@Value("${order.sharding.query-threads:8}") int queryThreads) {
+        logger.info("Creating shard query executor with {} threads", queryThreads);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(queryThreads);
+        executor.setMaxPoolSize(queryThreads);
+        executor.setQueueCapacity(queryThreads * 4);
+        executor.setThreadNamePrefix("OrderShard-");
+        executor.setKeepAliveSeconds(60);
+        executor.setAllowCoreThreadTimeOut(true);
+
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.setAwaitTerminationSeconds(10);
+
         executor.initialize();
         return executor;
     }
@@ -0,0 +1,22 @@
+package com.msproj.orderservice.config;
+
+import com.msproj.orderservice.resilience.ConcurrencyLimitCapability;
+import com.msproj.orderservice.resilience.ConcurrencyLimiterRegistry;
+import feign.Capability;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Applies the adaptive concurrency limiter to every Feign client.
+ * <p>
+ * Capability beans are picked up by all @FeignClient contexts, so the
+ * decorator wraps the load-balanced client of each downstream.
+ */
+@Configuration
+public class FeignConcurrencyConfig {
+
+    @Bean
+    public Capability concurrencyLimitCapability(ConcurrencyLimiterRegistry concurrencyLimiterRegistry) {
+        return new ConcurrencyLimitCapability(concurrencyLimiterRegistry);
+    }
+}
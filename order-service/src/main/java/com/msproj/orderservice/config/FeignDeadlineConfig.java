@@ -0,0 +1,32 @@
+package com.msproj.orderservice.config;
+
+import com.msproj.orderservice.resilience.DeadlineCapability;
+import com.msproj.servicesupport.deadline.RequestDeadline;
+import feign.Capability;
+import feign.RequestInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Propagates the request deadline to every Feign call: the absolute deadline
+ * is forwarded as a header and the call's timeouts are bounded by what is left.
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class FeignDeadlineConfig {
+
+    @Bean
+    public Capability deadlineCapability(@Value("${order.deadline.min-call-budget-ms:50}") long minCallBudgetMs,
+                                         MeterRegistry meterRegistry) {
+        return new DeadlineCapability(minCallBudgetMs, meterRegistry);
+    }
+
+    @Bean
+    public RequestInterceptor deadlineHeaderInterceptor() {
+        return template -> RequestDeadline.current()
+                .ifPresent(deadline -> template.header(RequestDeadline.HEADER, String.valueOf(deadline)));
+    }
+}
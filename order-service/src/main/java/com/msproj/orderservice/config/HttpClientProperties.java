@@ -0,0 +1,85 @@
+package com.msproj.orderservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outbound HTTP transport settings (order.http-client.*) shared by the Feign
+ * clients and the load-balanced RestTemplate.
+ */
+@ConfigurationProperties(prefix = "order.http-client")
+public class HttpClientProperties {
+
+    public enum Transport {
+        // Apache HttpClient 5: pooled keep-alive HTTP/1.1 with per-host limits and pool metrics
+        POOLED,
+        // JDK HttpClient: HTTP/2 (h2c upgrade or ALPN) with fallback to HTTP/1.1
+        HTTP2
+    }
+
+    private Transport transport = Transport.POOLED;
+    private int connectTimeoutMs = 2000;
+    private int responseTimeoutMs = 5000;
+    private final Pool pool = new Pool();
+    private final Compression compression = new Compression();
+
+    public static class Pool {
+        private int maxTotal = 200;
+        private int defaultMaxPerHost = 50;
+        // "host:port" of a downstream instance to its connection limit
+        private Map<String, Integer> perHost = new HashMap<>();
+        private long idleEvictSeconds = 30;
+        private long timeToLiveSeconds = 300;
+
+        public int getMaxTotal() { return maxTotal; }
+        public void setMaxTotal(int maxTotal) { this.maxTotal = maxTotal; }
+
+        public int getDefaultMaxPerHost() { return defaultMaxPerHost; }
+        public void setDefaultMaxPerHost(int defaultMaxPerHost) { this.defaultMaxPerHost = defaultMaxPerHost; }
+
+        public Map<String, Integer> getPerHost() { return perHost; }
+        public void setPerHost(Map<String, Integer> perHost) { this.perHost = perHost; }
+
+        public long getIdleEvictSeconds() { return idleEvictSeconds; }
+        public void setIdleEvictSeconds(long idleEvictSeconds) { this.idleEvictSeconds = idleEvictSeconds; }
+
+        public long getTimeToLiveSeconds() { return timeToLiveSeconds; }
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) { this.timeToLiveSeconds = timeToLiveSeconds; }
+    }
+
+    public static class Compression {
+        // Request bodies are only gzipped when the downstreams accept Content-Encoding: gzip
+        private boolean requestEnabled = true;
+        private int minRequestSize = 2048;
+        private List<String> mimeTypes = List.of("application/json");
+        private boolean responseEnabled = true;
+
+        public boolean isRequestEnabled() { return requestEnabled; }
+        public void setRequestEnabled(boolean requestEnabled) { this.requestEnabled = requestEnabled; }
+
+        public int getMinRequestSize() { return minRequestSize; }
+        public void setMinRequestSize(int minRequestSize) { this.minRequestSize = minRequestSize; }
+
+        public List<String> getMimeTypes() { return mimeTypes; }
+        public void setMimeTypes(List<String> mimeTypes) { this.mimeTypes = mimeTypes; }
+
+        public boolean isResponseEnabled() { return responseEnabled; }
+        public void setResponseEnabled(boolean responseEnabled) { this.responseEnabled = responseEnabled; }
+    }
+
+    public Transport getTransport() { return transport; }
+    public void setTransport(Transport transport) { this.transport = transport; }
+
+    public int getConnectTimeoutMs() { return connectTimeoutMs; }
+    public void setConnectTimeoutMs(int connectTimeoutMs) { this.connectTimeoutMs = connectTimeoutMs; }
+
+    public int getResponseTimeoutMs() { return responseTimeoutMs; }
+    public void setResponseTimeoutMs(int responseTimeoutMs) { this.responseTimeoutMs = responseTimeoutMs; }
+
+    public Pool getPool() { return pool; }
+
+    public Compression getCompression() { return compression; }
+}
@@ -0,0 +1,196 @@
+package com.msproj.orderservice.config;
+
+import com.msproj.orderservice.transport.CompressingClient;
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.LoadBalancerFeignRequestTransformer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Outbound HTTP transport for Feign clients and the load-balanced RestTemplate.
+ * <p>
+ * order.http-client.transport selects the implementation:
+ * - POOLED (default): Apache HttpClient 5 with a shared keep-alive pool,
+ *   per-host connection limits, transparent gzip decoding and pool metrics
+ * - HTTP2: JDK HttpClient negotiating HTTP/2 (h2c upgrade on plain HTTP),
+ *   multiplexing calls to a host over one connection
+ * <p>
+ * Both are wrapped in CompressingClient and then in the load balancer, so
+ * the Feign client bean replaces the default HttpURLConnection-based one.
+ */
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpTransportConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpTransportConfig.class);
+
+    private static Client loadBalanced(Client transport,
+                                       HttpClientProperties properties,
+                                       LoadBalancerClient loadBalancerClient,
+                                       LoadBalancerClientFactory loadBalancerClientFactory,
+                                       List<LoadBalancerFeignRequestTransformer> transformers) {
+        return new FeignBlockingLoadBalancerClient(
+                new CompressingClient(transport, properties.getCompression()),
+                loadBalancerClient, loadBalancerClientFactory, transformers);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "order.http-client.transport", havingValue = "pooled", matchIfMissing = true)
+    static class PooledTransportConfig {
+
+        @Bean(destroyMethod = "close")
+        public PoolingHttpClientConnectionManager outboundConnectionManager(HttpClientProperties properties) {
+            HttpClientProperties.Pool pool = properties.getPool();
+
+            PoolingHttpClientConnectionManager manager = PoolingHttpClientConnectionManagerBuilder.create()
+                    .setMaxConnTotal(pool.getMaxTotal())
+                    .setMaxConnPerRoute(pool.getDefaultMaxPerHost())
+                    .setDefaultConnectionConfig(ConnectionConfig.custom()
+                            .setConnectTimeout(Timeout.ofMilliseconds(properties.getConnectTimeoutMs()))
+                            .setTimeToLive(TimeValue.ofSeconds(pool.getTimeToLiveSeconds()))
+                            .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                            .build())
+                    .build();
+
+            pool.getPerHost().forEach((hostAndPort, maxConnections) ->
+                    manager.setMaxPerRoute(route(hostAndPort), maxConnections));
+
+            logger.info("Creating pooled outbound HTTP transport: {} total, {} per host, overrides {}",
+                    pool.getMaxTotal(), pool.getDefaultMaxPerHost(), pool.getPerHost());
+            return manager;
+        }
+
+        @Bean(destroyMethod = "close")
+        public CloseableHttpClient outboundHttpClient(PoolingHttpClientConnectionManager outboundConnectionManager,
+                                                      HttpClientProperties properties) {
+            return HttpClients.custom()
+                    .setConnectionManager(outboundConnectionManager)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setResponseTimeout(Timeout.ofMilliseconds(properties.getResponseTimeoutMs()))
+                            .build())
+                    .evictIdleConnections(TimeValue.ofSeconds(properties.getPool().getIdleEvictSeconds()))
+                    .evictExpiredConnections()
+                    // Resilience4j owns retries; the transport must not replay requests on its own
+                    .disableAutomaticRetries()
+                    .build();
+        }
+
+        @Bean
+        public Client feignClient(CloseableHttpClient outboundHttpClient,
+                                  HttpClientProperties properties,
+                                  LoadBalancerClient loadBalancerClient,
+                                  LoadBalancerClientFactory loadBalancerClientFactory,
+                                  List<LoadBalancerFeignRequestTransformer> transformers) {
+            return loadBalanced(new ApacheHttp5Client(outboundHttpClient), properties,
+                    loadBalancerClient, loadBalancerClientFactory, transformers);
+        }
+
+        @Bean
+        public ClientHttpRequestFactory outboundRequestFactory(CloseableHttpClient outboundHttpClient) {
+            return new HttpComponentsClientHttpRequestFactory(outboundHttpClient);
+        }
+
+        /**
+         * Pool-wide metrics from Micrometer's binder plus per-route gauges for every configured host.
+         */
+        @Bean
+        public MeterBinder outboundConnectionPoolMetrics(PoolingHttpClientConnectionManager outboundConnectionManager,
+                                                         HttpClientProperties properties) {
+            return registry -> {
+                new PoolingHttpClientConnectionManagerMetricsBinder(outboundConnectionManager, "outbound")
+                        .bindTo(registry);
+
+                for (String hostAndPort : properties.getPool().getPerHost().keySet()) {
+                    HttpRoute route = route(hostAndPort);
+                    routeGauge(registry, outboundConnectionManager, route, hostAndPort, "leased", PoolStats::getLeased);
+                    routeGauge(registry, outboundConnectionManager, route, hostAndPort, "available", PoolStats::getAvailable);
+                    routeGauge(registry, outboundConnectionManager, route, hostAndPort, "pending", PoolStats::getPending);
+                }
+            };
+        }
+
+        private static void routeGauge(MeterRegistry registry,
+                                       PoolingHttpClientConnectionManager manager,
+                                       HttpRoute route, String host, String state,
+                                       ToDoubleFunction<PoolStats> value) {
+            Gauge.builder("order.http.pool.route.connections", manager, m -> value.applyAsDouble(m.getStats(route)))
+                    .description("Outbound connections to one host by state")
+                    .tag("host", host)
+                    .tag("state", state)
+                    .register(registry);
+        }
+
+        private static HttpRoute route(String hostAndPort) {
+            int separator = hostAndPort.lastIndexOf(':');
+            String host = separator > 0 ? hostAndPort.substring(0, separator) : hostAndPort;
+            int port = separator > 0 ? Integer.parseInt(hostAndPort.substring(separator + 1)) : 80;
+            return new HttpRoute(new HttpHost("http", host, port));
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "order.http-client.transport", havingValue = "http2")
+    static class Http2TransportConfig {
+
+        @Bean
+        public HttpClient outboundHttp2Client(HttpClientProperties properties) {
+            logger.info("Creating HTTP/2 outbound transport");
+
+            return HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMs()))
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .build();
+        }
+
+        @Bean
+        public Client feignClient(HttpClient outboundHttp2Client,
+                                  HttpClientProperties properties,
+                                  LoadBalancerClient loadBalancerClient,
+                                  LoadBalancerClientFactory loadBalancerClientFactory,
+                                  List<LoadBalancerFeignRequestTransformer> transformers) {
+            return loadBalanced(new Http2Client(outboundHttp2Client), properties,
+                    loadBalancerClient, loadBalancerClientFactory, transformers);
+        }
+
+        @Bean
+        public ClientHttpRequestFactory outboundRequestFactory(HttpClient outboundHttp2Client,
+                                                               HttpClientProperties properties) {
+            JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(outboundHttp2Client);
+            factory.setReadTimeout(Duration.ofMillis(properties.getResponseTimeoutMs()));
+            return factory;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.msproj.orderservice.config;
+
+import com.msproj.servicesupport.deadline.DeadlineFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Servlet filters shared with the other services (service-support).
+ */
+@Configuration
+public class RequestFilterConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "order.deadline.enabled", havingValue = "true", matchIfMissing = true)
+    public DeadlineFilter deadlineFilter(@Value("${order.deadline.default-budget-ms:30000}") long defaultBudgetMs,
+                                         MeterRegistry meterRegistry) {
+        return new DeadlineFilter(defaultBudgetMs, Counter.builder("order.deadline.exceeded")
+                .description("Work skipped because the request deadline had passed")
+                .tag("stage", "queued")
+                .tag("client", "none")
+                .register(meterRegistry));
+    }
+}
@@ -3,15 +3,17 @@ package com.msproj.orderservice.config;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate; /**
  * RestTemplate Configuration
  */
 @Configuration
 public class RestTemplateConfig {
 
+    // Shares the outbound transport (pool or HTTP/2 client) with the Feign clients, see HttpTransportConfig
     @Bean
     @LoadBalanced
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(ClientHttpRequestFactory outboundRequestFactory) {
+        return new RestTemplate(outboundRequestFactory);
     }
 }
@@ -0,0 +1,60 @@
+package com.msproj.orderservice.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.msproj.orderservice.transport.SmileRequestEncoder;
+import feign.RequestInterceptor;
+import feign.codec.Encoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary (Smile) wire format for calls between order-service and its downstreams.
+ * <p>
+ * The Smile converter is registered with Spring MVC, so this service's API and
+ * Feign's SpringDecoder both handle application/x-jackson-smile. With
+ * order.wire-format.binary-enabled, Feign clients also:
+ * - ask for Smile responses, keeping JSON as a lower-quality fallback
+ * - send request bodies as Smile (product-service and user-service accept both)
+ * <p>
+ * External JSON clients are unaffected: JSON stays the default representation.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(WireFormatConfig.class);
+
+    private static final String ACCEPT_BINARY = SmileRequestEncoder.SMILE + ", application/json;q=0.9";
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "order.wire-format.binary-enabled", havingValue = "true", matchIfMissing = true)
+    static class BinaryFeignConfig {
+
+        @Bean
+        public Encoder feignEncoder(ObjectFactory<HttpMessageConverters> messageConverters) {
+            logger.info("Feign clients use the Smile wire format");
+            return new SmileRequestEncoder(new SpringEncoder(messageConverters));
+        }
+
+        @Bean
+        public RequestInterceptor binaryAcceptInterceptor() {
+            return template -> {
+                if (!template.headers().containsKey("Accept")) {
+                    template.header("Accept", ACCEPT_BINARY);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.msproj.orderservice.controller;
+
+import com.msproj.orderservice.cart.CartService;
+import com.msproj.orderservice.dto.CartCheckoutRequestDto;
+import com.msproj.orderservice.dto.CartDto;
+import com.msproj.orderservice.dto.CreateOrderItemDto;
+import com.msproj.orderservice.dto.OrderResponseDto;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Server-side cart API: items are validated as they are added, and checkout creates the order in one call
+ */
+@RestController
+@RequestMapping("/api/orders/carts")
+@CrossOrigin(origins = "*")
+public class CartController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartController.class);
+
+    private final CartService cartService;
+
+    @Autowired
+    public CartController(CartService cartService) {
+        this.cartService = cartService;
+    }
+
+    /**
+     * Get a customer's cart, priced as it would be ordered
+     */
+    @GetMapping("/{customerId}")
+    public ResponseEntity<CartDto> getCart(@PathVariable Long customerId) {
+        logger.debug("GET /api/orders/carts/{} - Fetching cart", customerId);
+
+        return ResponseEntity.ok(cartService.getCart(customerId));
+    }
+
+    /**
+     * Add a quantity of a product to the cart
+     */
+    @PostMapping("/{customerId}/items")
+    public ResponseEntity<CartDto> addItem(@PathVariable Long customerId,
+                                           @Valid @RequestBody CreateOrderItemDto item) {
+        logger.debug("POST /api/orders/carts/{}/items - Adding product {}", customerId, item.getProductId());
+
+        return ResponseEntity.ok(cartService.addItem(customerId, item));
+    }
+
+    /**
+     * Set the quantity of a product in the cart
+     */
+    @PutMapping("/{customerId}/items")
+    public ResponseEntity<CartDto> setItem(@PathVariable Long customerId,
+                                           @Valid @RequestBody CreateOrderItemDto item) {
+        logger.debug("PUT /api/orders/carts/{}/items - Setting product {}", customerId, item.getProductId());
+
+        return ResponseEntity.ok(cartService.setItem(customerId, item));
+    }
+
+    /**
+     * Remove a product from the cart
+     */
+    @DeleteMapping("/{customerId}/items/{productId}")
+    public ResponseEntity<CartDto> removeItem(@PathVariable Long customerId, @PathVariable Long productId) {
+        logger.debug("DELETE /api/orders/carts/{}/items/{} - Removing product", customerId, productId);
+
+        return ResponseEntity.ok(cartService.removeItem(customerId, productId));
+    }
+
+    /**
+     * Empty the cart
+     */
+    @DeleteMapping("/{customerId}")
+    public ResponseEntity<Void> clearCart(@PathVariable Long customerId) {
+        logger.debug("DELETE /api/orders/carts/{} - Clearing cart", customerId);
+
+        cartService.clearCart(customerId);
+
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Create an order from the cart; the cart is emptied on success
+     */
+    @PostMapping("/{customerId}/checkout")
+    public ResponseEntity<OrderResponseDto> checkout(@PathVariable Long customerId,
+                                                     @Valid @RequestBody CartCheckoutRequestDto checkoutDto) {
+        logger.info("POST /api/orders/carts/{}/checkout - Checking out cart", customerId);
+
+        OrderResponseDto response = cartService.checkout(customerId, checkoutDto);
+
+        logger.info("Cart checked out into order with ID: {}", response.getId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * Cart store, write-behind and product snapshot statistics
+     */
+    @GetMapping("/monitoring")
+    public ResponseEntity<Map<String, Object>> getCartStatistics() {
+        logger.debug("GET /api/orders/carts/monitoring - Fetching cart statistics");
+
+        return ResponseEntity.ok(cartService.getStatistics());
+    }
+}
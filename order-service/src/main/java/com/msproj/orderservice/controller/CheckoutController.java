@@ -0,0 +1,87 @@
+package com.msproj.orderservice.controller;
+
+import com.msproj.orderservice.dto.CheckoutStatusDto;
+import com.msproj.orderservice.dto.CreateOrderRequestDto;
+import com.msproj.orderservice.service.CheckoutService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Asynchronous checkout API: submit, then poll the status URL or follow the event stream
+ */
+@RestController
+@RequestMapping("/api/orders/checkouts")
+@CrossOrigin(origins = "*")
+public class CheckoutController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutController.class);
+
+    private final CheckoutService checkoutService;
+
+    @Autowired
+    public CheckoutController(CheckoutService checkoutService) {
+        this.checkoutService = checkoutService;
+    }
+
+    /**
+     * Accept an order for asynchronous processing; 202 with the status URL in Location
+     */
+    @PostMapping
+    public ResponseEntity<CheckoutStatusDto> submitCheckout(
+            @Valid @RequestBody CreateOrderRequestDto requestDto,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+
+        logger.info("POST /api/orders/checkouts - Accepting checkout for customer: {}", requestDto.getCustomerId());
+
+        CheckoutStatusDto status = checkoutService.submit(requestDto, idempotencyKey);
+
+        return ResponseEntity.accepted()
+                .location(URI.create(status.statusUrl()))
+                .header("Retry-After", "1")
+                .body(status);
+    }
+
+    /**
+     * Poll checkout progress
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<CheckoutStatusDto> getCheckoutStatus(@PathVariable Long id) {
+        logger.debug("GET /api/orders/checkouts/{} - Fetching checkout status", id);
+
+        CheckoutStatusDto status = checkoutService.getStatus(id);
+
+        if (status.status().isTerminal()) {
+            return ResponseEntity.ok(status);
+        }
+        return ResponseEntity.ok().header("Retry-After", "1").body(status);
+    }
+
+    /**
+     * Server-Sent Events stream of checkout status changes, completed at COMPLETED or FAILED
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCheckoutStatus(@PathVariable Long id) {
+        logger.debug("GET /api/orders/checkouts/{}/events - Subscribing to checkout status", id);
+
+        return checkoutService.subscribe(id);
+    }
+
+    /**
+     * Get submission counts by status
+     */
+    @GetMapping("/monitoring")
+    public ResponseEntity<Map<String, Object>> getCheckoutStatistics() {
+        logger.debug("GET /api/orders/checkouts/monitoring - Fetching checkout statistics");
+
+        return ResponseEntity.ok(checkoutService.getStatistics());
+    }
+}
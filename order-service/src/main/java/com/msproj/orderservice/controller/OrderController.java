@@ -2,16 +2,19 @@ package com.msproj.orderservice.controller;
 
 import com.msproj.orderservice.dto.*;
 import com.msproj.orderservice.entity.OrderStatus;
+import com.msproj.orderservice.popular.PopularityWindow;
 import com.msproj.orderservice.service.OrderService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -69,6 +72,23 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * Get a customer's orders within a date range, including archived ones
+     */
+    @GetMapping("/customer/{customerId}/history")
+    public ResponseEntity<List<OrderResponseDto>> getOrderHistory(
+            @PathVariable Long customerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate) {
+
+        LocalDateTime to = toDate != null ? toDate : LocalDateTime.now();
+        logger.debug("GET /api/orders/customer/{}/history - Fetching orders from {} to {}", customerId, fromDate, to);
+
+        List<OrderResponseDto> orders = orderService.getOrderHistory(customerId, fromDate, to);
+
+        return ResponseEntity.ok(orders);
+    }
+
     /**
      * Update order status
      */
@@ -84,6 +104,20 @@ public class OrderController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Bulk update order statuses (warehouse scanners)
+     */
+    @PostMapping("/status/bulk")
+    public ResponseEntity<BulkStatusUpdateResponseDto> bulkUpdateOrderStatus(
+            @RequestBody @Valid BulkStatusUpdateRequestDto requestDto) {
+
+        logger.info("POST /api/orders/status/bulk - Updating {} orders", requestDto.getTransitions().size());
+
+        BulkStatusUpdateResponseDto response = orderService.bulkUpdateOrderStatus(requestDto);
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Process order
      */
@@ -163,6 +197,48 @@ public class OrderController {
         return ResponseEntity.ok(analytics);
     }
 
+    /**
+     * Get order status history
+     */
+    @GetMapping("/{id}/status-history")
+    public ResponseEntity<List<OrderStatusHistoryEntryDto>> getOrderStatusHistory(@PathVariable Long id) {
+        logger.debug("GET /api/orders/{}/status-history - Fetching status timeline", id);
+
+        List<OrderStatusHistoryEntryDto> history = orderService.getOrderStatusHistory(id);
+
+        return ResponseEntity.ok(history);
+    }
+
+    /**
+     * Get time-in-status statistics
+     */
+    @GetMapping("/analytics/time-in-status")
+    public ResponseEntity<StatusDurationStatsDto> getTimeInStatusStatistics(
+            @RequestParam OrderStatus status,
+            @RequestParam(defaultValue = "30") int days) {
+
+        logger.debug("GET /api/orders/analytics/time-in-status - status: {}, days: {}", status, days);
+
+        StatusDurationStatsDto stats = orderService.getTimeInStatusStatistics(status, days);
+
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Get the best-selling products of a window (LAST_24_HOURS, LAST_7_DAYS, ALL_TIME)
+     */
+    @GetMapping("/popular-products")
+    public ResponseEntity<List<PopularProductDto>> getPopularProducts(
+            @RequestParam(defaultValue = "LAST_7_DAYS") PopularityWindow window,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        logger.debug("GET /api/orders/popular-products - window: {}, limit: {}", window, limit);
+
+        List<PopularProductDto> products = orderService.getPopularProducts(window, limit);
+
+        return ResponseEntity.ok(products);
+    }
+
     /**
      * Get high-value orders
      */
@@ -228,6 +304,139 @@ public class OrderController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * List retry jobs recorded for an order
+     */
+    @GetMapping("/{id}/retry-jobs")
+    public ResponseEntity<List<RetryJobDto>> getOrderRetryJobs(@PathVariable Long id) {
+        logger.debug("GET /api/orders/{}/retry-jobs - Fetching retry jobs", id);
+
+        List<RetryJobDto> jobs = orderService.getOrderRetryJobs(id);
+
+        return ResponseEntity.ok(jobs);
+    }
+
+    /**
+     * Get retry backlog, oldest job age and recent dead letters
+     */
+    @GetMapping("/monitoring/retry-jobs")
+    public ResponseEntity<Map<String, Object>> getRetryJobStatistics(
+            @RequestParam(defaultValue = "20") int deadLetterLimit) {
+        logger.debug("GET /api/orders/monitoring/retry-jobs - Fetching retry statistics");
+
+        Map<String, Object> stats = orderService.getRetryJobStatistics(deadLetterLimit);
+
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Get adaptive concurrency limits, in-flight calls and rejections per downstream
+     */
+    @GetMapping("/monitoring/downstream-limits")
+    public ResponseEntity<Map<String, Object>> getDownstreamConcurrencyStatistics() {
+        logger.debug("GET /api/orders/monitoring/downstream-limits - Fetching concurrency limits");
+
+        Map<String, Object> stats = orderService.getDownstreamConcurrencyStatistics();
+
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Get dedup ratio and added latency of coalesced user and product lookups
+     */
+    @GetMapping("/monitoring/lookup-coalescing")
+    public ResponseEntity<Map<String, Object>> getLookupCoalescingStatistics() {
+        logger.debug("GET /api/orders/monitoring/lookup-coalescing - Fetching coalescing statistics");
+
+        Map<String, Object> stats = orderService.getLookupCoalescingStatistics();
+
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Get archive tier size and archiver progress
+     */
+    @GetMapping("/monitoring/archive")
+    public ResponseEntity<Map<String, Object>> getArchiveStatistics() {
+        logger.debug("GET /api/orders/monitoring/archive - Fetching archive statistics");
+
+        Map<String, Object> stats = orderService.getArchiveStatistics();
+
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Get order read model lag and read counts
+     */
+    @GetMapping("/monitoring/read-model")
+    public ResponseEntity<Map<String, Object>> getReadModelStatistics() {
+        logger.debug("GET /api/orders/monitoring/read-model - Fetching read model statistics");
+
+        Map<String, Object> stats = orderService.getReadModelStatistics();
+
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Rebuild all order documents from the orders table
+     */
+    @PostMapping("/monitoring/read-model/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildReadModel() {
+        logger.info("POST /api/orders/monitoring/read-model/rebuild - Rebuilding order read model");
+
+        boolean restarted = orderService.rebuildReadModel();
+
+        return ResponseEntity.accepted().body(Map.of("rebuildStarted", restarted));
+    }
+
+    /**
+     * Get the version and size of the pricing rules in force
+     */
+    @GetMapping("/monitoring/pricing-rules")
+    public ResponseEntity<Map<String, Object>> getPricingRulesStatistics() {
+        logger.debug("GET /api/orders/monitoring/pricing-rules - Fetching pricing rules statistics");
+
+        Map<String, Object> stats = orderService.getPricingRulesStatistics();
+
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Recompile the pricing rules from configuration and the pricing_rules table
+     */
+    @PostMapping("/monitoring/pricing-rules/reload")
+    public ResponseEntity<Map<String, Object>> reloadPricingRules() {
+        logger.info("POST /api/orders/monitoring/pricing-rules/reload - Reloading pricing rules");
+
+        Map<String, Object> stats = orderService.reloadPricingRules();
+
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Get the state of the popular products counters
+     */
+    @GetMapping("/monitoring/popular-products")
+    public ResponseEntity<Map<String, Object>> getPopularProductsStatistics() {
+        logger.debug("GET /api/orders/monitoring/popular-products - Fetching popular products statistics");
+
+        Map<String, Object> stats = orderService.getPopularProductsStatistics();
+
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Recount the popular products counters from order history
+     */
+    @PostMapping("/monitoring/popular-products/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildPopularProducts() {
+        logger.info("POST /api/orders/monitoring/popular-products/rebuild - Rebuilding popular products counters");
+
+        Map<String, Object> stats = orderService.rebuildPopularProducts();
+
+        return ResponseEntity.ok(stats);
+    }
+
     /**
      * Get service communication status
      */
@@ -266,4 +475,16 @@ public class OrderController {
 
         return ResponseEntity.ok(stats);
     }
-}
\ No newline at end of file
+
+    /**
+     * Get stale order reaper progress and throughput
+     */
+    @GetMapping("/monitoring/stale-reaper")
+    public ResponseEntity<Map<String, Object>> getStaleOrderReaperProgress() {
+        logger.debug("GET /api/orders/monitoring/stale-reaper - Fetching reaper progress");
+
+        Map<String, Object> progress = orderService.getStaleOrderReaperProgress();
+
+        return ResponseEntity.ok(progress);
+    }
+}
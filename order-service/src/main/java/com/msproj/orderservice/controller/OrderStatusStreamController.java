@@ -0,0 +1,62 @@
+package com.msproj.orderservice.controller;
+
+import com.msproj.orderservice.event.OrderStatusStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * Push API for order status changes: one Server-Sent Events stream per customer
+ */
+@RestController
+@RequestMapping("/api/orders")
+@CrossOrigin(origins = "*")
+public class OrderStatusStreamController {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusStreamController.class);
+
+    private final OrderStatusStream orderStatusStream;
+
+    @Autowired
+    public OrderStatusStreamController(OrderStatusStream orderStatusStream) {
+        this.orderStatusStream = orderStatusStream;
+    }
+
+    /**
+     * Stream the customer's order status changes. Browsers resend the last
+     * event id in Last-Event-ID on reconnect; lastEventId is accepted as a
+     * query parameter for clients that cannot set headers.
+     */
+    @GetMapping(value = "/customer/{customerId}/status-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamCustomerStatusEvents(
+            @PathVariable Long customerId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) Long lastEventIdParam) {
+
+        Long lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        logger.debug("GET /api/orders/customer/{}/status-events - Subscribing (last event {})", customerId, lastEventId);
+
+        return orderStatusStream.subscribe(customerId, lastEventId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header("Retry-After", "5")
+                        .build());
+    }
+
+    /**
+     * Get subscriber counts and tail position of this instance
+     */
+    @GetMapping("/monitoring/status-stream")
+    public ResponseEntity<Map<String, Object>> getStatusStreamStatistics() {
+        logger.debug("GET /api/orders/monitoring/status-stream - Fetching status stream statistics");
+
+        return ResponseEntity.ok(orderStatusStream.getStatistics());
+    }
+}
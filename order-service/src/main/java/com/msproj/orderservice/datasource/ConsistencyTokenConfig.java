@@ -0,0 +1,26 @@
+package com.msproj.orderservice.datasource;
+
+import com.msproj.servicesupport.datasource.ConsistencyTokenAdvice;
+import com.msproj.servicesupport.datasource.ConsistencyTokenFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * X-Consistency-Token on order writes and reads (service-support).
+ * <p>
+ * Registered with or without read replicas: the read model also holds
+ * token-carrying reads until its projection has caught up.
+ */
+@Configuration
+public class ConsistencyTokenConfig {
+
+    @Bean
+    public ConsistencyTokenFilter consistencyTokenFilter() {
+        return new ConsistencyTokenFilter("/api/orders");
+    }
+
+    @Bean
+    public ConsistencyTokenAdvice consistencyTokenAdvice() {
+        return new ConsistencyTokenAdvice("/api/orders");
+    }
+}
@@ -0,0 +1,12 @@
+package com.msproj.orderservice.dto;
+
+import java.util.List;
+
+// User Service bulk loyalty response
+public record BulkLoyaltyPointsResultDto(
+        String batchId,
+        boolean duplicate,
+        Integer appliedCustomers,
+        Long totalPoints,
+        List<Long> skippedCustomerIds
+) {}
@@ -0,0 +1,25 @@
+package com.msproj.orderservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.ArrayList;
+import java.util.List; /**
+ * Bulk Status Update Request DTO
+ */
+public class BulkStatusUpdateRequestDto {
+    @NotEmpty(message = "At least one transition is required")
+    @Valid
+    private List<StatusTransitionItemDto> transitions = new ArrayList<>();
+
+    // Constructors
+    public BulkStatusUpdateRequestDto() {}
+
+    public BulkStatusUpdateRequestDto(List<StatusTransitionItemDto> transitions) {
+        this.transitions = transitions;
+    }
+
+    // Getters and Setters
+    public List<StatusTransitionItemDto> getTransitions() { return transitions; }
+    public void setTransitions(List<StatusTransitionItemDto> transitions) { this.transitions = transitions; }
+}
@@ -0,0 +1,15 @@
+package com.msproj.orderservice.dto;
+
+import java.util.List;
+
+/**
+ * Bulk Status Update Response DTO (Record for immutable data)
+ */
+public record BulkStatusUpdateResponseDto(
+        int requested,
+        int updated,
+        int rejected,
+        int chunks,
+        long durationMs,
+        List<StatusTransitionResultDto> results
+) {}
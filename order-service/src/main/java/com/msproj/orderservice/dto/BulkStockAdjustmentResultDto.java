@@ -0,0 +1,11 @@
+package com.msproj.orderservice.dto;
+
+import java.util.List;
+
+// Product Service bulk stock adjustment response
+public record BulkStockAdjustmentResultDto(
+        String referenceId,
+        boolean duplicate,
+        Integer applied,
+        List<Long> rejectedProductIds
+) {}
@@ -0,0 +1,47 @@
+package com.msproj.orderservice.dto;
+
+import com.msproj.orderservice.entity.BillingAddress;
+import com.msproj.orderservice.entity.PaymentMethod;
+import com.msproj.orderservice.entity.ShippingAddress;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Cart Checkout Request DTO - everything CreateOrderRequestDto needs except
+ * the customer and items, which come from the cart
+ */
+public class CartCheckoutRequestDto {
+
+    @Valid
+    private ShippingAddress shippingAddress;
+
+    @Valid
+    private BillingAddress billingAddress;
+
+    @NotNull(message = "Payment method is required")
+    private PaymentMethod paymentMethod;
+
+    @Valid
+    private PaymentDetailsDto paymentDetails;
+
+    private String notes;
+
+    // Constructors
+    public CartCheckoutRequestDto() {}
+
+    // Getters and Setters
+    public ShippingAddress getShippingAddress() { return shippingAddress; }
+    public void setShippingAddress(ShippingAddress shippingAddress) { this.shippingAddress = shippingAddress; }
+
+    public BillingAddress getBillingAddress() { return billingAddress; }
+    public void setBillingAddress(BillingAddress billingAddress) { this.billingAddress = billingAddress; }
+
+    public PaymentMethod getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(PaymentMethod paymentMethod) { this.paymentMethod = paymentMethod; }
+
+    public PaymentDetailsDto getPaymentDetails() { return paymentDetails; }
+    public void setPaymentDetails(PaymentDetailsDto paymentDetails) { this.paymentDetails = paymentDetails; }
+
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+}
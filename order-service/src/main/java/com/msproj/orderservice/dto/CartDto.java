@@ -0,0 +1,21 @@
+package com.msproj.orderservice.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Cart DTO - server-side cart with its pre-priced totals.
+ * Totals cover the orderable lines only and use the customer's tier but no
+ * shipping region; the order is priced again with the shipping address at checkout.
+ */
+public record CartDto(
+        Long customerId,
+        List<CartLineDto> lines,
+        Integer itemCount,
+        BigDecimal totalAmount,
+        BigDecimal discountAmount,
+        BigDecimal taxAmount,
+        BigDecimal shippingAmount,
+        BigDecimal finalAmount,
+        boolean readyForCheckout
+) {}
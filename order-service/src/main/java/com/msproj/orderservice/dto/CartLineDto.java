@@ -0,0 +1,18 @@
+package com.msproj.orderservice.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Cart Line DTO - one cart line priced from the current product snapshot.
+ * problem is null when the line can be ordered as is.
+ */
+public record CartLineDto(
+        Long productId,
+        String productName,
+        String productSku,
+        BigDecimal unitPrice,
+        Integer quantity,
+        BigDecimal subtotal,
+        Integer stockQuantity,
+        String problem
+) {}
@@ -0,0 +1,40 @@
+package com.msproj.orderservice.dto;
+
+import com.msproj.orderservice.entity.CheckoutStatus;
+import com.msproj.orderservice.entity.CheckoutSubmission;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkout Status DTO - progress of an asynchronous checkout, with the URLs to follow it
+ */
+public record CheckoutStatusDto(
+        Long checkoutId,
+        Long customerId,
+        CheckoutStatus status,
+        Long orderId,
+        String errorMessage,
+        Integer attempts,
+        LocalDateTime submittedAt,
+        LocalDateTime completedAt,
+        String statusUrl,
+        String eventsUrl,
+        String orderUrl
+) {
+    public static CheckoutStatusDto fromEntity(CheckoutSubmission submission) {
+        String base = "/api/orders/checkouts/" + submission.getId();
+        return new CheckoutStatusDto(
+                submission.getId(),
+                submission.getCustomerId(),
+                submission.getStatus(),
+                submission.getOrderId(),
+                submission.getErrorMessage(),
+                submission.getAttempts(),
+                submission.getCreatedAt(),
+                submission.getCompletedAt(),
+                base,
+                base + "/events",
+                submission.getOrderId() != null ? "/api/orders/" + submission.getOrderId() : null
+        );
+    }
+}
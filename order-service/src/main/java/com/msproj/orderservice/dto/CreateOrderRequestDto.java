@@ -1,6 +1,7 @@
 package com.msproj.orderservice.dto;
 
 import com.msproj.orderservice.entity.*;
+import com.msproj.orderservice.sharding.CustomerScoped;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -14,7 +15,7 @@ import java.util.List;
 /**
  * Create Order Request DTO
  */
-public class CreateOrderRequestDto {
+public class CreateOrderRequestDto implements CustomerScoped {
 
     @NotNull(message = "Customer ID is required")
     private Long customerId;
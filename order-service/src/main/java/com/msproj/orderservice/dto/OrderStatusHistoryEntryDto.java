@@ -0,0 +1,16 @@
+package com.msproj.orderservice.dto;
+
+import com.msproj.orderservice.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of an order's status timeline (Record for immutable data).
+ * fromStatus is null for the creation event.
+ */
+public record OrderStatusHistoryEntryDto(
+        OrderStatus fromStatus,
+        OrderStatus toStatus,
+        LocalDateTime occurredAt,
+        Long timeInPreviousStatusMs
+) {}
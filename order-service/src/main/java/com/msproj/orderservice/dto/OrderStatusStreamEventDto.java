@@ -0,0 +1,18 @@
+package com.msproj.orderservice.dto;
+
+import com.msproj.orderservice.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order status transition as pushed on the customer status stream;
+ * eventId is the order_status_events id and the SSE event id
+ */
+public record OrderStatusStreamEventDto(
+        Long eventId,
+        Long orderId,
+        Long customerId,
+        OrderStatus fromStatus,
+        OrderStatus toStatus,
+        LocalDateTime occurredAt
+) {}
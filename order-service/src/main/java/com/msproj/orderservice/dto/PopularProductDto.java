@@ -0,0 +1,9 @@
+package com.msproj.orderservice.dto;
+
+/**
+ * Popular Product DTO - delivered quantity of a product within a popularity window
+ */
+public record PopularProductDto(
+        Long productId,
+        long quantitySold
+) {}
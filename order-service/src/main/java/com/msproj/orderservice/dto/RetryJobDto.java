@@ -0,0 +1,40 @@
+package com.msproj.orderservice.dto;
+
+import com.msproj.orderservice.entity.RetryJob;
+import com.msproj.orderservice.entity.RetryJobStatus;
+import com.msproj.orderservice.entity.RetryJobType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Retry Job DTO
+ */
+public record RetryJobDto(
+        Long id,
+        Long orderId,
+        RetryJobType jobType,
+        RetryJobStatus status,
+        Integer priority,
+        Integer attempts,
+        Integer maxAttempts,
+        LocalDateTime nextRunAt,
+        String lastError,
+        LocalDateTime createdAt,
+        LocalDateTime completedAt
+) {
+    public static RetryJobDto fromEntity(RetryJob job) {
+        return new RetryJobDto(
+                job.getId(),
+                job.getOrderId(),
+                job.getJobType(),
+                job.getStatus(),
+                job.getPriority(),
+                job.getAttempts(),
+                job.getMaxAttempts(),
+                job.getNextRunAt(),
+                job.getLastError(),
+                job.getCreatedAt(),
+                job.getCompletedAt()
+        );
+    }
+}
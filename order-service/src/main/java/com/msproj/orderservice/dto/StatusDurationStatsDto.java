@@ -0,0 +1,22 @@
+package com.msproj.orderservice.dto;
+
+import com.msproj.orderservice.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time-in-status statistics for orders that entered a status within a window
+ */
+public record StatusDurationStatsDto(
+        OrderStatus status,
+        LocalDateTime fromDate,
+        LocalDateTime toDate,
+        long completedCount,
+        long stillInStatusCount,
+        long averageMs,
+        long p50Ms,
+        long p90Ms,
+        long p95Ms,
+        long p99Ms,
+        long maxMs
+) {}
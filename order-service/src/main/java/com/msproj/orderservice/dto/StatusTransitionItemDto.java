@@ -0,0 +1,28 @@
+package com.msproj.orderservice.dto;
+
+import com.msproj.orderservice.entity.OrderStatus;
+import jakarta.validation.constraints.NotNull; /**
+ * Single scan in a bulk status update
+ */
+public class StatusTransitionItemDto {
+    @NotNull(message = "Order ID is required")
+    private Long orderId;
+
+    @NotNull(message = "New status is required")
+    private OrderStatus newStatus;
+
+    // Constructors
+    public StatusTransitionItemDto() {}
+
+    public StatusTransitionItemDto(Long orderId, OrderStatus newStatus) {
+        this.orderId = orderId;
+        this.newStatus = newStatus;
+    }
+
+    // Getters and Setters
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public OrderStatus getNewStatus() { return newStatus; }
+    public void setNewStatus(OrderStatus newStatus) { this.newStatus = newStatus; }
+}
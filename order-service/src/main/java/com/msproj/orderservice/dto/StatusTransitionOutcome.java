@@ -0,0 +1,13 @@
+package com.msproj.orderservice.dto;
+
+/**
+ * Per-order outcome of a bulk status update
+ */
+public enum StatusTransitionOutcome {
+    UPDATED,
+    NOT_FOUND,
+    INVALID_TRANSITION,
+    UNSUPPORTED_STATUS,
+    DUPLICATE,
+    CONFLICT
+}
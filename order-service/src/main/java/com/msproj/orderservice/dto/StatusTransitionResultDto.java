@@ -0,0 +1,21 @@
+package com.msproj.orderservice.dto;
+
+import com.msproj.orderservice.entity.OrderStatus;
+
+/**
+ * Result of one transition in a bulk status update (Record for immutable data)
+ */
+public record StatusTransitionResultDto(
+        Long orderId,
+        StatusTransitionOutcome outcome,
+        OrderStatus fromStatus,
+        OrderStatus toStatus,
+        String trackingNumber,
+        String message
+) {
+    public static StatusTransitionResultDto rejected(Long orderId, StatusTransitionOutcome outcome,
+                                                     OrderStatus fromStatus, OrderStatus toStatus,
+                                                     String message) {
+        return new StatusTransitionResultDto(orderId, outcome, fromStatus, toStatus, null, message);
+    }
+}
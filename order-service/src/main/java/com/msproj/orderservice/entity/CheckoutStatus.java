@@ -0,0 +1,15 @@
+package com.msproj.orderservice.entity;
+
+/**
+ * Checkout Submission Status
+ */
+public enum CheckoutStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,117 @@
+package com.msproj.orderservice.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkout Submission - an order request accepted by the asynchronous checkout API.
+ * <p>
+ * The request is stored as submitted and turned into an order by a checkout
+ * worker. A submission is PROCESSING while a worker holds its claim; claims
+ * older than the lease are released again, so a crashed worker's submission
+ * is retried. The order and the COMPLETED status commit in one transaction.
+ */
+@Entity
+@Table(name = "checkout_submissions",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"customer_id", "idempotency_key"}),
+        indexes = @Index(name = "idx_checkout_submissions_status", columnList = "status, created_at"))
+public class CheckoutSubmission extends BaseEntity {
+
+    @NotNull(message = "Customer ID is required")
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    // Client supplied Idempotency-Key; resubmitting with the same key and customer returns the first submission
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private CheckoutStatus status = CheckoutStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    // Constructors
+    public CheckoutSubmission() {
+        super();
+    }
+
+    public CheckoutSubmission(Long customerId, String idempotencyKey, String payload) {
+        super();
+        this.customerId = customerId;
+        this.idempotencyKey = idempotencyKey;
+        this.payload = payload;
+    }
+
+    // Business Methods
+    public void complete(Long orderId) {
+        this.status = CheckoutStatus.COMPLETED;
+        this.orderId = orderId;
+        this.errorMessage = null;
+        this.completedAt = LocalDateTime.now();
+    }
+
+    public void fail(String errorMessage) {
+        this.status = CheckoutStatus.FAILED;
+        this.errorMessage = errorMessage != null && errorMessage.length() > 1000
+                ? errorMessage.substring(0, 1000)
+                : errorMessage;
+        this.completedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public CheckoutStatus getStatus() { return status; }
+    public void setStatus(CheckoutStatus status) { this.status = status; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getClaimedAt() { return claimedAt; }
+    public void setClaimedAt(LocalDateTime claimedAt) { this.claimedAt = claimedAt; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    @Override
+    public String toString() {
+        return "CheckoutSubmission{" +
+                "id=" + getId() +
+                ", customerId=" + customerId +
+                ", status=" + status +
+                ", orderId=" + orderId +
+                '}';
+    }
+}
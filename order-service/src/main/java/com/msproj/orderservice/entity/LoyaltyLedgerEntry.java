@@ -0,0 +1,94 @@
+package com.msproj.orderservice.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Loyalty Ledger Entry - one durable point grant per processed order.
+ * <p>
+ * Entries are written in the same transaction as the order transition and
+ * flushed to User Service in per-customer aggregated batches. The unique
+ * order_id prevents an order from granting points twice, and the batch_id
+ * assigned at claim time is the idempotency key User Service deduplicates on.
+ */
+@Entity
+@Table(name = "loyalty_ledger",
+        uniqueConstraints = @UniqueConstraint(columnNames = "order_id"),
+        indexes = {
+                @Index(name = "idx_loyalty_ledger_status", columnList = "status, id"),
+                @Index(name = "idx_loyalty_ledger_batch", columnList = "batch_id")
+        })
+public class LoyaltyLedgerEntry extends BaseEntity {
+
+    @NotNull(message = "Order ID is required")
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @NotNull(message = "Customer ID is required")
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @NotNull(message = "Points are required")
+    @Column(name = "points", nullable = false)
+    private Integer points;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private LoyaltyLedgerStatus status = LoyaltyLedgerStatus.PENDING;
+
+    @Column(name = "batch_id", length = 64)
+    private String batchId;
+
+    @Column(name = "applied_at")
+    private LocalDateTime appliedAt;
+
+    // Constructors
+    public LoyaltyLedgerEntry() {
+        super();
+    }
+
+    public LoyaltyLedgerEntry(Long orderId, Long customerId, Integer points) {
+        super();
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.points = points;
+    }
+
+    // Business Methods
+    public void claim(String batchId) {
+        this.batchId = batchId;
+        this.status = LoyaltyLedgerStatus.IN_FLIGHT;
+    }
+
+    // Getters and Setters
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public Integer getPoints() { return points; }
+    public void setPoints(Integer points) { this.points = points; }
+
+    public LoyaltyLedgerStatus getStatus() { return status; }
+    public void setStatus(LoyaltyLedgerStatus status) { this.status = status; }
+
+    public String getBatchId() { return batchId; }
+    public void setBatchId(String batchId) { this.batchId = batchId; }
+
+    public LocalDateTime getAppliedAt() { return appliedAt; }
+    public void setAppliedAt(LocalDateTime appliedAt) { this.appliedAt = appliedAt; }
+
+    @Override
+    public String toString() {
+        return "LoyaltyLedgerEntry{" +
+                "id=" + getId() +
+                ", orderId=" + orderId +
+                ", customerId=" + customerId +
+                ", points=" + points +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,20 @@
+package com.msproj.orderservice.entity;
+
+/**
+ * Loyalty Ledger Entry Status Enum
+ */
+public enum LoyaltyLedgerStatus {
+    PENDING("Pending"),
+    IN_FLIGHT("In Flight"),
+    APPLIED("Applied");
+
+    private final String displayName;
+
+    LoyaltyLedgerStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
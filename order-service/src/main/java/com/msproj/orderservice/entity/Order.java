@@ -10,7 +10,10 @@ import java.util.List; /**
  * Order Entity - Main order aggregate
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_status_date", columnList = "status, order_date, id"),
+        @Index(name = "idx_orders_customer_date", columnList = "customer_id, order_date")
+})
 public class Order extends BaseEntity {
 
     @NotNull(message = "Customer ID is required")
@@ -89,10 +92,14 @@ public class Order extends BaseEntity {
     }
 
     // Business Methods
+
+    /**
+     * Attach a line without touching the amounts; new orders are priced once all
+     * lines are attached (OrderPricingEngine), instead of re-summing per line.
+     */
     public void addOrderItem(OrderItem item) {
         item.setOrder(this);
         this.orderItems.add(item);
-        recalculateTotals();
     }
 
     public void removeOrderItem(OrderItem item) {
@@ -158,6 +165,9 @@ public class Order extends BaseEntity {
     public boolean isDelivered() { return OrderStatus.DELIVERED.equals(status); }
     public boolean isCancelled() { return OrderStatus.CANCELLED.equals(status); }
 
+    // processOrder deducts the items' stock; until then the order holds none
+    public boolean hasStockDeducted() { return isProcessing() || isShipped() || isDelivered(); }
+
     public int getItemCount() {
         return orderItems.size();
     }
@@ -0,0 +1,73 @@
+package com.msproj.orderservice.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order Archive Batch - one compressed block of archived orders.
+ * <p>
+ * The payload is a gzip-compressed Smile array of OrderResponseDto documents
+ * (order, items, addresses, totals) for a keyset range of order IDs. Batches
+ * are written once and never updated; order_archive_index locates an order's
+ * batch by order ID or by customer and order date.
+ */
+@Entity
+@Table(name = "order_archive_batches",
+        indexes = @Index(name = "idx_archive_batch_dates", columnList = "first_order_date, last_order_date"))
+public class OrderArchiveBatch extends BaseEntity {
+
+    @Column(name = "first_order_id", nullable = false)
+    private Long firstOrderId;
+
+    @Column(name = "last_order_id", nullable = false)
+    private Long lastOrderId;
+
+    @Column(name = "first_order_date", nullable = false)
+    private LocalDateTime firstOrderDate;
+
+    @Column(name = "last_order_date", nullable = false)
+    private LocalDateTime lastOrderDate;
+
+    @Column(name = "order_count", nullable = false)
+    private Integer orderCount;
+
+    @Column(name = "raw_bytes", nullable = false)
+    private Integer rawBytes;
+
+    @Column(name = "compressed_bytes", nullable = false)
+    private Integer compressedBytes;
+
+    // BYTEA: bytea on PostgreSQL and an alias of VARBINARY on H2, in every compatibility mode
+    @Column(name = "payload", nullable = false, columnDefinition = "BYTEA")
+    private byte[] payload;
+
+    // Constructors
+    public OrderArchiveBatch() {
+        super();
+    }
+
+    public OrderArchiveBatch(Long firstOrderId, Long lastOrderId,
+                             LocalDateTime firstOrderDate, LocalDateTime lastOrderDate,
+                             Integer orderCount, Integer rawBytes, byte[] payload) {
+        super();
+        this.firstOrderId = firstOrderId;
+        this.lastOrderId = lastOrderId;
+        this.firstOrderDate = firstOrderDate;
+        this.lastOrderDate = lastOrderDate;
+        this.orderCount = orderCount;
+        this.rawBytes = rawBytes;
+        this.compressedBytes = payload.length;
+        this.payload = payload;
+    }
+
+    // Getters
+    public Long getFirstOrderId() { return firstOrderId; }
+    public Long getLastOrderId() { return lastOrderId; }
+    public LocalDateTime getFirstOrderDate() { return firstOrderDate; }
+    public LocalDateTime getLastOrderDate() { return lastOrderDate; }
+    public Integer getOrderCount() { return orderCount; }
+    public Integer getRawBytes() { return rawBytes; }
+    public Integer getCompressedBytes() { return compressedBytes; }
+    public byte[] getPayload() { return payload; }
+}
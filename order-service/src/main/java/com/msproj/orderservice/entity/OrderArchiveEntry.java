@@ -0,0 +1,63 @@
+package com.msproj.orderservice.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order Archive Entry - locates one archived order inside its batch.
+ * <p>
+ * Kept narrow on purpose (no BaseEntity audit columns): it is the only
+ * per-order row left once an order leaves the hot tables. Entries are only
+ * ever inserted, so they report themselves as new and save() skips the
+ * select-before-merge an assigned ID would otherwise cost.
+ */
+@Entity
+@Table(name = "order_archive_index",
+        indexes = {
+                @Index(name = "idx_archive_index_customer", columnList = "customer_id, order_date"),
+                @Index(name = "idx_archive_index_batch", columnList = "batch_id")
+        })
+public class OrderArchiveEntry implements Persistable<Long> {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Column(name = "batch_id", nullable = false)
+    private Long batchId;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected OrderArchiveEntry() {}
+
+    public OrderArchiveEntry(Long orderId, Long customerId, LocalDateTime orderDate, Long batchId) {
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.orderDate = orderDate;
+        this.batchId = batchId;
+    }
+
+    public Long getOrderId() { return orderId; }
+    public Long getCustomerId() { return customerId; }
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public Long getBatchId() { return batchId; }
+
+    @Override
+    public Long getId() { return orderId; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() { this.isNew = false; }
+}
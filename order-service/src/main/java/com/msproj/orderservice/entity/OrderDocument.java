@@ -0,0 +1,55 @@
+package com.msproj.orderservice.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order Document - read-side projection of one order
+ * <p>
+ * Denormalized for history pages: the order, its items, addresses and totals
+ * are stored as one Smile-encoded OrderResponseDto, so a customer's history is
+ * a single range read over idx_order_documents_customer with no joins.
+ * Rows are written by OrderDocumentProjector only (via OrderDocumentStore);
+ * source_version is the orders.version the document was built from and
+ * guards against an older projection overwriting a newer one.
+ */
+@Entity
+@Table(name = "order_documents",
+        indexes = {
+                @Index(name = "idx_order_documents_customer", columnList = "customer_id, order_date, order_id")
+        })
+public class OrderDocument {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Column(name = "status", nullable = false)
+    private Short status;
+
+    @Column(name = "source_version", nullable = false)
+    private Long sourceVersion;
+
+    @Column(name = "document", nullable = false, length = 1048576)
+    private byte[] document;
+
+    @Column(name = "projected_at", nullable = false)
+    private LocalDateTime projectedAt;
+
+    protected OrderDocument() {}
+
+    public Long getOrderId() { return orderId; }
+    public Long getCustomerId() { return customerId; }
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public Short getStatus() { return status; }
+    public Long getSourceVersion() { return sourceVersion; }
+    public byte[] getDocument() { return document; }
+    public LocalDateTime getProjectedAt() { return projectedAt; }
+}
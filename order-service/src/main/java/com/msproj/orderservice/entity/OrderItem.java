@@ -27,6 +27,10 @@ public class OrderItem extends BaseEntity {
     @Column(name = "product_sku")
     private String productSku;
 
+    // Category at order time; selects category-scoped pricing rules
+    @Column(name = "product_category")
+    private String productCategory;
+
     @NotNull(message = "Unit price is required")
     @Column(name = "unit_price", nullable = false, precision = 10, scale = 2)
     private BigDecimal unitPrice;
@@ -55,7 +59,7 @@ public class OrderItem extends BaseEntity {
         this.productSku = productSku;
         this.unitPrice = unitPrice;
         this.quantity = quantity;
-        calculateSubtotal();
+        // subtotal is set when the order is priced
     }
 
     public void calculateSubtotal() {
@@ -75,6 +79,9 @@ public class OrderItem extends BaseEntity {
     public String getProductSku() { return productSku; }
     public void setProductSku(String productSku) { this.productSku = productSku; }
 
+    public String getProductCategory() { return productCategory; }
+    public void setProductCategory(String productCategory) { this.productCategory = productCategory; }
+
     public BigDecimal getUnitPrice() { return unitPrice; }
     public void setUnitPrice(BigDecimal unitPrice) { this.unitPrice = unitPrice; }
 
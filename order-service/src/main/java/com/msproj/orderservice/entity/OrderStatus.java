@@ -2,25 +2,43 @@ package com.msproj.orderservice.entity;
 
 /**
  * Order Status Enum
+ * <p>
+ * The code is the compact, stable value stored in order_status_events;
+ * never renumber existing statuses.
  */
 public enum OrderStatus {
-    PENDING("Pending"),
-    CONFIRMED("Confirmed"),
-    PROCESSING("Processing"),
-    SHIPPED("Shipped"),
-    DELIVERED("Delivered"),
-    CANCELLED("Cancelled");
+    PENDING("Pending", 1),
+    CONFIRMED("Confirmed", 2),
+    PROCESSING("Processing", 3),
+    SHIPPED("Shipped", 4),
+    DELIVERED("Delivered", 5),
+    CANCELLED("Cancelled", 6);
 
     private final String displayName;
+    private final short code;
 
-    OrderStatus(String displayName) {
+    OrderStatus(String displayName, int code) {
         this.displayName = displayName;
+        this.code = (short) code;
     }
 
     public String getDisplayName() {
         return displayName;
     }
 
+    public short getCode() {
+        return code;
+    }
+
+    public static OrderStatus fromCode(short code) {
+        for (OrderStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown order status code: " + code);
+    }
+
     public boolean canTransitionTo(OrderStatus newStatus) {
         return switch (this) {
             case PENDING -> newStatus == CONFIRMED || newStatus == CANCELLED;
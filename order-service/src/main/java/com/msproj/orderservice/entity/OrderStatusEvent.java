@@ -0,0 +1,56 @@
+package com.msproj.orderservice.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order Status Event - append-only status history row
+ * <p>
+ * Deliberately does not extend BaseEntity: rows are never updated, so there
+ * are no audit or version columns. Statuses are stored as OrderStatus codes
+ * (smallint) and rows are inserted in JDBC batches by OrderStatusEventStore.
+ * from_status is null for the event that creates the order. The id orders
+ * the log and is the event id of the customer status stream.
+ */
+@Entity
+@Table(name = "order_status_events",
+        indexes = {
+                @Index(name = "idx_status_events_order", columnList = "order_id, occurred_at"),
+                @Index(name = "idx_status_events_to", columnList = "to_status, occurred_at"),
+                @Index(name = "idx_status_events_from", columnList = "from_status, occurred_at"),
+                @Index(name = "idx_status_events_customer", columnList = "customer_id, id")
+        })
+public class OrderStatusEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "from_status")
+    private Short fromStatus;
+
+    @Column(name = "to_status", nullable = false)
+    private Short toStatus;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    // Constructors
+    public OrderStatusEvent() {
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getOrderId() { return orderId; }
+    public Long getCustomerId() { return customerId; }
+    public Short getFromStatus() { return fromStatus; }
+    public Short getToStatus() { return toStatus; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+}
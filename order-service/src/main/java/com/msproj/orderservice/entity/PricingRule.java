@@ -0,0 +1,84 @@
+package com.msproj.orderservice.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+/**
+ * Pricing Rule - one tax rate, shipping charge or discount, scoped by region,
+ * customer tier and product category.
+ * <p>
+ * Rows extend the rules configured under order.pricing and are compiled
+ * together with them; null scope columns match everything. region is a
+ * country code, optionally with a state (US, US-CA).
+ * - TAX: rate
+ * - SHIPPING: amount, and threshold for free shipping (none: never free)
+ * - DISCOUNT: rate
+ */
+@Entity
+@Table(name = "pricing_rules")
+public class PricingRule extends BaseEntity {
+
+    @NotNull(message = "Rule type is required")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rule_type", nullable = false)
+    private PricingRuleType ruleType;
+
+    @Column(name = "region", length = 32)
+    private String region;
+
+    @Column(name = "customer_tier", length = 32)
+    private String customerTier;
+
+    @Column(name = "category")
+    private String category;
+
+    @Column(name = "rate", precision = 9, scale = 6)
+    private BigDecimal rate;
+
+    @Column(name = "amount", precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "threshold", precision = 10, scale = 2)
+    private BigDecimal threshold;
+
+    @Column(name = "active", nullable = false)
+    private boolean active = true;
+
+    @Column(name = "description")
+    private String description;
+
+    // Constructors
+    public PricingRule() {
+        super();
+    }
+
+    // Getters and Setters
+    public PricingRuleType getRuleType() { return ruleType; }
+    public void setRuleType(PricingRuleType ruleType) { this.ruleType = ruleType; }
+
+    public String getRegion() { return region; }
+    public void setRegion(String region) { this.region = region; }
+
+    public String getCustomerTier() { return customerTier; }
+    public void setCustomerTier(String customerTier) { this.customerTier = customerTier; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public BigDecimal getRate() { return rate; }
+    public void setRate(BigDecimal rate) { this.rate = rate; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public BigDecimal getThreshold() { return threshold; }
+    public void setThreshold(BigDecimal threshold) { this.threshold = threshold; }
+
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+}
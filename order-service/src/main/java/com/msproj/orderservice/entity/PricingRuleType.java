@@ -0,0 +1,20 @@
+package com.msproj.orderservice.entity;
+
+/**
+ * Pricing Rule Type Enum - what a pricing rule contributes to an order's price
+ */
+public enum PricingRuleType {
+    TAX("Tax"),
+    SHIPPING("Shipping"),
+    DISCOUNT("Discount");
+
+    private final String displayName;
+
+    PricingRuleType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,46 @@
+package com.msproj.orderservice.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Read Model Cursor - progress of a projection over order_status_events
+ * <p>
+ * One row per projection, locked with SKIP LOCKED by whichever instance runs
+ * the next projection step, so replicas never project concurrently.
+ * - position: last status log id applied
+ * - gap_seen_at_ms: when the projector first waited on a missing log id
+ * - backfill_after_id: keyset position of the initial rebuild over orders; -1 when done
+ * - watermark_ms: writes committed before this instant are reflected in the projection
+ */
+@Entity
+@Table(name = "read_model_cursors")
+public class ReadModelCursor {
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "position", nullable = false)
+    private Long position;
+
+    @Column(name = "gap_seen_at_ms")
+    private Long gapSeenAtMs;
+
+    @Column(name = "backfill_after_id", nullable = false)
+    private Long backfillAfterId;
+
+    @Column(name = "watermark_ms", nullable = false)
+    private Long watermarkMs;
+
+    @Column(name = "updated_at_ms", nullable = false)
+    private Long updatedAtMs;
+
+    protected ReadModelCursor() {}
+
+    public String getName() { return name; }
+    public Long getPosition() { return position; }
+    public Long getGapSeenAtMs() { return gapSeenAtMs; }
+    public Long getBackfillAfterId() { return backfillAfterId; }
+    public Long getWatermarkMs() { return watermarkMs; }
+    public Long getUpdatedAtMs() { return updatedAtMs; }
+}
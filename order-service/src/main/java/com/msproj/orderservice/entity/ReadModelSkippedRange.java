@@ -0,0 +1,42 @@
+package com.msproj.orderservice.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Read Model Skipped Range - status log ids a projection moved past unseen
+ * <p>
+ * Written by the projection step that skips a gap, in the same transaction as
+ * its cursor. Later steps re-check the range and project events that commit
+ * late, until the range is resolved or older than the late commit window.
+ * - from_id / to_id: the missing log ids, inclusive
+ * - skipped_at_ms: when the gap was skipped
+ */
+@Entity
+@Table(name = "read_model_skipped_ranges",
+        indexes = @Index(name = "idx_read_model_skipped_ranges_cursor", columnList = "cursor_name, from_id"))
+public class ReadModelSkippedRange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cursor_name", nullable = false, length = 64)
+    private String cursorName;
+
+    @Column(name = "from_id", nullable = false)
+    private Long fromId;
+
+    @Column(name = "to_id", nullable = false)
+    private Long toId;
+
+    @Column(name = "skipped_at_ms", nullable = false)
+    private Long skippedAtMs;
+
+    protected ReadModelSkippedRange() {}
+
+    public Long getId() { return id; }
+    public String getCursorName() { return cursorName; }
+    public Long getFromId() { return fromId; }
+    public Long getToId() { return toId; }
+    public Long getSkippedAtMs() { return skippedAtMs; }
+}
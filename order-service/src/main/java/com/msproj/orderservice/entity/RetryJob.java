@@ -0,0 +1,152 @@
+package com.msproj.orderservice.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Retry Job - a failed side effect waiting to be retried.
+ * <p>
+ * Jobs are claimed by the retry scheduler in priority order once next_run_at
+ * has passed. A claimed job is RUNNING until its lease expires, so a job
+ * whose worker crashed is picked up again. Jobs that use up max_attempts
+ * move to DEAD_LETTER and are only retried when requeued explicitly.
+ */
+@Entity
+@Table(name = "retry_jobs", indexes = {
+        @Index(name = "idx_retry_jobs_due", columnList = "status, next_run_at"),
+        @Index(name = "idx_retry_jobs_order", columnList = "order_id, job_type")
+})
+public class RetryJob extends BaseEntity {
+
+    @NotNull(message = "Order ID is required")
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "job_type", nullable = false, length = 32)
+    private RetryJobType jobType;
+
+    @Column(name = "payload", columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private RetryJobStatus status = RetryJobStatus.PENDING;
+
+    // Higher runs first among due jobs
+    @Column(name = "priority", nullable = false)
+    private Integer priority = 0;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "max_attempts", nullable = false)
+    private Integer maxAttempts;
+
+    @Column(name = "next_run_at", nullable = false)
+    private LocalDateTime nextRunAt;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    // Constructors
+    public RetryJob() {
+        super();
+    }
+
+    public RetryJob(Long orderId, RetryJobType jobType, String payload, int priority, int maxAttempts) {
+        super();
+        this.orderId = orderId;
+        this.jobType = jobType;
+        this.payload = payload;
+        this.priority = priority;
+        this.maxAttempts = maxAttempts;
+        this.nextRunAt = LocalDateTime.now();
+    }
+
+    // Business Methods
+    public void claim(LocalDateTime leaseExpiresAt) {
+        this.status = RetryJobStatus.RUNNING;
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public void succeed() {
+        this.attempts++;
+        this.status = RetryJobStatus.SUCCEEDED;
+        this.leaseExpiresAt = null;
+        this.lastError = null;
+        this.completedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Record a failed attempt and either schedule the next one or dead-letter the job.
+     */
+    public void fail(String error, LocalDateTime nextRunAt) {
+        this.attempts++;
+        this.leaseExpiresAt = null;
+        this.lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+
+        if (attempts >= maxAttempts) {
+            this.status = RetryJobStatus.DEAD_LETTER;
+            this.completedAt = LocalDateTime.now();
+        } else {
+            this.status = RetryJobStatus.PENDING;
+            this.nextRunAt = nextRunAt;
+        }
+    }
+
+    /**
+     * Make the job due now with at least the given priority; dead letters get a fresh set of attempts.
+     */
+    public void expedite(int priority) {
+        if (status == RetryJobStatus.DEAD_LETTER) {
+            this.attempts = 0;
+            this.completedAt = null;
+            this.status = RetryJobStatus.PENDING;
+        }
+        this.priority = Math.max(this.priority, priority);
+        this.nextRunAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public RetryJobType getJobType() { return jobType; }
+    public void setJobType(RetryJobType jobType) { this.jobType = jobType; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public RetryJobStatus getStatus() { return status; }
+    public void setStatus(RetryJobStatus status) { this.status = status; }
+
+    public Integer getPriority() { return priority; }
+    public void setPriority(Integer priority) { this.priority = priority; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public Integer getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(Integer maxAttempts) { this.maxAttempts = maxAttempts; }
+
+    public LocalDateTime getNextRunAt() { return nextRunAt; }
+    public void setNextRunAt(LocalDateTime nextRunAt) { this.nextRunAt = nextRunAt; }
+
+    public LocalDateTime getLeaseExpiresAt() { return leaseExpiresAt; }
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) { this.leaseExpiresAt = leaseExpiresAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
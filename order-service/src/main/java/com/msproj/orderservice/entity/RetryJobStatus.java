@@ -0,0 +1,21 @@
+package com.msproj.orderservice.entity;
+
+/**
+ * Retry Job Status Enum
+ */
+public enum RetryJobStatus {
+    PENDING("Pending"),
+    RUNNING("Running"),
+    SUCCEEDED("Succeeded"),
+    DEAD_LETTER("Dead Letter");
+
+    private final String displayName;
+
+    RetryJobStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,20 @@
+package com.msproj.orderservice.entity;
+
+/**
+ * Retry Job Type Enum - side effects that are retried after a failure
+ */
+public enum RetryJobType {
+    INVENTORY_RELEASE("Inventory Release"),
+    PAYMENT_REFUND("Payment Refund"),
+    NOTIFICATION("Notification");
+
+    private final String displayName;
+
+    RetryJobType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
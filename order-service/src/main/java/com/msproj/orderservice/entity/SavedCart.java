@@ -0,0 +1,48 @@
+package com.msproj.orderservice.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Saved Cart - write-behind copy of a customer's server-side cart
+ * <p>
+ * Carts are served from memory (InMemoryCartStore); this row lets a cart
+ * survive eviction and restarts. lines packs (product_id, quantity) pairs as
+ * 12 bytes each; product details are fetched again when the cart is loaded.
+ * version is the cart's change counter and keeps an older flush from
+ * overwriting a newer one. An empty cart has no row, and rows past
+ * expires_at are purged.
+ * Rows are written by CartWriteBehind only (via SavedCartStore).
+ */
+@Entity
+@Table(name = "carts",
+        indexes = {
+                @Index(name = "idx_carts_expires_at", columnList = "expires_at")
+        })
+public class SavedCart {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "lines", nullable = false, length = 65536)
+    private byte[] lines;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    protected SavedCart() {}
+
+    public Long getCustomerId() { return customerId; }
+    public Long getVersion() { return version; }
+    public byte[] getLines() { return lines; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+}
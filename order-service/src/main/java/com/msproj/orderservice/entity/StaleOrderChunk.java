@@ -0,0 +1,46 @@
+package com.msproj.orderservice.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Stale Order Chunk - one committed batch of reaper cancellations.
+ * <p>
+ * The row is written in the same transaction as the cancellations. There is
+ * no stock to give back: PENDING orders never had stock deducted (that
+ * happens in processOrder), so cancelling them leaves inventory unchanged.
+ */
+@Entity
+@Table(name = "stale_order_chunks")
+public class StaleOrderChunk extends BaseEntity {
+
+    @Column(name = "first_order_id", nullable = false)
+    private Long firstOrderId;
+
+    @Column(name = "last_order_id", nullable = false)
+    private Long lastOrderId;
+
+    @Column(name = "order_count", nullable = false)
+    private Integer orderCount;
+
+    // Constructors
+    public StaleOrderChunk() {
+        super();
+    }
+
+    public StaleOrderChunk(Long firstOrderId, Long lastOrderId, Integer orderCount) {
+        super();
+        this.firstOrderId = firstOrderId;
+        this.lastOrderId = lastOrderId;
+        this.orderCount = orderCount;
+    }
+
+    // Getters and Setters
+    public Long getFirstOrderId() { return firstOrderId; }
+    public void setFirstOrderId(Long firstOrderId) { this.firstOrderId = firstOrderId; }
+
+    public Long getLastOrderId() { return lastOrderId; }
+    public void setLastOrderId(Long lastOrderId) { this.lastOrderId = lastOrderId; }
+
+    public Integer getOrderCount() { return orderCount; }
+    public void setOrderCount(Integer orderCount) { this.orderCount = orderCount; }
+}
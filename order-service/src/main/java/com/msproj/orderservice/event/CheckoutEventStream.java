@@ -0,0 +1,81 @@
+package com.msproj.orderservice.event;
+
+import com.msproj.orderservice.dto.CheckoutStatusDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Server-Sent Events for asynchronous checkouts.
+ * <p>
+ * Subscribers get the current status right away and every change made on
+ * this instance afterwards; the stream completes once the checkout reaches
+ * COMPLETED or FAILED. Changes made by another instance are not pushed, so
+ * clients fall back to polling the status URL when the stream times out.
+ */
+@Component
+public class CheckoutEventStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutEventStream.class);
+
+    public static final String EVENT_NAME = "checkout-status";
+
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(CheckoutStatusDto current, long timeoutMs) {
+        Long checkoutId = current.checkoutId();
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+
+        // Register before sending the snapshot so no change in between is missed
+        subscribers.computeIfAbsent(checkoutId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        emitter.onCompletion(() -> remove(checkoutId, emitter));
+        emitter.onTimeout(() -> remove(checkoutId, emitter));
+        emitter.onError(e -> remove(checkoutId, emitter));
+
+        send(checkoutId, emitter, current);
+        return emitter;
+    }
+
+    public void publish(CheckoutStatusDto status) {
+        List<SseEmitter> emitters = subscribers.get(status.checkoutId());
+        if (emitters == null) {
+            return;
+        }
+        emitters.forEach(emitter -> send(status.checkoutId(), emitter, status));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(List::size).sum();
+    }
+
+    private void send(Long checkoutId, SseEmitter emitter, CheckoutStatusDto status) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(EVENT_NAME)
+                    .id(checkoutId + "-" + status.status())
+                    .data(status));
+
+            if (status.status().isTerminal()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already completed
+            logger.debug("Dropping checkout {} subscriber: {}", checkoutId, e.getMessage());
+            remove(checkoutId, emitter);
+        }
+    }
+
+    private void remove(Long checkoutId, SseEmitter emitter) {
+        subscribers.computeIfPresent(checkoutId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
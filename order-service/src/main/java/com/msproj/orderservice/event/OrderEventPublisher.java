@@ -0,0 +1,38 @@
+package com.msproj.orderservice.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes order events on the notification executor.
+ * <p>
+ * Lives in its own bean so callers go through the @Async proxy; bulk
+ * operations hand over one list per chunk instead of one call per order.
+ */
+@Component
+public class OrderEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventPublisher.class);
+
+    @Async("notificationExecutor")
+    public void publishStatusChanges(List<OrderStatusChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        logger.info("Sending batched status change notification for {} orders", events.size());
+
+        try {
+            // Simulate a single notification call for the whole batch
+            Thread.sleep(1500);
+            logger.info("Batched status change notification sent for {} orders", events.size());
+        } catch (Exception e) {
+            logger.error("Failed to send batched status change notification for {} orders: {}",
+                    events.size(), e.getMessage());
+        }
+    }
+}
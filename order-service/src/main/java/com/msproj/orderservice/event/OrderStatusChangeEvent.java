@@ -0,0 +1,16 @@
+package com.msproj.orderservice.event;
+
+import com.msproj.orderservice.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order status transition, published after the transition has committed
+ */
+public record OrderStatusChangeEvent(
+        Long orderId,
+        Long customerId,
+        OrderStatus fromStatus,
+        OrderStatus toStatus,
+        LocalDateTime occurredAt
+) {}
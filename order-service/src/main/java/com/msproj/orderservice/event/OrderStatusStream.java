@@ -0,0 +1,519 @@
+package com.msproj.orderservice.event;
+
+import com.msproj.orderservice.dto.OrderStatusStreamEventDto;
+import com.msproj.orderservice.repository.OrderStatusEventStore;
+import com.msproj.orderservice.sharding.ShardContext;
+import com.msproj.orderservice.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events stream of order status changes per customer.
+ * <p>
+ * order_status_events is the bus: every transition (createOrder, processOrder,
+ * updateOrderStatus, cancelOrder, bulk updates, the stale reaper) is appended
+ * in the transaction that makes it, so a poller tailing the log by id sees
+ * changes committed on any instance, in commit order, and never one that
+ * rolled back. The log id is the SSE event id, so a reconnecting client's
+ * Last-Event-ID replays what it missed from the same log. With sharding each
+ * shard has its own log and id sequence; the poller tails every shard with
+ * its own cursor, and a customer's events (and replay) all come from the
+ * customer's shard.
+ * <p>
+ * Connections are Servlet async requests: no thread is held per subscriber.
+ * Each subscriber has a bounded frame buffer drained by a small dispatcher
+ * pool; a subscriber that falls a full buffer behind is disconnected and
+ * catches up through Last-Event-ID rather than growing memory without bound.
+ * <p>
+ * Ids the poller skips are re-checked for late-commit-window-ms. An event
+ * that commits late is still delivered; below ids the subscriber already got,
+ * its frame has no id so the client's Last-Event-ID stays put, and the
+ * eventId in the data identifies it. Subscribers on a shard that had to stop
+ * re-checking ids early get a resync event.
+ */
+@Component
+public class OrderStatusStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusStream.class);
+
+    public static final String EVENT_NAME = "order-status";
+    public static final String RESYNC_EVENT_NAME = "resync";
+
+    private final OrderStatusEventStore orderStatusEventStore;
+    private final Executor dispatchExecutor;
+    private final ShardRouter shardRouter;
+
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final Counter eventsDelivered;
+    private final Counter overflowDisconnects;
+    private final Counter rejectedSubscriptions;
+    private final Counter lateEvents;
+
+    @Value("${order.status-stream.max-subscribers:50000}")
+    private int maxSubscribers;
+
+    @Value("${order.status-stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${order.status-stream.replay-limit:500}")
+    private int replayLimit;
+
+    @Value("${order.status-stream.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${order.status-stream.poll-batch-size:1000}")
+    private int pollBatchSize;
+
+    @Value("${order.status-stream.gap-wait-ms:2000}")
+    private long gapWaitMs;
+
+    @Value("${order.status-stream.late-commit-window-ms:60000}")
+    private long lateCommitWindowMs;
+
+    @Value("${order.status-stream.max-skipped-ranges:256}")
+    private int maxSkippedRanges;
+
+    // Tail position in each shard's log; touched only by the polling thread
+    private final long[] cursors;
+    private final long[] gapSeenAt;
+    private final List<Deque<SkippedRange>> skipped = new ArrayList<>();
+
+    @Autowired
+    public OrderStatusStream(OrderStatusEventStore orderStatusEventStore,
+                             @Qualifier("statusStreamExecutor") Executor dispatchExecutor,
+                             MeterRegistry meterRegistry,
+                             ShardRouter shardRouter) {
+        this.orderStatusEventStore = orderStatusEventStore;
+        this.dispatchExecutor = dispatchExecutor;
+        this.shardRouter = shardRouter;
+        this.cursors = new long[shardRouter.shardCount()];
+        this.gapSeenAt = new long[shardRouter.shardCount()];
+        Arrays.fill(cursors, -1);
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            skipped.add(new ArrayDeque<>());
+        }
+
+        Gauge.builder("order.status.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open customer status stream connections on this instance")
+                .register(meterRegistry);
+        this.eventsDelivered = Counter.builder("order.status.stream.events")
+                .description("Status change frames queued to subscribers")
+                .register(meterRegistry);
+        this.overflowDisconnects = Counter.builder("order.status.stream.overflows")
+                .description("Subscribers disconnected for falling a full buffer behind")
+                .register(meterRegistry);
+        this.rejectedSubscriptions = Counter.builder("order.status.stream.rejected")
+                .description("Subscriptions refused at the per-instance connection limit")
+                .register(meterRegistry);
+        this.lateEvents = Counter.builder("order.status.stream.late")
+                .description("Events that committed after the poller skipped their id, delivered on re-check")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream of the customer's status changes, replaying events after
+     * lastEventId first when it is given.
+     *
+     * @return empty when this instance is at its subscriber limit
+     */
+    public Optional<SseEmitter> subscribe(Long customerId, Long lastEventId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            rejectedSubscriptions.increment();
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscription subscription = new Subscription(customerId, emitter);
+
+        // Register before reading the replay so live events committed meanwhile are held, not lost
+        subscriptions.computeIfAbsent(customerId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        emitter.onCompletion(() -> unregister(subscription));
+        emitter.onTimeout(() -> unregister(subscription));
+        emitter.onError(e -> unregister(subscription));
+
+        try {
+            if (lastEventId == null) {
+                subscription.startLive(List.of(), false);
+            } else {
+                List<OrderStatusStreamEventDto> missed = ShardContext.callOn(shardRouter.shardForCustomer(customerId),
+                        () -> orderStatusEventStore.findCustomerEventsAfter(customerId, lastEventId, replayLimit + 1));
+                if (missed.size() > replayLimit) {
+                    subscription.startLive(List.of(), true);
+                } else {
+                    subscription.startLive(missed, false);
+                }
+            }
+        } catch (RuntimeException e) {
+            unregister(subscription);
+            throw e;
+        }
+
+        logger.debug("Customer {} subscribed to status stream (last event {})", customerId, lastEventId);
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Tail the status log and fan new events out to local subscribers.
+     * <p>
+     * IDENTITY ids are assigned at insert but become visible at commit, so a
+     * missing id usually belongs to a transaction still in flight. The poller
+     * waits up to gap-wait-ms for it before skipping the gap, then keeps
+     * re-checking the skipped ids for late-commit-window-ms; ids still
+     * missing by then are taken as rolled back.
+     */
+    @Scheduled(fixedDelayString = "${order.status-stream.poll-interval-ms:250}")
+    public void poll() {
+        shardRouter.forEachShard(this::pollShard);
+    }
+
+    private void pollShard(int shard) {
+        try {
+            if (cursors[shard] < 0 || subscriptions.isEmpty()) {
+                // Nobody to deliver to: stay at the head so the first subscriber starts live
+                cursors[shard] = orderStatusEventStore.findMaxId();
+                gapSeenAt[shard] = 0;
+                skipped.get(shard).clear();
+                return;
+            }
+
+            recheckSkipped(shard);
+
+            List<OrderStatusStreamEventDto> events = orderStatusEventStore.findAfter(cursors[shard], pollBatchSize);
+
+            for (OrderStatusStreamEventDto event : events) {
+                if (event.eventId() != cursors[shard] + 1) {
+                    long now = System.currentTimeMillis();
+                    if (gapSeenAt[shard] == 0) {
+                        gapSeenAt[shard] = now;
+                    }
+                    if (now - gapSeenAt[shard] < gapWaitMs) {
+                        break;
+                    }
+                    logger.debug("Skipping status log ids {}..{} on shard {}", cursors[shard] + 1, event.eventId() - 1, shard);
+                    skip(shard, new SkippedRange(cursors[shard] + 1, event.eventId() - 1, now));
+                }
+
+                gapSeenAt[shard] = 0;
+                cursors[shard] = event.eventId();
+                deliver(event);
+            }
+        } catch (Exception e) {
+            logger.warn("Status stream poll of shard {} after event {} failed: {}", shard, cursors[shard], e.getMessage());
+        }
+    }
+
+    /**
+     * Deliver events that committed in ranges skipped earlier, and stop
+     * watching ranges older than the late commit window.
+     */
+    private void recheckSkipped(int shard) {
+        Deque<SkippedRange> ranges = skipped.get(shard);
+        if (ranges.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Deque<SkippedRange> remaining = new ArrayDeque<>();
+        for (SkippedRange range : ranges) {
+            if (now - range.skippedAt() > lateCommitWindowMs) {
+                continue;
+            }
+            long from = range.fromId();
+            for (OrderStatusStreamEventDto event : orderStatusEventStore.findBetween(range.fromId(), range.toId())) {
+                logger.debug("Status log id {} on shard {} committed after it was skipped", event.eventId(), shard);
+                lateEvents.increment();
+                deliverLate(event);
+                if (event.eventId() > from) {
+                    remaining.add(new SkippedRange(from, event.eventId() - 1, range.skippedAt()));
+                }
+                from = event.eventId() + 1;
+            }
+            if (from <= range.toId()) {
+                remaining.add(new SkippedRange(from, range.toId(), range.skippedAt()));
+            }
+        }
+        skipped.set(shard, remaining);
+    }
+
+    private void skip(int shard, SkippedRange range) {
+        Deque<SkippedRange> ranges = skipped.get(shard);
+        ranges.add(range);
+        if (ranges.size() > maxSkippedRanges) {
+            SkippedRange dropped = ranges.poll();
+            logger.warn("Too many skipped status log ranges on shard {}, no longer re-checking ids {}..{}",
+                    shard, dropped.fromId(), dropped.toId());
+            resyncShard(shard, "skipped-events");
+        }
+    }
+
+    /**
+     * Comment frames keep idle connections from being closed by proxies and
+     * surface dead clients as write errors.
+     */
+    @Scheduled(fixedRateString = "${order.status-stream.heartbeat-ms:15000}",
+            initialDelayString = "${order.status-stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscriptions.values().forEach(set -> set.forEach(Subscription::offerHeartbeat));
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("subscribers", subscriberCount.get());
+        stats.put("customers", subscriptions.size());
+        stats.put("maxSubscribers", maxSubscribers);
+        stats.put("cursors", Arrays.stream(cursors).boxed().toList());
+        stats.put("skippedRanges", skipped.stream().mapToInt(Deque::size).sum());
+        stats.put("lateEvents", (long) lateEvents.count());
+        stats.put("eventsDelivered", (long) eventsDelivered.count());
+        stats.put("overflowDisconnects", (long) overflowDisconnects.count());
+        stats.put("rejectedSubscriptions", (long) rejectedSubscriptions.count());
+        stats.put("timestamp", LocalDateTime.now());
+        return stats;
+    }
+
+    private void deliver(OrderStatusStreamEventDto event) {
+        if (event.customerId() == null) {
+            return;
+        }
+        Set<Subscription> customerSubscriptions = subscriptions.get(event.customerId());
+        if (customerSubscriptions != null) {
+            customerSubscriptions.forEach(subscription -> subscription.offerEvent(event));
+        }
+    }
+
+    private void deliverLate(OrderStatusStreamEventDto event) {
+        if (event.customerId() == null) {
+            return;
+        }
+        Set<Subscription> customerSubscriptions = subscriptions.get(event.customerId());
+        if (customerSubscriptions != null) {
+            customerSubscriptions.forEach(subscription -> subscription.offerLateEvent(event));
+        }
+    }
+
+    /**
+     * Events of this shard may have been missed for good: tell its
+     * subscribers to reload their orders.
+     */
+    private void resyncShard(int shard, String reason) {
+        subscriptions.forEach((customerId, customerSubscriptions) -> {
+            if (shardRouter.shardForCustomer(customerId) == shard) {
+                customerSubscriptions.forEach(subscription -> subscription.offerResync(reason));
+            }
+        });
+    }
+
+    private void unregister(Subscription subscription) {
+        if (!subscription.markRemoved()) {
+            return;
+        }
+        subscriptions.computeIfPresent(subscription.customerId, (id, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    private static SseEmitter.SseEventBuilder frame(OrderStatusStreamEventDto event) {
+        return SseEmitter.event()
+                .name(EVENT_NAME)
+                .id(String.valueOf(event.eventId()))
+                .data(event);
+    }
+
+    private static SseEmitter.SseEventBuilder resyncFrame(String reason) {
+        return SseEmitter.event().name(RESYNC_EVENT_NAME).data(Map.of("reason", reason));
+    }
+
+    // Log ids [fromId, toId] the poller moved past without seeing them
+    private record SkippedRange(long fromId, long toId, long skippedAt) {
+    }
+
+    /**
+     * One connection. Frames are queued under the subscription's monitor and
+     * written by at most one dispatcher task at a time, so writes stay ordered
+     * without blocking the poller on a slow client.
+     */
+    private final class Subscription {
+
+        private final Long customerId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<SseEmitter.SseEventBuilder> buffer = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        // Live events that arrive while the replay is being read
+        private List<OrderStatusStreamEventDto> held = new ArrayList<>();
+        private long lastQueuedId;
+        private boolean closing;
+
+        private Subscription(Long customerId, SseEmitter emitter) {
+            this.customerId = customerId;
+            this.emitter = emitter;
+        }
+
+        void startLive(List<OrderStatusStreamEventDto> replay, boolean resync) {
+            synchronized (this) {
+                if (resync) {
+                    // Too far behind to replay: tell the client to reload its orders
+                    enqueue(resyncFrame("replay-limit"));
+                }
+                replay.forEach(this::enqueueEvent);
+                held.stream()
+                        .sorted(Comparator.comparing(OrderStatusStreamEventDto::eventId))
+                        .forEach(this::enqueueEvent);
+                held = null;
+            }
+            schedule();
+        }
+
+        void offerEvent(OrderStatusStreamEventDto event) {
+            synchronized (this) {
+                if (held != null) {
+                    held.add(event);
+                    if (held.size() > bufferSize) {
+                        overflow();
+                    }
+                } else {
+                    enqueueEvent(event);
+                }
+            }
+            schedule();
+        }
+
+        void offerLateEvent(OrderStatusStreamEventDto event) {
+            synchronized (this) {
+                if (held == null && event.eventId() > lastQueuedId) {
+                    enqueueEvent(event);
+                } else {
+                    // Below ids already sent: without an id the client's Last-Event-ID stays where it is
+                    enqueue(SseEmitter.event().name(EVENT_NAME).data(event));
+                    eventsDelivered.increment();
+                }
+            }
+            schedule();
+        }
+
+        void offerResync(String reason) {
+            synchronized (this) {
+                enqueue(resyncFrame(reason));
+            }
+            schedule();
+        }
+
+        void offerHeartbeat() {
+            synchronized (this) {
+                // A non-empty buffer means a write is already pending; that serves the same purpose
+                if (held != null || closing || !buffer.isEmpty()) {
+                    return;
+                }
+                buffer.add(SseEmitter.event().comment("heartbeat"));
+            }
+            schedule();
+        }
+
+        boolean markRemoved() {
+            return removed.compareAndSet(false, true);
+        }
+
+        private void enqueueEvent(OrderStatusStreamEventDto event) {
+            // Replay and live tail can overlap; the log id orders and deduplicates them
+            if (event.eventId() <= lastQueuedId) {
+                return;
+            }
+            lastQueuedId = event.eventId();
+            enqueue(frame(event));
+            eventsDelivered.increment();
+        }
+
+        private void enqueue(SseEmitter.SseEventBuilder frame) {
+            if (closing) {
+                return;
+            }
+            if (buffer.size() >= bufferSize) {
+                overflow();
+                return;
+            }
+            buffer.add(frame);
+        }
+
+        private void overflow() {
+            if (!closing) {
+                closing = true;
+                buffer.clear();
+                overflowDisconnects.increment();
+                logger.debug("Customer {} status subscriber fell {} events behind, disconnecting",
+                        customerId, bufferSize);
+            }
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    dispatchExecutor.execute(this::drain);
+                } catch (RuntimeException e) {
+                    draining.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    SseEmitter.SseEventBuilder frame;
+                    boolean complete;
+                    synchronized (this) {
+                        frame = buffer.poll();
+                        complete = frame == null && closing;
+                    }
+
+                    if (frame == null) {
+                        if (complete) {
+                            emitter.complete();
+                        }
+                        return;
+                    }
+                    emitter.send(frame);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed
+                synchronized (this) {
+                    closing = true;
+                    buffer.clear();
+                }
+                logger.debug("Dropping customer {} status subscriber: {}", customerId, e.getMessage());
+                unregister(this);
+            } finally {
+                draining.set(false);
+                boolean pending;
+                synchronized (this) {
+                    pending = !buffer.isEmpty();
+                }
+                if (pending) {
+                    schedule();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.msproj.orderservice.exception;
+
+/**
+ * Thrown without calling the downstream when its concurrency limit is reached
+ */
+public class ConcurrencyLimitExceededException extends ServiceUnavailableException {
+    private final String downstream;
+
+    public ConcurrencyLimitExceededException(String downstream, int limit) {
+        super(String.format("%s is saturated: concurrency limit of %d calls reached", downstream, limit));
+        this.downstream = downstream;
+    }
+
+    public String getDownstream() {
+        return downstream;
+    }
+}
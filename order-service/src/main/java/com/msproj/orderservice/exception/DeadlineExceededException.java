@@ -0,0 +1,18 @@
+package com.msproj.orderservice.exception;
+
+/**
+ * Thrown without calling the downstream when the request's deadline leaves
+ * too little time for the call to complete
+ */
+public class DeadlineExceededException extends ServiceUnavailableException {
+    private final String downstream;
+
+    public DeadlineExceededException(String downstream, long remainingMillis) {
+        super(String.format("Request deadline leaves %d ms, not calling %s", remainingMillis, downstream));
+        this.downstream = downstream;
+    }
+
+    public String getDownstream() {
+        return downstream;
+    }
+}
@@ -1,5 +1,6 @@
 package com.msproj.orderservice.exception;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -61,7 +62,7 @@ public class OrderGlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
-    @ExceptionHandler({InsufficientStockException.class, ProductNotAvailableException.class})
+    @ExceptionHandler({InsufficientStockException.class, ProductNotAvailableException.class, ProductNotFoundException.class})
     public ResponseEntity<ErrorResponse> handleInventoryException(OrderServiceException ex) {
         logger.warn("Inventory issue: {}", ex.getMessage());
 
@@ -89,6 +90,38 @@ public class OrderGlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.PAYMENT_REQUIRED).body(errorResponse);
     }
 
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<ErrorResponse> handleDeadlineExceeded(DeadlineExceededException ex) {
+        logger.warn("Request deadline exceeded: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                "DEADLINE_EXCEEDED",
+                ex.getMessage(),
+                HttpStatus.GATEWAY_TIMEOUT.value(),
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(errorResponse);
+    }
+
+    @ExceptionHandler({ServiceUnavailableException.class, BulkheadFullException.class})
+    public ResponseEntity<ErrorResponse> handleDownstreamUnavailable(RuntimeException ex) {
+        logger.warn("Downstream call rejected or unavailable: {}", ex.getMessage());
+
+        String errorCode = ex instanceof ServiceUnavailableException && !(ex instanceof ConcurrencyLimitExceededException)
+                ? "SERVICE_UNAVAILABLE"
+                : "DOWNSTREAM_SATURATED";
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                errorCode,
+                ex.getMessage(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ValidationErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex) {
         logger.warn("Validation failed: {}", ex.getMessage());
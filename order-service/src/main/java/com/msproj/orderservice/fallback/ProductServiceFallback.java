@@ -1,8 +1,10 @@
 package com.msproj.orderservice.fallback;
 
 import com.msproj.orderservice.client.ProductServiceClient;
+import com.msproj.orderservice.dto.BulkStockAdjustmentResultDto;
 import com.msproj.orderservice.dto.ProductDto;
 import com.msproj.orderservice.exception.ServiceUnavailableException;
+import com.msproj.orderservice.request.BulkStockAdjustmentRequest;
 import com.msproj.orderservice.request.ProductAvailabilityRequest;
 import com.msproj.orderservice.request.StockUpdateRequest;
 import org.slf4j.Logger;
@@ -41,6 +43,12 @@ public class ProductServiceFallback implements ProductServiceClient {
         throw new ServiceUnavailableException("Product Service unavailable for stock update");
     }
 
+    @Override
+    public BulkStockAdjustmentResultDto applyStockAdjustments(BulkStockAdjustmentRequest request) {
+        logger.error("Product Service unavailable, cannot apply stock adjustment batch: {}", request.referenceId());
+        throw new ServiceUnavailableException("Product Service unavailable for stock adjustments");
+    }
+
     @Override
     public Map<Long, Boolean> checkProductsAvailability(List<ProductAvailabilityRequest> requests) {
         logger.warn("Product Service unavailable, returning false for all availability checks");
@@ -1,7 +1,10 @@
 package com.msproj.orderservice.fallback;
 
 import com.msproj.orderservice.client.UserServiceClient;
+import com.msproj.orderservice.dto.BulkLoyaltyPointsResultDto;
 import com.msproj.orderservice.dto.UserDto;
+import com.msproj.orderservice.exception.ServiceUnavailableException;
+import com.msproj.orderservice.request.BulkLoyaltyPointsRequest;
 import com.msproj.orderservice.request.LoyaltyPointsRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,4 +30,11 @@ public class UserServiceFallback implements UserServiceClient {
         logger.warn("User Service unavailable, skipping loyalty points addition for customer: {}", customerId);
         // Do nothing - operation will be retried later
     }
+
+    @Override
+    public BulkLoyaltyPointsResultDto applyLoyaltyPointsBatch(BulkLoyaltyPointsRequest request) {
+        logger.warn("User Service unavailable, loyalty batch {} stays in flight", request.batchId());
+        // Fail loudly so the ledger keeps the batch and resends it with the same batch id
+        throw new ServiceUnavailableException("User Service unavailable for loyalty batch " + request.batchId());
+    }
 }
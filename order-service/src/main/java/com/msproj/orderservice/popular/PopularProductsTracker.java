@@ -0,0 +1,396 @@
+package com.msproj.orderservice.popular;
+
+import com.msproj.orderservice.dto.OrderStatusStreamEventDto;
+import com.msproj.orderservice.dto.PopularProductDto;
+import com.msproj.orderservice.entity.OrderStatus;
+import com.msproj.orderservice.repository.OrderStatusEventStore;
+import com.msproj.orderservice.repository.ProductSalesStore;
+import com.msproj.orderservice.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Best-selling products per window, kept up to date from order deliveries
+ * instead of aggregating order_items on every request.
+ * <p>
+ * Like OrderStatusStream, the tracker tails order_status_events on every
+ * shard, so each instance sees deliveries committed anywhere and all
+ * instances converge on the same counts. For each DELIVERED transition the
+ * order's item quantities are added to exact per-product counters: all time,
+ * plus hourly buckets covering the last 7 days, from which the 24 hour and
+ * 7 day totals are maintained as hours roll out of them. After a poll that
+ * changed anything, the top order.popular-products.top-k of each window are
+ * selected with a bounded heap and published as an immutable ranking, so
+ * reads never touch the counters or the database.
+ * <p>
+ * The counters are rebuilt from history at startup and on demand: the
+ * delivered orders still in the orders table, as of the status log position
+ * tailing resumes from. Orders that have been archived since were counted
+ * while live but are not part of a rebuild.
+ */
+@Component
+public class PopularProductsTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularProductsTracker.class);
+
+    private static final long HOUR_MS = 3_600_000L;
+    private static final int DAY_HOURS = PopularityWindow.LAST_24_HOURS.getHours();
+    private static final int RING_HOURS = PopularityWindow.LAST_7_DAYS.getHours();
+
+    private record Sale(long productId, long hour, int quantity) {}
+
+    private final OrderStatusEventStore orderStatusEventStore;
+    private final ProductSalesStore productSalesStore;
+    private final ShardRouter shardRouter;
+
+    // Counters and tail positions; touched only under the tracker's monitor
+    private Counts counts;
+    private final long[] cursors;
+    private final long[] gapSeenAt;
+
+    private volatile Map<PopularityWindow, List<PopularProductDto>> ranking = emptyRanking();
+    private final AtomicInteger trackedProducts = new AtomicInteger();
+    private volatile LocalDateTime lastRebuildAt;
+    private volatile long lastRebuildMs;
+
+    private final Counter deliveriesCounted;
+    private final Counter rebuilds;
+
+    @Value("${order.popular-products.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.popular-products.top-k:100}")
+    private int topK;
+
+    @Value("${order.popular-products.poll-batch-size:1000}")
+    private int pollBatchSize;
+
+    @Value("${order.popular-products.gap-wait-ms:2000}")
+    private long gapWaitMs;
+
+    @Autowired
+    public PopularProductsTracker(OrderStatusEventStore orderStatusEventStore,
+                                  ProductSalesStore productSalesStore,
+                                  ShardRouter shardRouter,
+                                  MeterRegistry meterRegistry) {
+        this.orderStatusEventStore = orderStatusEventStore;
+        this.productSalesStore = productSalesStore;
+        this.shardRouter = shardRouter;
+        this.cursors = new long[shardRouter.shardCount()];
+        this.gapSeenAt = new long[shardRouter.shardCount()];
+
+        this.deliveriesCounted = Counter.builder("order.popular_products.deliveries")
+                .description("Order deliveries added to the popular products counters")
+                .register(meterRegistry);
+        this.rebuilds = Counter.builder("order.popular_products.rebuilds")
+                .description("Rebuilds of the popular products counters from order history")
+                .register(meterRegistry);
+        Gauge.builder("order.popular_products.tracked", trackedProducts, AtomicInteger::get)
+                .description("Products with deliveries in the popular products counters")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return up to limit products of the window, best-selling first
+     */
+    public List<PopularProductDto> getTop(PopularityWindow window, int limit) {
+        List<PopularProductDto> top = ranking.get(window);
+        return top.subList(0, Math.max(0, Math.min(limit, top.size())));
+    }
+
+    /**
+     * Tail the status log for deliveries; the first poll builds the counters from history.
+     */
+    @Scheduled(fixedDelayString = "${order.popular-products.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            if (counts == null) {
+                rebuildCounts();
+                return;
+            }
+
+            AtomicInteger delivered = new AtomicInteger();
+            shardRouter.forEachShard(shard -> delivered.addAndGet(pollShard(shard)));
+
+            boolean rolledOver = counts.advanceTo(hourOf(System.currentTimeMillis()));
+            if (delivered.get() > 0 || rolledOver) {
+                publish();
+            }
+        } catch (Exception e) {
+            logger.warn("Popular products poll failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recount everything from the orders table and resume tailing from the current head of the log.
+     */
+    public synchronized Map<String, Object> rebuild() {
+        rebuildCounts();
+        return getStatistics();
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("trackedProducts", trackedProducts.get());
+        stats.put("topK", topK);
+        stats.put("deliveriesCounted", (long) deliveriesCounted.count());
+        stats.put("rebuilds", (long) rebuilds.count());
+        stats.put("lastRebuildAt", lastRebuildAt);
+        stats.put("lastRebuildMs", lastRebuildMs);
+        stats.put("cursors", Arrays.stream(cursors).boxed().toList());
+        stats.put("timestamp", LocalDateTime.now());
+        return stats;
+    }
+
+    private void rebuildCounts() {
+        long startedAt = System.currentTimeMillis();
+        long hour = hourOf(startedAt);
+        LocalDateTime since = toLocalDateTime((hour - RING_HOURS + 1) * HOUR_MS);
+
+        // Built aside and swapped in, so a failed rebuild leaves the current counters in place
+        Counts rebuilt = new Counts(hour);
+        long[] positions = new long[cursors.length];
+
+        shardRouter.forEachShard(shard -> {
+            long position = orderStatusEventStore.findMaxId();
+            productSalesStore.streamTotals(position, rebuilt::addAllTime);
+            productSalesStore.streamSalesSince(position, since,
+                    (productId, deliveredAt, quantity) -> rebuilt.addWindowed(productId, hourOf(deliveredAt), quantity));
+            positions[shard] = position;
+        });
+
+        counts = rebuilt;
+        System.arraycopy(positions, 0, cursors, 0, cursors.length);
+        Arrays.fill(gapSeenAt, 0);
+        publish();
+
+        rebuilds.increment();
+        lastRebuildAt = LocalDateTime.now();
+        lastRebuildMs = System.currentTimeMillis() - startedAt;
+        logger.info("Rebuilt popular products counters for {} products in {} ms", trackedProducts.get(), lastRebuildMs);
+    }
+
+    private int pollShard(int shard) {
+        try {
+            return countDeliveries(shard);
+        } catch (Exception e) {
+            logger.warn("Popular products poll of shard {} after event {} failed: {}", shard, cursors[shard], e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Count the deliveries in the next batch of the shard's log.
+     * IDENTITY ids become visible at commit, so a missing id is waited for up
+     * to gap-wait-ms before it is skipped as a rollback.
+     */
+    private int countDeliveries(int shard) {
+        List<OrderStatusStreamEventDto> events = orderStatusEventStore.findAfter(cursors[shard], pollBatchSize);
+
+        long position = cursors[shard];
+        Map<Long, Long> deliveredAtHour = new HashMap<>();
+
+        for (OrderStatusStreamEventDto event : events) {
+            if (event.eventId() != position + 1) {
+                long now = System.currentTimeMillis();
+                if (gapSeenAt[shard] == 0) {
+                    gapSeenAt[shard] = now;
+                }
+                if (now - gapSeenAt[shard] < gapWaitMs) {
+                    break;
+                }
+            }
+
+            gapSeenAt[shard] = 0;
+            position = event.eventId();
+            if (event.toStatus() == OrderStatus.DELIVERED) {
+                deliveredAtHour.put(event.orderId(), hourOf(event.occurredAt()));
+            }
+        }
+
+        // Read all items before counting any, so a failed read replays the batch without double counting
+        List<Sale> sales = new ArrayList<>();
+        productSalesStore.streamItems(deliveredAtHour.keySet(),
+                (orderId, productId, quantity) -> sales.add(new Sale(productId, deliveredAtHour.get(orderId), quantity)));
+
+        for (Sale sale : sales) {
+            counts.addAllTime(sale.productId(), sale.quantity());
+            counts.addWindowed(sale.productId(), sale.hour(), sale.quantity());
+        }
+        cursors[shard] = position;
+        deliveriesCounted.increment(deliveredAtHour.size());
+        return deliveredAtHour.size();
+    }
+
+    private void publish() {
+        Map<PopularityWindow, List<PopularProductDto>> next = new EnumMap<>(PopularityWindow.class);
+        for (PopularityWindow window : PopularityWindow.values()) {
+            next.put(window, counts.top(window, topK));
+        }
+        ranking = Collections.unmodifiableMap(next);
+        trackedProducts.set(counts.size());
+    }
+
+    private static Map<PopularityWindow, List<PopularProductDto>> emptyRanking() {
+        Map<PopularityWindow, List<PopularProductDto>> empty = new EnumMap<>(PopularityWindow.class);
+        for (PopularityWindow window : PopularityWindow.values()) {
+            empty.put(window, List.of());
+        }
+        return Collections.unmodifiableMap(empty);
+    }
+
+    private static long hourOf(long epochMs) {
+        return Math.floorDiv(epochMs, HOUR_MS);
+    }
+
+    // Order timestamps are local date-times of the service's zone
+    private static long hourOf(LocalDateTime dateTime) {
+        return hourOf(dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+    }
+
+    /**
+     * Exact delivered quantities per product and window.
+     * totals holds one running sum per window, indexed by ordinal; hourly is a
+     * ring of per-hour quantities for the last RING_HOURS hours, subtracted
+     * from the windowed sums as each hour leaves a window.
+     */
+    private static final class Counts {
+
+        private static final int DAY = PopularityWindow.LAST_24_HOURS.ordinal();
+        private static final int WEEK = PopularityWindow.LAST_7_DAYS.ordinal();
+        private static final int ALL = PopularityWindow.ALL_TIME.ordinal();
+
+        private final Map<Long, long[]> totals = new HashMap<>();
+        private final List<Map<Long, Long>> hourly = new ArrayList<>(Collections.nCopies(RING_HOURS, null));
+        private long currentHour;
+
+        Counts(long currentHour) {
+            this.currentHour = currentHour;
+        }
+
+        int size() {
+            return totals.size();
+        }
+
+        void addAllTime(long productId, long quantity) {
+            totalsOf(productId)[ALL] += quantity;
+        }
+
+        void addWindowed(long productId, long hour, long quantity) {
+            advanceTo(hour);
+            long age = currentHour - hour;
+            if (age < 0 || age >= RING_HOURS) {
+                return;
+            }
+
+            int slot = slot(hour);
+            if (hourly.get(slot) == null) {
+                hourly.set(slot, new HashMap<>());
+            }
+            hourly.get(slot).merge(productId, quantity, Long::sum);
+
+            long[] sums = totalsOf(productId);
+            sums[WEEK] += quantity;
+            if (age < DAY_HOURS) {
+                sums[DAY] += quantity;
+            }
+        }
+
+        /**
+         * @return true if any hour left a window
+         */
+        boolean advanceTo(long hour) {
+            if (hour <= currentHour) {
+                return false;
+            }
+
+            if (hour - currentHour >= RING_HOURS) {
+                // Idle for longer than the widest window: nothing windowed is left
+                Collections.fill(hourly, null);
+                totals.values().forEach(sums -> {
+                    sums[DAY] = 0;
+                    sums[WEEK] = 0;
+                });
+                currentHour = hour;
+                return true;
+            }
+
+            while (currentHour < hour) {
+                currentHour++;
+                expire(currentHour - DAY_HOURS, DAY, false);
+                // The hour leaving the 7 day window shares the slot of the new current hour
+                expire(currentHour - RING_HOURS, WEEK, true);
+            }
+            return true;
+        }
+
+        /**
+         * The k largest non-zero sums of the window, largest first, ties by product id.
+         */
+        List<PopularProductDto> top(PopularityWindow window, int k) {
+            int index = window.ordinal();
+            Comparator<PopularProductDto> ascending = Comparator.comparingLong(PopularProductDto::quantitySold)
+                    .thenComparing(PopularProductDto::productId, Comparator.reverseOrder());
+            PriorityQueue<PopularProductDto> heap = new PriorityQueue<>(k + 1, ascending);
+
+            for (Map.Entry<Long, long[]> entry : totals.entrySet()) {
+                long quantity = entry.getValue()[index];
+                if (quantity <= 0) {
+                    continue;
+                }
+                if (heap.size() < k) {
+                    heap.add(new PopularProductDto(entry.getKey(), quantity));
+                } else if (ascending.compare(new PopularProductDto(entry.getKey(), quantity), heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(new PopularProductDto(entry.getKey(), quantity));
+                }
+            }
+
+            List<PopularProductDto> top = new ArrayList<>(heap);
+            top.sort(ascending.reversed());
+            return List.copyOf(top);
+        }
+
+        private void expire(long hour, int window, boolean clear) {
+            int slot = slot(hour);
+            Map<Long, Long> bucket = hourly.get(slot);
+            if (bucket == null) {
+                return;
+            }
+            bucket.forEach((productId, quantity) -> totals.get(productId)[window] -= quantity);
+            if (clear) {
+                hourly.set(slot, null);
+            }
+        }
+
+        private long[] totalsOf(long productId) {
+            return totals.computeIfAbsent(productId, id -> new long[PopularityWindow.values().length]);
+        }
+
+        private static int slot(long hour) {
+            return (int) Math.floorMod(hour, (long) RING_HOURS);
+        }
+    }
+}
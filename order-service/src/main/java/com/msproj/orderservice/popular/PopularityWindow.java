@@ -0,0 +1,23 @@
+package com.msproj.orderservice.popular;
+
+/**
+ * Time windows the popular products ranking is kept for.
+ */
+public enum PopularityWindow {
+    LAST_24_HOURS(24),
+    LAST_7_DAYS(168),
+    ALL_TIME(0);
+
+    private final int hours;
+
+    PopularityWindow(int hours) {
+        this.hours = hours;
+    }
+
+    /**
+     * @return the window length in hours, 0 for ALL_TIME
+     */
+    public int getHours() {
+        return hours;
+    }
+}
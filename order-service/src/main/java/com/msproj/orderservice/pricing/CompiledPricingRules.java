@@ -0,0 +1,278 @@
+package com.msproj.orderservice.pricing;
+
+import com.msproj.orderservice.entity.PricingRuleType;
+import com.msproj.orderservice.entity.ShippingAddress;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable decision tables compiled from a set of pricing rules.
+ * <p>
+ * Regions, tiers and categories named by any rule are interned to dense ids
+ * (0 stands for "none of the named ones"), and every rule is resolved ahead of
+ * time into flat arrays indexed by those ids:
+ * - tax rate per (region, category): the most specific matching rule wins,
+ *   region first (state, then country, then global), then category
+ * - shipping cost and free-shipping threshold per region: most specific region
+ * - discount rate per (tier, region, category): matching rules stack, capped at 100%
+ * On equal specificity the later rule wins, so database rules override config.
+ * Compiling first indexes the rules by the exact scope they name, so filling a
+ * cell reads the few scopes containing it instead of scanning every rule.
+ * <p>
+ * Lookups are a few HashMap gets and array reads; nothing is allocated while
+ * pricing an order. Instances are never mutated after compile, so a new rule
+ * set is swapped in by publishing a new instance.
+ */
+public final class CompiledPricingRules {
+
+    private static final int GLOBAL = 0;
+
+    private record Country(int id, Map<String, Integer> states) {
+    }
+
+    private final long version;
+    private final int ruleCount;
+
+    private final Map<String, Country> countries;
+    private final Map<String, Integer> tiers;
+    private final Map<String, Integer> categories;
+    private final int regionCount;
+    private final int categoryCount;
+
+    private final long[] taxRates;
+    private final long[] discountRates;
+    private final long[] shippingCosts;
+    private final long[] freeShippingThresholds;
+
+    private CompiledPricingRules(long version, int ruleCount,
+                                 Map<String, Country> countries, Map<String, Integer> tiers,
+                                 Map<String, Integer> categories, int regionCount,
+                                 long[] taxRates, long[] discountRates,
+                                 long[] shippingCosts, long[] freeShippingThresholds) {
+        this.version = version;
+        this.ruleCount = ruleCount;
+        this.countries = countries;
+        this.tiers = tiers;
+        this.categories = categories;
+        this.regionCount = regionCount;
+        this.categoryCount = categories.size() + 1;
+        this.taxRates = taxRates;
+        this.discountRates = discountRates;
+        this.shippingCosts = shippingCosts;
+        this.freeShippingThresholds = freeShippingThresholds;
+    }
+
+    public int region(ShippingAddress address) {
+        if (address == null || address.getCountry() == null) {
+            return GLOBAL;
+        }
+
+        Country country = countries.get(address.getCountry());
+        if (country == null) {
+            return GLOBAL;
+        }
+
+        Integer state = address.getState() != null ? country.states().get(address.getState()) : null;
+        return state != null ? state : country.id();
+    }
+
+    public int tier(String customerTier) {
+        Integer id = customerTier != null ? tiers.get(customerTier) : null;
+        return id != null ? id : 0;
+    }
+
+    public int category(String category) {
+        Integer id = category != null ? categories.get(category) : null;
+        return id != null ? id : 0;
+    }
+
+    public long taxRate(int region, int category) {
+        return taxRates[region * categoryCount + category];
+    }
+
+    public long discountRate(int tier, int region, int category) {
+        return discountRates[(tier * regionCount + region) * categoryCount + category];
+    }
+
+    public long shipping(int region, long itemTotal) {
+        return itemTotal >= freeShippingThresholds[region] ? 0 : shippingCosts[region];
+    }
+
+    public long getVersion() { return version; }
+    public int getRuleCount() { return ruleCount; }
+    public int getRegionCount() { return regionCount; }
+    public int getTierCount() { return tiers.size(); }
+    public int getCategoryCount() { return categories.size(); }
+
+    /**
+     * Validate and compile; throws IllegalArgumentException naming the offending rule.
+     */
+    public static CompiledPricingRules compile(List<PricingRuleDefinition> definitions, long version) {
+        Map<String, Country> countries = new HashMap<>();
+        Map<String, Integer> tiers = new HashMap<>();
+        Map<String, Integer> categories = new HashMap<>();
+        // Region tree: parent[GLOBAL] = -1, a country's parent is GLOBAL, a state's its country
+        List<Integer> parents = new ArrayList<>(List.of(-1));
+
+        List<Scoped> rules = new ArrayList<>(definitions.size());
+        for (PricingRuleDefinition definition : definitions) {
+            validate(definition);
+            int region = internRegion(definition, countries, parents);
+            int tier = intern(definition.tier(), tiers);
+            int category = intern(definition.category(), categories);
+            rules.add(new Scoped(definition, region, tier, category));
+        }
+
+        int regionCount = parents.size();
+        int categoryCount = categories.size() + 1;
+        int tierCount = tiers.size() + 1;
+        int[] parent = parents.stream().mapToInt(Integer::intValue).toArray();
+
+        // Index the rules by the exact scope they name; later rules overwrite earlier ones
+        Scoped[] taxAt = new Scoped[regionCount * categoryCount];
+        Scoped[] shippingAt = new Scoped[regionCount];
+        long[] discountAt = new long[tierCount * regionCount * categoryCount];
+        for (Scoped rule : rules) {
+            switch (rule.definition().type()) {
+                case TAX -> taxAt[rule.region() * categoryCount + rule.category()] = rule;
+                case SHIPPING -> shippingAt[rule.region()] = rule;
+                case DISCOUNT -> discountAt[(rule.tier() * regionCount + rule.region()) * categoryCount
+                        + rule.category()] += Money.toRate(rule.definition().rate());
+            }
+        }
+
+        long[] taxRates = new long[regionCount * categoryCount];
+        long[] shippingCosts = new long[regionCount];
+        long[] freeShippingThresholds = new long[regionCount];
+        long[] discountRates = new long[tierCount * regionCount * categoryCount];
+
+        for (int region = 0; region < regionCount; region++) {
+            for (int category = 0; category < categoryCount; category++) {
+                Scoped tax = mostSpecific(taxAt, region, category, categoryCount, parent);
+                taxRates[region * categoryCount + category] =
+                        tax != null ? Money.toRate(tax.definition().rate()) : 0;
+
+                for (int tier = 0; tier < tierCount; tier++) {
+                    discountRates[(tier * regionCount + region) * categoryCount + category] = Math.min(
+                            stackedDiscount(discountAt, tier, region, category, regionCount, categoryCount, parent),
+                            Money.RATE_SCALE);
+                }
+            }
+
+            Scoped shipping = mostSpecific(shippingAt, region, 0, 1, parent);
+            BigDecimal threshold = shipping != null ? shipping.definition().threshold() : null;
+            shippingCosts[region] = shipping != null ? Money.toCents(shipping.definition().amount()) : 0;
+            freeShippingThresholds[region] = threshold != null ? Money.toCents(threshold) : Long.MAX_VALUE;
+        }
+
+        return new CompiledPricingRules(version, definitions.size(), countries, tiers, categories, regionCount,
+                taxRates, discountRates, shippingCosts, freeShippingThresholds);
+    }
+
+    private record Scoped(PricingRuleDefinition definition, int region, int tier, int category) {
+    }
+
+    /**
+     * Walk from the region up to GLOBAL, preferring the category's own rule to
+     * the all-categories one at each level: the first hit is the most specific.
+     */
+    private static Scoped mostSpecific(Scoped[] rulesAt, int region, int category, int categoryCount,
+                                       int[] parent) {
+        for (int scope = region; scope >= 0; scope = parent[scope]) {
+            Scoped rule = category != 0 ? rulesAt[scope * categoryCount + category] : null;
+            if (rule == null) {
+                rule = rulesAt[scope * categoryCount];
+            }
+            if (rule != null) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sum of the discounts scoped to the tier or all tiers, the region or any
+     * region containing it, and the category or all categories.
+     */
+    private static long stackedDiscount(long[] discountAt, int tier, int region, int category,
+                                        int regionCount, int categoryCount, int[] parent) {
+        long rate = 0;
+        for (int t = tier; ; t = 0) {
+            for (int scope = region; scope >= 0; scope = parent[scope]) {
+                int base = (t * regionCount + scope) * categoryCount;
+                rate += discountAt[base];
+                if (category != 0) {
+                    rate += discountAt[base + category];
+                }
+            }
+            if (t == 0) {
+                return rate;
+            }
+        }
+    }
+
+    private static void validate(PricingRuleDefinition rule) {
+        if (rule.type() == null) {
+            throw invalid(rule, "type is required");
+        }
+
+        switch (rule.type()) {
+            case TAX, DISCOUNT -> {
+                if (rule.rate() == null || rule.rate().signum() < 0 || rule.rate().compareTo(BigDecimal.ONE) > 0) {
+                    throw invalid(rule, "rate between 0 and 1 is required");
+                }
+                if (rule.type() == PricingRuleType.TAX && rule.tier() != null) {
+                    throw invalid(rule, "tax rules cannot be scoped by tier");
+                }
+            }
+            case SHIPPING -> {
+                if (rule.amount() == null || rule.amount().signum() < 0) {
+                    throw invalid(rule, "non-negative amount is required");
+                }
+                if (rule.threshold() != null && rule.threshold().signum() < 0) {
+                    throw invalid(rule, "threshold cannot be negative");
+                }
+                if (rule.tier() != null || rule.category() != null) {
+                    throw invalid(rule, "shipping rules are scoped by region only");
+                }
+            }
+        }
+    }
+
+    private static int internRegion(PricingRuleDefinition rule, Map<String, Country> countries,
+                                    List<Integer> parents) {
+        if (rule.region() == null) {
+            return GLOBAL;
+        }
+
+        String[] parts = rule.region().trim().split("-", 2);
+        if (parts[0].isEmpty() || (parts.length == 2 && parts[1].isEmpty())) {
+            throw invalid(rule, "region must be COUNTRY or COUNTRY-STATE");
+        }
+
+        Country country = countries.computeIfAbsent(parts[0], code -> {
+            parents.add(GLOBAL);
+            return new Country(parents.size() - 1, new HashMap<>());
+        });
+        if (parts.length == 1) {
+            return country.id();
+        }
+
+        return country.states().computeIfAbsent(parts[1], code -> {
+            parents.add(country.id());
+            return parents.size() - 1;
+        });
+    }
+
+    private static int intern(String key, Map<String, Integer> ids) {
+        return key == null ? 0 : ids.computeIfAbsent(key, k -> ids.size() + 1);
+    }
+
+    private static IllegalArgumentException invalid(PricingRuleDefinition rule, String problem) {
+        return new IllegalArgumentException("Invalid pricing rule " + rule.source() + ": " + problem);
+    }
+}
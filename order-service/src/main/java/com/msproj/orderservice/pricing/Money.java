@@ -0,0 +1,69 @@
+package com.msproj.orderservice.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money helpers: amounts are longs in minor units (cents).
+ * <p>
+ * All arithmetic is exact or rounds with an explicit mode, and overflow throws
+ * ArithmeticException instead of wrapping. BigDecimal only appears at the
+ * boundaries: toCents when prices come in, toDecimal when amounts are persisted.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    // Rates are fixed-point millionths: 0.085 is 85_000
+    public static final long RATE_SCALE = 1_000_000;
+
+    private Money() {
+    }
+
+    /**
+     * Sub-cent inputs are rounded half-up; null counts as zero.
+     */
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * Rates with more than six decimals are rounded half-up.
+     */
+    public static long toRate(BigDecimal rate) {
+        return rate.movePointRight(6).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * Integer division with BigDecimal's rounding semantics; divisor must be positive.
+     */
+    public static long divide(long dividend, long divisor, RoundingMode roundingMode) {
+        long quotient = Math.floorDiv(dividend, divisor);
+        long remainder = Math.floorMod(dividend, divisor);
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        // quotient is the floor; decide whether to step up to the ceiling.
+        // remainder vs. divisor - remainder compares against the half without 2 * remainder overflowing
+        int half = Long.compare(remainder, divisor - remainder);
+        boolean roundUp = switch (roundingMode) {
+            case FLOOR -> false;
+            case CEILING -> true;
+            case DOWN -> dividend < 0;
+            case UP -> dividend >= 0;
+            case HALF_UP -> half > 0 || (half == 0 && dividend >= 0);
+            case HALF_DOWN -> half > 0 || (half == 0 && dividend < 0);
+            case HALF_EVEN -> half > 0 || (half == 0 && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+        return roundUp ? quotient + 1 : quotient;
+    }
+}
@@ -0,0 +1,98 @@
+package com.msproj.orderservice.pricing;
+
+import com.msproj.orderservice.entity.Order;
+import com.msproj.orderservice.entity.OrderItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Prices an order in one pass over its lines, in cents.
+ * <p>
+ * Rates come from the currently installed CompiledPricingRules, looked up by
+ * the shipping region, the customer tier and each line's category. Line
+ * subtotals, item total, discount, tax and shipping are computed as longs;
+ * tax and discount accumulate per line at full precision and are rounded once
+ * per order. Results are written back to the order and its items as BigDecimal
+ * only once, for persistence, and each displayed component is rounded on its
+ * own, so finalAmount always equals total - discount + tax + shipping to the cent.
+ * <p>
+ * Tax and discount are both taken on the pre-discount item total, and
+ * free shipping is decided on it too.
+ */
+@Component
+public class OrderPricingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderPricingEngine.class);
+
+    static final RoundingMode TAX_ROUNDING = RoundingMode.HALF_UP;
+    static final RoundingMode DISCOUNT_ROUNDING = RoundingMode.HALF_UP;
+
+    // Swapped whole by install(); a pricing pass reads it once
+    private volatile CompiledPricingRules rules;
+
+    /**
+     * Starts with the configured rules only, so orders can be priced before
+     * the database rules are first loaded.
+     */
+    @Autowired
+    public OrderPricingEngine(PricingRulesProperties properties) {
+        this.rules = CompiledPricingRules.compile(properties.toDefinitions(), 0);
+    }
+
+    /**
+     * Price the order's attached items and set the subtotals and order amounts.
+     */
+    public void price(Order order, String customerTier) {
+        CompiledPricingRules rules = this.rules;
+        int region = rules.region(order.getShippingAddress());
+        int tier = rules.tier(customerTier);
+
+        List<OrderItem> items = order.getOrderItems();
+        long itemTotal = 0;
+        // cents * rate, divided by Money.RATE_SCALE once at the end
+        long taxUnits = 0;
+        long discountUnits = 0;
+
+        for (int i = 0, n = items.size(); i < n; i++) {
+            OrderItem item = items.get(i);
+            long subtotal = Math.subtractExact(
+                    Math.multiplyExact(Money.toCents(item.getUnitPrice()), (long) item.getQuantity()),
+                    Money.toCents(item.getDiscountAmount()));
+            int category = rules.category(item.getProductCategory());
+
+            itemTotal = Math.addExact(itemTotal, subtotal);
+            taxUnits = Math.addExact(taxUnits, Math.multiplyExact(subtotal, rules.taxRate(region, category)));
+            discountUnits = Math.addExact(discountUnits,
+                    Math.multiplyExact(subtotal, rules.discountRate(tier, region, category)));
+
+            item.setSubtotal(Money.toDecimal(subtotal));
+        }
+
+        long tax = Money.divide(taxUnits, Money.RATE_SCALE, TAX_ROUNDING);
+        long discount = Money.divide(discountUnits, Money.RATE_SCALE, DISCOUNT_ROUNDING);
+        long shipping = rules.shipping(region, itemTotal);
+        long finalAmount = Math.addExact(Math.addExact(itemTotal - discount, tax), shipping);
+
+        order.setTotalAmount(Money.toDecimal(itemTotal));
+        order.setDiscountAmount(Money.toDecimal(discount));
+        order.setTaxAmount(Money.toDecimal(tax));
+        order.setShippingAmount(Money.toDecimal(shipping));
+        order.setFinalAmount(Money.toDecimal(finalAmount));
+    }
+
+    public void install(CompiledPricingRules compiled) {
+        this.rules = compiled;
+        logger.info("Installed pricing rules version {}: {} rules, {} regions, {} tiers, {} categories",
+                compiled.getVersion(), compiled.getRuleCount(), compiled.getRegionCount(),
+                compiled.getTierCount(), compiled.getCategoryCount());
+    }
+
+    public CompiledPricingRules getRules() {
+        return rules;
+    }
+}
@@ -0,0 +1,27 @@
+package com.msproj.orderservice.pricing;
+
+import com.msproj.orderservice.entity.PricingRule;
+import com.msproj.orderservice.entity.PricingRuleType;
+
+import java.math.BigDecimal;
+
+/**
+ * Source-independent form of a pricing rule, as read from configuration or the
+ * pricing_rules table; null region, tier and category match everything.
+ * source names the rule in compile errors.
+ */
+public record PricingRuleDefinition(PricingRuleType type,
+                                    String region,
+                                    String tier,
+                                    String category,
+                                    BigDecimal rate,
+                                    BigDecimal amount,
+                                    BigDecimal threshold,
+                                    String source) {
+
+    public static PricingRuleDefinition of(PricingRule rule) {
+        return new PricingRuleDefinition(rule.getRuleType(), rule.getRegion(), rule.getCustomerTier(),
+                rule.getCategory(), rule.getRate(), rule.getAmount(), rule.getThreshold(),
+                "pricing_rules#" + rule.getId());
+    }
+}
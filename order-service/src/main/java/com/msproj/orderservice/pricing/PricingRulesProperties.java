@@ -0,0 +1,118 @@
+package com.msproj.orderservice.pricing;
+
+import com.msproj.orderservice.entity.PricingRuleType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pricing rules from configuration (order.pricing.*).
+ * <p>
+ * tax.default-rate, the shipping defaults and tier-discounts are the global
+ * rules; rules adds scoped ones in the same shape as the pricing_rules table,
+ * which is read on top of these when database-rules is on.
+ */
+@ConfigurationProperties(prefix = "order.pricing")
+public class PricingRulesProperties {
+
+    private boolean databaseRules = true;
+    private long refreshIntervalMs = 30_000;
+    private Tax tax = new Tax();
+    private Shipping shipping = new Shipping();
+    private Map<String, BigDecimal> tierDiscounts = new LinkedHashMap<>(Map.of(
+            "GOLD", new BigDecimal("0.10"),
+            "PLATINUM", new BigDecimal("0.15")));
+    private List<Rule> rules = new ArrayList<>();
+
+    public static class Tax {
+        private BigDecimal defaultRate = new BigDecimal("0.085");
+
+        public BigDecimal getDefaultRate() { return defaultRate; }
+        public void setDefaultRate(BigDecimal defaultRate) { this.defaultRate = defaultRate; }
+    }
+
+    public static class Shipping {
+        private BigDecimal freeShippingThreshold = new BigDecimal("100.00");
+        private BigDecimal defaultShippingCost = new BigDecimal("9.99");
+
+        public BigDecimal getFreeShippingThreshold() { return freeShippingThreshold; }
+        public void setFreeShippingThreshold(BigDecimal freeShippingThreshold) { this.freeShippingThreshold = freeShippingThreshold; }
+
+        public BigDecimal getDefaultShippingCost() { return defaultShippingCost; }
+        public void setDefaultShippingCost(BigDecimal defaultShippingCost) { this.defaultShippingCost = defaultShippingCost; }
+    }
+
+    public static class Rule {
+        private PricingRuleType type;
+        private String region;
+        private String tier;
+        private String category;
+        private BigDecimal rate;
+        private BigDecimal amount;
+        private BigDecimal threshold;
+
+        public PricingRuleType getType() { return type; }
+        public void setType(PricingRuleType type) { this.type = type; }
+
+        public String getRegion() { return region; }
+        public void setRegion(String region) { this.region = region; }
+
+        public String getTier() { return tier; }
+        public void setTier(String tier) { this.tier = tier; }
+
+        public String getCategory() { return category; }
+        public void setCategory(String category) { this.category = category; }
+
+        public BigDecimal getRate() { return rate; }
+        public void setRate(BigDecimal rate) { this.rate = rate; }
+
+        public BigDecimal getAmount() { return amount; }
+        public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+        public BigDecimal getThreshold() { return threshold; }
+        public void setThreshold(BigDecimal threshold) { this.threshold = threshold; }
+    }
+
+    /**
+     * Global rules first, then the configured scoped rules in order.
+     */
+    public List<PricingRuleDefinition> toDefinitions() {
+        List<PricingRuleDefinition> definitions = new ArrayList<>();
+        definitions.add(new PricingRuleDefinition(PricingRuleType.TAX, null, null, null,
+                tax.getDefaultRate(), null, null, "order.pricing.tax"));
+        definitions.add(new PricingRuleDefinition(PricingRuleType.SHIPPING, null, null, null,
+                null, shipping.getDefaultShippingCost(), shipping.getFreeShippingThreshold(), "order.pricing.shipping"));
+        tierDiscounts.forEach((tier, rate) -> definitions.add(new PricingRuleDefinition(
+                PricingRuleType.DISCOUNT, null, tier, null, rate, null, null, "order.pricing.tier-discounts")));
+
+        for (int i = 0; i < rules.size(); i++) {
+            Rule rule = rules.get(i);
+            definitions.add(new PricingRuleDefinition(rule.getType(), rule.getRegion(), rule.getTier(),
+                    rule.getCategory(), rule.getRate(), rule.getAmount(), rule.getThreshold(),
+                    "order.pricing.rules[" + i + "]"));
+        }
+        return definitions;
+    }
+
+    public boolean isDatabaseRules() { return databaseRules; }
+    public void setDatabaseRules(boolean databaseRules) { this.databaseRules = databaseRules; }
+
+    public long getRefreshIntervalMs() { return refreshIntervalMs; }
+    public void setRefreshIntervalMs(long refreshIntervalMs) { this.refreshIntervalMs = refreshIntervalMs; }
+
+    public Tax getTax() { return tax; }
+    public void setTax(Tax tax) { this.tax = tax; }
+
+    public Shipping getShipping() { return shipping; }
+    public void setShipping(Shipping shipping) { this.shipping = shipping; }
+
+    public Map<String, BigDecimal> getTierDiscounts() { return tierDiscounts; }
+    public void setTierDiscounts(Map<String, BigDecimal> tierDiscounts) { this.tierDiscounts = tierDiscounts; }
+
+    public List<Rule> getRules() { return rules; }
+    public void setRules(List<Rule> rules) { this.rules = rules; }
+}
@@ -0,0 +1,142 @@
+package com.msproj.orderservice.pricing;
+
+import com.msproj.orderservice.repository.PricingRuleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the pricing engine's compiled rules in step with the pricing_rules table.
+ * <p>
+ * Each poll compares a cheap fingerprint of the table (row count and latest
+ * updated_at) with the one last compiled, and only on a change reads the
+ * active rules, compiles them on top of the configured ones and installs the
+ * result in one reference swap. A rule set that does not compile is logged
+ * and the previous one stays in force. With sharding the table is read from
+ * the default shard.
+ */
+@Component
+@EnableConfigurationProperties(PricingRulesProperties.class)
+public class PricingRulesRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PricingRulesRefresher.class);
+
+    private record Fingerprint(long count, LocalDateTime lastUpdatedAt) {
+    }
+
+    private final OrderPricingEngine orderPricingEngine;
+    private final PricingRuleRepository pricingRuleRepository;
+    private final PricingRulesProperties properties;
+
+    private final Counter reloads;
+    private final Counter failedReloads;
+
+    private Fingerprint installed;
+    private long nextVersion = 1;
+    private volatile LocalDateTime lastReloadAt;
+    private volatile String lastError;
+
+    @Autowired
+    public PricingRulesRefresher(OrderPricingEngine orderPricingEngine,
+                                 PricingRuleRepository pricingRuleRepository,
+                                 PricingRulesProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.orderPricingEngine = orderPricingEngine;
+        this.pricingRuleRepository = pricingRuleRepository;
+        this.properties = properties;
+
+        this.reloads = Counter.builder("order.pricing.rules.reloads")
+                .description("Pricing rule sets compiled and installed")
+                .tag("outcome", "installed")
+                .register(meterRegistry);
+        this.failedReloads = Counter.builder("order.pricing.rules.reloads")
+                .description("Pricing rule sets compiled and installed")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        Gauge.builder("order.pricing.rules.version", orderPricingEngine, engine -> engine.getRules().getVersion())
+                .description("Version of the pricing rules in force")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${order.pricing.refresh-interval-ms:30000}")
+    public void poll() {
+        if (!properties.isDatabaseRules()) {
+            return;
+        }
+
+        try {
+            refresh(false);
+        } catch (Exception e) {
+            logger.warn("Pricing rules refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recompile now even if the table looks unchanged, e.g. after fixing a rule by hand.
+     */
+    public synchronized Map<String, Object> reload() {
+        refresh(true);
+        return getStatistics();
+    }
+
+    private synchronized void refresh(boolean force) {
+        Fingerprint fingerprint = properties.isDatabaseRules()
+                ? new Fingerprint(pricingRuleRepository.count(), pricingRuleRepository.findLastUpdatedAt())
+                : null;
+        if (!force && Objects.equals(fingerprint, installed)) {
+            return;
+        }
+
+        List<PricingRuleDefinition> definitions = properties.toDefinitions();
+        if (properties.isDatabaseRules()) {
+            pricingRuleRepository.findByActiveTrueOrderByIdAsc().stream()
+                    .map(PricingRuleDefinition::of)
+                    .forEach(definitions::add);
+        }
+
+        try {
+            orderPricingEngine.install(CompiledPricingRules.compile(definitions, nextVersion++));
+            installed = fingerprint;
+            lastReloadAt = LocalDateTime.now();
+            lastError = null;
+            reloads.increment();
+        } catch (IllegalArgumentException e) {
+            // Remember the fingerprint so the same broken rule set is not recompiled every poll
+            installed = fingerprint;
+            lastError = e.getMessage();
+            failedReloads.increment();
+            logger.error("Pricing rules not installed, keeping version {}: {}",
+                    orderPricingEngine.getRules().getVersion(), e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        CompiledPricingRules rules = orderPricingEngine.getRules();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("version", rules.getVersion());
+        stats.put("rules", rules.getRuleCount());
+        stats.put("regions", rules.getRegionCount());
+        stats.put("tiers", rules.getTierCount());
+        stats.put("categories", rules.getCategoryCount());
+        stats.put("databaseRules", properties.isDatabaseRules());
+        stats.put("lastReloadAt", lastReloadAt);
+        stats.put("lastError", lastError);
+        stats.put("reloads", (long) reloads.count());
+        stats.put("failedReloads", (long) failedReloads.count());
+        stats.put("timestamp", LocalDateTime.now());
+        return stats;
+    }
+}
@@ -0,0 +1,55 @@
+package com.msproj.orderservice.querystats;
+
+import com.msproj.servicesupport.querystats.QueryStatsDataSourcePostProcessor;
+import com.msproj.servicesupport.querystats.QueryStatsFilter;
+import com.msproj.servicesupport.querystats.QueryStatsHibernateCustomizer;
+import com.msproj.servicesupport.querystats.QueryStatsProperties;
+import com.msproj.servicesupport.querystats.QueryStatsStatementInspector;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * SQL instrumentation (order.query-stats.*): Hibernate statement timing, the
+ * connection wait of the application DataSource and the request filter that
+ * exports both. The instrumentation itself lives in service-support.
+ * <p>
+ * The JdbcTemplate stores (saved carts, order documents, status events,
+ * product sales) bypass Hibernate: their connections are counted, their
+ * statements are not.
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.query-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryStatsConfig {
+
+    @Bean
+    @ConfigurationProperties("order.query-stats")
+    public QueryStatsProperties queryStatsProperties() {
+        return new QueryStatsProperties();
+    }
+
+    @Bean
+    public static BeanPostProcessor queryStatsDataSourcePostProcessor() {
+        return new QueryStatsDataSourcePostProcessor();
+    }
+
+    @Bean
+    public QueryStatsStatementInspector queryStatsStatementInspector(QueryStatsProperties properties,
+                                                                     MeterRegistry meterRegistry) {
+        return new QueryStatsStatementInspector(properties, meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryStatsHibernateCustomizer(QueryStatsStatementInspector inspector) {
+        return new QueryStatsHibernateCustomizer(inspector);
+    }
+
+    @Bean
+    public QueryStatsFilter queryStatsFilter(QueryStatsProperties properties, MeterRegistry meterRegistry) {
+        return new QueryStatsFilter(properties, meterRegistry);
+    }
+}
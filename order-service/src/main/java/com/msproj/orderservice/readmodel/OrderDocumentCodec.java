@@ -0,0 +1,40 @@
+package com.msproj.orderservice.readmodel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.msproj.orderservice.dto.OrderResponseDto;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Smile encoding of order documents: the JSON shape of OrderResponseDto, with
+ * back-referenced property names, so documents stay compact and cheap to parse.
+ */
+@Component
+public class OrderDocumentCodec {
+
+    private final ObjectMapper smileMapper;
+
+    public OrderDocumentCodec(Jackson2ObjectMapperBuilder builder) {
+        this.smileMapper = builder.factory(new SmileFactory()).build();
+    }
+
+    public byte[] encode(OrderResponseDto order) {
+        try {
+            return smileMapper.writeValueAsBytes(order);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode order document " + order.getId(), e);
+        }
+    }
+
+    public OrderResponseDto decode(byte[] document) {
+        try {
+            return smileMapper.readValue(document, OrderResponseDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode order document", e);
+        }
+    }
+}
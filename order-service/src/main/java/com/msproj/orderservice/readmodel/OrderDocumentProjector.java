@@ -0,0 +1,214 @@
+package com.msproj.orderservice.readmodel;
+
+import com.msproj.orderservice.dto.OrderResponseDto;
+import com.msproj.orderservice.dto.OrderStatusStreamEventDto;
+import com.msproj.orderservice.entity.Order;
+import com.msproj.orderservice.repository.OrderDocumentStore;
+import com.msproj.orderservice.repository.OrderDocumentStore.CursorState;
+import com.msproj.orderservice.repository.OrderDocumentStore.DocumentRow;
+import com.msproj.orderservice.repository.OrderDocumentStore.SkippedRange;
+import com.msproj.orderservice.repository.OrderRepository;
+import com.msproj.orderservice.repository.OrderStatusEventStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds order documents from the write model.
+ * <p>
+ * order_status_events is the change feed: every write that changes an order's
+ * status appends to it in the same transaction. A projection step, in one
+ * short transaction holding the cursor row:
+ * 1. reads the next batch of log entries after the cursor
+ * 2. collects their order IDs, plus the next keyset page of all orders while
+ *    the initial backfill is running
+ * 3. re-reads those orders with their items and upserts their documents
+ * 4. advances the cursor and, when it reached the head of the log, the watermark
+ * <p>
+ * A log id still missing after gap-wait-ms is skipped and stored as a skipped
+ * range. Every step first re-checks the stored ranges and projects the orders
+ * of events that committed late, so the watermark only passes a late commit
+ * once its order has been projected. Ranges older than late-commit-window-ms
+ * are taken as rolled back and dropped.
+ * <p>
+ * Documents are always rebuilt from the current order row rather than from the
+ * event, so steps are idempotent and order-independent; source_version keeps
+ * a slower step from overwriting a newer document.
+ */
+@Service
+public class OrderDocumentProjector {
+
+    public static final String CURSOR_NAME = "order_documents";
+
+    private final OrderStatusEventStore orderStatusEventStore;
+    private final OrderDocumentStore orderDocumentStore;
+    private final OrderRepository orderRepository;
+    private final OrderDocumentCodec orderDocumentCodec;
+
+    @Autowired
+    public OrderDocumentProjector(OrderStatusEventStore orderStatusEventStore,
+                                  OrderDocumentStore orderDocumentStore,
+                                  OrderRepository orderRepository,
+                                  OrderDocumentCodec orderDocumentCodec) {
+        this.orderStatusEventStore = orderStatusEventStore;
+        this.orderDocumentStore = orderDocumentStore;
+        this.orderRepository = orderRepository;
+        this.orderDocumentCodec = orderDocumentCodec;
+    }
+
+    /**
+     * @param cursor    state after the step (or as last committed, when another instance held the cursor)
+     * @param projected documents written by this step
+     * @param caughtUp  whether the step reached the head of the log with the backfill finished
+     */
+    public record StepResult(CursorState cursor, int projected, boolean caughtUp) {}
+
+    /**
+     * Run one projection step; a no-op returning the committed cursor while
+     * another instance holds it.
+     *
+     * @param gapWaitMs          how long a missing log id (an uncommitted or rolled back
+     *                           transaction) holds the cursor back before it is skipped
+     * @param lateCommitWindowMs how long skipped log ids are re-checked for late commits
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public StepResult step(int batchSize, int backfillBatchSize, long gapWaitMs, long lateCommitWindowMs) {
+        long stepStartedAt = System.currentTimeMillis();
+
+        CursorState cursor = orderDocumentStore.lockCursor(CURSOR_NAME).orElse(null);
+        if (cursor == null) {
+            CursorState committed = orderDocumentStore.readCursor(CURSOR_NAME).orElse(null);
+            if (committed == null) {
+                orderDocumentStore.createCursorIfAbsent(CURSOR_NAME);
+            }
+            return new StepResult(committed, 0, false);
+        }
+
+        Set<Long> orderIds = new LinkedHashSet<>();
+        recheckSkipped(stepStartedAt, lateCommitWindowMs, orderIds);
+
+        List<OrderStatusStreamEventDto> events = orderStatusEventStore.findAfter(cursor.position(), batchSize);
+
+        long position = cursor.position();
+        Long gapSeenAtMs = cursor.gapSeenAtMs();
+        boolean blocked = false;
+        List<SkippedRange> skipped = new ArrayList<>();
+
+        for (OrderStatusStreamEventDto event : events) {
+            if (event.eventId() != position + 1) {
+                if (gapSeenAtMs == null) {
+                    gapSeenAtMs = stepStartedAt;
+                }
+                if (stepStartedAt - gapSeenAtMs < gapWaitMs) {
+                    blocked = true;
+                    break;
+                }
+                skipped.add(new SkippedRange(null, position + 1, event.eventId() - 1, stepStartedAt));
+            }
+            gapSeenAtMs = null;
+            position = event.eventId();
+            orderIds.add(event.orderId());
+        }
+
+        long backfillAfterId = cursor.backfillAfterId();
+        if (backfillAfterId >= 0) {
+            List<Long> page = orderRepository.findIdsAfter(backfillAfterId, PageRequest.of(0, backfillBatchSize));
+            orderIds.addAll(page);
+            backfillAfterId = page.size() < backfillBatchSize ? -1 : page.get(page.size() - 1);
+        }
+
+        orderDocumentStore.addSkippedRanges(CURSOR_NAME, skipped);
+        int projected = project(orderIds);
+
+        // Everything committed before this step started was visible to the log read above
+        boolean caughtUp = !blocked && events.size() < batchSize;
+        long watermarkMs = caughtUp ? stepStartedAt : cursor.watermarkMs();
+
+        CursorState next = new CursorState(position, gapSeenAtMs, backfillAfterId, watermarkMs);
+        orderDocumentStore.updateCursor(CURSOR_NAME, next);
+        return new StepResult(next, projected, caughtUp && next.backfilled());
+    }
+
+    /**
+     * Rebuild the given orders' documents in the caller's transaction, for
+     * writes that change an order without a status transition.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refresh(Collection<Long> orderIds) {
+        project(orderIds);
+    }
+
+    @Transactional
+    public boolean restartBackfill() {
+        return orderDocumentStore.restartBackfill(CURSOR_NAME) > 0;
+    }
+
+    /**
+     * Add the orders of late committed events in skipped ranges to orderIds,
+     * and shrink or drop the ranges accordingly.
+     */
+    private void recheckSkipped(long now, long lateCommitWindowMs, Set<Long> orderIds) {
+        List<SkippedRange> ranges = orderDocumentStore.findSkippedRanges(CURSOR_NAME);
+        if (ranges.isEmpty()) {
+            return;
+        }
+
+        List<SkippedRange> resolved = new ArrayList<>();
+        List<SkippedRange> remaining = new ArrayList<>();
+        for (SkippedRange range : ranges) {
+            if (now - range.skippedAtMs() > lateCommitWindowMs) {
+                resolved.add(range);
+                continue;
+            }
+            List<OrderStatusStreamEventDto> late = orderStatusEventStore.findBetween(range.fromId(), range.toId());
+            if (late.isEmpty()) {
+                continue;
+            }
+
+            resolved.add(range);
+            long from = range.fromId();
+            for (OrderStatusStreamEventDto event : late) {
+                orderIds.add(event.orderId());
+                if (event.eventId() > from) {
+                    remaining.add(new SkippedRange(null, from, event.eventId() - 1, range.skippedAtMs()));
+                }
+                from = event.eventId() + 1;
+            }
+            if (from <= range.toId()) {
+                remaining.add(new SkippedRange(null, from, range.toId(), range.skippedAtMs()));
+            }
+        }
+
+        orderDocumentStore.deleteSkippedRanges(resolved);
+        orderDocumentStore.addSkippedRanges(CURSOR_NAME, remaining);
+    }
+
+    private int project(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        List<Order> orders = orderRepository.findAllWithItemsByIdIn(orderIds);
+
+        List<DocumentRow> rows = orders.stream()
+                .map(order -> new DocumentRow(
+                        order.getId(),
+                        order.getCustomerId(),
+                        order.getOrderDate(),
+                        order.getStatus(),
+                        order.getVersion() != null ? order.getVersion() : 0L,
+                        orderDocumentCodec.encode(OrderResponseDto.fromEntity(order))))
+                .toList();
+
+        orderDocumentStore.upsertAll(rows);
+        return rows.size();
+    }
+}
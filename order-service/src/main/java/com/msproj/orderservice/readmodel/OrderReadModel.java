@@ -0,0 +1,286 @@
+package com.msproj.orderservice.readmodel;
+
+import com.msproj.orderservice.dto.OrderResponseDto;
+import com.msproj.orderservice.repository.OrderDocumentStore;
+import com.msproj.orderservice.repository.OrderDocumentStore.CursorState;
+import com.msproj.orderservice.sharding.ShardContext;
+import com.msproj.orderservice.sharding.ShardRouter;
+import com.msproj.servicesupport.datasource.ReadConsistency;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Read side of the order history pages (CQRS).
+ * <p>
+ * getOrderById and getOrdersByCustomer are answered from order_documents with
+ * one primary-key or (customer_id, order_date) range read. The projection
+ * trails the write model; reads fall back to the write model whenever the
+ * read model cannot vouch for freshness:
+ * - bounded lag: the watermark is older than order.read-model.max-lag-ms
+ *   (projection stalled or still backfilling)
+ * - read-your-writes: the request carries an X-Consistency-Token from an
+ *   earlier write that the watermark has not passed yet
+ * - a single order with no document yet (created within the lag window)
+ * <p>
+ * Every instance polls; the projection step itself runs on whichever instance
+ * gets the cursor lock, the others only refresh their cursor snapshot. With
+ * sharding, each shard projects its own orders with its own cursor, and reads
+ * are judged by the snapshot of the shard they are routed to.
+ */
+@Component
+public class OrderReadModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderReadModel.class);
+
+    private final OrderDocumentProjector orderDocumentProjector;
+    private final OrderDocumentStore orderDocumentStore;
+    private final OrderDocumentCodec orderDocumentCodec;
+
+    private final Counter readModelReads;
+    private final Counter writeModelReads;
+    private final Counter documentsProjected;
+    private final Counter projectionFailures;
+
+    @Value("${order.read-model.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.read-model.batch-size:500}")
+    private int batchSize;
+
+    @Value("${order.read-model.backfill-batch-size:500}")
+    private int backfillBatchSize;
+
+    @Value("${order.read-model.max-steps-per-poll:20}")
+    private int maxStepsPerPoll;
+
+    @Value("${order.read-model.gap-wait-ms:5000}")
+    private long gapWaitMs;
+
+    @Value("${order.read-model.late-commit-window-ms:60000}")
+    private long lateCommitWindowMs;
+
+    @Value("${order.read-model.max-lag-ms:5000}")
+    private long maxLagMs;
+
+    @Value("${order.read-model.clock-skew-ms:250}")
+    private long clockSkewMs;
+
+    @Value("${order.read-model.poll-interval-ms:200}")
+    private long pollIntervalMs;
+
+    @Value("${order.read-model.max-failure-backoff-ms:30000}")
+    private long maxFailureBackoffMs;
+
+    // Last cursor state seen by this instance, per shard
+    private final AtomicReferenceArray<CursorState> snapshots;
+    private final ShardRouter shardRouter;
+
+    // Failing shards are skipped until their backoff runs out; touched by the poll thread only
+    private final int[] consecutiveFailures;
+    private final long[] retryAtMs;
+
+    @Autowired
+    public OrderReadModel(OrderDocumentProjector orderDocumentProjector,
+                          OrderDocumentStore orderDocumentStore,
+                          OrderDocumentCodec orderDocumentCodec,
+                          MeterRegistry meterRegistry,
+                          ShardRouter shardRouter) {
+        this.orderDocumentProjector = orderDocumentProjector;
+        this.orderDocumentStore = orderDocumentStore;
+        this.orderDocumentCodec = orderDocumentCodec;
+        this.shardRouter = shardRouter;
+        this.snapshots = new AtomicReferenceArray<>(shardRouter.shardCount());
+        this.consecutiveFailures = new int[shardRouter.shardCount()];
+        this.retryAtMs = new long[shardRouter.shardCount()];
+
+        this.readModelReads = Counter.builder("order.read_model.reads")
+                .description("Order reads by the model that answered them")
+                .tag("source", "read_model")
+                .register(meterRegistry);
+        this.writeModelReads = Counter.builder("order.read_model.reads")
+                .description("Order reads by the model that answered them")
+                .tag("source", "write_model")
+                .register(meterRegistry);
+        this.documentsProjected = Counter.builder("order.read_model.projected")
+                .description("Order documents written by projection steps on this instance")
+                .register(meterRegistry);
+        this.projectionFailures = Counter.builder("order.read_model.failures")
+                .description("Projection polls that failed on this instance")
+                .register(meterRegistry);
+        Gauge.builder("order.read_model.lag.ms", this, OrderReadModel::lagMillis)
+                .description("Age of the oldest read model watermark over all shards")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${order.read-model.poll-interval-ms:200}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+
+        shardRouter.forEachShard(this::pollShard);
+    }
+
+    private void pollShard(int shard) {
+        if (consecutiveFailures[shard] > 0 && System.currentTimeMillis() < retryAtMs[shard]) {
+            return;
+        }
+
+        try {
+            for (int i = 0; i < maxStepsPerPoll; i++) {
+                OrderDocumentProjector.StepResult result =
+                        orderDocumentProjector.step(batchSize, backfillBatchSize, gapWaitMs, lateCommitWindowMs);
+                if (result.cursor() != null) {
+                    snapshots.set(shard, result.cursor());
+                }
+                documentsProjected.increment(result.projected());
+
+                if (result.caughtUp() || result.projected() == 0) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            onPollFailure(shard, e);
+            return;
+        }
+
+        if (consecutiveFailures[shard] > 0) {
+            logger.info("Order read model projection on shard {} recovered after {} failed polls",
+                    shard, consecutiveFailures[shard]);
+            consecutiveFailures[shard] = 0;
+        }
+    }
+
+    /**
+     * Back the shard off exponentially up to order.read-model.max-failure-backoff-ms.
+     * The first failure is logged with its stack trace; a persistent failure
+     * is logged again once per maximum backoff rather than on every poll.
+     */
+    private void onPollFailure(int shard, Exception e) {
+        projectionFailures.increment();
+        int failures = ++consecutiveFailures[shard];
+        long backoffMs = Math.min(maxFailureBackoffMs, pollIntervalMs << Math.min(failures - 1, 20));
+        retryAtMs[shard] = System.currentTimeMillis() + backoffMs;
+
+        if (failures == 1) {
+            logger.warn("Order read model projection step on shard {} failed, retrying in {} ms",
+                    shard, backoffMs, e);
+        } else if (backoffMs >= maxFailureBackoffMs) {
+            logger.warn("Order read model projection on shard {} still failing after {} polls, " +
+                    "retrying every {} ms: {}", shard, failures, backoffMs, e.getMessage());
+        } else {
+            logger.debug("Order read model projection step on shard {} failed again: {}", shard, e.getMessage());
+        }
+    }
+
+    public Optional<OrderResponseDto> findOrder(Long orderId) {
+        if (!isFresh(false)) {
+            writeModelReads.increment();
+            return Optional.empty();
+        }
+
+        Optional<OrderResponseDto> order = orderDocumentStore.findDocument(orderId).map(orderDocumentCodec::decode);
+        (order.isPresent() ? readModelReads : writeModelReads).increment();
+        return order;
+    }
+
+    public Optional<List<OrderResponseDto>> findCustomerOrders(Long customerId) {
+        if (!isFresh(true)) {
+            writeModelReads.increment();
+            return Optional.empty();
+        }
+
+        readModelReads.increment();
+        return Optional.of(orderDocumentStore.findCustomerDocuments(customerId).stream()
+                .map(orderDocumentCodec::decode)
+                .toList());
+    }
+
+    /**
+     * Re-project orders changed without a status transition; joins the caller's transaction.
+     */
+    public void refresh(Collection<Long> orderIds) {
+        if (enabled) {
+            orderDocumentProjector.refresh(orderIds);
+        }
+    }
+
+    /**
+     * Rebuild every document from the orders table, e.g. after restoring a backup.
+     * Reads fall back to the write model until the rebuild finishes.
+     */
+    public boolean rebuild() {
+        boolean restarted = shardRouter.onEveryShard(orderDocumentProjector::restartBackfill).contains(true);
+        if (restarted) {
+            logger.info("Order read model rebuild requested");
+        }
+        return restarted;
+    }
+
+    public Map<String, Object> getStatistics() {
+        List<Map<String, Object>> shards = new ArrayList<>();
+        boolean backfilled = true;
+
+        for (int shard = 0; shard < snapshots.length(); shard++) {
+            CursorState cursor = snapshots.get(shard);
+            backfilled &= cursor != null && cursor.backfilled();
+
+            Map<String, Object> shardStats = new HashMap<>();
+            shardStats.put("shard", shard);
+            shardStats.put("position", cursor != null ? cursor.position() : null);
+            shardStats.put("backfilled", cursor != null && cursor.backfilled());
+            shardStats.put("backfillAfterId", cursor != null ? cursor.backfillAfterId() : null);
+            shardStats.put("lagMs", (long) lagMillis(cursor));
+            shards.add(shardStats);
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("shards", shards);
+        stats.put("backfilled", backfilled);
+        stats.put("lagMs", (long) lagMillis());
+        stats.put("maxLagMs", maxLagMs);
+        stats.put("readModelReads", (long) readModelReads.count());
+        stats.put("writeModelReads", (long) writeModelReads.count());
+        stats.put("documentsProjected", (long) documentsProjected.count());
+        stats.put("timestamp", LocalDateTime.now());
+        return stats;
+    }
+
+    private boolean isFresh(boolean needsBackfill) {
+        CursorState cursor = snapshots.get(ShardContext.current());
+        if (!enabled || cursor == null || (needsBackfill && !cursor.backfilled())) {
+            return false;
+        }
+
+        long required = System.currentTimeMillis() - maxLagMs;
+        OptionalLong token = ReadConsistency.current();
+        if (token.isPresent()) {
+            required = Math.max(required, token.getAsLong() + clockSkewMs);
+        }
+        return cursor.watermarkMs() >= required;
+    }
+
+    private double lagMillis() {
+        double lag = 0;
+        for (int shard = 0; shard < snapshots.length(); shard++) {
+            lag = Math.max(lag, lagMillis(snapshots.get(shard)));
+        }
+        return lag;
+    }
+
+    private static double lagMillis(CursorState cursor) {
+        return cursor != null && cursor.watermarkMs() > 0 ? System.currentTimeMillis() - cursor.watermarkMs() : 0;
+    }
+}
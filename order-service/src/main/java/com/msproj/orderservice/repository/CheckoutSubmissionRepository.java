@@ -0,0 +1,48 @@
+package com.msproj.orderservice.repository;
+
+import com.msproj.orderservice.entity.CheckoutStatus;
+import com.msproj.orderservice.entity.CheckoutSubmission;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Checkout Submission Repository
+ */
+@Repository
+public interface CheckoutSubmissionRepository extends JpaRepository<CheckoutSubmission, Long> {
+
+    Optional<CheckoutSubmission> findByCustomerIdAndIdempotencyKey(Long customerId, String idempotencyKey);
+
+    long countByStatus(CheckoutStatus status);
+
+    /**
+     * Move a PENDING submission to PROCESSING; 0 when another worker got it first.
+     */
+    @Modifying
+    @Query("UPDATE CheckoutSubmission c SET c.status = com.msproj.orderservice.entity.CheckoutStatus.PROCESSING, " +
+            "c.claimedAt = :now, c.attempts = c.attempts + 1, c.updatedAt = :now, c.version = c.version + 1 " +
+            "WHERE c.id = :id AND c.status = com.msproj.orderservice.entity.CheckoutStatus.PENDING")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Return submissions whose worker has held them longer than the lease to PENDING.
+     */
+    @Modifying
+    @Query("UPDATE CheckoutSubmission c SET c.status = com.msproj.orderservice.entity.CheckoutStatus.PENDING, " +
+            "c.claimedAt = NULL, c.version = c.version + 1 " +
+            "WHERE c.status = com.msproj.orderservice.entity.CheckoutStatus.PROCESSING AND c.claimedAt < :cutoff")
+    int releaseExpiredClaims(@Param("cutoff") LocalDateTime cutoff);
+
+    @Query("SELECT c.id FROM CheckoutSubmission c " +
+            "WHERE c.status = com.msproj.orderservice.entity.CheckoutStatus.PENDING AND c.updatedAt < :cutoff " +
+            "ORDER BY c.id")
+    List<Long> findPendingIdsUpdatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
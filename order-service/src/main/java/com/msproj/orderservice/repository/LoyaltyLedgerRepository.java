@@ -0,0 +1,40 @@
+package com.msproj.orderservice.repository;
+
+import com.msproj.orderservice.entity.LoyaltyLedgerEntry;
+import com.msproj.orderservice.entity.LoyaltyLedgerStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Loyalty Ledger Repository
+ */
+@Repository
+public interface LoyaltyLedgerRepository extends JpaRepository<LoyaltyLedgerEntry, Long> {
+
+    boolean existsByOrderId(Long orderId);
+
+    List<LoyaltyLedgerEntry> findByBatchId(String batchId);
+
+    long countByStatus(LoyaltyLedgerStatus status);
+
+    // Lock timeout -2 is translated by Hibernate to SKIP LOCKED, so replicas claim disjoint entries
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM LoyaltyLedgerEntry e WHERE e.status = 'PENDING' ORDER BY e.id")
+    List<LoyaltyLedgerEntry> findPendingForUpdate(Pageable pageable);
+
+    @Query("SELECT DISTINCT e.batchId FROM LoyaltyLedgerEntry e WHERE e.status = 'IN_FLIGHT'")
+    List<String> findInFlightBatchIds();
+
+    @Modifying
+    @Query("UPDATE LoyaltyLedgerEntry e SET e.status = 'APPLIED', e.appliedAt = :appliedAt " +
+            "WHERE e.batchId = :batchId AND e.status = 'IN_FLIGHT'")
+    int markBatchApplied(@Param("batchId") String batchId, @Param("appliedAt") LocalDateTime appliedAt);
+}
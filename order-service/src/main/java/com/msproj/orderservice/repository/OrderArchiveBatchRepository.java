@@ -0,0 +1,20 @@
+package com.msproj.orderservice.repository;
+
+import com.msproj.orderservice.entity.OrderArchiveBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Order Archive Batch Repository
+ */
+@Repository
+public interface OrderArchiveBatchRepository extends JpaRepository<OrderArchiveBatch, Long> {
+
+    // Totals without loading payloads: batches, orders, raw bytes, compressed bytes
+    @Query("SELECT COUNT(b), COALESCE(SUM(b.orderCount), 0), COALESCE(SUM(b.rawBytes), 0), " +
+            "COALESCE(SUM(b.compressedBytes), 0) FROM OrderArchiveBatch b")
+    List<Object[]> summarize();
+}
@@ -0,0 +1,19 @@
+package com.msproj.orderservice.repository;
+
+import com.msproj.orderservice.entity.OrderArchiveEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Order Archive Entry Repository
+ */
+@Repository
+public interface OrderArchiveEntryRepository extends JpaRepository<OrderArchiveEntry, Long> {
+
+    List<OrderArchiveEntry> findByCustomerIdAndOrderDateBetweenOrderByOrderDateDesc(Long customerId,
+                                                                                   LocalDateTime fromDate,
+                                                                                   LocalDateTime toDate);
+}
@@ -0,0 +1,216 @@
+package com.msproj.orderservice.repository;
+
+import com.msproj.orderservice.entity.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Store for the order_documents read model and its read_model_cursors row.
+ * <p>
+ * JdbcTemplate like OrderStatusEventStore: documents are opaque blobs keyed by
+ * order, written as one batched upsert per projection step and read without
+ * entity hydration. Upserts take the form SqlDialect picks for the database.
+ */
+@Repository
+public class OrderDocumentStore {
+
+    // Only replaces a document with one built from the same or a newer order version
+    private static final String POSTGRES_UPSERT_SQL =
+            "INSERT INTO order_documents (order_id, customer_id, order_date, status, source_version, document, projected_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (order_id) DO UPDATE SET customer_id = EXCLUDED.customer_id, " +
+                    "order_date = EXCLUDED.order_date, status = EXCLUDED.status, " +
+                    "source_version = EXCLUDED.source_version, document = EXCLUDED.document, " +
+                    "projected_at = EXCLUDED.projected_at " +
+                    "WHERE order_documents.source_version <= EXCLUDED.source_version";
+
+    private static final String MERGE_SQL =
+            "MERGE INTO order_documents d USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS TIMESTAMP), " +
+                    "CAST(? AS SMALLINT), CAST(? AS BIGINT), CAST(? AS VARBINARY), CAST(? AS TIMESTAMP))) " +
+                    "s (order_id, customer_id, order_date, status, source_version, document, projected_at) " +
+                    "ON d.order_id = s.order_id " +
+                    "WHEN MATCHED AND d.source_version <= s.source_version THEN UPDATE SET " +
+                    "customer_id = s.customer_id, order_date = s.order_date, status = s.status, " +
+                    "source_version = s.source_version, document = s.document, projected_at = s.projected_at " +
+                    "WHEN NOT MATCHED THEN INSERT (order_id, customer_id, order_date, status, source_version, " +
+                    "document, projected_at) VALUES (s.order_id, s.customer_id, s.order_date, s.status, " +
+                    "s.source_version, s.document, s.projected_at)";
+
+    private static final String FIND_SQL = "SELECT document FROM order_documents WHERE order_id = ?";
+
+    private static final String CUSTOMER_SQL =
+            "SELECT document FROM order_documents WHERE customer_id = ? ORDER BY order_date DESC, order_id DESC";
+
+    private static final String DELETE_SQL = "DELETE FROM order_documents WHERE order_id = ?";
+
+    private static final String POSTGRES_CREATE_CURSOR_SQL =
+            "INSERT INTO read_model_cursors (name, position, backfill_after_id, watermark_ms, updated_at_ms) " +
+                    "SELECT ?, COALESCE(MAX(id), 0), 0, 0, ? FROM order_status_events " +
+                    "ON CONFLICT (name) DO NOTHING";
+
+    private static final String MERGE_CURSOR_SQL =
+            "MERGE INTO read_model_cursors c USING (SELECT CAST(? AS VARCHAR(64)) AS name, " +
+                    "COALESCE(MAX(id), 0) AS position, CAST(? AS BIGINT) AS updated_at_ms FROM order_status_events) s " +
+                    "ON c.name = s.name " +
+                    "WHEN NOT MATCHED THEN INSERT (name, position, backfill_after_id, watermark_ms, updated_at_ms) " +
+                    "VALUES (s.name, s.position, 0, 0, s.updated_at_ms)";
+
+    private static final String CURSOR_COLUMNS =
+            "SELECT position, gap_seen_at_ms, backfill_after_id, watermark_ms FROM read_model_cursors WHERE name = ?";
+
+    private static final String UPDATE_CURSOR_SQL =
+            "UPDATE read_model_cursors SET position = ?, gap_seen_at_ms = ?, backfill_after_id = ?, " +
+                    "watermark_ms = ?, updated_at_ms = ? WHERE name = ?";
+
+    private static final String SKIPPED_RANGES_SQL =
+            "SELECT id, from_id, to_id, skipped_at_ms FROM read_model_skipped_ranges " +
+                    "WHERE cursor_name = ? ORDER BY from_id";
+
+    private static final String INSERT_SKIPPED_RANGE_SQL =
+            "INSERT INTO read_model_skipped_ranges (cursor_name, from_id, to_id, skipped_at_ms) VALUES (?, ?, ?, ?)";
+
+    private static final String DELETE_SKIPPED_RANGE_SQL = "DELETE FROM read_model_skipped_ranges WHERE id = ?";
+
+    private static final String RESTART_BACKFILL_SQL =
+            "UPDATE read_model_cursors SET backfill_after_id = 0, updated_at_ms = ? WHERE name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SqlDialect sqlDialect;
+
+    @Autowired
+    public OrderDocumentStore(JdbcTemplate jdbcTemplate, SqlDialect sqlDialect) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlDialect = sqlDialect;
+    }
+
+    public record DocumentRow(long orderId, long customerId, LocalDateTime orderDate, OrderStatus status,
+                              long sourceVersion, byte[] document) {}
+
+    /**
+     * @param backfillAfterId -1 once the initial rebuild over all orders has finished
+     */
+    public record CursorState(long position, Long gapSeenAtMs, long backfillAfterId, long watermarkMs) {
+
+        public boolean backfilled() {
+            return backfillAfterId < 0;
+        }
+    }
+
+    /**
+     * Status log ids [fromId, toId] a projection skipped; id is null until stored.
+     */
+    public record SkippedRange(Long id, long fromId, long toId, long skippedAtMs) {}
+
+    public void upsertAll(List<DocumentRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Timestamp projectedAt = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(sqlDialect.choose(POSTGRES_UPSERT_SQL, MERGE_SQL), new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                DocumentRow row = rows.get(i);
+                ps.setLong(1, row.orderId());
+                ps.setLong(2, row.customerId());
+                ps.setTimestamp(3, Timestamp.valueOf(row.orderDate()));
+                ps.setShort(4, row.status().getCode());
+                ps.setLong(5, row.sourceVersion());
+                ps.setBytes(6, row.document());
+                ps.setTimestamp(7, projectedAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    public void deleteAll(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE_SQL, orderIds.stream().map(id -> new Object[]{id}).toList());
+    }
+
+    public Optional<byte[]> findDocument(long orderId) {
+        return jdbcTemplate.query(FIND_SQL, DOCUMENT_MAPPER, orderId).stream().findFirst();
+    }
+
+    public List<byte[]> findCustomerDocuments(long customerId) {
+        return jdbcTemplate.query(CUSTOMER_SQL, DOCUMENT_MAPPER, customerId);
+    }
+
+    /**
+     * Create the cursor at the head of the status log with a full backfill pending.
+     */
+    public void createCursorIfAbsent(String name) {
+        jdbcTemplate.update(sqlDialect.choose(POSTGRES_CREATE_CURSOR_SQL, MERGE_CURSOR_SQL), name, System.currentTimeMillis());
+    }
+
+    /**
+     * Lock the cursor for one projection step; empty when another instance holds it.
+     */
+    public Optional<CursorState> lockCursor(String name) {
+        return jdbcTemplate.query(CURSOR_COLUMNS + " FOR UPDATE SKIP LOCKED", CURSOR_MAPPER, name)
+                .stream().findFirst();
+    }
+
+    public Optional<CursorState> readCursor(String name) {
+        return jdbcTemplate.query(CURSOR_COLUMNS, CURSOR_MAPPER, name).stream().findFirst();
+    }
+
+    public void updateCursor(String name, CursorState state) {
+        jdbcTemplate.update(UPDATE_CURSOR_SQL, state.position(), state.gapSeenAtMs(), state.backfillAfterId(),
+                state.watermarkMs(), System.currentTimeMillis(), name);
+    }
+
+    public List<SkippedRange> findSkippedRanges(String name) {
+        return jdbcTemplate.query(SKIPPED_RANGES_SQL, SKIPPED_RANGE_MAPPER, name);
+    }
+
+    public void addSkippedRanges(String name, List<SkippedRange> ranges) {
+        if (ranges.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SKIPPED_RANGE_SQL, ranges.stream()
+                .map(range -> new Object[]{name, range.fromId(), range.toId(), range.skippedAtMs()})
+                .toList());
+    }
+
+    public void deleteSkippedRanges(List<SkippedRange> ranges) {
+        if (ranges.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE_SKIPPED_RANGE_SQL, ranges.stream().map(range -> new Object[]{range.id()}).toList());
+    }
+
+    public int restartBackfill(String name) {
+        return jdbcTemplate.update(RESTART_BACKFILL_SQL, System.currentTimeMillis(), name);
+    }
+
+    private static final RowMapper<byte[]> DOCUMENT_MAPPER = (rs, rowNum) -> rs.getBytes(1);
+
+    private static final RowMapper<SkippedRange> SKIPPED_RANGE_MAPPER = (rs, rowNum) ->
+            new SkippedRange(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4));
+
+    private static final RowMapper<CursorState> CURSOR_MAPPER = (rs, rowNum) -> {
+        long position = rs.getLong(1);
+        long gapSeenAt = rs.getLong(2);
+        Long gapSeenAtMs = rs.wasNull() ? null : gapSeenAt;
+        return new CursorState(position, gapSeenAtMs, rs.getLong(3), rs.getLong(4));
+    };
+}
@@ -2,10 +2,12 @@ package com.msproj.orderservice.repository;
 
 import com.msproj.orderservice.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List; /**
  * Order Item Repository
  */
@@ -21,4 +23,8 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
     @Query("SELECT oi.productId, SUM(oi.quantity) FROM OrderItem oi WHERE oi.order.status = 'DELIVERED' GROUP BY oi.productId ORDER BY SUM(oi.quantity) DESC")
     List<Object[]> findPopularProducts();
+
+    @Modifying
+    @Query("DELETE FROM OrderItem oi WHERE oi.order.id IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -4,6 +4,7 @@ import com.msproj.orderservice.dto.OrderSummaryDto;
 import com.msproj.orderservice.entity.Order;
 import com.msproj.orderservice.entity.OrderStatus;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
@@ -14,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -74,16 +76,55 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             @Param("maxAmount") BigDecimal maxAmount);
 
     // Modifying queries
+    // Stale order reaper: claim the next keyset chunk, skipping rows other workers hold
+    @Query(value = "SELECT o.id, o.customer_id FROM orders o " +
+            "WHERE o.status = 'PENDING' AND o.order_date < :cutoff AND o.id > :afterId " +
+            "ORDER BY o.id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Object[]> claimStalePendingOrders(@Param("cutoff") LocalDateTime cutoff,
+                                           @Param("afterId") Long afterId,
+                                           @Param("limit") int limit);
+
     @Modifying
     @Transactional
-    @Query("UPDATE Order o SET o.status = 'CANCELLED' WHERE o.status = 'PENDING' AND o.orderDate < :cutoffDate")
-    int cancelStaleOrders(@Param("cutoffDate") LocalDateTime cutoffDate);
+    @Query("UPDATE Order o SET o.status = com.msproj.orderservice.entity.OrderStatus.CANCELLED, " +
+            "o.notes = CASE WHEN o.notes IS NULL THEN :note ELSE CONCAT(o.notes, ' | ', :note) END, " +
+            "o.updatedAt = :now, o.version = o.version + 1 " +
+            "WHERE o.id IN :ids AND o.status = com.msproj.orderservice.entity.OrderStatus.PENDING")
+    int bulkCancelPending(@Param("ids") Collection<Long> ids,
+                          @Param("note") String note,
+                          @Param("now") LocalDateTime now);
 
     @Modifying
     @Transactional
     @Query("UPDATE Order o SET o.trackingNumber = :trackingNumber WHERE o.id = :orderId")
     int updateTrackingNumber(@Param("orderId") Long orderId, @Param("trackingNumber") String trackingNumber);
 
+    // Bulk status transitions: lock a chunk in ID order, then one set-based UPDATE per (from, to) group
+    @Query(value = "SELECT o.id, o.customer_id, o.status FROM orders o WHERE o.id IN (:ids) ORDER BY o.id FOR UPDATE",
+            nativeQuery = true)
+    List<Object[]> lockStatusesForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.status = com.msproj.orderservice.entity.OrderStatus.SHIPPED, " +
+            "o.shippedDate = :now, o.trackingNumber = CONCAT(:trackingPrefix, CAST(o.id AS String)), " +
+            "o.updatedAt = :now, o.version = o.version + 1 " +
+            "WHERE o.id IN :ids AND o.status = :fromStatus")
+    int bulkShip(@Param("ids") Collection<Long> ids,
+                 @Param("fromStatus") OrderStatus fromStatus,
+                 @Param("trackingPrefix") String trackingPrefix,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.status = com.msproj.orderservice.entity.OrderStatus.DELIVERED, " +
+            "o.deliveredDate = :now, o.updatedAt = :now, o.version = o.version + 1 " +
+            "WHERE o.id IN :ids AND o.status = :fromStatus")
+    int bulkDeliver(@Param("ids") Collection<Long> ids,
+                    @Param("fromStatus") OrderStatus fromStatus,
+                    @Param("now") LocalDateTime now);
+
     // Performance queries with specific fetching
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id = :orderId")
     Optional<Order> findByIdWithItems(@Param("orderId") Long orderId);
@@ -91,6 +132,32 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.customerId = :customerId ORDER BY o.orderDate DESC")
     List<Order> findByCustomerIdWithItems(@Param("customerId") Long customerId);
 
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Archiver: claim the next keyset chunk of terminal orders older than the cutoff
+    @Query(value = "SELECT o.id FROM orders o " +
+            "WHERE o.status IN ('DELIVERED', 'CANCELLED') AND o.order_date < :cutoff AND o.id > :afterId " +
+            "ORDER BY o.id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> claimArchivableOrders(@Param("cutoff") LocalDateTime cutoff,
+                                     @Param("afterId") Long afterId,
+                                     @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems " +
+            "WHERE o.customerId = :customerId AND o.orderDate BETWEEN :fromDate AND :toDate ORDER BY o.orderDate DESC")
+    List<Order> findByCustomerIdAndOrderDateBetweenWithItems(@Param("customerId") Long customerId,
+                                                             @Param("fromDate") LocalDateTime fromDate,
+                                                             @Param("toDate") LocalDateTime toDate);
+
+    // Keyset page of order IDs, for rebuilding projections
+    @Query("SELECT o.id FROM Order o WHERE o.id > :afterId ORDER BY o.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
     // Projection queries for performance
     @Query("SELECT new com.msproj.orderservice.dto.OrderSummaryDto(o.id, o.customerId, o.customerName, o.orderDate, o.status, o.finalAmount, SIZE(o.orderItems), o.trackingNumber) FROM Order o WHERE o.customerId = :customerId")
     List<OrderSummaryDto> findOrderSummariesByCustomer(@Param("customerId") Long customerId);
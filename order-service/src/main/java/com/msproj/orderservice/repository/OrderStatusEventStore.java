@@ -0,0 +1,162 @@
+package com.msproj.orderservice.repository;
+
+import com.msproj.orderservice.dto.OrderStatusStreamEventDto;
+import com.msproj.orderservice.entity.OrderStatus;
+import com.msproj.orderservice.event.OrderStatusChangeEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Append-only store for order_status_events.
+ * <p>
+ * Uses JdbcTemplate rather than a JpaRepository: IDENTITY ids disable
+ * Hibernate insert batching, and history rows never need entity state.
+ * Inside a JPA transaction the JdbcTemplate joins the same connection, so
+ * events commit or roll back with the transition that produced them.
+ */
+@Repository
+public class OrderStatusEventStore {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_status_events (order_id, customer_id, from_status, to_status, occurred_at) " +
+                    "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String TIMELINE_SQL =
+            "SELECT order_id, from_status, to_status, occurred_at FROM order_status_events " +
+                    "WHERE order_id = ? ORDER BY occurred_at, id";
+
+    // Entries into the status inside the window, plus any exit from it afterwards. Two range scans
+    // (idx_status_events_to, idx_status_events_from) instead of an OR the planner may answer with a
+    // full scan; UNION drops the row both branches return for a transition from the status to itself.
+    private static final String DURATION_SQL =
+            "SELECT order_id, from_status, to_status, occurred_at, id FROM order_status_events " +
+                    "WHERE to_status = ? AND occurred_at >= ? AND occurred_at < ? " +
+                    "UNION " +
+                    "SELECT order_id, from_status, to_status, occurred_at, id FROM order_status_events " +
+                    "WHERE from_status = ? AND occurred_at >= ? " +
+                    "ORDER BY order_id, occurred_at, id";
+
+    private static final String AFTER_SQL =
+            "SELECT id, order_id, customer_id, from_status, to_status, occurred_at FROM order_status_events " +
+                    "WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String BETWEEN_SQL =
+            "SELECT id, order_id, customer_id, from_status, to_status, occurred_at FROM order_status_events " +
+                    "WHERE id BETWEEN ? AND ? ORDER BY id";
+
+    private static final String CUSTOMER_AFTER_SQL =
+            "SELECT id, order_id, customer_id, from_status, to_status, occurred_at FROM order_status_events " +
+                    "WHERE customer_id = ? AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM order_status_events";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public OrderStatusEventStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public interface EventRowHandler {
+        void handle(long orderId, OrderStatus fromStatus, OrderStatus toStatus, LocalDateTime occurredAt);
+    }
+
+    public void appendAll(List<OrderStatusChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                OrderStatusChangeEvent event = events.get(i);
+                ps.setLong(1, event.orderId());
+                if (event.customerId() != null) {
+                    ps.setLong(2, event.customerId());
+                } else {
+                    ps.setNull(2, Types.BIGINT);
+                }
+                if (event.fromStatus() != null) {
+                    ps.setShort(3, event.fromStatus().getCode());
+                } else {
+                    ps.setNull(3, Types.SMALLINT);
+                }
+                ps.setShort(4, event.toStatus().getCode());
+                ps.setTimestamp(5, Timestamp.valueOf(event.occurredAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return events.size();
+            }
+        });
+    }
+
+    public void streamTimeline(long orderId, EventRowHandler handler) {
+        jdbcTemplate.query(TIMELINE_SQL, toCallback(handler), orderId);
+    }
+
+    public void streamStatusVisits(OrderStatus status, LocalDateTime fromDate, LocalDateTime toDate,
+                                   EventRowHandler handler) {
+        jdbcTemplate.query(DURATION_SQL, toCallback(handler),
+                status.getCode(), Timestamp.valueOf(fromDate), Timestamp.valueOf(toDate),
+                status.getCode(), Timestamp.valueOf(fromDate));
+    }
+
+    /**
+     * Events with an id above afterId in log order, for tailing the log.
+     */
+    public List<OrderStatusStreamEventDto> findAfter(long afterId, int limit) {
+        return jdbcTemplate.query(AFTER_SQL, STREAM_EVENT_MAPPER, afterId, limit);
+    }
+
+    /**
+     * Events with ids in [fromId, toId], for re-checking ids the tail skipped.
+     */
+    public List<OrderStatusStreamEventDto> findBetween(long fromId, long toId) {
+        return jdbcTemplate.query(BETWEEN_SQL, STREAM_EVENT_MAPPER, fromId, toId);
+    }
+
+    public List<OrderStatusStreamEventDto> findCustomerEventsAfter(long customerId, long afterId, int limit) {
+        return jdbcTemplate.query(CUSTOMER_AFTER_SQL, STREAM_EVENT_MAPPER, customerId, afterId, limit);
+    }
+
+    public long findMaxId() {
+        Long maxId = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+        return maxId != null ? maxId : 0;
+    }
+
+    private static final RowMapper<OrderStatusStreamEventDto> STREAM_EVENT_MAPPER = (rs, rowNum) -> {
+        long id = rs.getLong(1);
+        long orderId = rs.getLong(2);
+        long customer = rs.getLong(3);
+        Long customerId = rs.wasNull() ? null : customer;
+        short from = rs.getShort(4);
+        OrderStatus fromStatus = rs.wasNull() ? null : OrderStatus.fromCode(from);
+        OrderStatus toStatus = OrderStatus.fromCode(rs.getShort(5));
+        LocalDateTime occurredAt = rs.getTimestamp(6).toLocalDateTime();
+        return new OrderStatusStreamEventDto(id, orderId, customerId, fromStatus, toStatus, occurredAt);
+    };
+
+    private RowCallbackHandler toCallback(EventRowHandler handler) {
+        return rs -> {
+            long orderId = rs.getLong(1);
+            short from = rs.getShort(2);
+            OrderStatus fromStatus = rs.wasNull() ? null : OrderStatus.fromCode(from);
+            OrderStatus toStatus = OrderStatus.fromCode(rs.getShort(3));
+            LocalDateTime occurredAt = rs.getTimestamp(4).toLocalDateTime();
+            handler.handle(orderId, fromStatus, toStatus, occurredAt);
+        };
+    }
+}
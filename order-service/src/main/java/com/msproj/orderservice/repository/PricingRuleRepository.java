@@ -0,0 +1,24 @@
+package com.msproj.orderservice.repository;
+
+import com.msproj.orderservice.entity.PricingRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Pricing Rule Repository
+ */
+@Repository
+public interface PricingRuleRepository extends JpaRepository<PricingRule, Long> {
+
+    List<PricingRule> findByActiveTrueOrderByIdAsc();
+
+    /**
+     * Together with count(), changes whenever a rule is added, edited or deleted.
+     */
+    @Query("SELECT MAX(r.updatedAt) FROM PricingRule r")
+    LocalDateTime findLastUpdatedAt();
+}
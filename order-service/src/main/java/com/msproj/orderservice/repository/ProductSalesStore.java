@@ -0,0 +1,94 @@
+package com.msproj.orderservice.repository;
+
+import com.msproj.orderservice.entity.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Delivered quantities per product, read for the popular products tracker.
+ * <p>
+ * JdbcTemplate like OrderStatusEventStore: rows are streamed straight into the
+ * tracker's counters without building entities or result lists. The history
+ * queries take the status log position the tracker resumes tailing from, and
+ * leave out orders delivered after it so no delivery is counted twice.
+ */
+@Repository
+public class ProductSalesStore {
+
+    private static final String ITEMS_SQL_PREFIX =
+            "SELECT order_id, product_id, quantity FROM order_items WHERE order_id IN (";
+
+    private static final String DELIVERED_AFTER_POSITION =
+            "o.status = 'DELIVERED' AND NOT EXISTS (SELECT 1 FROM order_status_events e " +
+                    "WHERE e.order_id = o.id AND e.to_status = ? AND e.id > ?)";
+
+    private static final String TOTALS_SQL =
+            "SELECT oi.product_id, SUM(oi.quantity) FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+                    "WHERE " + DELIVERED_AFTER_POSITION + " GROUP BY oi.product_id";
+
+    // Orders delivered before the status log existed only have delivered_date, or not even that
+    private static final String RECENT_SQL =
+            "SELECT oi.product_id, COALESCE(o.delivered_date, o.order_date), oi.quantity " +
+                    "FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+                    "WHERE " + DELIVERED_AFTER_POSITION + " AND COALESCE(o.delivered_date, o.order_date) >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ProductSalesStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public interface ItemHandler {
+        void handle(long orderId, long productId, int quantity);
+    }
+
+    public interface TotalHandler {
+        void handle(long productId, long quantity);
+    }
+
+    public interface SaleHandler {
+        void handle(long productId, LocalDateTime deliveredAt, int quantity);
+    }
+
+    public void streamItems(Collection<Long> orderIds, ItemHandler handler) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+
+        String sql = ITEMS_SQL_PREFIX + String.join(", ", Collections.nCopies(orderIds.size(), "?")) + ")";
+        jdbcTemplate.query(sql,
+                rs -> {
+                    handler.handle(rs.getLong(1), rs.getLong(2), rs.getInt(3));
+                },
+                orderIds.toArray());
+    }
+
+    /**
+     * All-time delivered quantity per product, as of the given status log position.
+     */
+    public void streamTotals(long position, TotalHandler handler) {
+        jdbcTemplate.query(TOTALS_SQL,
+                rs -> {
+                    handler.handle(rs.getLong(1), rs.getLong(2));
+                },
+                OrderStatus.DELIVERED.getCode(), position);
+    }
+
+    /**
+     * Delivered items since the given time, as of the given status log position.
+     */
+    public void streamSalesSince(long position, LocalDateTime since, SaleHandler handler) {
+        jdbcTemplate.query(RECENT_SQL,
+                rs -> {
+                    handler.handle(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(), rs.getInt(3));
+                },
+                OrderStatus.DELIVERED.getCode(), position, Timestamp.valueOf(since));
+    }
+}
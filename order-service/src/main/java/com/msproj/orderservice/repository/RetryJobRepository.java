@@ -0,0 +1,49 @@
+package com.msproj.orderservice.repository;
+
+import com.msproj.orderservice.entity.RetryJob;
+import com.msproj.orderservice.entity.RetryJobStatus;
+import com.msproj.orderservice.entity.RetryJobType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Retry Job Repository
+ */
+@Repository
+public interface RetryJobRepository extends JpaRepository<RetryJob, Long> {
+
+    long countByStatus(RetryJobStatus status);
+
+    List<RetryJob> findByOrderIdOrderByIdAsc(Long orderId);
+
+    List<RetryJob> findByStatusOrderByCompletedAtDesc(RetryJobStatus status, Pageable pageable);
+
+    Optional<RetryJob> findFirstByOrderIdAndJobTypeAndStatusIn(Long orderId, RetryJobType jobType,
+                                                                Collection<RetryJobStatus> statuses);
+
+    // Due jobs plus RUNNING jobs whose worker let the lease expire; SKIP LOCKED keeps replicas disjoint
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT j FROM RetryJob j " +
+            "WHERE (j.status = com.msproj.orderservice.entity.RetryJobStatus.PENDING AND j.nextRunAt <= :now) " +
+            "OR (j.status = com.msproj.orderservice.entity.RetryJobStatus.RUNNING AND j.leaseExpiresAt < :now) " +
+            "ORDER BY j.priority DESC, j.nextRunAt, j.id")
+    List<RetryJob> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT COUNT(j) FROM RetryJob j " +
+            "WHERE j.status = com.msproj.orderservice.entity.RetryJobStatus.PENDING AND j.nextRunAt <= :now")
+    long countDue(@Param("now") LocalDateTime now);
+
+    // Creation time of the oldest job still waiting to succeed
+    @Query("SELECT MIN(j.createdAt) FROM RetryJob j WHERE j.status IN :statuses")
+    LocalDateTime findOldestCreatedAt(@Param("statuses") Collection<RetryJobStatus> statuses);
+}
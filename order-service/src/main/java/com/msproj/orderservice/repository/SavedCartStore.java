@@ -0,0 +1,106 @@
+package com.msproj.orderservice.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Store for the carts table behind the in-memory cart store.
+ * <p>
+ * JdbcTemplate like OrderDocumentStore: a flush is one batched upsert (in the
+ * form SqlDialect picks for the database) and one batched delete, both guarded
+ * by the cart version so a late flush of an older version is a no-op.
+ */
+@Repository
+public class SavedCartStore {
+
+    private static final String POSTGRES_UPSERT_SQL =
+            "INSERT INTO carts (customer_id, version, lines, updated_at, expires_at) VALUES (?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (customer_id) DO UPDATE SET version = EXCLUDED.version, lines = EXCLUDED.lines, " +
+                    "updated_at = EXCLUDED.updated_at, expires_at = EXCLUDED.expires_at " +
+                    "WHERE carts.version <= EXCLUDED.version";
+
+    private static final String MERGE_SQL =
+            "MERGE INTO carts c USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS VARBINARY), " +
+                    "CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP))) s (customer_id, version, lines, updated_at, expires_at) " +
+                    "ON c.customer_id = s.customer_id " +
+                    "WHEN MATCHED AND c.version <= s.version THEN UPDATE SET version = s.version, lines = s.lines, " +
+                    "updated_at = s.updated_at, expires_at = s.expires_at " +
+                    "WHEN NOT MATCHED THEN INSERT (customer_id, version, lines, updated_at, expires_at) " +
+                    "VALUES (s.customer_id, s.version, s.lines, s.updated_at, s.expires_at)";
+
+    private static final String DELETE_SQL = "DELETE FROM carts WHERE customer_id = ? AND version <= ?";
+
+    private static final String FIND_SQL = "SELECT version, lines, expires_at FROM carts WHERE customer_id = ?";
+
+    private static final String PURGE_SQL = "DELETE FROM carts WHERE expires_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SqlDialect sqlDialect;
+
+    @Autowired
+    public SavedCartStore(JdbcTemplate jdbcTemplate, SqlDialect sqlDialect) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlDialect = sqlDialect;
+    }
+
+    public record CartRow(long customerId, long version, byte[] lines, LocalDateTime expiresAt) {}
+
+    public void upsertAll(List<CartRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Timestamp updatedAt = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(sqlDialect.choose(POSTGRES_UPSERT_SQL, MERGE_SQL), new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                CartRow row = rows.get(i);
+                ps.setLong(1, row.customerId());
+                ps.setLong(2, row.version());
+                ps.setBytes(3, row.lines());
+                ps.setTimestamp(4, updatedAt);
+                ps.setTimestamp(5, Timestamp.valueOf(row.expiresAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    /**
+     * Delete the rows of carts that were emptied, up to the version they were emptied at.
+     */
+    public void deleteAll(List<CartRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE_SQL, rows.stream()
+                .map(row -> new Object[]{row.customerId(), row.version()})
+                .toList());
+    }
+
+    public Optional<CartRow> find(long customerId) {
+        return jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> new CartRow(
+                        customerId,
+                        rs.getLong("version"),
+                        rs.getBytes("lines"),
+                        rs.getTimestamp("expires_at").toLocalDateTime()),
+                customerId).stream().findFirst();
+    }
+
+    public int purgeExpired(LocalDateTime now) {
+        return jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(now));
+    }
+}
@@ -0,0 +1,46 @@
+package com.msproj.orderservice.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Database the JdbcTemplate stores are talking to, for the statements that
+ * have no portable form with the same guarantees.
+ * <p>
+ * Upserts use INSERT ... ON CONFLICT on PostgreSQL, where it is atomic under
+ * concurrent inserts of the same key, and the standard MERGE everywhere else
+ * (H2 in the dev, test, loadtest, replicas and shards profiles, whose
+ * PostgreSQL compatibility mode does not parse ON CONFLICT). All shards and
+ * replicas run the same database, so the primary is asked once.
+ */
+@Component
+public class SqlDialect {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    @Autowired
+    public SqlDialect(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+            postgres = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return postgresSql on PostgreSQL, standardSql on any other database
+     */
+    public String choose(String postgresSql, String standardSql) {
+        return isPostgres() ? postgresSql : standardSql;
+    }
+}
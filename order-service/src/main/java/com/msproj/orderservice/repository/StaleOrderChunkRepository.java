@@ -0,0 +1,16 @@
+package com.msproj.orderservice.repository;
+
+import com.msproj.orderservice.entity.StaleOrderChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Stale Order Chunk Repository
+ */
+@Repository
+public interface StaleOrderChunkRepository extends JpaRepository<StaleOrderChunk, Long> {
+
+    @Query("SELECT COALESCE(SUM(c.orderCount), 0) FROM StaleOrderChunk c")
+    long sumOrderCount();
+}
@@ -0,0 +1,5 @@
+package com.msproj.orderservice.request;
+
+import java.util.List;
+
+public record BulkLoyaltyPointsRequest(String batchId, List<LoyaltyPointsGrant> grants) {}
@@ -0,0 +1,3 @@
+package com.msproj.orderservice.request;
+
+public record LoyaltyPointsGrant(Long customerId, Integer points) {}
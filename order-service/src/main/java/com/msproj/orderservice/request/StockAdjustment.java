@@ -0,0 +1,29 @@
+package com.msproj.orderservice.request;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Signed quantity: positive adds stock back, negative reduces it
+public record StockAdjustment(Long productId, Integer quantity) {
+
+    // Compact "productId:quantity,..." form for persisting pending adjustments
+    public static String encodeAll(List<StockAdjustment> adjustments) {
+        return adjustments.stream()
+                .map(a -> a.productId() + ":" + a.quantity())
+                .collect(Collectors.joining(","));
+    }
+
+    public static List<StockAdjustment> decodeAll(String encoded) {
+        List<StockAdjustment> adjustments = new ArrayList<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return adjustments;
+        }
+        for (String pair : encoded.split(",")) {
+            int separator = pair.indexOf(':');
+            adjustments.add(new StockAdjustment(
+                    Long.valueOf(pair.substring(0, separator)), Integer.valueOf(pair.substring(separator + 1))));
+        }
+        return adjustments;
+    }
+}
@@ -0,0 +1,130 @@
+package com.msproj.orderservice.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gradient concurrency limiter for one downstream service.
+ * <p>
+ * The limit follows the ratio between a long-term RTT baseline and the
+ * short-term RTT: while latency stays at the baseline the limit grows by
+ * sqrt(limit) per sample, and as queueing inflates the short-term RTT the
+ * gradient drops below 1 and shrinks it. Timeouts, connection errors and
+ * 429/503 responses cut the limit multiplicatively (the AIMD decrease).
+ * Calls beyond the limit are rejected immediately instead of queueing.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile double limit;
+
+    // Exponential moving averages in nanoseconds, guarded by this
+    private double shortRtt;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * @return a permit to pass to {@link #onSuccess}, {@link #onDropped} or {@link #onIgnored},
+     *         or null when the limit is reached
+     */
+    public Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.incrementAndGet();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(System.nanoTime(), current + 1);
+            }
+        }
+    }
+
+    public void onSuccess(Permit permit) {
+        inFlight.decrementAndGet();
+        sample(System.nanoTime() - permit.startNanos, permit.inFlightAtStart, false);
+    }
+
+    public void onDropped(Permit permit) {
+        inFlight.decrementAndGet();
+        sample(0, permit.inFlightAtStart, true);
+    }
+
+    // The call failed for a reason that says nothing about downstream capacity
+    public void onIgnored(Permit permit) {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void sample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        double current = limit;
+        double target;
+
+        if (dropped) {
+            target = current * DROP_BACKOFF;
+        } else {
+            if (shortRtt == 0) {
+                shortRtt = rttNanos;
+                longRtt = rttNanos;
+            } else {
+                shortRtt += (rttNanos - shortRtt) / SHORT_WINDOW;
+                longRtt += (rttNanos - longRtt) / LONG_WINDOW;
+            }
+
+            // A mostly idle client learns nothing about the downstream's capacity
+            if (inFlightAtStart < current / 2) {
+                return;
+            }
+
+            // After a latency spike the baseline lags behind; let it recover towards the current RTT
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+            target = current * gradient + Math.sqrt(current);
+        }
+
+        double smoothed = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+    }
+
+    public String getName() { return name; }
+    public int getLimit() { return (int) limit; }
+    public int getInFlight() { return inFlight.get(); }
+    public long getRejected() { return rejected.get(); }
+
+    public synchronized double getShortRttMillis() {
+        return shortRtt / 1_000_000.0;
+    }
+
+    public synchronized double getLongRttMillis() {
+        return longRtt / 1_000_000.0;
+    }
+
+    public static final class Permit {
+        private final long startNanos;
+        private final int inFlightAtStart;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.msproj.orderservice.resilience;
+
+import feign.Capability;
+import feign.Client;
+
+/**
+ * Feign capability that wraps a client's transport in a ConcurrencyLimitingClient.
+ * <p>
+ * Feign invokes enrich reflectively through the Capability interface, so
+ * the implementing class must be public; an anonymous class fails with
+ * IllegalAccessException when the Feign clients are built.
+ */
+public class ConcurrencyLimitCapability implements Capability {
+
+    private final ConcurrencyLimiterRegistry registry;
+
+    public ConcurrencyLimitCapability(ConcurrencyLimiterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return new ConcurrencyLimitingClient(client, registry);
+    }
+}
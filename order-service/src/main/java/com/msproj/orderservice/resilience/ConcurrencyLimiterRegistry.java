@@ -0,0 +1,86 @@
+package com.msproj.orderservice.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One adaptive limiter per downstream service, created on first use.
+ * <p>
+ * Settings come from order.concurrency-limit.defaults.* and can be overridden
+ * per downstream under order.concurrency-limit.clients.&lt;name&gt;.*.
+ */
+@Component
+public class ConcurrencyLimiterRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimiterRegistry.class);
+
+    private static final String PREFIX = "order.concurrency-limit.";
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+
+    @Autowired
+    public ConcurrencyLimiterRegistry(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+    }
+
+    public boolean isEnabled() {
+        return environment.getProperty(PREFIX + "enabled", Boolean.class, true);
+    }
+
+    public AdaptiveConcurrencyLimiter get(String downstream) {
+        return limiters.computeIfAbsent(downstream, this::create);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        limiters.forEach((name, limiter) -> stats.put(name, Map.of(
+                "limit", limiter.getLimit(),
+                "inFlight", limiter.getInFlight(),
+                "rejected", limiter.getRejected(),
+                "shortRttMs", limiter.getShortRttMillis(),
+                "longRttMs", limiter.getLongRttMillis()
+        )));
+        return stats;
+    }
+
+    private AdaptiveConcurrencyLimiter create(String downstream) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(downstream,
+                setting(downstream, "initial-limit", 20),
+                setting(downstream, "min-limit", 2),
+                setting(downstream, "max-limit", 200));
+
+        Gauge.builder("order.downstream.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("downstream", downstream)
+                .register(meterRegistry);
+        Gauge.builder("order.downstream.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Calls currently in flight")
+                .tag("downstream", downstream)
+                .register(meterRegistry);
+        FunctionCounter.builder("order.downstream.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                .description("Calls rejected because the concurrency limit was reached")
+                .tag("downstream", downstream)
+                .register(meterRegistry);
+
+        logger.info("Created concurrency limiter for {} with limit {}", downstream, limiter.getLimit());
+        return limiter;
+    }
+
+    private int setting(String downstream, String key, int defaultValue) {
+        Integer fallback = environment.getProperty(PREFIX + "defaults." + key, Integer.class, defaultValue);
+        return environment.getProperty(PREFIX + "clients." + downstream + "." + key, Integer.class, fallback);
+    }
+}
@@ -0,0 +1,64 @@
+package com.msproj.orderservice.resilience;
+
+import com.msproj.orderservice.exception.ConcurrencyLimitExceededException;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Feign client decorator that puts every outbound call through the limiter
+ * of its downstream service (the @FeignClient name).
+ */
+public class ConcurrencyLimitingClient implements Client {
+
+    private final Client delegate;
+    private final ConcurrencyLimiterRegistry registry;
+
+    public ConcurrencyLimitingClient(Client delegate, ConcurrencyLimiterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (!registry.isEnabled()) {
+            return delegate.execute(request, options);
+        }
+
+        AdaptiveConcurrencyLimiter limiter = registry.get(downstreamName(request));
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+
+        if (permit == null) {
+            throw new ConcurrencyLimitExceededException(limiter.getName(), limiter.getLimit());
+        }
+
+        Response response;
+        try {
+            response = delegate.execute(request, options);
+        } catch (IOException e) {
+            // Timeouts and connection failures are the overload signal
+            limiter.onDropped(permit);
+            throw e;
+        } catch (RuntimeException e) {
+            limiter.onIgnored(permit);
+            throw e;
+        }
+
+        if (response.status() == 429 || response.status() == 503) {
+            limiter.onDropped(permit);
+        } else {
+            limiter.onSuccess(permit);
+        }
+        return response;
+    }
+
+    private static String downstreamName(Request request) {
+        if (request.requestTemplate() != null && request.requestTemplate().feignTarget() != null) {
+            return request.requestTemplate().feignTarget().name();
+        }
+        return URI.create(request.url()).getHost();
+    }
+}
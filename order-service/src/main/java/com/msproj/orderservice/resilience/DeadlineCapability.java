@@ -0,0 +1,26 @@
+package com.msproj.orderservice.resilience;
+
+import feign.Capability;
+import feign.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Feign capability that wraps a client's transport in a DeadlineClient.
+ * Public for the same reason as ConcurrencyLimitCapability: Feign invokes
+ * enrich reflectively.
+ */
+public class DeadlineCapability implements Capability {
+
+    private final long minCallBudgetMs;
+    private final MeterRegistry meterRegistry;
+
+    public DeadlineCapability(long minCallBudgetMs, MeterRegistry meterRegistry) {
+        this.minCallBudgetMs = minCallBudgetMs;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return new DeadlineClient(client, minCallBudgetMs, meterRegistry);
+    }
+}
@@ -0,0 +1,67 @@
+package com.msproj.orderservice.resilience;
+
+import com.msproj.orderservice.exception.DeadlineExceededException;
+import com.msproj.servicesupport.deadline.RequestDeadline;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign client decorator that bounds each call by the current request deadline.
+ * <p>
+ * Connect and read timeouts are cut to the remaining budget. When less than
+ * the minimum budget is left the call is not made at all, which also ends
+ * Resilience4j retries (DeadlineExceededException is ignored by retry and
+ * circuit breaker).
+ */
+public class DeadlineClient implements Client {
+
+    private final Client delegate;
+    private final long minCallBudgetMs;
+    private final MeterRegistry meterRegistry;
+
+    public DeadlineClient(Client delegate, long minCallBudgetMs, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.minCallBudgetMs = minCallBudgetMs;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (RequestDeadline.current().isEmpty()) {
+            return delegate.execute(request, options);
+        }
+
+        long remaining = RequestDeadline.remainingMillis();
+
+        if (remaining < minCallBudgetMs) {
+            String downstream = downstreamName(request);
+            Counter.builder("order.deadline.exceeded")
+                    .description("Work skipped because the request deadline had passed")
+                    .tag("stage", "downstream")
+                    .tag("client", downstream)
+                    .register(meterRegistry)
+                    .increment();
+            throw new DeadlineExceededException(downstream, remaining);
+        }
+
+        Request.Options bounded = new Request.Options(
+                Math.min(options.connectTimeoutMillis(), remaining), TimeUnit.MILLISECONDS,
+                Math.min(options.readTimeoutMillis(), remaining), TimeUnit.MILLISECONDS,
+                options.isFollowRedirects());
+        return delegate.execute(request, bounded);
+    }
+
+    private static String downstreamName(Request request) {
+        if (request.requestTemplate() != null && request.requestTemplate().feignTarget() != null) {
+            return request.requestTemplate().feignTarget().name();
+        }
+        return URI.create(request.url()).getHost();
+    }
+}
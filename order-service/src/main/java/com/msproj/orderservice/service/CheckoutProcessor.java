@@ -0,0 +1,99 @@
+package com.msproj.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.msproj.orderservice.dto.CheckoutStatusDto;
+import com.msproj.orderservice.dto.CreateOrderRequestDto;
+import com.msproj.orderservice.dto.OrderResponseDto;
+import com.msproj.orderservice.entity.CheckoutStatus;
+import com.msproj.orderservice.entity.CheckoutSubmission;
+import com.msproj.orderservice.exception.OrderNotFoundException;
+import com.msproj.orderservice.repository.CheckoutSubmissionRepository;
+import com.msproj.orderservice.sharding.ShardKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional steps of an asynchronous checkout, each committed on its own.
+ * <p>
+ * Kept apart from CheckoutWorker so the worker's calls go through the
+ * transaction proxy.
+ */
+@Component
+public class CheckoutProcessor {
+
+    private final CheckoutSubmissionRepository checkoutSubmissionRepository;
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public CheckoutProcessor(CheckoutSubmissionRepository checkoutSubmissionRepository,
+                             OrderService orderService,
+                             ObjectMapper objectMapper) {
+        this.checkoutSubmissionRepository = checkoutSubmissionRepository;
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return false when the submission is gone or another worker claimed it first
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean claim(@ShardKey(ShardKey.Type.RECORD_ID) Long checkoutId) {
+        return checkoutSubmissionRepository.claim(checkoutId, LocalDateTime.now()) == 1;
+    }
+
+    /**
+     * Run the regular createOrder flow for the submission. The order and the
+     * COMPLETED status commit together, so a retried submission never creates
+     * a second order.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, timeout = 30, rollbackFor = Exception.class)
+    public CheckoutStatusDto createOrder(@ShardKey(ShardKey.Type.RECORD_ID) Long checkoutId) throws JsonProcessingException {
+        CheckoutSubmission submission = find(checkoutId);
+        CreateOrderRequestDto request = objectMapper.readValue(submission.getPayload(), CreateOrderRequestDto.class);
+
+        OrderResponseDto order = orderService.createOrder(request);
+
+        submission.complete(order.getId());
+        return CheckoutStatusDto.fromEntity(checkoutSubmissionRepository.save(submission));
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public CheckoutStatusDto fail(@ShardKey(ShardKey.Type.RECORD_ID) Long checkoutId, String errorMessage) {
+        CheckoutSubmission submission = find(checkoutId);
+        submission.fail(errorMessage);
+        return CheckoutStatusDto.fromEntity(checkoutSubmissionRepository.save(submission));
+    }
+
+    /**
+     * Hand the submission back for a later attempt after a transient failure.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public CheckoutStatusDto requeue(@ShardKey(ShardKey.Type.RECORD_ID) Long checkoutId, String errorMessage) {
+        CheckoutSubmission submission = find(checkoutId);
+        submission.setStatus(CheckoutStatus.PENDING);
+        submission.setClaimedAt(null);
+        submission.setErrorMessage(errorMessage);
+        return CheckoutStatusDto.fromEntity(checkoutSubmissionRepository.save(submission));
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int releaseExpiredClaims(LocalDateTime cutoff) {
+        return checkoutSubmissionRepository.releaseExpiredClaims(cutoff);
+    }
+
+    @Transactional(readOnly = true)
+    public CheckoutStatusDto getStatus(@ShardKey(ShardKey.Type.RECORD_ID) Long checkoutId) {
+        return CheckoutStatusDto.fromEntity(find(checkoutId));
+    }
+
+    private CheckoutSubmission find(Long checkoutId) {
+        return checkoutSubmissionRepository.findById(checkoutId)
+                .orElseThrow(() -> new OrderNotFoundException("Checkout not found with ID: " + checkoutId));
+    }
+}
@@ -0,0 +1,154 @@
+package com.msproj.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.msproj.orderservice.dto.CheckoutStatusDto;
+import com.msproj.orderservice.dto.CreateOrderRequestDto;
+import com.msproj.orderservice.entity.CheckoutStatus;
+import com.msproj.orderservice.entity.CheckoutSubmission;
+import com.msproj.orderservice.event.CheckoutEventStream;
+import com.msproj.orderservice.exception.OrderCreationException;
+import com.msproj.orderservice.repository.CheckoutSubmissionRepository;
+import com.msproj.orderservice.sharding.ShardKey;
+import com.msproj.orderservice.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Asynchronous checkout API.
+ * <p>
+ * submit() only stores the validated request and returns; the order is
+ * created by CheckoutWorker once the submission has committed, so the HTTP
+ * request is released after a single insert instead of the whole
+ * createOrder chain.
+ */
+@Service
+public class CheckoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutService.class);
+
+    private final CheckoutSubmissionRepository checkoutSubmissionRepository;
+    private final CheckoutProcessor checkoutProcessor;
+    private final CheckoutWorker checkoutWorker;
+    private final CheckoutEventStream checkoutEventStream;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ShardRouter shardRouter;
+
+    @Value("${order.checkout.sse-timeout-ms:60000}")
+    private long sseTimeoutMs;
+
+    @Autowired
+    public CheckoutService(CheckoutSubmissionRepository checkoutSubmissionRepository,
+                           CheckoutProcessor checkoutProcessor,
+                           CheckoutWorker checkoutWorker,
+                           CheckoutEventStream checkoutEventStream,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           ShardRouter shardRouter) {
+        this.checkoutSubmissionRepository = checkoutSubmissionRepository;
+        this.checkoutProcessor = checkoutProcessor;
+        this.checkoutWorker = checkoutWorker;
+        this.checkoutEventStream = checkoutEventStream;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Accept a checkout. With an idempotency key, a repeated submission by
+     * the same customer returns the status of the first one instead of
+     * creating another.
+     * <p>
+     * Not transactional: the insert commits on its own, so a concurrent
+     * submission with the same key that committed first is found by the
+     * unique constraint and returned instead of failing the request.
+     */
+    public CheckoutStatusDto submit(@ShardKey(ShardKey.Type.CUSTOMER_ID) CreateOrderRequestDto requestDto,
+                                    String idempotencyKey) {
+        Long customerId = requestDto.getCustomerId();
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            Optional<CheckoutSubmission> existing =
+                    checkoutSubmissionRepository.findByCustomerIdAndIdempotencyKey(customerId, idempotencyKey);
+            if (existing.isPresent()) {
+                countSubmission("duplicate");
+                return CheckoutStatusDto.fromEntity(existing.get());
+            }
+        } else {
+            idempotencyKey = null;
+        }
+
+        CheckoutSubmission submission;
+        try {
+            submission = checkoutSubmissionRepository.save(
+                    new CheckoutSubmission(customerId, idempotencyKey, serialize(requestDto)));
+        } catch (DataIntegrityViolationException e) {
+            if (idempotencyKey == null) {
+                throw e;
+            }
+            CheckoutSubmission first = checkoutSubmissionRepository
+                    .findByCustomerIdAndIdempotencyKey(customerId, idempotencyKey)
+                    .orElseThrow(() -> e);
+            countSubmission("duplicate");
+            logger.info("Checkout for customer {} with key {} was submitted concurrently, returning checkout {}",
+                    customerId, idempotencyKey, first.getId());
+            return CheckoutStatusDto.fromEntity(first);
+        }
+
+        // The submission has committed, so the worker can see it
+        checkoutWorker.dispatch(submission.getId());
+
+        countSubmission("accepted");
+        logger.info("Accepted checkout {} for customer {}", submission.getId(), customerId);
+        return CheckoutStatusDto.fromEntity(submission);
+    }
+
+    public CheckoutStatusDto getStatus(Long checkoutId) {
+        return checkoutProcessor.getStatus(checkoutId);
+    }
+
+    public SseEmitter subscribe(Long checkoutId) {
+        return checkoutEventStream.subscribe(checkoutProcessor.getStatus(checkoutId), sseTimeoutMs);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        for (CheckoutStatus status : CheckoutStatus.values()) {
+            stats.put(status.name().toLowerCase(), shardRouter.onEveryShard(
+                    () -> checkoutSubmissionRepository.countByStatus(status)).stream().mapToLong(Long::longValue).sum());
+        }
+        stats.put("sseSubscribers", checkoutEventStream.getSubscriberCount());
+        stats.put("timestamp", LocalDateTime.now());
+        return stats;
+    }
+
+    private String serialize(CreateOrderRequestDto requestDto) {
+        try {
+            return objectMapper.writeValueAsString(requestDto);
+        } catch (JsonProcessingException e) {
+            throw new OrderCreationException("Failed to store checkout request: " + e.getMessage(), e);
+        }
+    }
+
+    private void countSubmission(String outcome) {
+        Counter.builder("order.checkout.submissions")
+                .description("Asynchronous checkout submissions")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,176 @@
+package com.msproj.orderservice.service;
+
+import com.msproj.orderservice.dto.CheckoutStatusDto;
+import com.msproj.orderservice.event.CheckoutEventStream;
+import com.msproj.orderservice.exception.ServiceUnavailableException;
+import com.msproj.orderservice.repository.CheckoutSubmissionRepository;
+import com.msproj.orderservice.sharding.ShardRouter;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs accepted checkouts on the bounded checkout executor:
+ * 1. claim     - PENDING to PROCESSING, so each submission has one worker
+ * 2. create    - the regular createOrder flow, committed with the COMPLETED status
+ * 3. settle    - business failures are FAILED; transient downstream failures go
+ *                back to PENDING until max attempts are used up
+ * <p>
+ * When the executor queue is full the submission simply stays PENDING; the
+ * recovery pass re-dispatches PENDING submissions and releases expired claims,
+ * which also covers submissions of a crashed instance.
+ */
+@Component
+public class CheckoutWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutWorker.class);
+
+    private final CheckoutProcessor checkoutProcessor;
+    private final CheckoutSubmissionRepository checkoutSubmissionRepository;
+    private final CheckoutEventStream checkoutEventStream;
+    private final Executor checkoutExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Timer checkoutDuration;
+    private final ShardRouter shardRouter;
+
+    @Value("${order.checkout.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${order.checkout.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${order.checkout.recover-after-seconds:15}")
+    private long recoverAfterSeconds;
+
+    @Value("${order.checkout.recovery-batch-size:100}")
+    private int recoveryBatchSize;
+
+    @Autowired
+    public CheckoutWorker(CheckoutProcessor checkoutProcessor,
+                          CheckoutSubmissionRepository checkoutSubmissionRepository,
+                          CheckoutEventStream checkoutEventStream,
+                          @Qualifier("checkoutExecutor") Executor checkoutExecutor,
+                          MeterRegistry meterRegistry,
+                          ShardRouter shardRouter) {
+        this.checkoutProcessor = checkoutProcessor;
+        this.checkoutSubmissionRepository = checkoutSubmissionRepository;
+        this.checkoutEventStream = checkoutEventStream;
+        this.checkoutExecutor = checkoutExecutor;
+        this.meterRegistry = meterRegistry;
+        this.shardRouter = shardRouter;
+        this.checkoutDuration = Timer.builder("order.checkout.duration")
+                .description("Time from checkout submission to a final status")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public void dispatch(Long checkoutId) {
+        try {
+            checkoutExecutor.execute(() -> process(checkoutId));
+        } catch (TaskRejectedException e) {
+            countOutcome("deferred");
+            logger.warn("Checkout queue full, checkout {} waits for the recovery pass", checkoutId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.checkout.recovery-interval-ms:10000}",
+            initialDelayString = "${order.checkout.recovery-interval-ms:10000}")
+    public void recover() {
+        // Dispatched tasks inherit the shard through the executor's task decorator
+        shardRouter.forEachShard(shard -> recoverShard());
+    }
+
+    private void recoverShard() {
+        LocalDateTime now = LocalDateTime.now();
+
+        int released = checkoutProcessor.releaseExpiredClaims(now.minusSeconds(leaseSeconds));
+        if (released > 0) {
+            logger.warn("Released {} checkout claims older than {}s", released, leaseSeconds);
+        }
+
+        List<Long> pending = checkoutSubmissionRepository.findPendingIdsUpdatedBefore(
+                now.minusSeconds(recoverAfterSeconds), PageRequest.of(0, recoveryBatchSize));
+        if (!pending.isEmpty()) {
+            logger.info("Re-dispatching {} pending checkouts", pending.size());
+            pending.forEach(this::dispatch);
+        }
+    }
+
+    private void process(Long checkoutId) {
+        if (!checkoutProcessor.claim(checkoutId)) {
+            return;
+        }
+
+        CheckoutStatusDto claimed = checkoutProcessor.getStatus(checkoutId);
+        checkoutEventStream.publish(claimed);
+
+        CheckoutStatusDto result;
+        try {
+            result = checkoutProcessor.createOrder(checkoutId);
+            countOutcome("completed");
+            logger.info("Checkout {} completed as order {}", checkoutId, result.orderId());
+
+        } catch (Exception e) {
+            String error = rootMessage(e);
+
+            if (isTransient(e) && claimed.attempts() < maxAttempts) {
+                result = checkoutProcessor.requeue(checkoutId, error);
+                countOutcome("requeued");
+                logger.warn("Checkout {} failed transiently (attempt {}/{}), requeued: {}",
+                        checkoutId, claimed.attempts(), maxAttempts, error);
+            } else {
+                result = checkoutProcessor.fail(checkoutId, error);
+                countOutcome("failed");
+                logger.warn("Checkout {} failed: {}", checkoutId, error);
+            }
+        }
+
+        if (result.status().isTerminal()) {
+            checkoutDuration.record(Duration.between(result.submittedAt(), LocalDateTime.now()));
+        }
+        checkoutEventStream.publish(result);
+    }
+
+    private static boolean isTransient(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ServiceUnavailableException
+                    || t instanceof BulkheadFullException
+                    || t instanceof RetryableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    private void countOutcome(String outcome) {
+        Counter.builder("order.checkout.outcomes")
+                .description("Asynchronous checkout processing outcomes")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,50 @@
+package com.msproj.orderservice.service;
+
+import com.msproj.orderservice.client.ProductServiceClient;
+import com.msproj.orderservice.dto.BulkStockAdjustmentResultDto;
+import com.msproj.orderservice.entity.RetryJob;
+import com.msproj.orderservice.entity.RetryJobType;
+import com.msproj.orderservice.request.BulkStockAdjustmentRequest;
+import com.msproj.orderservice.request.StockAdjustment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Retries stock releases through the idempotent batch endpoint; the job id is
+ * the reference, so a release that succeeded before a lost response is not
+ * applied twice. Jobs only exist for cancelled orders whose stock had been
+ * deducted by processOrder.
+ */
+@Component
+public class InventoryReleaseRetryHandler implements RetryJobHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryReleaseRetryHandler.class);
+
+    private final ProductServiceClient productServiceClient;
+
+    @Autowired
+    public InventoryReleaseRetryHandler(ProductServiceClient productServiceClient) {
+        this.productServiceClient = productServiceClient;
+    }
+
+    @Override
+    public RetryJobType getJobType() {
+        return RetryJobType.INVENTORY_RELEASE;
+    }
+
+    @Override
+    public void execute(RetryJob job) {
+        BulkStockAdjustmentResultDto result = productServiceClient.applyStockAdjustments(
+                new BulkStockAdjustmentRequest("retry-job-" + job.getId(), StockAdjustment.decodeAll(job.getPayload())));
+
+        if (result.rejectedProductIds() != null && !result.rejectedProductIds().isEmpty()) {
+            logger.warn("Inventory release for order {} skipped unknown products: {}",
+                    job.getOrderId(), result.rejectedProductIds());
+        }
+
+        logger.info("Released inventory for order {} on retry ({} products{})",
+                job.getOrderId(), result.applied(), result.duplicate() ? ", already applied" : "");
+    }
+}
@@ -0,0 +1,108 @@
+package com.msproj.orderservice.service;
+
+import com.msproj.orderservice.client.UserServiceClient;
+import com.msproj.orderservice.dto.BulkLoyaltyPointsResultDto;
+import com.msproj.orderservice.request.BulkLoyaltyPointsRequest;
+import com.msproj.orderservice.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Periodically flushes the loyalty ledger to User Service.
+ * <p>
+ * Batches left IN_FLIGHT by an earlier failure or crash are resent first,
+ * then new batches are claimed until the ledger is drained or a send fails.
+ */
+@Component
+public class LoyaltyLedgerFlushScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoyaltyLedgerFlushScheduler.class);
+
+    private final LoyaltyLedgerService loyaltyLedgerService;
+    private final UserServiceClient userServiceClient;
+    private final ShardRouter shardRouter;
+
+    @Value("${order.loyalty.batch-size:500}")
+    private int batchSize;
+
+    @Value("${order.loyalty.max-batches-per-flush:20}")
+    private int maxBatchesPerFlush;
+
+    @Autowired
+    public LoyaltyLedgerFlushScheduler(LoyaltyLedgerService loyaltyLedgerService,
+                                       UserServiceClient userServiceClient,
+                                       ShardRouter shardRouter) {
+        this.loyaltyLedgerService = loyaltyLedgerService;
+        this.userServiceClient = userServiceClient;
+        this.shardRouter = shardRouter;
+    }
+
+    @Scheduled(fixedDelayString = "${order.loyalty.flush-interval-ms:5000}",
+            initialDelayString = "${order.loyalty.flush-interval-ms:5000}")
+    public void flush() {
+        AtomicBoolean reachable = new AtomicBoolean(true);
+        shardRouter.forEachShard(shard -> {
+            if (reachable.get()) {
+                reachable.set(flushShard());
+            }
+        });
+    }
+
+    /**
+     * @return false when User Service could not be reached, to skip the remaining shards
+     */
+    private boolean flushShard() {
+        for (String batchId : loyaltyLedgerService.getInFlightBatchIds()) {
+            if (!sendBatch(batchId)) {
+                return false;
+            }
+        }
+
+        for (int i = 0; i < maxBatchesPerFlush; i++) {
+            String batchId = loyaltyLedgerService.claimPendingBatch(batchSize);
+            if (batchId == null) {
+                return true;
+            }
+            if (!sendBatch(batchId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return false when User Service could not be reached, to stop the current flush
+     */
+    private boolean sendBatch(String batchId) {
+        Optional<BulkLoyaltyPointsRequest> request = loyaltyLedgerService.buildBatchRequest(batchId);
+
+        if (request.isEmpty()) {
+            return true;
+        }
+
+        try {
+            BulkLoyaltyPointsResultDto result = userServiceClient.applyLoyaltyPointsBatch(request.get());
+            loyaltyLedgerService.markBatchApplied(batchId);
+
+            if (result.skippedCustomerIds() != null && !result.skippedCustomerIds().isEmpty()) {
+                logger.warn("Loyalty batch {} skipped non-customer IDs: {}", batchId, result.skippedCustomerIds());
+            }
+
+            logger.info("Loyalty batch {} applied: {} customers, {} points{}",
+                    batchId, result.appliedCustomers(), result.totalPoints(),
+                    result.duplicate() ? " (already applied)" : "");
+            return true;
+
+        } catch (Exception e) {
+            logger.warn("Failed to flush loyalty batch {}, will resend: {}", batchId, e.getMessage());
+            return false;
+        }
+    }
+}
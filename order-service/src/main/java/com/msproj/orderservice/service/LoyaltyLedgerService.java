@@ -0,0 +1,133 @@
+package com.msproj.orderservice.service;
+
+import com.msproj.orderservice.entity.LoyaltyLedgerEntry;
+import com.msproj.orderservice.entity.LoyaltyLedgerStatus;
+import com.msproj.orderservice.entity.Order;
+import com.msproj.orderservice.repository.LoyaltyLedgerRepository;
+import com.msproj.orderservice.request.BulkLoyaltyPointsRequest;
+import com.msproj.orderservice.request.LoyaltyPointsGrant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Loyalty Ledger Service
+ * <p>
+ * Point grants are recorded in the order's own transaction (so they commit or
+ * roll back with it) and later delivered to User Service in batches:
+ * 1. claim - PENDING entries get a fresh batch id and move to IN_FLIGHT
+ * 2. send  - entries of the batch are summed per customer and posted in one call
+ * 3. ack   - the batch is marked APPLIED once User Service confirms it
+ * <p>
+ * A batch that fails between claim and ack stays IN_FLIGHT and is resent with
+ * the same batch id, which User Service applies at most once.
+ */
+@Service
+public class LoyaltyLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoyaltyLedgerService.class);
+
+    private final LoyaltyLedgerRepository loyaltyLedgerRepository;
+
+    @Autowired
+    public LoyaltyLedgerService(LoyaltyLedgerRepository loyaltyLedgerRepository) {
+        this.loyaltyLedgerRepository = loyaltyLedgerRepository;
+    }
+
+    /**
+     * Record the loyalty grant for an order (1 point per dollar spent).
+     * Must join the caller's transaction so the grant is durable exactly when the order is.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordGrant(Order order) {
+        int points = order.getFinalAmount().intValue();
+
+        if (points <= 0) {
+            logger.debug("Order {} earns no loyalty points", order.getId());
+            return;
+        }
+
+        if (loyaltyLedgerRepository.existsByOrderId(order.getId())) {
+            logger.warn("Loyalty points already recorded for order {}", order.getId());
+            return;
+        }
+
+        loyaltyLedgerRepository.save(new LoyaltyLedgerEntry(order.getId(), order.getCustomerId(), points));
+        logger.info("Recorded {} loyalty points for customer {} (order {})",
+                points, order.getCustomerId(), order.getId());
+    }
+
+    /**
+     * Claim up to batchSize pending entries under a new batch id.
+     *
+     * @return the batch id, or null when nothing is pending
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public String claimPendingBatch(int batchSize) {
+        List<LoyaltyLedgerEntry> entries = loyaltyLedgerRepository.findPendingForUpdate(PageRequest.of(0, batchSize));
+
+        if (entries.isEmpty()) {
+            return null;
+        }
+
+        String batchId = UUID.randomUUID().toString();
+        entries.forEach(entry -> entry.claim(batchId));
+        loyaltyLedgerRepository.saveAll(entries);
+
+        logger.debug("Claimed {} loyalty ledger entries into batch {}", entries.size(), batchId);
+        return batchId;
+    }
+
+    @Transactional(readOnly = true)
+    public List<String> getInFlightBatchIds() {
+        return loyaltyLedgerRepository.findInFlightBatchIds();
+    }
+
+    /**
+     * Build the aggregated request for a batch - one grant per customer.
+     *
+     * @return the request, or empty when the batch has already been acknowledged
+     */
+    @Transactional(readOnly = true)
+    public Optional<BulkLoyaltyPointsRequest> buildBatchRequest(String batchId) {
+        Map<Long, Integer> pointsByCustomer = new LinkedHashMap<>();
+
+        for (LoyaltyLedgerEntry entry : loyaltyLedgerRepository.findByBatchId(batchId)) {
+            if (entry.getStatus() == LoyaltyLedgerStatus.IN_FLIGHT) {
+                pointsByCustomer.merge(entry.getCustomerId(), entry.getPoints(), Math::addExact);
+            }
+        }
+
+        if (pointsByCustomer.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<LoyaltyPointsGrant> grants = pointsByCustomer.entrySet().stream()
+                .map(e -> new LoyaltyPointsGrant(e.getKey(), e.getValue()))
+                .toList();
+
+        return Optional.of(new BulkLoyaltyPointsRequest(batchId, grants));
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int markBatchApplied(String batchId) {
+        return loyaltyLedgerRepository.markBatchApplied(batchId, LocalDateTime.now());
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getLedgerStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        for (LoyaltyLedgerStatus status : LoyaltyLedgerStatus.values()) {
+            stats.put(status.name().toLowerCase(), loyaltyLedgerRepository.countByStatus(status));
+        }
+        stats.put("timestamp", LocalDateTime.now());
+        return stats;
+    }
+}
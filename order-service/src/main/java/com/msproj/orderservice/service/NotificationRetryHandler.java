@@ -0,0 +1,29 @@
+package com.msproj.orderservice.service;
+
+import com.msproj.orderservice.entity.RetryJob;
+import com.msproj.orderservice.entity.RetryJobType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resends customer notifications; the payload is the notification text.
+ */
+@Component
+public class NotificationRetryHandler implements RetryJobHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetryHandler.class);
+
+    @Override
+    public RetryJobType getJobType() {
+        return RetryJobType.NOTIFICATION;
+    }
+
+    @Override
+    public void execute(RetryJob job) throws InterruptedException {
+        // Simulate notification sending
+        Thread.sleep(500);
+
+        logger.info("Notification for order {} sent on retry: {}", job.getOrderId(), job.getPayload());
+    }
+}
@@ -2,8 +2,10 @@ package com.msproj.orderservice.service;
 
 import com.msproj.orderservice.dto.*;
 import com.msproj.orderservice.entity.OrderStatus;
+import com.msproj.orderservice.popular.PopularityWindow;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map; /**
  * Order Service Interface
@@ -12,8 +14,12 @@ public interface OrderService {
     // Core order operations
     OrderResponseDto createOrder(CreateOrderRequestDto requestDto);
 
+    OrderResponseDto createOrder(CreateOrderRequestDto requestDto, PrevalidatedLookups lookups);
+
     OrderResponseDto updateOrderStatus(Long orderId, OrderStatus newStatus);
 
+    BulkStatusUpdateResponseDto bulkUpdateOrderStatus(BulkStatusUpdateRequestDto requestDto);
+
     void processOrder(Long orderId);
 
     OrderResponseDto cancelOrder(Long orderId, String reason);
@@ -21,6 +27,8 @@ public interface OrderService {
     // Query operations
     OrderResponseDto getOrderById(Long orderId);
 
+    List<OrderResponseDto> getOrderHistory(Long customerId, LocalDateTime fromDate, LocalDateTime toDate);
+
     List<OrderResponseDto> getOrdersByCustomer(Long customerId);
 
     List<OrderResponseDto> getOrdersByStatus(OrderStatus status);
@@ -31,9 +39,15 @@ public interface OrderService {
 
     List<OrderResponseDto> getHighValueOrders(BigDecimal minAmount);
 
+    // Status history
+    List<OrderStatusHistoryEntryDto> getOrderStatusHistory(Long orderId);
+
+    StatusDurationStatsDto getTimeInStatusStatistics(OrderStatus status, int days);
+
     // Analytics and reporting
     Map<String, Object> getOrderAnalytics(String period, Long customerId);
     Map<String, Object> performBulkOperation(BulkOrderOperationDto operationDto);
+    List<PopularProductDto> getPopularProducts(PopularityWindow window, int limit);
 
     // Monitoring methods
     Map<String, Object> getAsyncOperationStatus(Long orderId);
@@ -42,5 +56,17 @@ public interface OrderService {
     Map<String, Object> getServiceCommunicationStatus();
     Map<String, Object> testServiceCommunication(Long customerId, Long productId);
     Map<String, Object> getTransactionStatistics();
+    Map<String, Object> getStaleOrderReaperProgress();
+    Map<String, Object> getDownstreamConcurrencyStatistics();
+    Map<String, Object> getLookupCoalescingStatistics();
+    Map<String, Object> getReadModelStatistics();
+    Map<String, Object> getArchiveStatistics();
+    boolean rebuildReadModel();
+    Map<String, Object> getPricingRulesStatistics();
+    Map<String, Object> reloadPricingRules();
+    Map<String, Object> getPopularProductsStatistics();
+    Map<String, Object> rebuildPopularProducts();
+    Map<String, Object> getRetryJobStatistics(int deadLetterLimit);
+    List<RetryJobDto> getOrderRetryJobs(Long orderId);
 
 }
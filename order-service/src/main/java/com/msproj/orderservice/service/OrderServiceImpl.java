@@ -1,20 +1,36 @@
 package com.msproj.orderservice.service;
 
+import com.msproj.orderservice.archive.OrderArchiveService;
+import com.msproj.orderservice.archive.OrderArchiver;
 import com.msproj.orderservice.client.ProductServiceClient;
 import com.msproj.orderservice.client.UserServiceClient;
+import com.msproj.orderservice.coalescing.DownstreamLookupCoalescer;
 import com.msproj.orderservice.dto.*;
 import com.msproj.orderservice.entity.Order;
 import com.msproj.orderservice.entity.OrderItem;
 import com.msproj.orderservice.entity.OrderStatus;
+import com.msproj.orderservice.entity.RetryJobType;
+import com.msproj.orderservice.event.OrderEventPublisher;
+import com.msproj.orderservice.event.OrderStatusChangeEvent;
 import com.msproj.orderservice.exception.*;
+import com.msproj.orderservice.popular.PopularProductsTracker;
+import com.msproj.orderservice.popular.PopularityWindow;
+import com.msproj.orderservice.pricing.OrderPricingEngine;
+import com.msproj.orderservice.pricing.PricingRulesRefresher;
+import com.msproj.orderservice.readmodel.OrderReadModel;
 import com.msproj.orderservice.repository.OrderItemRepository;
 import com.msproj.orderservice.repository.OrderRepository;
-import com.msproj.orderservice.request.LoyaltyPointsRequest;
 import com.msproj.orderservice.request.ProductAvailabilityRequest;
+import com.msproj.orderservice.request.StockAdjustment;
 import com.msproj.orderservice.request.StockUpdateRequest;
+import com.msproj.orderservice.resilience.ConcurrencyLimiterRegistry;
+import com.msproj.orderservice.sharding.ShardContext;
+import com.msproj.orderservice.sharding.ShardKey;
+import com.msproj.orderservice.sharding.ShardRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
@@ -46,16 +62,64 @@ public class OrderServiceImpl implements OrderService {
     private final OrderItemRepository orderItemRepository;
     private final UserServiceClient userServiceClient;
     private final ProductServiceClient productServiceClient;
+    private final LoyaltyLedgerService loyaltyLedgerService;
+    private final OrderStatusBulkProcessor orderStatusBulkProcessor;
+    private final OrderEventPublisher orderEventPublisher;
+    private final OrderStatusHistoryService orderStatusHistoryService;
+    private final StaleOrderReaper staleOrderReaper;
+    private final RetryJobService retryJobService;
+    private final ConcurrencyLimiterRegistry concurrencyLimiterRegistry;
+    private final DownstreamLookupCoalescer downstreamLookupCoalescer;
+    private final OrderReadModel orderReadModel;
+    private final OrderArchiveService orderArchiveService;
+    private final OrderArchiver orderArchiver;
+    private final ShardRouter shardRouter;
+    private final OrderPricingEngine orderPricingEngine;
+    private final PricingRulesRefresher pricingRulesRefresher;
+    private final PopularProductsTracker popularProductsTracker;
+
+    @Value("${order.bulk-status.chunk-size:500}")
+    private int bulkStatusChunkSize;
 
     @Autowired
     public OrderServiceImpl(OrderRepository orderRepository,
                             OrderItemRepository orderItemRepository,
                             UserServiceClient userServiceClient,
-                            ProductServiceClient productServiceClient) {
+                            ProductServiceClient productServiceClient,
+                            LoyaltyLedgerService loyaltyLedgerService,
+                            OrderStatusBulkProcessor orderStatusBulkProcessor,
+                            OrderEventPublisher orderEventPublisher,
+                            OrderStatusHistoryService orderStatusHistoryService,
+                            StaleOrderReaper staleOrderReaper,
+                            RetryJobService retryJobService,
+                            ConcurrencyLimiterRegistry concurrencyLimiterRegistry,
+                            DownstreamLookupCoalescer downstreamLookupCoalescer,
+                            OrderReadModel orderReadModel,
+                            OrderArchiveService orderArchiveService,
+                            OrderArchiver orderArchiver,
+                            ShardRouter shardRouter,
+                            OrderPricingEngine orderPricingEngine,
+                            PricingRulesRefresher pricingRulesRefresher,
+                            PopularProductsTracker popularProductsTracker) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.userServiceClient = userServiceClient;
         this.productServiceClient = productServiceClient;
+        this.loyaltyLedgerService = loyaltyLedgerService;
+        this.orderStatusBulkProcessor = orderStatusBulkProcessor;
+        this.orderEventPublisher = orderEventPublisher;
+        this.orderStatusHistoryService = orderStatusHistoryService;
+        this.staleOrderReaper = staleOrderReaper;
+        this.retryJobService = retryJobService;
+        this.concurrencyLimiterRegistry = concurrencyLimiterRegistry;
+        this.downstreamLookupCoalescer = downstreamLookupCoalescer;
+        this.orderReadModel = orderReadModel;
+        this.orderArchiveService = orderArchiveService;
+        this.orderArchiver = orderArchiver;
+        this.shardRouter = shardRouter;
+        this.orderPricingEngine = orderPricingEngine;
+        this.pricingRulesRefresher = pricingRulesRefresher;
+        this.popularProductsTracker = popularProductsTracker;
     }
 
     /**
@@ -74,15 +138,30 @@ public class OrderServiceImpl implements OrderService {
             timeout = 30,
             rollbackFor = Exception.class
     )
-    public OrderResponseDto createOrder(CreateOrderRequestDto requestDto) {
+    public OrderResponseDto createOrder(@ShardKey(ShardKey.Type.CUSTOMER_ID) CreateOrderRequestDto requestDto) {
+        return createOrder(requestDto, PrevalidatedLookups.NONE);
+    }
+
+    /**
+     * Create Order reusing lookups the caller already made (server-side cart checkout)
+     */
+    @Override
+    @Transactional(
+            propagation = Propagation.REQUIRED,
+            isolation = Isolation.READ_COMMITTED,
+            timeout = 30,
+            rollbackFor = Exception.class
+    )
+    public OrderResponseDto createOrder(@ShardKey(ShardKey.Type.CUSTOMER_ID) CreateOrderRequestDto requestDto,
+                                        PrevalidatedLookups lookups) {
         logger.info("Creating order for customer ID: {}", requestDto.getCustomerId());
 
         try {
             // Step 1: Validate customer using inter-service communication
-            UserDto customer = validateCustomer(requestDto.getCustomerId());
+            UserDto customer = validateCustomer(requestDto.getCustomerId(), lookups.customer());
 
             // Step 2: Validate and reserve inventory
-            List<OrderItem> orderItems = validateAndReserveInventory(requestDto.getItems());
+            List<OrderItem> orderItems = validateAndReserveInventory(requestDto.getItems(), lookups.products());
 
             // Step 3: Create order entity with business logic
             Order order = createOrderEntity(requestDto, customer, orderItems);
@@ -97,6 +176,13 @@ public class OrderServiceImpl implements OrderService {
             savedOrder.confirm();
             orderRepository.save(savedOrder);
 
+            // Step 7: Append creation and confirmation to the status history
+            orderStatusHistoryService.recordAll(List.of(
+                    new OrderStatusChangeEvent(savedOrder.getId(), savedOrder.getCustomerId(),
+                            null, OrderStatus.PENDING, savedOrder.getOrderDate()),
+                    new OrderStatusChangeEvent(savedOrder.getId(), savedOrder.getCustomerId(),
+                            OrderStatus.PENDING, OrderStatus.CONFIRMED, LocalDateTime.now())));
+
             logger.info("Order created successfully with ID: {}", savedOrder.getId());
 
             // ASYNC OPERATIONS: These run in separate threads after transaction commits
@@ -124,7 +210,7 @@ public class OrderServiceImpl implements OrderService {
             propagation = Propagation.REQUIRES_NEW,
             isolation = Isolation.READ_COMMITTED
     )
-    public OrderResponseDto updateOrderStatus(Long orderId, OrderStatus newStatus) {
+    public OrderResponseDto updateOrderStatus(@ShardKey(ShardKey.Type.RECORD_ID) Long orderId, OrderStatus newStatus) {
         logger.info("Updating order {} status to {}", orderId, newStatus);
 
         Order order = orderRepository.findById(orderId)
@@ -149,6 +235,7 @@ public class OrderServiceImpl implements OrderService {
         }
 
         Order updatedOrder = orderRepository.save(order);
+        orderStatusHistoryService.record(orderId, order.getCustomerId(), oldStatus, newStatus);
 
         // ASYNC: Send notifications for status changes
         notifyOrderStatusChange(updatedOrder.getId(), oldStatus, newStatus);
@@ -157,6 +244,86 @@ public class OrderServiceImpl implements OrderService {
         return OrderResponseDto.fromEntity(updatedOrder);
     }
 
+    /**
+     * Bulk Status Update - chunked, set-based transitions for warehouse scanners
+     * <p>
+     * Not transactional itself: each chunk commits in its own short
+     * REQUIRES_NEW transaction (see OrderStatusBulkProcessor), so a failing
+     * chunk only rolls back its own orders. One batched notification is
+     * published per committed chunk.
+     */
+    @Override
+    public BulkStatusUpdateResponseDto bulkUpdateOrderStatus(BulkStatusUpdateRequestDto requestDto) {
+        long startTime = System.currentTimeMillis();
+        List<StatusTransitionItemDto> transitions = requestDto.getTransitions();
+        logger.info("Bulk status update for {} orders", transitions.size());
+
+        Map<Long, StatusTransitionResultDto> resultByOrderId = new HashMap<>();
+        Map<Long, OrderStatus> accepted = new LinkedHashMap<>();
+
+        for (StatusTransitionItemDto item : transitions) {
+            if (resultByOrderId.containsKey(item.getOrderId()) || accepted.containsKey(item.getOrderId())) {
+                continue;
+            }
+            if (!OrderStatusBulkProcessor.SUPPORTED_TARGETS.contains(item.getNewStatus())) {
+                resultByOrderId.put(item.getOrderId(), StatusTransitionResultDto.rejected(
+                        item.getOrderId(), StatusTransitionOutcome.UNSUPPORTED_STATUS, null, item.getNewStatus(),
+                        "Bulk updates support only " + OrderStatusBulkProcessor.SUPPORTED_TARGETS));
+            } else {
+                accepted.put(item.getOrderId(), item.getNewStatus());
+            }
+        }
+
+        // A chunk transaction runs on one shard, so chunks are cut per shard
+        Map<Integer, Map<Long, OrderStatus>> acceptedByShard = new TreeMap<>();
+        accepted.forEach((orderId, target) -> acceptedByShard
+                .computeIfAbsent(shardRouter.shardForRecordId(orderId), shard -> new LinkedHashMap<>())
+                .put(orderId, target));
+
+        int chunks = 0;
+        for (Map.Entry<Integer, Map<Long, OrderStatus>> shardEntry : acceptedByShard.entrySet()) {
+            Map<Long, OrderStatus> chunk = new LinkedHashMap<>();
+            Iterator<Map.Entry<Long, OrderStatus>> iterator = shardEntry.getValue().entrySet().iterator();
+
+            while (iterator.hasNext()) {
+                Map.Entry<Long, OrderStatus> entry = iterator.next();
+                chunk.put(entry.getKey(), entry.getValue());
+
+                if (chunk.size() == bulkStatusChunkSize || !iterator.hasNext()) {
+                    Map<Long, OrderStatus> shardChunk = chunk;
+                    ShardContext.runOn(shardEntry.getKey(), () -> applyStatusChunk(shardChunk, resultByOrderId));
+                    chunk = new LinkedHashMap<>();
+                    chunks++;
+                }
+            }
+        }
+
+        // Report in request order; repeated IDs after the first are duplicates
+        List<StatusTransitionResultDto> results = new ArrayList<>(transitions.size());
+        Set<Long> reported = new HashSet<>();
+        int updated = 0;
+
+        for (StatusTransitionItemDto item : transitions) {
+            if (!reported.add(item.getOrderId())) {
+                results.add(StatusTransitionResultDto.rejected(item.getOrderId(), StatusTransitionOutcome.DUPLICATE,
+                        null, item.getNewStatus(), "Order appears more than once in this request"));
+                continue;
+            }
+            StatusTransitionResultDto result = resultByOrderId.get(item.getOrderId());
+            if (result.outcome() == StatusTransitionOutcome.UPDATED) {
+                updated++;
+            }
+            results.add(result);
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Bulk status update finished: {} of {} updated in {} chunks, {} ms",
+                updated, transitions.size(), chunks, duration);
+
+        return new BulkStatusUpdateResponseDto(transitions.size(), updated, transitions.size() - updated,
+                chunks, duration, results);
+    }
+
     /**
      * Process Order - Complex transactional workflow
      *
@@ -173,7 +340,7 @@ public class OrderServiceImpl implements OrderService {
             timeout = 60,
             rollbackFor = {OrderProcessingException.class, PaymentException.class}
     )
-    public void processOrder(Long orderId) {
+    public void processOrder(@ShardKey(ShardKey.Type.RECORD_ID) Long orderId) {
         logger.info("Processing order: {}", orderId);
 
         // Use pessimistic locking to prevent concurrent modifications
@@ -191,14 +358,16 @@ public class OrderServiceImpl implements OrderService {
             // Step 2: Update product inventories (calls Product Service)
             updateProductInventories(order);
 
-            // Step 3: Add loyalty points (calls User Service)
-            addLoyaltyPointsToCustomer(order);
+            // Step 3: Record loyalty points in the ledger (flushed to User Service in batches)
+            loyaltyLedgerService.recordGrant(order);
 
             // Step 4: Update order status to processing
             order.process();
 
             // Step 5: Save updated order
             orderRepository.save(order);
+            orderStatusHistoryService.record(orderId, order.getCustomerId(),
+                    OrderStatus.CONFIRMED, OrderStatus.PROCESSING);
 
             logger.info("Order {} processed successfully", orderId);
 
@@ -210,27 +379,70 @@ public class OrderServiceImpl implements OrderService {
     }
 
     /**
-     * Get Order by ID - Read-only transaction for performance
+     * Get Order by ID - served from the order document when the read model is
+     * fresh enough (see OrderReadModel), otherwise from the orders table
      */
     @Override
     @Transactional(readOnly = true)
-    public OrderResponseDto getOrderById(Long orderId) {
+    public OrderResponseDto getOrderById(@ShardKey(ShardKey.Type.RECORD_ID) Long orderId) {
         logger.debug("Fetching order by ID: {}", orderId);
 
-        Order order = orderRepository.findById(orderId)
+        Optional<OrderResponseDto> projected = orderReadModel.findOrder(orderId);
+        if (projected.isPresent()) {
+            return projected.get();
+        }
+
+        Optional<Order> order = orderRepository.findById(orderId);
+        if (order.isPresent()) {
+            return OrderResponseDto.fromEntity(order.get());
+        }
+
+        // Not hot: an old terminal order may have been moved to the archive
+        return orderArchiveService.findOrder(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
+    }
 
-        return OrderResponseDto.fromEntity(order);
+    /**
+     * Customer order history within [fromDate, toDate], routed by order date:
+     * the hot tables always, the archive only when the range reaches back past
+     * the retention cutoff (older terminal orders may have been moved there)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderResponseDto> getOrderHistory(@ShardKey(ShardKey.Type.CUSTOMER_ID) Long customerId,
+                                                   LocalDateTime fromDate, LocalDateTime toDate) {
+        logger.debug("Fetching order history for customer {} from {} to {}", customerId, fromDate, toDate);
+
+        List<OrderResponseDto> history = new ArrayList<>(
+                orderRepository.findByCustomerIdAndOrderDateBetweenWithItems(customerId, fromDate, toDate).stream()
+                        .map(OrderResponseDto::fromEntity)
+                        .toList());
+
+        LocalDateTime cutoff = orderArchiveService.getCutoff();
+        if (fromDate.isBefore(cutoff)) {
+            LocalDateTime archiveTo = toDate.isBefore(cutoff) ? toDate : cutoff;
+            history.addAll(orderArchiveService.findCustomerOrders(customerId, fromDate, archiveTo));
+            history.sort(Comparator.comparing(OrderResponseDto::getOrderDate).reversed()
+                    .thenComparing(OrderResponseDto::getId, Comparator.reverseOrder()));
+        }
+
+        return history;
     }
 
     /**
-     * Get Orders by Customer - Read-only with optimized query
+     * Get Orders by Customer - one range read over the customer's order documents,
+     * falling back to the orders table while the read model is behind
      */
     @Override
     @Transactional(readOnly = true)
-    public List<OrderResponseDto> getOrdersByCustomer(Long customerId) {
+    public List<OrderResponseDto> getOrdersByCustomer(@ShardKey(ShardKey.Type.CUSTOMER_ID) Long customerId) {
         logger.debug("Fetching orders for customer: {}", customerId);
 
+        Optional<List<OrderResponseDto>> projected = orderReadModel.findCustomerOrders(customerId);
+        if (projected.isPresent()) {
+            return projected.get();
+        }
+
         return orderRepository.findByCustomerIdOrderByOrderDateDesc(customerId)
                 .stream()
                 .map(OrderResponseDto::fromEntity)
@@ -245,7 +457,7 @@ public class OrderServiceImpl implements OrderService {
             propagation = Propagation.REQUIRED,
             rollbackFor = Exception.class
     )
-    public OrderResponseDto cancelOrder(Long orderId, String reason) {
+    public OrderResponseDto cancelOrder(@ShardKey(ShardKey.Type.RECORD_ID) Long orderId, String reason) {
         logger.info("Cancelling order {} with reason: {}", orderId, reason);
 
         Order order = orderRepository.findById(orderId)
@@ -260,17 +472,26 @@ public class OrderServiceImpl implements OrderService {
         }
 
         try {
-            // Step 1: Refund payment if already charged
+            // Step 1: Refund payment if already charged; a failed refund is retried durably
             if (order.getPaymentTransactionId() != null) {
-                refundPayment(order);
+                try {
+                    refundPayment(order);
+                } catch (PaymentRefundException e) {
+                    retryJobService.enqueue(orderId, RetryJobType.PAYMENT_REFUND,
+                            order.getPaymentTransactionId(), RetryJobService.DEFAULT_PRIORITY);
+                }
             }
 
-            // Step 2: Release inventory back to products
-            releaseInventory(order);
+            // Step 2: Release inventory back to products, if processing deducted it
+            if (order.hasStockDeducted()) {
+                releaseInventory(order);
+            }
 
             // Step 3: Cancel the order
+            OrderStatus previousStatus = order.getStatus();
             order.cancel(reason);
             Order cancelledOrder = orderRepository.save(order);
+            orderStatusHistoryService.record(orderId, order.getCustomerId(), previousStatus, OrderStatus.CANCELLED);
 
             // ASYNC: Send cancellation notifications
             notifyOrderCancellation(cancelledOrder.getId(), reason);
@@ -284,30 +505,71 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    @Override
+    public List<OrderStatusHistoryEntryDto> getOrderStatusHistory(@ShardKey(ShardKey.Type.RECORD_ID) Long orderId) {
+        logger.debug("Fetching status history for order: {}", orderId);
+
+        List<OrderStatusHistoryEntryDto> timeline = orderStatusHistoryService.getTimeline(orderId);
+
+        if (timeline.isEmpty() && !orderRepository.existsById(orderId)) {
+            throw new OrderNotFoundException(orderId);
+        }
+
+        return timeline;
+    }
+
+    @Override
+    public StatusDurationStatsDto getTimeInStatusStatistics(OrderStatus status, int days) {
+        logger.debug("Computing time in {} for the last {} days", status, days);
+
+        LocalDateTime toDate = LocalDateTime.now();
+        return orderStatusHistoryService.getTimeInStatus(status, toDate.minusDays(days), toDate);
+    }
+
+    /**
+     * Status scan across all shards in parallel
+     */
     @Override
     @Transactional(readOnly = true)
     public List<OrderResponseDto> getOrdersByStatus(OrderStatus status) {
         logger.debug("Fetching orders by status: {}", status);
 
-        return orderRepository.findByStatus(status)
+        return shardRouter.scatter(() -> orderRepository.findByStatus(status)
                 .stream()
                 .map(OrderResponseDto::fromEntity)
-                .collect(Collectors.toList());
+                .toList());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<OrderSummaryDto> getOrderSummariesByCustomer(Long customerId) {
+    public List<OrderSummaryDto> getOrderSummariesByCustomer(@ShardKey(ShardKey.Type.CUSTOMER_ID) Long customerId) {
         logger.debug("Fetching order summaries for customer: {}", customerId);
 
         return orderRepository.findOrderSummariesByCustomer(customerId);
     }
 
+    /**
+     * Search - on the customer's shard when the criteria name a customer,
+     * otherwise on all shards in parallel, merged newest first
+     */
     @Override
     @Transactional(readOnly = true)
     public List<OrderResponseDto> searchOrders(OrderSearchCriteriaDto criteria) {
         logger.debug("Searching orders with criteria");
 
+        if (criteria.getCustomerId() != null) {
+            return shardRouter.callOn(shardRouter.shardForCustomer(criteria.getCustomerId()),
+                    () -> findOrdersWithFilters(criteria));
+        }
+
+        List<OrderResponseDto> orders = new ArrayList<>(shardRouter.scatter(() -> findOrdersWithFilters(criteria)));
+        if (shardRouter.shardCount() > 1) {
+            orders.sort(Comparator.comparing(OrderResponseDto::getOrderDate).reversed());
+        }
+        return orders;
+    }
+
+    private List<OrderResponseDto> findOrdersWithFilters(OrderSearchCriteriaDto criteria) {
         return orderRepository.findOrdersWithFilters(
                         criteria.getCustomerId(),
                         criteria.getStatus(),
@@ -325,10 +587,22 @@ public class OrderServiceImpl implements OrderService {
     public List<OrderResponseDto> getHighValueOrders(BigDecimal minAmount) {
         logger.debug("Fetching high value orders >= {}", minAmount);
 
-        return orderRepository.findHighValueOrders(minAmount)
+        List<OrderResponseDto> orders = new ArrayList<>(shardRouter.scatter(() -> orderRepository.findHighValueOrders(minAmount)
                 .stream()
                 .map(OrderResponseDto::fromEntity)
-                .collect(Collectors.toList());
+                .toList()));
+        if (shardRouter.shardCount() > 1) {
+            orders.sort(Comparator.comparing(OrderResponseDto::getFinalAmount).reversed());
+        }
+        return orders;
+    }
+
+    /**
+     * Best-selling products of the window, from the incrementally maintained ranking
+     */
+    @Override
+    public List<PopularProductDto> getPopularProducts(PopularityWindow window, int limit) {
+        return popularProductsTracker.getTop(window, limit);
     }
 
     @Override
@@ -338,40 +612,48 @@ public class OrderServiceImpl implements OrderService {
 
         Map<String, Object> analytics = new HashMap<>();
 
-        // Get status breakdown
-        List<Object[]> statusStats = orderRepository.getOrderStatsByStatus();
-        Map<String, Object> statusAnalytics = new HashMap<>();
+        // Get status breakdown: per-shard counts and averages, merged as count-weighted averages
+        Map<OrderStatus, long[]> counts = new EnumMap<>(OrderStatus.class);
+        Map<OrderStatus, Double> amountSums = new EnumMap<>(OrderStatus.class);
 
-        for (Object[] stat : statusStats) {
+        for (Object[] stat : shardRouter.scatter(orderRepository::getOrderStatsByStatus)) {
             OrderStatus status = (OrderStatus) stat[0];
             Long count = (Long) stat[1];
             Double avgAmount = (Double) stat[2];
 
-            statusAnalytics.put(status.name(), Map.of(
-                    "count", count,
-                    "averageAmount", avgAmount != null ? avgAmount : 0.0
-            ));
+            counts.computeIfAbsent(status, s -> new long[1])[0] += count;
+            amountSums.merge(status, avgAmount != null ? avgAmount * count : 0.0, Double::sum);
         }
 
+        Map<String, Object> statusAnalytics = new HashMap<>();
+        counts.forEach((status, count) -> statusAnalytics.put(status.name(), Map.of(
+                "count", count[0],
+                "averageAmount", count[0] > 0 ? amountSums.get(status) / count[0] : 0.0
+        )));
+
         analytics.put("statusBreakdown", statusAnalytics);
         analytics.put("timestamp", LocalDateTime.now());
 
         // Customer-specific stats if requested
         if (customerId != null) {
-            Long customerOrderCount = orderRepository.countOrdersByCustomer(customerId);
-            BigDecimal totalSpent = orderRepository.calculateTotalSpentByCustomer(customerId);
-
-            analytics.put("customerStats", Map.of(
-                    "totalOrders", customerOrderCount,
-                    "totalSpent", totalSpent != null ? totalSpent : BigDecimal.ZERO
-            ));
+            analytics.put("customerStats", shardRouter.callOn(shardRouter.shardForCustomer(customerId), () -> {
+                Long customerOrderCount = orderRepository.countOrdersByCustomer(customerId);
+                BigDecimal totalSpent = orderRepository.calculateTotalSpentByCustomer(customerId);
+
+                return Map.of(
+                        "totalOrders", customerOrderCount,
+                        "totalSpent", totalSpent != null ? totalSpent : BigDecimal.ZERO
+                );
+            }));
         }
 
         return analytics;
     }
 
+    /**
+     * Not transactional itself: UPDATE_TRACKING commits one transaction per shard
+     */
     @Override
-    @Transactional
     public Map<String, Object> performBulkOperation(BulkOrderOperationDto operationDto) {
         logger.info("Performing bulk operation: {}", operationDto.getOperation());
 
@@ -379,9 +661,20 @@ public class OrderServiceImpl implements OrderService {
 
         switch (operationDto.getOperation().toUpperCase()) {
             case "CANCEL_STALE" -> {
-                LocalDateTime cutoffDate = LocalDateTime.now().minusDays(1);
-                int cancelledCount = orderRepository.cancelStaleOrders(cutoffDate);
-                result.put("cancelledOrders", cancelledCount);
+                // Chunked cancellation with stock release runs in the background; poll its progress
+                boolean alreadyRunning = staleOrderReaper.isRunning();
+                if (!alreadyRunning) {
+                    staleOrderReaper.runAsync();
+                }
+                result.put("reaperTriggered", !alreadyRunning);
+                result.put("progressUrl", "/api/orders/monitoring/stale-reaper");
+            }
+
+            case "ARCHIVE" -> {
+                // Moves old terminal orders to the archive tier in the background; poll its progress
+                orderArchiver.runAsync();
+                result.put("archiverTriggered", true);
+                result.put("progressUrl", "/api/orders/monitoring/archive");
             }
 
             case "UPDATE_TRACKING" -> {
@@ -389,10 +682,15 @@ public class OrderServiceImpl implements OrderService {
                 int updatedCount = 0;
 
                 if (orderIds != null) {
+                    Map<Integer, Map<Long, String>> trackingByShard = new TreeMap<>();
                     for (Long orderId : orderIds) {
-                        String trackingNumber = generateTrackingNumber();
-                        int updated = orderRepository.updateTrackingNumber(orderId, trackingNumber);
-                        updatedCount += updated;
+                        trackingByShard.computeIfAbsent(shardRouter.shardForRecordId(orderId), shard -> new LinkedHashMap<>())
+                                .put(orderId, generateTrackingNumber());
+                    }
+
+                    for (Map.Entry<Integer, Map<Long, String>> entry : trackingByShard.entrySet()) {
+                        updatedCount += ShardContext.callOn(entry.getKey(),
+                                () -> orderStatusBulkProcessor.assignTrackingNumbers(entry.getValue()));
                     }
                 }
 
@@ -479,6 +777,8 @@ public class OrderServiceImpl implements OrderService {
             logger.info("Status change notification sent for order: {}", orderId);
         } catch (Exception e) {
             logger.error("Failed to send status change notification for order {}: {}", orderId, e.getMessage());
+            retryJobService.enqueue(orderId, RetryJobType.NOTIFICATION,
+                    String.format("Order status changed: %s -> %s", oldStatus, newStatus), RetryJobService.DEFAULT_PRIORITY);
         }
     }
 
@@ -495,6 +795,8 @@ public class OrderServiceImpl implements OrderService {
             logger.info("Cancellation notification sent for order: {}", orderId);
         } catch (Exception e) {
             logger.error("Failed to send cancellation notification for order {}: {}", orderId, e.getMessage());
+            retryJobService.enqueue(orderId, RetryJobType.NOTIFICATION,
+                    "Order cancelled: " + reason, RetryJobService.DEFAULT_PRIORITY);
         }
     }
 
@@ -516,13 +818,37 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    public Map<String, Object> retryFailedOperations(Long orderId, String operation) {
+    public Map<String, Object> retryFailedOperations(@ShardKey(ShardKey.Type.RECORD_ID) Long orderId, String operation) {
         logger.info("Retrying operation {} for order {}", operation, orderId);
 
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+
+        RetryJobType jobType = null;
+        if (operation != null && !operation.isBlank()) {
+            try {
+                jobType = RetryJobType.valueOf(operation.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidOrderStateException("Unsupported retry operation: " + operation +
+                        ". Supported: " + Arrays.toString(RetryJobType.values()));
+            }
+        }
+
+        // Existing failed jobs jump the queue; dead-lettered ones get a fresh set of attempts
+        List<RetryJobDto> jobs = new ArrayList<>(
+                retryJobService.expedite(orderId, jobType, RetryJobService.MANUAL_PRIORITY));
+
+        // Notifications are safe to resend, so an explicit request enqueues one even without a failure
+        if (jobType == RetryJobType.NOTIFICATION && !retryJobService.hasActiveJob(orderId, RetryJobType.NOTIFICATION)) {
+            jobs.add(RetryJobDto.fromEntity(retryJobService.enqueue(orderId, RetryJobType.NOTIFICATION,
+                    "Order status: " + order.getStatus(), RetryJobService.MANUAL_PRIORITY)));
+        }
+
         Map<String, Object> result = new HashMap<>();
         result.put("orderId", orderId);
         result.put("operation", operation);
-        result.put("status", "retried");
+        result.put("status", jobs.isEmpty() ? "nothing to retry" : "enqueued");
+        result.put("jobs", jobs);
         result.put("timestamp", LocalDateTime.now());
 
         return result;
@@ -594,22 +920,91 @@ public class OrderServiceImpl implements OrderService {
     @Override
     public Map<String, Object> getTransactionStatistics() {
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalOrders", orderRepository.count());
-        stats.put("pendingOrders", orderRepository.findByStatus(OrderStatus.PENDING).size());
-        stats.put("completedOrders", orderRepository.findByStatus(OrderStatus.DELIVERED).size());
+        stats.put("totalOrders", shardRouter.onEveryShard(() -> orderRepository.count()).stream().mapToLong(Long::longValue).sum());
+        stats.put("pendingOrders", shardRouter.scatter(() -> orderRepository.findByStatus(OrderStatus.PENDING)).size());
+        stats.put("completedOrders", shardRouter.scatter(() -> orderRepository.findByStatus(OrderStatus.DELIVERED)).size());
+        stats.put("shards", shardRouter.shardCount());
         stats.put("timestamp", LocalDateTime.now());
         return stats;
     }
 
+    @Override
+    public Map<String, Object> getRetryJobStatistics(int deadLetterLimit) {
+        Map<String, Object> stats = new HashMap<>(retryJobService.getStatistics());
+        stats.put("recentDeadLetters", retryJobService.getDeadLetters(deadLetterLimit));
+        return stats;
+    }
+
+    @Override
+    public List<RetryJobDto> getOrderRetryJobs(@ShardKey(ShardKey.Type.RECORD_ID) Long orderId) {
+        return retryJobService.getOrderJobs(orderId);
+    }
+
+    @Override
+    public Map<String, Object> getDownstreamConcurrencyStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", concurrencyLimiterRegistry.isEnabled());
+        stats.put("downstreams", concurrencyLimiterRegistry.getStatistics());
+        stats.put("timestamp", LocalDateTime.now());
+        return stats;
+    }
+
+    @Override
+    public Map<String, Object> getLookupCoalescingStatistics() {
+        return downstreamLookupCoalescer.getStatistics();
+    }
+
+    @Override
+    public Map<String, Object> getArchiveStatistics() {
+        return orderArchiveService.getStatistics();
+    }
+
+    @Override
+    public Map<String, Object> getReadModelStatistics() {
+        return orderReadModel.getStatistics();
+    }
+
+    @Override
+    public boolean rebuildReadModel() {
+        return orderReadModel.rebuild();
+    }
+
+    @Override
+    public Map<String, Object> getPricingRulesStatistics() {
+        return pricingRulesRefresher.getStatistics();
+    }
+
+    @Override
+    public Map<String, Object> reloadPricingRules() {
+        return pricingRulesRefresher.reload();
+    }
+
+    @Override
+    public Map<String, Object> getPopularProductsStatistics() {
+        return popularProductsTracker.getStatistics();
+    }
+
+    @Override
+    public Map<String, Object> rebuildPopularProducts() {
+        return popularProductsTracker.rebuild();
+    }
+
+    @Override
+    public Map<String, Object> getStaleOrderReaperProgress() {
+        return staleOrderReaper.getProgress();
+    }
+
     // ====== PRIVATE HELPER METHODS ======
 
     /**
      * Validate customer using inter-service communication
      */
-    private UserDto validateCustomer(Long customerId) {
+    private UserDto validateCustomer(Long customerId, UserDto prevalidated) {
         try {
-            // Using OpenFeign client with circuit breaker
-            UserDto customer = userServiceClient.getUserById(customerId);
+            // Using OpenFeign client with circuit breaker; concurrent lookups of one customer share a call
+            UserDto customer = prevalidated != null && customerId.equals(prevalidated.id())
+                    ? prevalidated
+                    : downstreamLookupCoalescer.getUserById(customerId);
 
             if (customer == null) {
                 throw new CustomerNotFoundException(customerId);
@@ -625,20 +1020,25 @@ public class OrderServiceImpl implements OrderService {
     /**
      * Validate and reserve inventory for order items
      */
-    private List<OrderItem> validateAndReserveInventory(List<CreateOrderItemDto> itemDtos) {
+    private List<OrderItem> validateAndReserveInventory(List<CreateOrderItemDto> itemDtos,
+                                                        Map<Long, ProductDto> prevalidated) {
         List<OrderItem> orderItems = new ArrayList<>();
 
-        // Get all product IDs for batch validation
+        // Get the product IDs not already looked up by the caller for batch validation
         List<Long> productIds = itemDtos.stream()
                 .map(CreateOrderItemDto::getProductId)
+                .filter(productId -> !prevalidated.containsKey(productId))
+                .distinct()
                 .collect(Collectors.toList());
 
-        // Batch call to Product Service for efficiency
-        List<ProductDto> products = productServiceClient.getProductsByIds(productIds);
-
         // Create map for quick lookup
-        Map<Long, ProductDto> productMap = products.stream()
-                .collect(Collectors.toMap(ProductDto::id, p -> p));
+        Map<Long, ProductDto> productMap = new HashMap<>(prevalidated);
+
+        if (!productIds.isEmpty()) {
+            // Batch call to Product Service, merged with concurrent checkouts' lookups
+            downstreamLookupCoalescer.getProductsByIds(productIds)
+                    .forEach(product -> productMap.put(product.id(), product));
+        }
 
         for (CreateOrderItemDto itemDto : itemDtos) {
             ProductDto product = productMap.get(itemDto.getProductId());
@@ -664,6 +1064,7 @@ public class OrderServiceImpl implements OrderService {
                     product.price(),
                     itemDto.getQuantity()
             );
+            orderItem.setProductCategory(product.categoryName());
 
             orderItems.add(orderItem);
         }
@@ -694,20 +1095,8 @@ public class OrderServiceImpl implements OrderService {
         // Set payment method
         order.setPaymentMethod(requestDto.getPaymentMethod());
 
-        // Calculate shipping and tax
-        order.setShippingAmount(calculateShippingAmount(order));
-        order.setTaxAmount(calculateTaxAmount(order));
-
-        // Apply customer discount if applicable
-        if ("GOLD".equals(customer.customerTier()) || "PLATINUM".equals(customer.customerTier())) {
-            BigDecimal discountPercent = "PLATINUM".equals(customer.customerTier()) ?
-                    BigDecimal.valueOf(0.15) : BigDecimal.valueOf(0.10);
-            BigDecimal discount = order.getTotalAmount().multiply(discountPercent);
-            order.setDiscountAmount(discount);
-        }
-
-        // Recalculate final totals
-        order.recalculateTotals();
+        // Subtotals, tier discount, tax and shipping in one fixed-point pass
+        orderPricingEngine.price(order, customer.customerTier());
 
         return order;
     }
@@ -754,26 +1143,6 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
-    /**
-     * Add loyalty points to customer
-     */
-    private void addLoyaltyPointsToCustomer(Order order) {
-        try {
-            // Calculate loyalty points (1 point per dollar spent)
-            int loyaltyPoints = order.getFinalAmount().intValue();
-
-            LoyaltyPointsRequest request = new LoyaltyPointsRequest(loyaltyPoints);
-            userServiceClient.addLoyaltyPoints(order.getCustomerId(), request);
-
-            logger.info("Added {} loyalty points to customer {}", loyaltyPoints, order.getCustomerId());
-
-        } catch (Exception e) {
-            logger.warn("Failed to add loyalty points for customer {}: {}",
-                    order.getCustomerId(), e.getMessage());
-            // Don't fail the order for loyalty points failure - this is non-critical
-        }
-    }
-
     private void validateInventoryAvailability(Order order) {
         List<ProductAvailabilityRequest> requests = order.getOrderItems().stream()
                 .map(item -> new ProductAvailabilityRequest(item.getProductId(), item.getQuantity()))
@@ -790,6 +1159,8 @@ public class OrderServiceImpl implements OrderService {
     }
 
     private void releaseInventory(Order order) {
+        List<StockAdjustment> failedReleases = new ArrayList<>();
+
         for (OrderItem item : order.getOrderItems()) {
             try {
                 StockUpdateRequest stockUpdate = new StockUpdateRequest(item.getQuantity(), "ADD");
@@ -802,8 +1173,14 @@ public class OrderServiceImpl implements OrderService {
                 logger.error("Failed to release inventory for product {}: {}",
                         item.getProductId(), e.getMessage());
                 // Continue with other items even if one fails
+                failedReleases.add(new StockAdjustment(item.getProductId(), item.getQuantity()));
             }
         }
+
+        if (!failedReleases.isEmpty()) {
+            retryJobService.enqueue(order.getId(), RetryJobType.INVENTORY_RELEASE,
+                    StockAdjustment.encodeAll(failedReleases), RetryJobService.DEFAULT_PRIORITY);
+        }
     }
 
     private void refundPayment(Order order) {
@@ -822,21 +1199,20 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
-    private BigDecimal calculateShippingAmount(Order order) {
-        BigDecimal baseShipping = BigDecimal.valueOf(9.99);
-
-        // Free shipping for orders over $100
-        if (order.getTotalAmount().compareTo(BigDecimal.valueOf(100)) >= 0) {
-            return BigDecimal.ZERO;
-        }
+    private void applyStatusChunk(Map<Long, OrderStatus> chunk, Map<Long, StatusTransitionResultDto> resultByOrderId) {
+        try {
+            OrderStatusBulkProcessor.ChunkResult chunkResult = orderStatusBulkProcessor.applyChunk(chunk);
+            chunkResult.results().forEach(result -> resultByOrderId.put(result.orderId(), result));
 
-        return baseShipping;
-    }
+            // ASYNC: one notification event for the whole committed chunk
+            orderEventPublisher.publishStatusChanges(chunkResult.events());
 
-    private BigDecimal calculateTaxAmount(Order order) {
-        // Simple tax calculation - 8.5% tax rate
-        BigDecimal taxRate = BigDecimal.valueOf(0.085);
-        return order.getTotalAmount().multiply(taxRate);
+        } catch (Exception e) {
+            logger.error("Bulk status chunk of {} orders rolled back: {}", chunk.size(), e.getMessage());
+            chunk.forEach((orderId, target) -> resultByOrderId.put(orderId, StatusTransitionResultDto.rejected(
+                    orderId, StatusTransitionOutcome.CONFLICT, null, target,
+                    "Chunk rolled back: " + e.getMessage())));
+        }
     }
 
     private String generateTrackingNumber() {
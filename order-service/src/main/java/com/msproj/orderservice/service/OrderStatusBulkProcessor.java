@@ -0,0 +1,152 @@
+package com.msproj.orderservice.service;
+
+import com.msproj.orderservice.dto.StatusTransitionOutcome;
+import com.msproj.orderservice.dto.StatusTransitionResultDto;
+import com.msproj.orderservice.entity.OrderStatus;
+import com.msproj.orderservice.event.OrderStatusChangeEvent;
+import com.msproj.orderservice.readmodel.OrderReadModel;
+import com.msproj.orderservice.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Applies one chunk of a bulk status update in its own short transaction.
+ * <p>
+ * The chunk's rows are locked in ID order, transitions are validated with
+ * OrderStatus.canTransitionTo, and valid ones are applied with one set-based
+ * UPDATE per (from, to) pair - no entity loads, no per-row saves.
+ */
+@Component
+public class OrderStatusBulkProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusBulkProcessor.class);
+
+    /**
+     * Targets the bulk path can apply without side effects. Cancellation and
+     * processing need refunds, inventory and loyalty work and go through the
+     * single-order endpoints.
+     */
+    public static final Set<OrderStatus> SUPPORTED_TARGETS = EnumSet.of(OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+
+    private final OrderRepository orderRepository;
+    private final OrderStatusHistoryService orderStatusHistoryService;
+    private final OrderReadModel orderReadModel;
+
+    @Autowired
+    public OrderStatusBulkProcessor(OrderRepository orderRepository,
+                                    OrderStatusHistoryService orderStatusHistoryService,
+                                    OrderReadModel orderReadModel) {
+        this.orderRepository = orderRepository;
+        this.orderStatusHistoryService = orderStatusHistoryService;
+        this.orderReadModel = orderReadModel;
+    }
+
+    public record ChunkResult(List<StatusTransitionResultDto> results, List<OrderStatusChangeEvent> events) {}
+
+    private record Transition(OrderStatus from, OrderStatus to) {}
+
+    private record LockedOrder(Long customerId, OrderStatus status) {}
+
+    /**
+     * @param requested order ID to target status, IDs unique and targets in SUPPORTED_TARGETS
+     */
+    @Transactional(
+            propagation = Propagation.REQUIRES_NEW,
+            isolation = Isolation.READ_COMMITTED,
+            timeout = 10
+    )
+    public ChunkResult applyChunk(Map<Long, OrderStatus> requested) {
+        Map<Long, LockedOrder> current = new HashMap<>();
+        for (Object[] row : orderRepository.lockStatusesForUpdate(requested.keySet())) {
+            current.put(((Number) row[0]).longValue(),
+                    new LockedOrder(((Number) row[1]).longValue(), OrderStatus.valueOf((String) row[2])));
+        }
+
+        List<StatusTransitionResultDto> results = new ArrayList<>(requested.size());
+        List<OrderStatusChangeEvent> events = new ArrayList<>();
+        Map<Transition, List<Long>> groups = new LinkedHashMap<>();
+
+        for (Map.Entry<Long, OrderStatus> entry : requested.entrySet()) {
+            Long orderId = entry.getKey();
+            OrderStatus target = entry.getValue();
+            LockedOrder order = current.get(orderId);
+
+            if (order == null) {
+                results.add(StatusTransitionResultDto.rejected(orderId, StatusTransitionOutcome.NOT_FOUND,
+                        null, target, "Order not found"));
+            } else if (!order.status().canTransitionTo(target)) {
+                results.add(StatusTransitionResultDto.rejected(orderId, StatusTransitionOutcome.INVALID_TRANSITION,
+                        order.status(), target,
+                        String.format("Cannot transition from %s to %s", order.status(), target)));
+            } else {
+                groups.computeIfAbsent(new Transition(order.status(), target), t -> new ArrayList<>()).add(orderId);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Map.Entry<Transition, List<Long>> group : groups.entrySet()) {
+            Transition transition = group.getKey();
+            List<Long> ids = group.getValue();
+            String trackingPrefix = null;
+            int updated;
+
+            switch (transition.to()) {
+                case SHIPPED -> {
+                    // One prefix per group; the order ID suffix keeps each tracking number unique
+                    trackingPrefix = "TRK" + System.currentTimeMillis() + "-";
+                    updated = orderRepository.bulkShip(ids, transition.from(), trackingPrefix, now);
+                }
+                case DELIVERED -> updated = orderRepository.bulkDeliver(ids, transition.from(), now);
+                default -> throw new IllegalArgumentException("Unsupported bulk target status: " + transition.to());
+            }
+
+            // Rows are locked, so a mismatch means the data changed underneath us - roll the chunk back
+            if (updated != ids.size()) {
+                throw new IllegalStateException(String.format(
+                        "Expected %d %s -> %s updates but applied %d",
+                        ids.size(), transition.from(), transition.to(), updated));
+            }
+
+            for (Long orderId : ids) {
+                String trackingNumber = trackingPrefix != null ? trackingPrefix + orderId : null;
+                results.add(new StatusTransitionResultDto(orderId, StatusTransitionOutcome.UPDATED,
+                        transition.from(), transition.to(), trackingNumber, null));
+                events.add(new OrderStatusChangeEvent(orderId, current.get(orderId).customerId(),
+                        transition.from(), transition.to(), now));
+            }
+
+            logger.debug("Bulk transition {} -> {} applied to {} orders", transition.from(), transition.to(), updated);
+        }
+
+        // One JDBC batch of history rows per chunk, committed with the updates
+        orderStatusHistoryService.recordAll(events);
+
+        return new ChunkResult(results, events);
+    }
+
+    /**
+     * Set tracking numbers (order ID to tracking number) of orders on one shard.
+     *
+     * @return number of orders updated
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int assignTrackingNumbers(Map<Long, String> trackingNumbers) {
+        int updated = 0;
+        for (Map.Entry<Long, String> entry : trackingNumbers.entrySet()) {
+            updated += orderRepository.updateTrackingNumber(entry.getKey(), entry.getValue());
+        }
+
+        // Tracking numbers change without a status transition, so the projection is not fed by the log
+        orderReadModel.refresh(trackingNumbers.keySet());
+        return updated;
+    }
+}
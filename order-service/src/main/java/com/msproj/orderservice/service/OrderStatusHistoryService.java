@@ -0,0 +1,159 @@
+package com.msproj.orderservice.service;
+
+import com.msproj.orderservice.dto.OrderStatusHistoryEntryDto;
+import com.msproj.orderservice.dto.StatusDurationStatsDto;
+import com.msproj.orderservice.entity.OrderStatus;
+import com.msproj.orderservice.event.OrderStatusChangeEvent;
+import com.msproj.orderservice.repository.OrderStatusEventStore;
+import com.msproj.orderservice.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Order Status History Service
+ * <p>
+ * Records every status transition into the append-only order_status_events
+ * log and answers timeline and time-in-status questions from it. The orders
+ * row itself is never touched by history writes.
+ */
+@Service
+public class OrderStatusHistoryService {
+
+    private final OrderStatusEventStore orderStatusEventStore;
+    private final ShardRouter shardRouter;
+
+    @Autowired
+    public OrderStatusHistoryService(OrderStatusEventStore orderStatusEventStore, ShardRouter shardRouter) {
+        this.orderStatusEventStore = orderStatusEventStore;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Append transitions as one JDBC batch in the caller's transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<OrderStatusChangeEvent> events) {
+        orderStatusEventStore.appendAll(events);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long orderId, Long customerId, OrderStatus fromStatus, OrderStatus toStatus) {
+        recordAll(List.of(new OrderStatusChangeEvent(orderId, customerId, fromStatus, toStatus, LocalDateTime.now())));
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderStatusHistoryEntryDto> getTimeline(Long orderId) {
+        List<OrderStatusHistoryEntryDto> timeline = new ArrayList<>();
+
+        orderStatusEventStore.streamTimeline(orderId, (id, fromStatus, toStatus, occurredAt) -> {
+            Long timeInPrevious = timeline.isEmpty() ? null
+                    : Duration.between(timeline.get(timeline.size() - 1).occurredAt(), occurredAt).toMillis();
+            timeline.add(new OrderStatusHistoryEntryDto(fromStatus, toStatus, occurredAt, timeInPrevious));
+        });
+
+        return timeline;
+    }
+
+    /**
+     * Time spent in a status by orders that entered it within [fromDate, toDate).
+     * Visits are paired per order in a single ordered pass over the log; orders
+     * that have not left the status yet are counted separately. An order's
+     * events live on its shard, so each shard is paired on its own and the
+     * durations are merged before the percentiles are taken.
+     */
+    @Transactional(readOnly = true)
+    public StatusDurationStatsDto getTimeInStatus(OrderStatus status, LocalDateTime fromDate, LocalDateTime toDate) {
+        List<VisitAccumulator> accumulators = shardRouter.onEveryShard(() -> {
+            VisitAccumulator accumulator = new VisitAccumulator(status);
+            orderStatusEventStore.streamStatusVisits(status, fromDate, toDate, accumulator::accept);
+            accumulator.finishOrder();
+            return accumulator;
+        });
+
+        int count = 0;
+        long stillInStatus = 0;
+        for (VisitAccumulator accumulator : accumulators) {
+            count += accumulator.count;
+            stillInStatus += accumulator.stillInStatus;
+        }
+
+        long[] durations = new long[count];
+        int offset = 0;
+        for (VisitAccumulator accumulator : accumulators) {
+            System.arraycopy(accumulator.durations, 0, durations, offset, accumulator.count);
+            offset += accumulator.count;
+        }
+        Arrays.sort(durations);
+
+        long total = 0;
+        for (long duration : durations) {
+            total += duration;
+        }
+
+        return new StatusDurationStatsDto(
+                status, fromDate, toDate,
+                durations.length,
+                stillInStatus,
+                durations.length > 0 ? total / durations.length : 0,
+                percentile(durations, 0.50),
+                percentile(durations, 0.90),
+                percentile(durations, 0.95),
+                percentile(durations, 0.99),
+                durations.length > 0 ? durations[durations.length - 1] : 0
+        );
+    }
+
+    // Nearest-rank percentile over sorted values
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static final class VisitAccumulator {
+        private final OrderStatus status;
+        private long[] durations = new long[256];
+        private int count;
+        private long stillInStatus;
+        private long currentOrderId = -1;
+        private LocalDateTime enteredAt;
+
+        private VisitAccumulator(OrderStatus status) {
+            this.status = status;
+        }
+
+        void accept(long orderId, OrderStatus fromStatus, OrderStatus toStatus, LocalDateTime occurredAt) {
+            if (orderId != currentOrderId) {
+                finishOrder();
+                currentOrderId = orderId;
+            }
+
+            if (toStatus == status) {
+                enteredAt = occurredAt;
+            } else if (fromStatus == status && enteredAt != null) {
+                if (count == durations.length) {
+                    durations = Arrays.copyOf(durations, count * 2);
+                }
+                durations[count++] = Duration.between(enteredAt, occurredAt).toMillis();
+                enteredAt = null;
+            }
+        }
+
+        void finishOrder() {
+            if (enteredAt != null) {
+                stillInStatus++;
+                enteredAt = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.msproj.orderservice.service;
+
+import com.msproj.orderservice.entity.RetryJob;
+import com.msproj.orderservice.entity.RetryJobType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Retries payment refunds; the payload is the payment transaction id, which
+ * the gateway uses to reject a second refund of the same charge.
+ */
+@Component
+public class PaymentRefundRetryHandler implements RetryJobHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentRefundRetryHandler.class);
+
+    @Override
+    public RetryJobType getJobType() {
+        return RetryJobType.PAYMENT_REFUND;
+    }
+
+    @Override
+    public void execute(RetryJob job) throws InterruptedException {
+        // Simulate refund processing; in real implementation, call payment gateway refund API
+        Thread.sleep(1000);
+
+        logger.info("Refunded payment for order {} with transaction {} on retry", job.getOrderId(), job.getPayload());
+    }
+}
@@ -0,0 +1,17 @@
+package com.msproj.orderservice.service;
+
+import com.msproj.orderservice.dto.ProductDto;
+import com.msproj.orderservice.dto.UserDto;
+
+import java.util.Map;
+
+/**
+ * Customer and products a caller fetched recently enough to trust, e.g. a
+ * server-side cart at checkout. createOrder uses them instead of calling
+ * User and Product Service again; anything missing is fetched as usual, and
+ * the same validation applies either way.
+ */
+public record PrevalidatedLookups(UserDto customer, Map<Long, ProductDto> products) {
+
+    public static final PrevalidatedLookups NONE = new PrevalidatedLookups(null, Map.of());
+}
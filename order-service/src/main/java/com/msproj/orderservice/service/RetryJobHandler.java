@@ -0,0 +1,16 @@
+package com.msproj.orderservice.service;
+
+import com.msproj.orderservice.entity.RetryJob;
+import com.msproj.orderservice.entity.RetryJobType;
+
+/**
+ * Executes one attempt of a retry job. Throwing marks the attempt as failed.
+ * Handlers may run more than once for the same job, so the side effect must
+ * be idempotent or harmless to repeat.
+ */
+public interface RetryJobHandler {
+
+    RetryJobType getJobType();
+
+    void execute(RetryJob job) throws Exception;
+}
@@ -0,0 +1,90 @@
+package com.msproj.orderservice.service;
+
+import com.msproj.orderservice.entity.RetryJob;
+import com.msproj.orderservice.entity.RetryJobType;
+import com.msproj.orderservice.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodically claims due retry jobs and runs them through their handlers.
+ * Replicas poll independently; SKIP LOCKED claiming keeps their batches disjoint.
+ */
+@Component
+public class RetryJobScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryJobScheduler.class);
+
+    private final RetryJobService retryJobService;
+    private final Map<RetryJobType, RetryJobHandler> handlers = new EnumMap<>(RetryJobType.class);
+    private final ShardRouter shardRouter;
+
+    @Value("${order.retry.batch-size:50}")
+    private int batchSize;
+
+    @Value("${order.retry.max-batches-per-poll:10}")
+    private int maxBatchesPerPoll;
+
+    @Autowired
+    public RetryJobScheduler(RetryJobService retryJobService, List<RetryJobHandler> handlers, ShardRouter shardRouter) {
+        this.retryJobService = retryJobService;
+        this.shardRouter = shardRouter;
+        handlers.forEach(handler -> this.handlers.put(handler.getJobType(), handler));
+    }
+
+    @Scheduled(fixedDelayString = "${order.retry.poll-interval-ms:2000}",
+            initialDelayString = "${order.retry.poll-interval-ms:2000}")
+    public void poll() {
+        try {
+            // Jobs live on the shard of their order and are claimed and settled there
+            shardRouter.forEachShard(shard -> drainShard());
+        } finally {
+            retryJobService.refreshMetrics();
+        }
+    }
+
+    private void drainShard() {
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            List<RetryJob> jobs = retryJobService.claimDueJobs(batchSize);
+            jobs.forEach(this::execute);
+
+            // Jobs left unexecuted after an interrupt are reclaimed when their lease expires
+            if (jobs.size() < batchSize || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+    }
+
+    private void execute(RetryJob job) {
+        if (Thread.currentThread().isInterrupted()) {
+            return;
+        }
+
+        RetryJobHandler handler = handlers.get(job.getJobType());
+
+        if (handler == null) {
+            retryJobService.markFailed(job, "No handler registered for " + job.getJobType());
+            return;
+        }
+
+        try {
+            handler.execute(job);
+            retryJobService.markSucceeded(job);
+            logger.debug("{} retry job {} for order {} succeeded", job.getJobType(), job.getId(), job.getOrderId());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            retryJobService.markFailed(job, "Interrupted");
+        } catch (Exception e) {
+            retryJobService.markFailed(job, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.msproj.orderservice.service;
+
+import com.msproj.orderservice.dto.RetryJobDto;
+import com.msproj.orderservice.entity.RetryJob;
+import com.msproj.orderservice.entity.RetryJobStatus;
+import com.msproj.orderservice.entity.RetryJobType;
+import com.msproj.orderservice.repository.RetryJobRepository;
+import com.msproj.orderservice.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retry Job Service
+ * <p>
+ * Failed side effects are recorded as jobs (in the caller's transaction when
+ * there is one) and later executed by RetryJobScheduler:
+ * 1. claim   - due jobs are locked with SKIP LOCKED and leased as RUNNING
+ * 2. execute - the handler for the job type runs outside any transaction
+ * 3. settle  - success completes the job; failure schedules the next attempt
+ *              with jittered exponential backoff or dead-letters the job
+ */
+@Service
+public class RetryJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryJobService.class);
+
+    public static final int DEFAULT_PRIORITY = 0;
+    public static final int MANUAL_PRIORITY = 100;
+
+    private static final List<RetryJobStatus> WAITING = List.of(RetryJobStatus.PENDING, RetryJobStatus.RUNNING);
+    private static final List<RetryJobStatus> RETRYABLE = List.of(RetryJobStatus.PENDING, RetryJobStatus.DEAD_LETTER);
+
+    private final RetryJobRepository retryJobRepository;
+    private final MeterRegistry meterRegistry;
+    private final ShardRouter shardRouter;
+
+    @Value("${order.retry.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${order.retry.base-delay-ms:1000}")
+    private long baseDelayMs;
+
+    @Value("${order.retry.max-delay-ms:600000}")
+    private long maxDelayMs;
+
+    @Value("${order.retry.lease-ms:120000}")
+    private long leaseMs;
+
+    // Snapshot refreshed by the scheduler so metric scrapes never hit the database
+    private final Map<RetryJobStatus, AtomicLong> backlog = new EnumMap<>(RetryJobStatus.class);
+    private final AtomicLong dueJobs = new AtomicLong();
+    private final AtomicLong oldestJobAgeSeconds = new AtomicLong();
+
+    @Autowired
+    public RetryJobService(RetryJobRepository retryJobRepository, MeterRegistry meterRegistry, ShardRouter shardRouter) {
+        this.retryJobRepository = retryJobRepository;
+        this.meterRegistry = meterRegistry;
+        this.shardRouter = shardRouter;
+
+        for (RetryJobStatus status : List.of(RetryJobStatus.PENDING, RetryJobStatus.RUNNING, RetryJobStatus.DEAD_LETTER)) {
+            AtomicLong value = new AtomicLong();
+            backlog.put(status, value);
+            Gauge.builder("order.retry.jobs", value, AtomicLong::get)
+                    .description("Retry jobs by status")
+                    .tag("status", status.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("order.retry.jobs.due", dueJobs, AtomicLong::get)
+                .description("Pending retry jobs whose next run time has passed")
+                .register(meterRegistry);
+        Gauge.builder("order.retry.oldest.age.seconds", oldestJobAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest pending or running retry job")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record a failed side effect for retry. Joins the caller's transaction when
+     * there is one, so the job commits together with the work that failed.
+     */
+    @Transactional
+    public RetryJob enqueue(Long orderId, RetryJobType jobType, String payload, int priority) {
+        RetryJob job = retryJobRepository.save(new RetryJob(orderId, jobType, payload, priority, maxAttempts));
+        logger.info("Enqueued {} retry job {} for order {}", jobType, job.getId(), orderId);
+        return job;
+    }
+
+    /**
+     * Make the order's pending and dead-lettered jobs (optionally of one type) due
+     * now with at least the given priority.
+     */
+    @Transactional
+    public List<RetryJobDto> expedite(Long orderId, RetryJobType jobType, int priority) {
+        List<RetryJobDto> expedited = new ArrayList<>();
+
+        for (RetryJob job : retryJobRepository.findByOrderIdOrderByIdAsc(orderId)) {
+            if (RETRYABLE.contains(job.getStatus()) && (jobType == null || job.getJobType() == jobType)) {
+                job.expedite(priority);
+                expedited.add(RetryJobDto.fromEntity(job));
+            }
+        }
+
+        logger.info("Expedited {} retry jobs for order {}", expedited.size(), orderId);
+        return expedited;
+    }
+
+    @Transactional(readOnly = true)
+    public boolean hasActiveJob(Long orderId, RetryJobType jobType) {
+        return retryJobRepository.findFirstByOrderIdAndJobTypeAndStatusIn(orderId, jobType, WAITING).isPresent();
+    }
+
+    /**
+     * Lease up to batchSize due jobs to this instance.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<RetryJob> claimDueJobs(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<RetryJob> jobs = retryJobRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+
+        LocalDateTime leaseExpiresAt = now.plus(Duration.ofMillis(leaseMs));
+        jobs.forEach(job -> job.claim(leaseExpiresAt));
+        return retryJobRepository.saveAll(jobs);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markSucceeded(RetryJob claimed) {
+        retryJobRepository.findById(claimed.getId())
+                .filter(job -> job.getStatus() == RetryJobStatus.RUNNING)
+                .ifPresent(job -> {
+                    job.succeed();
+                    countAttempt(job.getJobType(), "success");
+                });
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markFailed(RetryJob claimed, String error) {
+        retryJobRepository.findById(claimed.getId())
+                .filter(job -> job.getStatus() == RetryJobStatus.RUNNING)
+                .ifPresent(job -> {
+                    job.fail(error, LocalDateTime.now().plus(backoff(job.getAttempts() + 1)));
+
+                    if (job.getStatus() == RetryJobStatus.DEAD_LETTER) {
+                        countAttempt(job.getJobType(), "dead_letter");
+                        logger.error("{} retry job {} for order {} dead-lettered after {} attempts: {}",
+                                job.getJobType(), job.getId(), job.getOrderId(), job.getAttempts(), error);
+                    } else {
+                        countAttempt(job.getJobType(), "failure");
+                        logger.warn("{} retry job {} for order {} failed (attempt {}/{}), next run at {}: {}",
+                                job.getJobType(), job.getId(), job.getOrderId(), job.getAttempts(),
+                                job.getMaxAttempts(), job.getNextRunAt(), error);
+                    }
+                });
+    }
+
+    @Transactional(readOnly = true)
+    public List<RetryJobDto> getOrderJobs(Long orderId) {
+        return retryJobRepository.findByOrderIdOrderByIdAsc(orderId).stream()
+                .map(RetryJobDto::fromEntity)
+                .toList();
+    }
+
+    /**
+     * Most recent dead letters over all shards.
+     */
+    public List<RetryJobDto> getDeadLetters(int limit) {
+        List<RetryJobDto> deadLetters = shardRouter.scatter(() -> retryJobRepository
+                .findByStatusOrderByCompletedAtDesc(RetryJobStatus.DEAD_LETTER, PageRequest.of(0, limit))
+                .stream()
+                .map(RetryJobDto::fromEntity)
+                .toList());
+
+        return deadLetters.stream()
+                .sorted(Comparator.comparing(RetryJobDto::completedAt, Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Refresh the backlog gauges with totals over all shards.
+     */
+    public void refreshMetrics() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BacklogSnapshot> snapshots = shardRouter.onEveryShard(() -> {
+            Map<RetryJobStatus, Long> counts = new EnumMap<>(RetryJobStatus.class);
+            backlog.keySet().forEach(status -> counts.put(status, retryJobRepository.countByStatus(status)));
+            return new BacklogSnapshot(counts, retryJobRepository.countDue(now), retryJobRepository.findOldestCreatedAt(WAITING));
+        });
+
+        backlog.forEach((status, value) -> value.set(snapshots.stream().mapToLong(s -> s.counts().get(status)).sum()));
+        dueJobs.set(snapshots.stream().mapToLong(BacklogSnapshot::due).sum());
+
+        LocalDateTime oldest = snapshots.stream()
+                .map(BacklogSnapshot::oldestCreatedAt)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+        oldestJobAgeSeconds.set(oldest != null ? Duration.between(oldest, now).toSeconds() : 0);
+    }
+
+    private record BacklogSnapshot(Map<RetryJobStatus, Long> counts, long due, LocalDateTime oldestCreatedAt) {}
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        backlog.forEach((status, value) -> stats.put(status.name().toLowerCase(), value.get()));
+        stats.put("due", dueJobs.get());
+        stats.put("oldestJobAgeSeconds", oldestJobAgeSeconds.get());
+        stats.put("timestamp", LocalDateTime.now());
+        return stats;
+    }
+
+    /**
+     * Equal-jitter exponential backoff: half of the capped exponential delay is
+     * fixed, the other half random, so failing jobs spread out without retrying
+     * immediately.
+     */
+    private Duration backoff(int attempt) {
+        long exponential = baseDelayMs << Math.min(attempt - 1, 30);
+        long capped = Math.min(maxDelayMs, exponential > 0 ? exponential : maxDelayMs);
+        long half = capped / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private void countAttempt(RetryJobType jobType, String outcome) {
+        Counter.builder("order.retry.attempts")
+                .description("Retry job attempts by outcome")
+                .tag("type", jobType.name().toLowerCase())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,86 @@
+package com.msproj.orderservice.service;
+
+import com.msproj.orderservice.entity.OrderStatus;
+import com.msproj.orderservice.entity.StaleOrderChunk;
+import com.msproj.orderservice.event.OrderStatusChangeEvent;
+import com.msproj.orderservice.repository.OrderRepository;
+import com.msproj.orderservice.repository.StaleOrderChunkRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Cancels one keyset chunk of stale PENDING orders in its own short transaction.
+ * <p>
+ * Rows are claimed with FOR UPDATE SKIP LOCKED so parallel workers (and other
+ * replicas) take disjoint chunks. The cancellation, the status history and the
+ * chunk record commit together. No stock is released: PENDING orders hold none.
+ */
+@Component
+public class StaleOrderChunkProcessor {
+
+    static final String CANCELLATION_NOTE = "Cancelled: Stale pending order";
+
+    private final OrderRepository orderRepository;
+    private final StaleOrderChunkRepository staleOrderChunkRepository;
+    private final OrderStatusHistoryService orderStatusHistoryService;
+
+    @Autowired
+    public StaleOrderChunkProcessor(OrderRepository orderRepository,
+                                    StaleOrderChunkRepository staleOrderChunkRepository,
+                                    OrderStatusHistoryService orderStatusHistoryService) {
+        this.orderRepository = orderRepository;
+        this.staleOrderChunkRepository = staleOrderChunkRepository;
+        this.orderStatusHistoryService = orderStatusHistoryService;
+    }
+
+    public record ReapedChunk(StaleOrderChunk chunk, List<OrderStatusChangeEvent> events) {}
+
+    /**
+     * @return the committed chunk, or null when no stale order above afterId is left
+     */
+    @Transactional(
+            propagation = Propagation.REQUIRES_NEW,
+            isolation = Isolation.READ_COMMITTED,
+            timeout = 30
+    )
+    public ReapedChunk reapNextChunk(LocalDateTime cutoff, long afterId, int chunkSize) {
+        List<Object[]> rows = orderRepository.claimStalePendingOrders(cutoff, afterId, chunkSize);
+
+        if (rows.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, Long> customerByOrder = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            customerByOrder.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        Set<Long> orderIds = customerByOrder.keySet();
+
+        LocalDateTime now = LocalDateTime.now();
+        int cancelled = orderRepository.bulkCancelPending(orderIds, CANCELLATION_NOTE, now);
+
+        // Rows are locked, so a mismatch means the data changed underneath us - roll the chunk back
+        if (cancelled != orderIds.size()) {
+            throw new IllegalStateException(String.format(
+                    "Expected %d stale order cancellations but applied %d", orderIds.size(), cancelled));
+        }
+
+        List<OrderStatusChangeEvent> events = new ArrayList<>(orderIds.size());
+        customerByOrder.forEach((orderId, customerId) -> events.add(
+                new OrderStatusChangeEvent(orderId, customerId, OrderStatus.PENDING, OrderStatus.CANCELLED, now)));
+        orderStatusHistoryService.recordAll(events);
+
+        Long firstOrderId = ((Number) rows.get(0)[0]).longValue();
+        Long lastOrderId = ((Number) rows.get(rows.size() - 1)[0]).longValue();
+        StaleOrderChunk chunk = staleOrderChunkRepository.save(
+                new StaleOrderChunk(firstOrderId, lastOrderId, orderIds.size()));
+
+        return new ReapedChunk(chunk, events);
+    }
+}
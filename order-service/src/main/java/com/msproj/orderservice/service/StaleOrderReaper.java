@@ -0,0 +1,242 @@
+package com.msproj.orderservice.service;
+
+import com.msproj.orderservice.entity.StaleOrderChunk;
+import com.msproj.orderservice.event.OrderEventPublisher;
+import com.msproj.orderservice.repository.StaleOrderChunkRepository;
+import com.msproj.orderservice.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Cancels PENDING orders older than the configured age, chunk by chunk.
+ * <p>
+ * Each worker repeatedly:
+ * 1. claims and cancels the next keyset chunk in a short transaction (StaleOrderChunkProcessor)
+ * 2. publishes one batch of cancellation notifications
+ * 3. waits as long as the orders-per-second budget requires
+ * <p>
+ * Stock is left alone: it is only deducted when an order is processed, so a
+ * PENDING order holds none. Orders of a chunk that did not commit stay
+ * PENDING, so a run can be interrupted at any point and the next one resumes.
+ */
+@Component
+public class StaleOrderReaper {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaleOrderReaper.class);
+
+    private final StaleOrderChunkProcessor staleOrderChunkProcessor;
+    private final StaleOrderChunkRepository staleOrderChunkRepository;
+    private final OrderEventPublisher orderEventPublisher;
+    private final Executor reaperExecutor;
+    private final ShardRouter shardRouter;
+
+    @Value("${order.stale-reaper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.stale-reaper.stale-after-hours:24}")
+    private long staleAfterHours;
+
+    @Value("${order.stale-reaper.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${order.stale-reaper.parallelism:2}")
+    private int parallelism;
+
+    @Value("${order.stale-reaper.max-orders-per-second:500}")
+    private int maxOrdersPerSecond;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // Progress of the current (or last) run
+    private volatile LocalDateTime runStartedAt;
+    private volatile LocalDateTime runFinishedAt;
+    private final AtomicLong ordersCancelled = new AtomicLong();
+    private final AtomicLong chunksCompleted = new AtomicLong();
+    private final AtomicLong chunkFailures = new AtomicLong();
+    private final AtomicLong lastOrderId = new AtomicLong();
+
+    // Shared throttle: the earliest time the next chunk may start
+    private long nextPermitNanos;
+
+    @Autowired
+    public StaleOrderReaper(StaleOrderChunkProcessor staleOrderChunkProcessor,
+                            StaleOrderChunkRepository staleOrderChunkRepository,
+                            OrderEventPublisher orderEventPublisher,
+                            @Qualifier("staleOrderReaperExecutor") Executor reaperExecutor,
+                            ShardRouter shardRouter) {
+        this.staleOrderChunkProcessor = staleOrderChunkProcessor;
+        this.staleOrderChunkRepository = staleOrderChunkRepository;
+        this.orderEventPublisher = orderEventPublisher;
+        this.reaperExecutor = reaperExecutor;
+        this.shardRouter = shardRouter;
+    }
+
+    @Scheduled(fixedDelayString = "${order.stale-reaper.interval-ms:600000}",
+            initialDelayString = "${order.stale-reaper.interval-ms:600000}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /**
+     * Start a run in the background, e.g. from the CANCEL_STALE bulk operation.
+     */
+    @Async("taskExecutor")
+    public void runAsync() {
+        run();
+    }
+
+    /**
+     * @return false when a run was already in progress on this instance
+     */
+    public boolean run() {
+        if (!running.compareAndSet(false, true)) {
+            logger.debug("Stale order reaper already running, skipping");
+            return false;
+        }
+
+        try {
+            resetProgress();
+            LocalDateTime cutoff = LocalDateTime.now().minusHours(staleAfterHours);
+
+            // One shard at a time; workers inherit the shard through the executor's task decorator
+            shardRouter.forEachShard(shard -> {
+                AtomicLong cursor = new AtomicLong(0);
+                CompletableFuture<?>[] workers = IntStream.range(0, Math.max(1, parallelism))
+                        .mapToObj(i -> CompletableFuture.runAsync(() -> reapUntilDrained(cutoff, cursor), reaperExecutor))
+                        .toArray(CompletableFuture[]::new);
+                CompletableFuture.allOf(workers).join();
+            });
+
+            runFinishedAt = LocalDateTime.now();
+            logger.info("Stale order reaper finished: {} orders cancelled in {} chunks ({} orders/s), " +
+                            "{} chunk failures",
+                    ordersCancelled.get(), chunksCompleted.get(), String.format("%.1f", throughput()),
+                    chunkFailures.get());
+            return true;
+
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public Map<String, Object> getProgress() {
+        Map<String, Object> progress = new HashMap<>();
+        progress.put("enabled", enabled);
+        progress.put("running", running.get());
+        progress.put("runStartedAt", runStartedAt);
+        progress.put("runFinishedAt", runFinishedAt);
+        progress.put("ordersCancelled", ordersCancelled.get());
+        progress.put("chunksCompleted", chunksCompleted.get());
+        progress.put("chunkFailures", chunkFailures.get());
+        progress.put("lastOrderId", lastOrderId.get());
+        progress.put("ordersPerSecond", throughput());
+        progress.put("totalOrdersReaped", shardRouter.onEveryShard(staleOrderChunkRepository::sumOrderCount)
+                .stream().mapToLong(Long::longValue).sum());
+        progress.put("timestamp", LocalDateTime.now());
+        return progress;
+    }
+
+    private void reapUntilDrained(LocalDateTime cutoff, AtomicLong cursor) {
+        while (true) {
+            StaleOrderChunkProcessor.ReapedChunk reaped;
+            try {
+                reaped = staleOrderChunkProcessor.reapNextChunk(cutoff, cursor.get(), chunkSize);
+            } catch (Exception e) {
+                // Orders of a failed chunk stay PENDING and are picked up by the next run
+                chunkFailures.incrementAndGet();
+                logger.error("Stale order chunk after ID {} failed, stopping worker: {}", cursor.get(), e.getMessage());
+                return;
+            }
+
+            if (reaped == null) {
+                return;
+            }
+
+            StaleOrderChunk chunk = reaped.chunk();
+            cursor.accumulateAndGet(chunk.getLastOrderId(), Math::max);
+            lastOrderId.accumulateAndGet(chunk.getLastOrderId(), Math::max);
+            ordersCancelled.addAndGet(chunk.getOrderCount());
+            chunksCompleted.incrementAndGet();
+
+            orderEventPublisher.publishStatusChanges(reaped.events());
+
+            logger.debug("Stale chunk {} cancelled orders {}..{} ({} orders)",
+                    chunk.getId(), chunk.getFirstOrderId(), chunk.getLastOrderId(), chunk.getOrderCount());
+
+            if (!throttle(chunk.getOrderCount())) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reserve time for the given number of orders against the shared budget.
+     *
+     * @return false when the worker was interrupted
+     */
+    private boolean throttle(int orders) {
+        if (maxOrdersPerSecond <= 0) {
+            return true;
+        }
+
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long start = Math.max(now, nextPermitNanos);
+            nextPermitNanos = start + TimeUnit.SECONDS.toNanos(orders) / maxOrdersPerSecond;
+            waitNanos = start - now;
+        }
+
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double throughput() {
+        LocalDateTime startedAt = runStartedAt;
+        if (startedAt == null) {
+            return 0.0;
+        }
+        LocalDateTime end = running.get() || runFinishedAt == null ? LocalDateTime.now() : runFinishedAt;
+        long elapsedMs = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return ordersCancelled.get() * 1000.0 / elapsedMs;
+    }
+
+    private void resetProgress() {
+        runStartedAt = LocalDateTime.now();
+        runFinishedAt = null;
+        ordersCancelled.set(0);
+        chunksCompleted.set(0);
+        chunkFailures.set(0);
+        lastOrderId.set(0);
+    }
+}
@@ -0,0 +1,9 @@
+package com.msproj.orderservice.sharding;
+
+/**
+ * A request that belongs to one customer, and so to the customer's shard.
+ */
+public interface CustomerScoped {
+
+    Long getCustomerId();
+}
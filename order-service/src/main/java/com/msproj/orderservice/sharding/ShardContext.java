@@ -0,0 +1,80 @@
+package com.msproj.orderservice.sharding;
+
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard the current thread's database work is routed to.
+ * <p>
+ * Set by ShardRoutingAspect around @ShardKey service methods, by
+ * ShardRouter.forEachShard/scatter for cross-shard work, and copied to
+ * executor threads by ShardContextTaskDecorator. Unset means shard 0.
+ * The shard must be chosen before a transaction touches the database:
+ * a transaction, or an EntityManager bound to the thread, stays on the
+ * connection it started with. Switching shards while one is bound fails
+ * instead of silently querying the wrong shard; cross-shard work inside a
+ * transaction goes through ShardRouter.callOn/scatter, which give each
+ * shard its own transaction.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer get() {
+        return SHARD.get();
+    }
+
+    public static int current() {
+        Integer shard = SHARD.get();
+        return shard != null ? shard : 0;
+    }
+
+    public static void set(Integer shard) {
+        if (shard != null) {
+            SHARD.set(shard);
+        } else {
+            SHARD.remove();
+        }
+    }
+
+    public static <T> T callOn(int shard, Supplier<T> work) {
+        checkCanSwitchTo(shard, "ShardContext.callOn");
+        Integer previous = SHARD.get();
+        SHARD.set(shard);
+        try {
+            return work.get();
+        } finally {
+            set(previous);
+        }
+    }
+
+    public static void runOn(int shard, Runnable work) {
+        callOn(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * @throws IllegalStateException when moving to another shard while the
+     *                               thread holds a transaction or EntityManager
+     */
+    static void checkCanSwitchTo(int shard, String caller) {
+        if (shard != current() && isBoundToConnection()) {
+            throw new IllegalStateException("Cannot switch from shard " + current() + " to shard " + shard
+                    + " while a transaction or EntityManager is bound to the thread: " + caller);
+        }
+    }
+
+    private static boolean isBoundToConnection() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.getResourceMap().values().stream()
+                .anyMatch(resource -> resource instanceof EntityManagerHolder || resource instanceof ConnectionHolder);
+    }
+}
@@ -0,0 +1,25 @@
+package com.msproj.orderservice.sharding;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the submitting thread's shard to executor threads, so @Async
+ * methods and worker tasks keep talking to the shard of the order they
+ * were started for.
+ */
+public class ShardContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Integer shard = ShardContext.get();
+        return () -> {
+            Integer previous = ShardContext.get();
+            ShardContext.set(shard);
+            try {
+                runnable.run();
+            } finally {
+                ShardContext.set(previous);
+            }
+        };
+    }
+}
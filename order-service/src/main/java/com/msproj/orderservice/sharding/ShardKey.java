@@ -0,0 +1,22 @@
+package com.msproj.orderservice.sharding;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks the parameter that selects the shard of a service method.
+ * ShardRoutingAspect binds the shard before the method's transaction starts.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardKey {
+
+    Type value();
+
+    enum Type {
+        // Long customer ID, or a CustomerScoped request
+        CUSTOMER_ID,
+        // ID of an order or checkout submission, which encodes its shard
+        RECORD_ID
+    }
+}
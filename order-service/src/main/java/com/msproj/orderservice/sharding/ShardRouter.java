@@ -0,0 +1,164 @@
+package com.msproj.orderservice.sharding;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Maps customers and records to shards.
+ * <p>
+ * Customers are placed on a consistent hash ring with order.sharding.virtual-nodes
+ * points per shard, so adding a shard moves only about 1/N of the customers.
+ * Orders and checkout submissions take their IDs from per-shard identity
+ * sequences with stride ID_STRIDE (see ShardSchemaInitializer): the shard of a
+ * record is (id - 1) % ID_STRIDE, which routes reads by ID without a lookup.
+ * <p>
+ * Work routed to a shard never joins the caller's transaction or EntityManager,
+ * which stay on the caller's shard: the caller's transaction is suspended, and
+ * callOn/scatter/onEveryShard run each shard's work in its own transaction.
+ * With sharding disabled there is one shard and everything runs inline,
+ * joining the caller's transaction.
+ */
+@Component
+public class ShardRouter {
+
+    public static final int ID_STRIDE = 1024;
+
+    private final int shardCount;
+    private final NavigableMap<Long, Integer> ring = new TreeMap<>();
+    private final Executor shardQueryExecutor;
+    private final TransactionTemplate suspending;
+    private final TransactionTemplate perShard;
+
+    @Autowired
+    public ShardRouter(ShardingProperties properties,
+                       @Qualifier("shardQueryExecutor") Executor shardQueryExecutor,
+                       PlatformTransactionManager transactionManager) {
+        this.shardQueryExecutor = shardQueryExecutor;
+        this.suspending = new TransactionTemplate(transactionManager);
+        this.suspending.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        this.perShard = new TransactionTemplate(transactionManager);
+
+        List<ShardingProperties.Shard> shards = properties.isEnabled() ? properties.getShards() : List.of();
+        this.shardCount = Math.max(1, shards.size());
+        if (shardCount > ID_STRIDE) {
+            throw new IllegalStateException("At most " + ID_STRIDE + " shards are supported");
+        }
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            String name = shard < shards.size() && shards.get(shard).getName() != null
+                    ? shards.get(shard).getName() : "shard-" + shard;
+            for (int node = 0; node < Math.max(1, properties.getVirtualNodes()); node++) {
+                ring.put(hash(name + "#" + node), shard);
+            }
+        }
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardForCustomer(Long customerId) {
+        if (shardCount == 1 || customerId == null) {
+            return 0;
+        }
+        Map.Entry<Long, Integer> point = ring.ceilingEntry(hash(Long.toString(customerId)));
+        return point != null ? point.getValue() : ring.firstEntry().getValue();
+    }
+
+    public int shardForRecordId(Long id) {
+        if (shardCount == 1 || id == null || id < 1) {
+            return 0;
+        }
+        int shard = (int) ((id - 1) % ID_STRIDE);
+        return shard < shardCount ? shard : 0;
+    }
+
+    /**
+     * Run the work in its own transaction on the shard; the caller's transaction is suspended meanwhile.
+     */
+    public <T> T callOn(int shard, Supplier<T> work) {
+        if (shardCount == 1) {
+            return ShardContext.callOn(0, () -> perShard.execute(status -> work.get()));
+        }
+        return suspending.execute(outside -> ShardContext.callOn(shard, () -> perShard.execute(status -> work.get())));
+    }
+
+    /**
+     * Run the work once per shard, one shard after another. Must not be called
+     * inside a transaction; the work opens its own per shard.
+     */
+    public void forEachShard(IntConsumer work) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            int current = shard;
+            ShardContext.runOn(shard, () -> work.accept(current));
+        }
+    }
+
+    /**
+     * Run the query on every shard in parallel and concatenate the results in shard order.
+     */
+    public <T> List<T> scatter(Supplier<? extends Collection<T>> query) {
+        List<T> merged = new ArrayList<>();
+        onEveryShard(query).forEach(merged::addAll);
+        return merged;
+    }
+
+    /**
+     * Run the work on every shard in parallel, each in its own transaction; the
+     * result list is indexed by shard.
+     */
+    public <T> List<T> onEveryShard(Supplier<T> work) {
+        if (shardCount == 1) {
+            return Collections.singletonList(callOn(0, work));
+        }
+
+        // The caller-runs rejection policy may run a shard on this thread, so its transaction is suspended too
+        return suspending.execute(outside -> join(work));
+    }
+
+    private <T> List<T> join(Supplier<T> work) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int current = shard;
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> ShardContext.callOn(current, () -> perShard.execute(status -> work.get())),
+                    shardQueryExecutor));
+        }
+
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // FNV-1a followed by the murmur3 finalizer, so sequential customer IDs spread over the ring
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe1a85ec5L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
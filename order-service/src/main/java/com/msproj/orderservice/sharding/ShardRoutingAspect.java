@@ -0,0 +1,74 @@
+package com.msproj.orderservice.sharding;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+/**
+ * Binds the shard selected by a method's @ShardKey parameter for the duration
+ * of the call. Runs before the transaction interceptor, so the transaction
+ * opens on the right shard.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ShardRoutingAspect {
+
+    private final ShardRouter shardRouter;
+
+    @Autowired
+    public ShardRoutingAspect(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Around("execution(* *(.., @com.msproj.orderservice.sharding.ShardKey (*), ..))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (shardRouter.shardCount() == 1) {
+            return joinPoint.proceed();
+        }
+
+        int shard = resolveShard(joinPoint);
+        Integer previous = ShardContext.get();
+
+        ShardContext.checkCanSwitchTo(shard, joinPoint.getSignature().toShortString());
+        ShardContext.set(shard);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    private int resolveShard(ProceedingJoinPoint joinPoint) {
+        Method method = AopUtils.getMostSpecificMethod(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), joinPoint.getTarget().getClass());
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        Object[] args = joinPoint.getArgs();
+
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof ShardKey key) {
+                    return resolve(key.value(), args[i]);
+                }
+            }
+        }
+        return ShardContext.current();
+    }
+
+    private int resolve(ShardKey.Type type, Object arg) {
+        if (arg instanceof CustomerScoped scoped) {
+            return shardRouter.shardForCustomer(scoped.getCustomerId());
+        }
+        Long key = arg instanceof Number number ? number.longValue() : null;
+        return type == ShardKey.Type.CUSTOMER_ID ? shardRouter.shardForCustomer(key) : shardRouter.shardForRecordId(key);
+    }
+}
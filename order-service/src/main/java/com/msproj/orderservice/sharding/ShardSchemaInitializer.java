@@ -0,0 +1,95 @@
+package com.msproj.orderservice.sharding;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prepares every shard at startup:
+ * - creates the mapped schema on shards 1..N-1 when order.sharding.initialize-schema
+ *   is set (ddl-auto only reaches the connection Hibernate bootstraps with, shard 0)
+ * - sets the identity stride of tables whose IDs are routed by record ID or
+ *   leave the shard, so shard k only hands out IDs with (id - 1) % ID_STRIDE == k.
+ *   Every shard restarts above the highest ID on any shard, which keeps IDs
+ *   unique when an unsharded database becomes shard 0.
+ * <p>
+ * The stride statements are idempotent and run on every start; a production
+ * schema tool should declare the same identity options per shard.
+ */
+@Component
+@ConditionalOnProperty(name = "order.sharding.enabled", havingValue = "true")
+public class ShardSchemaInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    // Routed with ShardRouter.shardForRecordId, sent to other services (stale chunk reference IDs)
+    // or used as keys of instance-wide caches (archive batches)
+    private static final List<String> STRIDED_TABLES =
+            List.of("orders", "checkout_submissions", "stale_order_chunks", "order_archive_batches");
+
+    private final ShardRouter shardRouter;
+    private final ShardingProperties properties;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ShardSchemaInitializer(ShardRouter shardRouter,
+                                  ShardingProperties properties,
+                                  EntityManagerFactory entityManagerFactory,
+                                  JdbcTemplate jdbcTemplate) {
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        Map<String, Long> maxIds = new HashMap<>();
+
+        shardRouter.forEachShard(shard -> {
+            if (properties.isInitializeSchema() && shard > 0) {
+                entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                        .getSchemaManager()
+                        .exportMappedObjects(true);
+                logger.info("Created order schema on shard {}", shard);
+            }
+
+            for (String table : STRIDED_TABLES) {
+                Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+                maxIds.merge(table, maxId != null ? maxId : 0L, Math::max);
+            }
+        });
+
+        shardRouter.forEachShard(shard -> {
+            for (String table : STRIDED_TABLES) {
+                long restartWith = nextIdOnShard(maxIds.get(table), shard);
+
+                jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET INCREMENT BY " + ShardRouter.ID_STRIDE);
+                jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + restartWith);
+            }
+        });
+
+        logger.info("Identity stride {} applied to {} on {} shards",
+                ShardRouter.ID_STRIDE, STRIDED_TABLES, shardRouter.shardCount());
+    }
+
+    /**
+     * Smallest ID above maxId that belongs to the shard.
+     */
+    static long nextIdOnShard(long maxId, int shard) {
+        long base = Math.max(0, maxId) / ShardRouter.ID_STRIDE * ShardRouter.ID_STRIDE;
+        long candidate = base + shard + 1;
+        return candidate > maxId ? candidate : candidate + ShardRouter.ID_STRIDE;
+    }
+}
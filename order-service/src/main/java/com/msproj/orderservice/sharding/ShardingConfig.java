@@ -0,0 +1,75 @@
+package com.msproj.orderservice.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One connection pool per shard behind a routing DataSource.
+ * <p>
+ * JPA, JdbcTemplate and the transaction manager all use the routing
+ * DataSource. It is wrapped in a LazyConnectionDataSourceProxy, so a
+ * transaction fetches its physical connection at the first statement - by
+ * then ShardRoutingAspect has bound the shard of the call.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardingConfig.class);
+
+    @Configuration
+    @ConditionalOnProperty(name = "order.sharding.enabled", havingValue = "true")
+    static class ShardedDataSourceConfig {
+
+        @Bean
+        @Primary
+        public DataSource dataSource(ShardingProperties properties,
+                                     @Value("${order.read-replicas.enabled:false}") boolean readReplicasEnabled) {
+            List<ShardingProperties.Shard> shards = properties.getShards();
+            if (shards.isEmpty()) {
+                throw new IllegalStateException("order.sharding.enabled requires at least one order.sharding.shards entry");
+            }
+            if (readReplicasEnabled) {
+                logger.warn("order.read-replicas is ignored while order.sharding is enabled");
+            }
+
+            Map<Object, Object> targets = new LinkedHashMap<>();
+            for (int i = 0; i < shards.size(); i++) {
+                ShardingProperties.Shard shard = shards.get(i);
+                HikariDataSource pool = DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(shard.getUrl())
+                        .username(shard.getUsername())
+                        .password(shard.getPassword())
+                        .driverClassName(shard.getDriverClassName())
+                        .build();
+                pool.setPoolName("OrderShardPool-" + i);
+                pool.setMaximumPoolSize(shard.getMaximumPoolSize());
+                targets.put(i, pool);
+            }
+
+            ShardRoutingDataSource routing = new ShardRoutingDataSource();
+            routing.setTargetDataSources(targets);
+            routing.setDefaultTargetDataSource(targets.get(0));
+            routing.setLenientFallback(false);
+            routing.afterPropertiesSet();
+
+            logger.info("Routing order persistence over {} shards", shards.size());
+            return new LazyConnectionDataSourceProxy(routing);
+        }
+    }
+}
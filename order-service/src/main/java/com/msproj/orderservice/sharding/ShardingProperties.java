@@ -0,0 +1,62 @@
+package com.msproj.orderservice.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Customer-sharded persistence settings (order.sharding.*).
+ * <p>
+ * Disabled, order-service uses the single spring.datasource. Enabled, every
+ * entry of shards is a separate database; shard names place the shard on the
+ * hash ring, so keep them stable when reordering or adding shards.
+ */
+@ConfigurationProperties(prefix = "order.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+    private int virtualNodes = 128;
+    // Create the schema and ID strides on every shard at startup (embedded/dev databases)
+    private boolean initializeSchema = false;
+    private List<Shard> shards = new ArrayList<>();
+
+    public static class Shard {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+
+        public String getDriverClassName() { return driverClassName; }
+        public void setDriverClassName(String driverClassName) { this.driverClassName = driverClassName; }
+
+        public int getMaximumPoolSize() { return maximumPoolSize; }
+        public void setMaximumPoolSize(int maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getVirtualNodes() { return virtualNodes; }
+    public void setVirtualNodes(int virtualNodes) { this.virtualNodes = virtualNodes; }
+
+    public boolean isInitializeSchema() { return initializeSchema; }
+    public void setInitializeSchema(boolean initializeSchema) { this.initializeSchema = initializeSchema; }
+
+    public List<Shard> getShards() { return shards; }
+    public void setShards(List<Shard> shards) { this.shards = shards; }
+}
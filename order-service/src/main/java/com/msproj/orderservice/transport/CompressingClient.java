@@ -0,0 +1,105 @@
+package com.msproj.orderservice.transport;
+
+import com.msproj.orderservice.config.HttpClientProperties;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Feign client decorator for gzip on both directions.
+ * <p>
+ * Responses: advertises Accept-Encoding: gzip and inflates gzip bodies the
+ * transport has not already decoded (Apache HttpClient decodes on its own,
+ * the JDK client does not).
+ * Requests: bodies of the configured mime types above the size threshold are
+ * gzipped and sent with Content-Encoding: gzip.
+ */
+public class CompressingClient implements Client {
+
+    private static final String GZIP = "gzip";
+
+    private final Client delegate;
+    private final HttpClientProperties.Compression compression;
+
+    public CompressingClient(Client delegate, HttpClientProperties.Compression compression) {
+        this.delegate = delegate;
+        this.compression = compression;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(request.headers());
+
+        if (compression.isResponseEnabled()) {
+            headers.putIfAbsent("Accept-Encoding", List.of(GZIP));
+        }
+
+        byte[] body = request.body();
+        boolean compressBody = compression.isRequestEnabled()
+                && body != null
+                && body.length >= compression.getMinRequestSize()
+                && !headers.containsKey("Content-Encoding")
+                && isCompressible(headers.get("Content-Type"));
+
+        Request outgoing = request;
+        if (compressBody) {
+            headers.put("Content-Encoding", List.of(GZIP));
+            // Let the transport set the length of the compressed body
+            headers.remove("Content-Length");
+            outgoing = Request.create(request.httpMethod(), request.url(), headers, gzip(body), null,
+                    request.requestTemplate());
+        } else if (headers.size() != request.headers().size()) {
+            outgoing = Request.create(request.httpMethod(), request.url(), headers, body, request.charset(),
+                    request.requestTemplate());
+        }
+
+        return inflate(delegate.execute(outgoing, options));
+    }
+
+    private boolean isCompressible(Collection<String> contentTypes) {
+        if (contentTypes == null) {
+            return false;
+        }
+        for (String contentType : contentTypes) {
+            for (String mimeType : compression.getMimeTypes()) {
+                if (contentType.toLowerCase(Locale.ROOT).startsWith(mimeType)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Response inflate(Response response) throws IOException {
+        Collection<String> encodings = response.headers().get("Content-Encoding");
+        if (response.body() == null || encodings == null
+                || encodings.stream().noneMatch(encoding -> encoding.equalsIgnoreCase(GZIP))) {
+            return response;
+        }
+
+        Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(response.headers());
+        headers.remove("Content-Encoding");
+        headers.remove("Content-Length");
+
+        return response.toBuilder()
+                .headers(headers)
+                .body(new GZIPInputStream(response.body().asInputStream()), null)
+                .build();
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(body);
+        }
+        return buffer.toByteArray();
+    }
+}
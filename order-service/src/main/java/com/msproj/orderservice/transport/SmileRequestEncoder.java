@@ -0,0 +1,42 @@
+package com.msproj.orderservice.transport;
+
+import feign.RequestTemplate;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+
+import java.lang.reflect.Type;
+
+/**
+ * Encoder decorator that sends object request bodies as Smile.
+ * <p>
+ * The Content-Type is fixed before delegating so SpringEncoder picks the
+ * Smile message converter, and the encoded body is marked binary (no charset)
+ * so transports send its bytes as they are; String and byte[] bodies pass
+ * through unchanged.
+ */
+public class SmileRequestEncoder implements Encoder {
+
+    public static final String SMILE = "application/x-jackson-smile";
+
+    private final Encoder delegate;
+
+    public SmileRequestEncoder(Encoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void encode(Object object, Type bodyType, RequestTemplate template) throws EncodeException {
+        boolean smile = object != null && !(object instanceof String) && !(object instanceof byte[]);
+        if (smile) {
+            template.removeHeader("Content-Type");
+            template.header("Content-Type", SMILE);
+        }
+        delegate.encode(object, bodyType, template);
+
+        if (smile) {
+            // SpringEncoder tags the body UTF-8; a charset marks it as text, which
+            // feign-hc5 sends as new String(body), mangling every byte above 0x7F
+            template.body(template.body(), null);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.msproj.orderservice;
+
+import com.msproj.orderservice.dto.CheckoutStatusDto;
+import com.msproj.orderservice.dto.CreateOrderRequestDto;
+import com.msproj.orderservice.entity.Order;
+import com.msproj.orderservice.entity.OrderStatus;
+import com.msproj.orderservice.repository.OrderDocumentStore;
+import com.msproj.orderservice.repository.OrderDocumentStore.DocumentRow;
+import com.msproj.orderservice.repository.OrderRepository;
+import com.msproj.orderservice.repository.SavedCartStore;
+import com.msproj.orderservice.repository.SavedCartStore.CartRow;
+import com.msproj.orderservice.service.CheckoutService;
+import com.msproj.orderservice.service.CheckoutWorker;
+import com.msproj.orderservice.sharding.ShardContext;
+import com.msproj.orderservice.sharding.ShardRouter;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Boots the full order-service context on embedded H2 databases, without
+ * Eureka, so startup failures (bean wiring, Feign capabilities, schema
+ * generation) fail the build instead of the first deployment.
+ * <p>
+ * OrderServiceApplicationTests needs the PostgreSQL database of the default
+ * configuration; these run anywhere.
+ */
+class OrderServiceContextTest {
+
+    @Nested
+    @SpringBootTest(properties = {
+            "spring.datasource.url=jdbc:h2:mem:orderdb_context;DB_CLOSE_DELAY=-1",
+            "spring.datasource.driver-class-name=org.h2.Driver",
+            "spring.datasource.username=sa",
+            "spring.datasource.password=",
+            "eureka.client.enabled=false"
+    })
+    @ActiveProfiles("test")
+    class SingleDatabase {
+
+        @Autowired
+        private CheckoutService checkoutService;
+
+        // Submissions are only stored; nothing is sent downstream
+        @MockBean
+        private CheckoutWorker checkoutWorker;
+
+        @Test
+        void contextLoads() {
+        }
+
+        @Test
+        void concurrentCheckoutsWithOneKeyShareTheFirstSubmission() throws Exception {
+            int clients = 4;
+            ExecutorService executor = Executors.newFixedThreadPool(clients);
+            CyclicBarrier start = new CyclicBarrier(clients);
+            try {
+                List<Future<CheckoutStatusDto>> submissions = new ArrayList<>();
+                for (int i = 0; i < clients; i++) {
+                    submissions.add(executor.submit(() -> {
+                        start.await();
+                        return checkoutService.submit(checkoutRequest(41L), "context-test-key");
+                    }));
+                }
+
+                Set<Long> checkoutIds = new HashSet<>();
+                for (Future<CheckoutStatusDto> submission : submissions) {
+                    checkoutIds.add(submission.get(10, TimeUnit.SECONDS).checkoutId());
+                }
+                assertThat(checkoutIds).hasSize(1);
+
+                // The key is the customer's own: another customer may use it too
+                assertThat(checkoutService.submit(checkoutRequest(42L), "context-test-key").checkoutId())
+                        .isNotIn(checkoutIds);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        private CreateOrderRequestDto checkoutRequest(Long customerId) {
+            CreateOrderRequestDto request = new CreateOrderRequestDto();
+            request.setCustomerId(customerId);
+            request.setNotes("context test");
+            return request;
+        }
+    }
+
+    @Nested
+    @SpringBootTest(properties = {
+            "spring.datasource.url=jdbc:h2:mem:orderdb_context_shards;DB_CLOSE_DELAY=-1",
+            "spring.datasource.driver-class-name=org.h2.Driver",
+            "spring.datasource.username=sa",
+            "spring.datasource.password=",
+            "eureka.client.enabled=false"
+    })
+    @AutoConfigureMockMvc
+    @ActiveProfiles({"test", "shards"})
+    class Sharded {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private OrderRepository orderRepository;
+
+        @Autowired
+        private ShardRouter shardRouter;
+
+        @Test
+        void contextLoads() {
+        }
+
+        // Through MockMvc, so a request-scoped EntityManager would pin the request to the first shard
+        @Test
+        void bulkStatusUpdateReachesEveryShard() throws Exception {
+            Order first = processingOrderOn(1);
+            Order second = processingOrderOn(2);
+            assertThat(shardRouter.shardForRecordId(first.getId())).isEqualTo(1);
+            assertThat(shardRouter.shardForRecordId(second.getId())).isEqualTo(2);
+
+            mockMvc.perform(post("/api/orders/status/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"transitions": [
+                                        {"orderId": %d, "newStatus": "SHIPPED"},
+                                        {"orderId": %d, "newStatus": "SHIPPED"}
+                                    ]}""".formatted(first.getId(), second.getId())))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.updated").value(2));
+
+            assertThat(statusOn(1, first.getId())).isEqualTo(OrderStatus.SHIPPED);
+            assertThat(statusOn(2, second.getId())).isEqualTo(OrderStatus.SHIPPED);
+        }
+
+        private Order processingOrderOn(int shard) {
+            Order order = new Order(43L, "Context Test", "context@test.com");
+            order.setStatus(OrderStatus.PROCESSING);
+            return ShardContext.callOn(shard, () -> orderRepository.save(order));
+        }
+
+        private OrderStatus statusOn(int shard, Long orderId) {
+            return ShardContext.callOn(shard, () -> orderRepository.findById(orderId).orElseThrow().getStatus());
+        }
+    }
+
+    @Nested
+    @SpringBootTest(properties = "eureka.client.enabled=false")
+    @ActiveProfiles({"test", "replicas"})
+    class ReadReplicas {
+
+        @Autowired
+        private OrderDocumentStore orderDocumentStore;
+
+        @Autowired
+        private SavedCartStore savedCartStore;
+
+        @Test
+        void contextLoads() {
+        }
+
+        @Test
+        void documentUpsertKeepsTheNewestVersion() {
+            LocalDateTime orderDate = LocalDateTime.now();
+            orderDocumentStore.upsertAll(List.of(
+                    new DocumentRow(900_001L, 7L, orderDate, OrderStatus.PENDING, 1, new byte[]{1})));
+            orderDocumentStore.upsertAll(List.of(
+                    new DocumentRow(900_001L, 7L, orderDate, OrderStatus.CONFIRMED, 2, new byte[]{2})));
+            orderDocumentStore.upsertAll(List.of(
+                    new DocumentRow(900_001L, 7L, orderDate, OrderStatus.PENDING, 1, new byte[]{1})));
+
+            assertThat(orderDocumentStore.findDocument(900_001L)).hasValueSatisfying(
+                    document -> assertThat(document).containsExactly(2));
+        }
+
+        @Test
+        void cursorIsCreatedOnce() {
+            orderDocumentStore.createCursorIfAbsent("context-test");
+            orderDocumentStore.updateCursor("context-test", new OrderDocumentStore.CursorState(42, null, -1, 0));
+            orderDocumentStore.createCursorIfAbsent("context-test");
+
+            assertThat(orderDocumentStore.readCursor("context-test"))
+                    .hasValueSatisfying(cursor -> assertThat(cursor.position()).isEqualTo(42));
+        }
+
+        @Test
+        void cartUpsertKeepsTheNewestVersion() {
+            LocalDateTime expiresAt = LocalDateTime.now().plusDays(1);
+            savedCartStore.upsertAll(List.of(new CartRow(900_001L, 1, new byte[]{1}, expiresAt)));
+            savedCartStore.upsertAll(List.of(new CartRow(900_001L, 3, new byte[]{3}, expiresAt)));
+            savedCartStore.upsertAll(List.of(new CartRow(900_001L, 2, new byte[]{2}, expiresAt)));
+
+            assertThat(savedCartStore.find(900_001L)).hasValueSatisfying(cart -> {
+                assertThat(cart.version()).isEqualTo(3);
+                assertThat(cart.lines()).containsExactly(3);
+            });
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.msproj.orderservice.coalescing;
+
+import com.msproj.servicesupport.deadline.RequestDeadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * MicroBatcher: lookups in one window share a batch call, large lookups are
+ * split at maxBatchSize, and batch failures reach every caller in the batch.
+ */
+class MicroBatcherTest {
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(300);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<Set<Long>> loaded = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void lookupsInOneWindowShareABatchCall() throws Exception {
+        MicroBatcher<Long, String> batcher = batcher(this::names, 100);
+        CyclicBarrier start = new CyclicBarrier(3);
+
+        Future<Map<Long, String>> first = executor.submit(() -> {
+            start.await();
+            return batcher.getAll(List.of(1L, 2L));
+        });
+        Future<Map<Long, String>> second = executor.submit(() -> {
+            start.await();
+            return batcher.getAll(List.of(2L, 3L));
+        });
+        Future<Map<Long, String>> third = executor.submit(() -> {
+            start.await();
+            return batcher.getAll(List.of(3L, 4L));
+        });
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).containsOnly(Map.entry(1L, "p1"), Map.entry(2L, "p2"));
+        assertThat(second.get(5, TimeUnit.SECONDS)).containsOnly(Map.entry(2L, "p2"), Map.entry(3L, "p3"));
+        assertThat(third.get(5, TimeUnit.SECONDS)).containsOnly(Map.entry(3L, "p3"), Map.entry(4L, "p4"));
+        assertThat(loaded).containsExactly(Set.of(1L, 2L, 3L, 4L));
+        assertThat(batcher.getRequestedKeys()).isEqualTo(6);
+        assertThat(batcher.getLoadedKeys()).isEqualTo(4);
+    }
+
+    @Test
+    void largeLookupsAreSplitAtMaxBatchSize() {
+        MicroBatcher<Long, String> batcher = batcher(this::names, 2);
+
+        Map<Long, String> values = batcher.getAll(List.of(1L, 2L, 3L, 4L, 5L, 5L));
+
+        assertThat(values).containsOnlyKeys(1L, 2L, 3L, 4L, 5L);
+        assertThat(loaded).containsExactly(Set.of(1L, 2L), Set.of(3L, 4L), Set.of(5L));
+        assertThat(batcher.getBatches()).isEqualTo(3);
+    }
+
+    @Test
+    void missingKeysAreLeftOut() {
+        MicroBatcher<Long, String> batcher = batcher(keys -> names(Set.of(1L)), 100);
+
+        assertThat(batcher.getAll(List.of(1L, 2L))).containsOnlyKeys(1L);
+    }
+
+    @Test
+    void batchFailuresReachEveryCallerInTheBatch() throws Exception {
+        MicroBatcher<Long, String> batcher = batcher(keys -> {
+            throw new StackOverflowError("batch");
+        }, 100);
+        CyclicBarrier start = new CyclicBarrier(2);
+
+        Future<Map<Long, String>> first = executor.submit(() -> {
+            start.await();
+            return batcher.getAll(List.of(1L));
+        });
+        Future<Map<Long, String>> second = executor.submit(() -> {
+            start.await();
+            return batcher.getAll(List.of(1L, 2L));
+        });
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        assertThat(batcher.getBatches()).isEqualTo(1);
+    }
+
+    @Test
+    void followersLoadForThemselvesWhenTheirDeadlineComesFirst() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        MicroBatcher<Long, String> batcher = batcher(keys -> {
+            if (first.getAndSet(false)) {
+                await(release);
+            }
+            return names(keys);
+        }, 1);
+
+        Future<Map<Long, String>> leader = executor.submit(() -> batcher.getAll(List.of(1L)));
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(WINDOW_NANOS) + 100);
+        Future<Map<Long, String>> follower = executor.submit(() -> {
+            RequestDeadline.set(System.currentTimeMillis() + 100);
+            try {
+                return batcher.getAll(List.of(1L));
+            } finally {
+                RequestDeadline.clear();
+            }
+        });
+
+        assertThat(follower.get(5, TimeUnit.SECONDS)).containsOnly(Map.entry(1L, "p1"));
+        assertThat(leader).isNotDone();
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).containsOnly(Map.entry(1L, "p1"));
+    }
+
+    private MicroBatcher<Long, String> batcher(Function<Set<Long>, Map<Long, String>> loader, int maxBatchSize) {
+        return new MicroBatcher<>(keys -> {
+            loaded.add(Set.copyOf(keys));
+            return loader.apply(keys);
+        }, failure -> false, WINDOW_NANOS, maxBatchSize);
+    }
+
+    private Map<Long, String> names(Set<Long> keys) {
+        return keys.stream().collect(Collectors.toMap(Function.identity(), key -> "p" + key));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.msproj.orderservice.coalescing;
+
+import com.msproj.servicesupport.deadline.RequestDeadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * SingleFlight: concurrent callers for a key share one call, its failures
+ * reach them all, and each follower is bounded by its own deadline.
+ */
+class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final SingleFlight<Long, String> singleFlight =
+            new SingleFlight<>(failure -> failure instanceof LeaderOnlyException);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+            calls.incrementAndGet();
+            await(release);
+            return "user-1";
+        }));
+        awaitRequests(1);
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                calls.incrementAndGet();
+                return "own call";
+            })));
+        }
+        awaitRequests(6);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("user-1");
+        for (Future<String> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("user-1");
+        }
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(singleFlight.getExecutions()).isEqualTo(1);
+    }
+
+    @Test
+    void errorsReachEveryCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+            await(release);
+            throw new StackOverflowError("leader");
+        }));
+        awaitRequests(1);
+        Future<String> follower = executor.submit(() -> singleFlight.execute(1L, () -> "own call"));
+        awaitRequests(2);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        assertThat(singleFlight.getExecutions()).isEqualTo(1);
+    }
+
+    @Test
+    void callerSpecificFailuresAreRetriedByEachFollower() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+            await(release);
+            throw new LeaderOnlyException();
+        }));
+        awaitRequests(1);
+        Future<String> follower = executor.submit(() -> singleFlight.execute(1L, () -> "own call"));
+        awaitRequests(2);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(LeaderOnlyException.class);
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("own call");
+        assertThat(singleFlight.getExecutions()).isEqualTo(2);
+    }
+
+    @Test
+    void followersStopWaitingAtTheirOwnDeadline() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+            await(release);
+            return "user-1";
+        }));
+        awaitRequests(1);
+        Future<String> follower = executor.submit(() -> {
+            RequestDeadline.set(System.currentTimeMillis() + 100);
+            try {
+                return singleFlight.execute(1L, () -> "own call");
+            } finally {
+                RequestDeadline.clear();
+            }
+        });
+
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("own call");
+        assertThat(leader).isNotDone();
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("user-1");
+    }
+
+    private void awaitRequests(long requests) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getRequests() < requests && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        // Give the last caller time to get from counting to waiting
+        Thread.sleep(50);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class LeaderOnlyException extends RuntimeException {
+    }
+}
@@ -0,0 +1,287 @@
+package com.msproj.orderservice.pricing;
+
+import com.msproj.orderservice.entity.PricingRuleType;
+import com.msproj.orderservice.entity.ShippingAddress;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Compiled tier x region x category tables against the rule definitions.
+ * <p>
+ * The reference below reads the definitions by name, rule by rule, the way
+ * the class javadoc states the semantics; every compiled lookup of seeded
+ * random rule sets, including names no rule mentions, has to agree with it.
+ */
+class CompiledPricingRulesTest {
+
+    private static final String[] COUNTRIES = {"US", "CA", "DE"};
+    private static final String[] STATES = {"CA", "NY", "ON", "BY"};
+    private static final String[] TIERS = {"GOLD", "PLATINUM", "SILVER"};
+    private static final String[] CATEGORIES = {"Books", "Toys", "Garden"};
+
+    // Lookups also use names that no rule mentions
+    private static final String[] LOOKUP_COUNTRIES = {"US", "CA", "DE", "FR", null};
+    private static final String[] LOOKUP_STATES = {"CA", "NY", "ON", "BY", "TX", null};
+    private static final String[] LOOKUP_TIERS = {"GOLD", "PLATINUM", "SILVER", "BRONZE", null};
+    private static final String[] LOOKUP_CATEGORIES = {"Books", "Toys", "Garden", "Food", null};
+
+    @Test
+    void compiledLookupsMatchTheRuleDefinitions() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int set = 0; set < 300; set++) {
+            List<PricingRuleDefinition> definitions = randomRules(random, random.nextInt(40));
+            CompiledPricingRules compiled = CompiledPricingRules.compile(definitions, set);
+
+            for (String country : LOOKUP_COUNTRIES) {
+                for (String state : LOOKUP_STATES) {
+                    int region = compiled.region(address(country, state));
+                    for (String category : LOOKUP_CATEGORIES) {
+                        int categoryId = compiled.category(category);
+                        assertThat(compiled.taxRate(region, categoryId))
+                                .as("tax %s-%s %s in %s", country, state, category, definitions)
+                                .isEqualTo(expectedTax(definitions, country, state, category));
+
+                        for (String tier : LOOKUP_TIERS) {
+                            assertThat(compiled.discountRate(compiled.tier(tier), region, categoryId))
+                                    .as("discount %s %s-%s %s in %s", tier, country, state, category, definitions)
+                                    .isEqualTo(expectedDiscount(definitions, tier, country, state, category));
+                        }
+                    }
+
+                    PricingRuleDefinition shipping = expectedShipping(definitions, country, state);
+                    for (long itemTotal : new long[]{0, 4_999, 5_000, 10_000, Long.MAX_VALUE - 1}) {
+                        long expected = shipping == null ? 0
+                                : shipping.threshold() != null && itemTotal >= Money.toCents(shipping.threshold()) ? 0
+                                : Money.toCents(shipping.amount());
+                        assertThat(compiled.shipping(region, itemTotal))
+                                .as("shipping %s-%s at %d in %s", country, state, itemTotal, definitions)
+                                .isEqualTo(expected);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void mostSpecificRegionBeatsCategory() {
+        CompiledPricingRules compiled = compile(
+                tax(null, null, "0.01"),
+                tax(null, "Books", "0.02"),
+                tax("US", null, "0.03"),
+                tax("US", "Books", "0.04"),
+                tax("US-CA", null, "0.05"));
+
+        int books = compiled.category("Books");
+        assertThat(compiled.taxRate(compiled.region(address("US", "CA")), books)).isEqualTo(50_000);
+        assertThat(compiled.taxRate(compiled.region(address("US", "NY")), books)).isEqualTo(40_000);
+        assertThat(compiled.taxRate(compiled.region(address("US", "NY")), 0)).isEqualTo(30_000);
+        assertThat(compiled.taxRate(compiled.region(address("DE", null)), books)).isEqualTo(20_000);
+        assertThat(compiled.taxRate(compiled.region(address("DE", null)), 0)).isEqualTo(10_000);
+    }
+
+    @Test
+    void laterRuleWinsOnEqualSpecificity() {
+        CompiledPricingRules compiled = compile(
+                tax("US", null, "0.05"),
+                tax("US", null, "0.07"),
+                shipping("US", "5.00", null),
+                shipping("US", "7.00", "50.00"));
+
+        int us = compiled.region(address("US", null));
+        assertThat(compiled.taxRate(us, 0)).isEqualTo(70_000);
+        assertThat(compiled.shipping(us, 4_999)).isEqualTo(700);
+        assertThat(compiled.shipping(us, 5_000)).isZero();
+    }
+
+    @Test
+    void discountsStackAcrossScopesAndCapAtOneHundredPercent() {
+        CompiledPricingRules compiled = compile(
+                discount("GOLD", null, null, "0.10"),
+                discount(null, "US", null, "0.05"),
+                discount("GOLD", "US-CA", "Toys", "0.20"),
+                discount(null, null, "Toys", "0.70"));
+
+        int gold = compiled.tier("GOLD");
+        int toys = compiled.category("Toys");
+        int california = compiled.region(address("US", "CA"));
+
+        assertThat(compiled.discountRate(gold, california, 0)).isEqualTo(150_000);
+        assertThat(compiled.discountRate(0, california, toys)).isEqualTo(750_000);
+        assertThat(compiled.discountRate(gold, compiled.region(address("DE", null)), toys)).isEqualTo(800_000);
+        assertThat(compiled.discountRate(gold, california, toys)).isEqualTo(Money.RATE_SCALE);
+    }
+
+    @Test
+    void unknownNamesFallBackToTheGlobalCells() {
+        CompiledPricingRules compiled = CompiledPricingRules.compile(new PricingRulesProperties().toDefinitions(), 0);
+
+        int region = compiled.region(address("FR", "IDF"));
+        assertThat(region).isZero();
+        assertThat(compiled.region(null)).isZero();
+        assertThat(compiled.tier("BRONZE")).isZero();
+        assertThat(compiled.tier(null)).isZero();
+        assertThat(compiled.category("Food")).isZero();
+
+        assertThat(compiled.taxRate(region, 0)).isEqualTo(85_000);
+        assertThat(compiled.discountRate(0, region, 0)).isZero();
+        assertThat(compiled.discountRate(compiled.tier("PLATINUM"), region, 0)).isEqualTo(150_000);
+        assertThat(compiled.shipping(region, 9_999)).isEqualTo(999);
+        assertThat(compiled.shipping(region, 10_000)).isZero();
+    }
+
+    @Test
+    void unknownStateFallsBackToItsCountry() {
+        CompiledPricingRules compiled = compile(tax("US", null, "0.06"), tax("US-CA", null, "0.0725"));
+
+        assertThat(compiled.region(address("US", "TX"))).isEqualTo(compiled.region(address("US", null)));
+        assertThat(compiled.taxRate(compiled.region(address("US", "TX")), 0)).isEqualTo(60_000);
+        assertThat(compiled.taxRate(compiled.region(address("US", "CA")), 0)).isEqualTo(72_500);
+    }
+
+    @Test
+    void noRulesMeansNoTaxDiscountOrShipping() {
+        CompiledPricingRules compiled = CompiledPricingRules.compile(List.of(), 0);
+
+        assertThat(compiled.taxRate(0, 0)).isZero();
+        assertThat(compiled.discountRate(0, 0, 0)).isZero();
+        assertThat(compiled.shipping(0, 0)).isZero();
+        assertThat(compiled.getRegionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidRulesAreRejectedByName() {
+        assertThatThrownBy(() -> compile(tax(null, null, "1.5")))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("rule-0");
+        assertThatThrownBy(() -> compile(new PricingRuleDefinition(PricingRuleType.TAX, null, "GOLD", null,
+                new BigDecimal("0.05"), null, null, "tiered-tax")))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("tiered-tax");
+        assertThatThrownBy(() -> compile(new PricingRuleDefinition(PricingRuleType.SHIPPING, null, null, "Books",
+                null, BigDecimal.ONE, null, "category-shipping")))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("category-shipping");
+        assertThatThrownBy(() -> compile(tax("US-", null, "0.05")))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("COUNTRY-STATE");
+    }
+
+    // Reference semantics, straight from the definitions
+
+    private static long expectedTax(List<PricingRuleDefinition> rules, String country, String state,
+                                    String category) {
+        PricingRuleDefinition best = null;
+        int bestScore = -1;
+        for (PricingRuleDefinition rule : rules) {
+            if (rule.type() == PricingRuleType.TAX && matchesRegion(rule, country, state)
+                    && (rule.category() == null || rule.category().equals(category))) {
+                int score = regionLevel(rule) * 2 + (rule.category() != null ? 1 : 0);
+                if (score >= bestScore) {
+                    best = rule;
+                    bestScore = score;
+                }
+            }
+        }
+        return best != null ? Money.toRate(best.rate()) : 0;
+    }
+
+    private static long expectedDiscount(List<PricingRuleDefinition> rules, String tier, String country,
+                                         String state, String category) {
+        long rate = 0;
+        for (PricingRuleDefinition rule : rules) {
+            if (rule.type() == PricingRuleType.DISCOUNT && matchesRegion(rule, country, state)
+                    && (rule.tier() == null || rule.tier().equals(tier))
+                    && (rule.category() == null || rule.category().equals(category))) {
+                rate += Money.toRate(rule.rate());
+            }
+        }
+        return Math.min(rate, Money.RATE_SCALE);
+    }
+
+    private static PricingRuleDefinition expectedShipping(List<PricingRuleDefinition> rules, String country,
+                                                          String state) {
+        PricingRuleDefinition best = null;
+        int bestLevel = -1;
+        for (PricingRuleDefinition rule : rules) {
+            if (rule.type() == PricingRuleType.SHIPPING && matchesRegion(rule, country, state)
+                    && regionLevel(rule) >= bestLevel) {
+                best = rule;
+                bestLevel = regionLevel(rule);
+            }
+        }
+        return best;
+    }
+
+    private static boolean matchesRegion(PricingRuleDefinition rule, String country, String state) {
+        return rule.region() == null
+                || rule.region().equals(country)
+                || (country != null && state != null && rule.region().equals(country + "-" + state));
+    }
+
+    private static int regionLevel(PricingRuleDefinition rule) {
+        return rule.region() == null ? 0 : rule.region().contains("-") ? 2 : 1;
+    }
+
+    // Rule sets
+
+    private static List<PricingRuleDefinition> randomRules(SplittableRandom random, int count) {
+        List<PricingRuleDefinition> rules = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String region = switch (random.nextInt(3)) {
+                case 0 -> null;
+                case 1 -> pick(random, COUNTRIES);
+                default -> pick(random, COUNTRIES) + "-" + pick(random, STATES);
+            };
+            String category = random.nextBoolean() ? null : pick(random, CATEGORIES);
+            // Up to seven decimals, so toRate's rounding is part of what is compared
+            BigDecimal rate = BigDecimal.valueOf(random.nextLong(3_000_000), 7);
+
+            rules.add(switch (random.nextInt(3)) {
+                case 0 -> new PricingRuleDefinition(PricingRuleType.TAX, region, null, category, rate,
+                        null, null, "rule-" + i);
+                case 1 -> new PricingRuleDefinition(PricingRuleType.DISCOUNT, region,
+                        random.nextBoolean() ? null : pick(random, TIERS), category, rate, null, null, "rule-" + i);
+                default -> new PricingRuleDefinition(PricingRuleType.SHIPPING, region, null, null, null,
+                        BigDecimal.valueOf(random.nextLong(2_000), 2),
+                        random.nextBoolean() ? null : BigDecimal.valueOf(random.nextLong(20_000), 2), "rule-" + i);
+            });
+        }
+        return rules;
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static CompiledPricingRules compile(PricingRuleDefinition... rules) {
+        List<PricingRuleDefinition> definitions = new ArrayList<>();
+        for (int i = 0; i < rules.length; i++) {
+            PricingRuleDefinition rule = rules[i];
+            definitions.add(rule.source() != null ? rule : new PricingRuleDefinition(rule.type(), rule.region(),
+                    rule.tier(), rule.category(), rule.rate(), rule.amount(), rule.threshold(), "rule-" + i));
+        }
+        return CompiledPricingRules.compile(definitions, 1);
+    }
+
+    private static PricingRuleDefinition tax(String region, String category, String rate) {
+        return new PricingRuleDefinition(PricingRuleType.TAX, region, null, category, new BigDecimal(rate),
+                null, null, null);
+    }
+
+    private static PricingRuleDefinition discount(String tier, String region, String category, String rate) {
+        return new PricingRuleDefinition(PricingRuleType.DISCOUNT, region, tier, category, new BigDecimal(rate),
+                null, null, null);
+    }
+
+    private static PricingRuleDefinition shipping(String region, String amount, String threshold) {
+        return new PricingRuleDefinition(PricingRuleType.SHIPPING, region, null, null, null,
+                new BigDecimal(amount), threshold != null ? new BigDecimal(threshold) : null, null);
+    }
+
+    private static ShippingAddress address(String country, String state) {
+        return new ShippingAddress("Jane Doe", "1 Main St", "Springfield", state, "12345", country);
+    }
+}
@@ -0,0 +1,123 @@
+package com.msproj.orderservice.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Money's fixed-point conversions and division, checked against BigDecimal.
+ */
+class MoneyTest {
+
+    private static final RoundingMode[] ROUNDING_MODES = {
+            RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR,
+            RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN};
+
+    @Test
+    void toCentsRoundsHalfCentsAwayFromZero() {
+        assertThat(Money.toCents(new BigDecimal("0.005"))).isEqualTo(1);
+        assertThat(Money.toCents(new BigDecimal("0.004999"))).isZero();
+        assertThat(Money.toCents(new BigDecimal("2.675"))).isEqualTo(268);
+        assertThat(Money.toCents(new BigDecimal("-0.005"))).isEqualTo(-1);
+        assertThat(Money.toCents(new BigDecimal("-2.675"))).isEqualTo(-268);
+        assertThat(Money.toCents(new BigDecimal("-2.674"))).isEqualTo(-267);
+    }
+
+    @Test
+    void toCentsTreatsNullAsZero() {
+        assertThat(Money.toCents(null)).isZero();
+    }
+
+    @Test
+    void toDecimalKeepsTwoDecimals() {
+        assertThat(Money.toDecimal(199)).isEqualByComparingTo("1.99").hasScaleOf(2);
+        assertThat(Money.toDecimal(-5)).isEqualByComparingTo("-0.05").hasScaleOf(2);
+        assertThat(Money.toDecimal(0)).hasScaleOf(2);
+    }
+
+    @Test
+    void toRateRoundsBeyondSixDecimals() {
+        assertThat(Money.toRate(new BigDecimal("0.085"))).isEqualTo(85_000);
+        assertThat(Money.toRate(new BigDecimal("0.0000005"))).isEqualTo(1);
+        assertThat(Money.toRate(new BigDecimal("0.0000004"))).isZero();
+        assertThat(Money.toRate(BigDecimal.ONE)).isEqualTo(Money.RATE_SCALE);
+    }
+
+    @Test
+    void divideMatchesBigDecimalAroundEveryHalf() {
+        for (long divisor : new long[]{1, 2, 3, 4, 10, 100, Money.RATE_SCALE}) {
+            for (long dividend = -3 * divisor - 3; dividend <= 3 * divisor + 3; dividend++) {
+                assertDivideMatchesBigDecimal(dividend, divisor);
+            }
+        }
+    }
+
+    @Test
+    void divideMatchesBigDecimalOnExactHalves() {
+        // x.5 cents after dividing by the rate scale, on both sides of zero and on even and odd quotients
+        for (long cents = -5; cents <= 5; cents++) {
+            long dividend = cents * Money.RATE_SCALE + Money.RATE_SCALE / 2;
+            assertDivideMatchesBigDecimal(dividend, Money.RATE_SCALE);
+            assertDivideMatchesBigDecimal(-dividend, Money.RATE_SCALE);
+        }
+    }
+
+    @Test
+    void divideHalfUpRoundsNegativeHalvesAwayFromZero() {
+        assertThat(Money.divide(5, 10, RoundingMode.HALF_UP)).isEqualTo(1);
+        assertThat(Money.divide(-5, 10, RoundingMode.HALF_UP)).isEqualTo(-1);
+        assertThat(Money.divide(-4, 10, RoundingMode.HALF_UP)).isZero();
+        assertThat(Money.divide(-15, 10, RoundingMode.HALF_EVEN)).isEqualTo(-2);
+        assertThat(Money.divide(-25, 10, RoundingMode.HALF_EVEN)).isEqualTo(-2);
+    }
+
+    @Test
+    void divideNearTheLongRangeDoesNotOverflow() {
+        long[] dividends = {Long.MAX_VALUE, Long.MAX_VALUE - 1, Long.MIN_VALUE + 1, Long.MIN_VALUE,
+                Long.MAX_VALUE / 2, Long.MIN_VALUE / 2};
+        long[] divisors = {Long.MAX_VALUE, Long.MAX_VALUE - 1, Long.MAX_VALUE / 2 + 1, 3, Money.RATE_SCALE};
+        for (long dividend : dividends) {
+            for (long divisor : divisors) {
+                assertDivideMatchesBigDecimal(dividend, divisor);
+            }
+        }
+    }
+
+    @Test
+    void divideUnnecessaryThrowsOnlyWhenRoundingIsNeeded() {
+        assertThat(Money.divide(300, 100, RoundingMode.UNNECESSARY)).isEqualTo(3);
+        assertThatThrownBy(() -> Money.divide(301, 100, RoundingMode.UNNECESSARY))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void toCentsOverflowThrows() {
+        BigDecimal tooLarge = BigDecimal.valueOf(Long.MAX_VALUE).movePointLeft(2).add(new BigDecimal("0.01"));
+
+        assertThat(Money.toCents(BigDecimal.valueOf(Long.MAX_VALUE).movePointLeft(2))).isEqualTo(Long.MAX_VALUE);
+        assertThatThrownBy(() -> Money.toCents(tooLarge)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.toCents(tooLarge.negate().subtract(new BigDecimal("0.01"))))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void toRateOverflowThrows() {
+        assertThatThrownBy(() -> Money.toRate(BigDecimal.valueOf(Long.MAX_VALUE)))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    private static void assertDivideMatchesBigDecimal(long dividend, long divisor) {
+        for (RoundingMode mode : ROUNDING_MODES) {
+            long expected = BigDecimal.valueOf(dividend)
+                    .divide(BigDecimal.valueOf(divisor), 0, mode)
+                    .longValueExact();
+            assertThat(Money.divide(dividend, divisor, mode))
+                    .as("%d / %d %s", dividend, divisor, mode)
+                    .isEqualTo(expected);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.msproj.orderservice.pricing;
+
+import com.msproj.orderservice.entity.Order;
+import com.msproj.orderservice.entity.OrderItem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building and pricing a new order: the fixed-point OrderPricingEngine
+ * against the former BigDecimal path, which re-summed every line on each
+ * addOrderItem and priced tax, shipping and discount from doubles. The engine
+ * runs the default rules compiled from PricingRulesProperties.
+ * <p>
+ * Run main() from the IDE, or after mvn test-compile:
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) com.msproj.orderservice.pricing.OrderPricingBenchmark
+ * </pre>
+ * (cp.txt from mvn dependency:build-classpath -Dmdep.outputFile=cp.txt).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderPricingBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int lines;
+
+    @Param({"GOLD"})
+    public String customerTier;
+
+    private final OrderPricingEngine engine = new OrderPricingEngine(new PricingRulesProperties());
+
+    private BigDecimal[] unitPrices;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        unitPrices = new BigDecimal[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            unitPrices[i] = new BigDecimal("4.99").add(BigDecimal.valueOf(i % 97, 2).multiply(BigDecimal.TEN));
+            quantities[i] = 1 + i % 4;
+        }
+    }
+
+    @Benchmark
+    public Order fixedPoint() {
+        Order order = new Order(42L, "Jane Doe", "jdoe@example.com");
+        for (int i = 0; i < lines; i++) {
+            order.addOrderItem(item(i));
+        }
+
+        engine.price(order, customerTier);
+        return order;
+    }
+
+    @Benchmark
+    public Order bigDecimal() {
+        Order order = new Order(42L, "Jane Doe", "jdoe@example.com");
+        for (int i = 0; i < lines; i++) {
+            OrderItem item = item(i);
+            item.calculateSubtotal();
+            order.addOrderItem(item);
+            order.recalculateTotals();
+        }
+
+        order.setShippingAmount(order.getTotalAmount().compareTo(BigDecimal.valueOf(100)) >= 0
+                ? BigDecimal.ZERO : BigDecimal.valueOf(9.99));
+        order.setTaxAmount(order.getTotalAmount().multiply(BigDecimal.valueOf(0.085)));
+        if ("GOLD".equals(customerTier) || "PLATINUM".equals(customerTier)) {
+            BigDecimal discountPercent = "PLATINUM".equals(customerTier)
+                    ? BigDecimal.valueOf(0.15) : BigDecimal.valueOf(0.10);
+            order.setDiscountAmount(order.getTotalAmount().multiply(discountPercent));
+        }
+        order.recalculateTotals();
+        return order;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderPricingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private OrderItem item(int i) {
+        return new OrderItem((long) i, "Product " + i, "SKU-" + (10000 + i), unitPrices[i], quantities[i]);
+    }
+}
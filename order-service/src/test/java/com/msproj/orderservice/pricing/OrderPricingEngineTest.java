@@ -0,0 +1,156 @@
+package com.msproj.orderservice.pricing;
+
+import com.msproj.orderservice.entity.Order;
+import com.msproj.orderservice.entity.OrderItem;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * OrderPricingEngine on the default rules, against the BigDecimal path it
+ * replaced: tax and discount taken on the item total at 8.5% and 10%/15%
+ * (GOLD/PLATINUM), $9.99 shipping below $100, each amount stored rounded
+ * half-up to the cent. The final amount is the sum of the rounded components.
+ */
+class OrderPricingEngineTest {
+
+    private static final String[] TIERS = {null, "BRONZE", "SILVER", "GOLD", "PLATINUM"};
+
+    private final OrderPricingEngine engine = new OrderPricingEngine(new PricingRulesProperties());
+
+    @Test
+    void matchesTheBigDecimalPathOnRepresentativeOrders() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int n = 0; n < 2_000; n++) {
+            Order order = new Order(42L, "Jane Doe", "jdoe@example.com");
+            int lines = 1 + random.nextInt(12);
+            for (int i = 0; i < lines; i++) {
+                BigDecimal unitPrice = BigDecimal.valueOf(1 + random.nextLong(50_000), 2);
+                OrderItem item = item(i, unitPrice, 1 + random.nextInt(5));
+                if (random.nextInt(10) == 0) {
+                    item.setDiscountAmount(BigDecimal.valueOf(random.nextLong(100), 2));
+                }
+                order.addOrderItem(item);
+            }
+            String tier = TIERS[random.nextInt(TIERS.length)];
+
+            assertPricedLikeBigDecimal(order, tier);
+        }
+    }
+
+    @Test
+    void roundsHalfCentTaxAndDiscountUp() {
+        // $1.00: tax 0.085, GOLD discount 0.10
+        Order dollar = order(new BigDecimal("1.00"));
+        engine.price(dollar, "GOLD");
+        assertThat(dollar.getTaxAmount()).isEqualByComparingTo("0.09");
+        assertThat(dollar.getDiscountAmount()).isEqualByComparingTo("0.10");
+
+        // $0.05: GOLD discount 0.005, tax 0.00425
+        Order nickel = order(new BigDecimal("0.05"));
+        engine.price(nickel, "GOLD");
+        assertThat(nickel.getDiscountAmount()).isEqualByComparingTo("0.01");
+        assertThat(nickel.getTaxAmount()).isEqualByComparingTo("0.00");
+
+        // $0.10: PLATINUM discount 0.015
+        Order dime = order(new BigDecimal("0.10"));
+        engine.price(dime, "PLATINUM");
+        assertThat(dime.getDiscountAmount()).isEqualByComparingTo("0.02");
+        assertThat(dime.getFinalAmount()).isEqualByComparingTo("10.08");
+    }
+
+    @Test
+    void roundsOncePerOrderNotPerLine() {
+        // Three lines of $0.10 carry 0.0085 tax each; rounded per line they would add up to 0.03
+        Order order = new Order(42L, "Jane Doe", "jdoe@example.com");
+        for (int i = 0; i < 3; i++) {
+            order.addOrderItem(item(i, new BigDecimal("0.10"), 1));
+        }
+
+        engine.price(order, null);
+
+        assertThat(order.getTaxAmount()).isEqualByComparingTo("0.03");
+        assertPricedLikeBigDecimal(order, null);
+    }
+
+    @Test
+    void negativeLineSubtotalsRoundHalfAwayFromZero() {
+        // An item discount larger than the line: -0.10 subtotal, -0.0085 tax and -0.01 GOLD discount
+        Order order = order(new BigDecimal("0.10"));
+        order.getOrderItems().get(0).setDiscountAmount(new BigDecimal("0.20"));
+
+        engine.price(order, "GOLD");
+
+        assertThat(order.getTotalAmount()).isEqualByComparingTo("-0.10");
+        assertThat(order.getTaxAmount()).isEqualByComparingTo("-0.01");
+        assertThat(order.getDiscountAmount()).isEqualByComparingTo("-0.01");
+        assertPricedLikeBigDecimal(order, "GOLD");
+    }
+
+    @Test
+    void freeShippingStartsAtTheThreshold() {
+        Order below = order(new BigDecimal("99.99"));
+        engine.price(below, null);
+        assertThat(below.getShippingAmount()).isEqualByComparingTo("9.99");
+
+        Order at = order(new BigDecimal("100.00"));
+        engine.price(at, null);
+        assertThat(at.getShippingAmount()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void lineOverflowThrowsInsteadOfWrapping() {
+        Order order = new Order(42L, "Jane Doe", "jdoe@example.com");
+        order.addOrderItem(item(0, new BigDecimal("1000000000000000.00"), 1_000));
+
+        assertThatThrownBy(() -> engine.price(order, null)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void rateProductOverflowThrowsInsteadOfWrapping() {
+        // 2 * 10^14 cents fits a long, times the 85_000 tax rate does not
+        Order order = order(BigDecimal.valueOf(200_000_000_000_000L, 2));
+
+        assertThatThrownBy(() -> engine.price(order, null)).isInstanceOf(ArithmeticException.class);
+    }
+
+    private void assertPricedLikeBigDecimal(Order order, String tier) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderItem item : order.getOrderItems()) {
+            total = total.add(item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity()))
+                    .subtract(item.getDiscountAmount()));
+        }
+        BigDecimal discountRate = "PLATINUM".equals(tier) ? new BigDecimal("0.15")
+                : "GOLD".equals(tier) ? new BigDecimal("0.10") : BigDecimal.ZERO;
+        BigDecimal tax = cents(total.multiply(new BigDecimal("0.085")));
+        BigDecimal discount = cents(total.multiply(discountRate));
+        BigDecimal shipping = total.compareTo(new BigDecimal("100")) >= 0 ? BigDecimal.ZERO : new BigDecimal("9.99");
+
+        engine.price(order, tier);
+
+        assertThat(order.getTotalAmount()).isEqualByComparingTo(total);
+        assertThat(order.getTaxAmount()).isEqualByComparingTo(tax);
+        assertThat(order.getDiscountAmount()).isEqualByComparingTo(discount);
+        assertThat(order.getShippingAmount()).isEqualByComparingTo(shipping);
+        assertThat(order.getFinalAmount()).isEqualByComparingTo(total.subtract(discount).add(tax).add(shipping));
+    }
+
+    private static BigDecimal cents(BigDecimal amount) {
+        return amount.setScale(Money.SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static Order order(BigDecimal unitPrice) {
+        Order order = new Order(42L, "Jane Doe", "jdoe@example.com");
+        order.addOrderItem(item(0, unitPrice, 1));
+        return order;
+    }
+
+    private static OrderItem item(int i, BigDecimal unitPrice, int quantity) {
+        return new OrderItem((long) i, "Product " + i, "SKU-" + (10000 + i), unitPrice, quantity);
+    }
+}
@@ -0,0 +1,159 @@
+package com.msproj.orderservice.pricing;
+
+import com.msproj.orderservice.entity.Order;
+import com.msproj.orderservice.entity.OrderItem;
+import com.msproj.orderservice.entity.PricingRule;
+import com.msproj.orderservice.entity.PricingRuleType;
+import com.msproj.orderservice.entity.ShippingAddress;
+import com.msproj.orderservice.repository.PricingRuleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * PricingRulesRefresher over a mocked pricing_rules table: what gets
+ * recompiled, and that pricing never sees half of a rule set.
+ */
+class PricingRulesRefresherTest {
+
+    private final PricingRuleRepository pricingRuleRepository = mock(PricingRuleRepository.class);
+    private final AtomicReference<List<PricingRule>> table = new AtomicReference<>(List.of());
+
+    private PricingRulesProperties properties;
+    private OrderPricingEngine engine;
+    private PricingRulesRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PricingRulesProperties();
+        engine = new OrderPricingEngine(properties);
+        refresher = new PricingRulesRefresher(engine, pricingRuleRepository, properties, new SimpleMeterRegistry());
+
+        when(pricingRuleRepository.findByActiveTrueOrderByIdAsc()).thenAnswer(invocation -> table.get());
+        when(pricingRuleRepository.count()).thenAnswer(invocation -> (long) table.get().size());
+        when(pricingRuleRepository.findLastUpdatedAt()).thenReturn(LocalDateTime.of(2026, 1, 1, 0, 0));
+    }
+
+    @Test
+    void installsDatabaseRulesOnTopOfTheConfiguredOnes() {
+        table.set(List.of(rule(PricingRuleType.TAX, "US", null, new BigDecimal("0.05"), null)));
+
+        refresher.poll();
+
+        CompiledPricingRules rules = engine.getRules();
+        assertThat(rules.getVersion()).isEqualTo(1);
+        assertThat(rules.taxRate(rules.region(address("US")), 0)).isEqualTo(50_000);
+        assertThat(rules.taxRate(rules.region(address("DE")), 0)).isEqualTo(85_000);
+    }
+
+    @Test
+    void unchangedTableIsNotRecompiled() {
+        refresher.poll();
+        refresher.poll();
+
+        assertThat(engine.getRules().getVersion()).isEqualTo(1);
+        verify(pricingRuleRepository, times(1)).findByActiveTrueOrderByIdAsc();
+    }
+
+    @Test
+    void brokenRuleSetKeepsThePreviousRules() {
+        refresher.poll();
+        CompiledPricingRules installed = engine.getRules();
+
+        table.set(List.of(rule(PricingRuleType.TAX, "US", null, new BigDecimal("2"), null)));
+        refresher.poll();
+        refresher.poll();
+
+        assertThat(engine.getRules()).isSameAs(installed);
+        assertThat(refresher.getStatistics())
+                .containsEntry("failedReloads", 1L)
+                .hasEntrySatisfying("lastError", error -> assertThat((String) error).contains("pricing_rules#"));
+    }
+
+    @Test
+    void configuredRulesOnlyWhenDatabaseRulesAreOff() {
+        properties.setDatabaseRules(false);
+        table.set(List.of(rule(PricingRuleType.TAX, "US", null, new BigDecimal("0.05"), null)));
+
+        refresher.poll();
+        refresher.reload();
+
+        CompiledPricingRules rules = engine.getRules();
+        assertThat(rules.taxRate(rules.region(address("US")), 0)).isEqualTo(85_000);
+        verify(pricingRuleRepository, never()).findByActiveTrueOrderByIdAsc();
+    }
+
+    @Test
+    void pricingSeesWholeRuleSetsWhileTheyAreSwapped() throws InterruptedException {
+        // Each set changes tax and shipping together; a mix of two sets would show up as a new final amount
+        List<PricingRule> cheap = List.of(
+                rule(PricingRuleType.TAX, "US", null, new BigDecimal("0.05"), null),
+                rule(PricingRuleType.SHIPPING, "US", new BigDecimal("5.00"), null, null));
+        List<PricingRule> expensive = List.of(
+                rule(PricingRuleType.TAX, "US", null, new BigDecimal("0.10"), null),
+                rule(PricingRuleType.SHIPPING, "US", new BigDecimal("10.00"), null, null));
+        // $50.00 of items: 50.00 + 8.5% + 9.99 (configured), 50.00 + 5% + 5.00, or 50.00 + 10% + 10.00
+        Set<String> wholeSets = Set.of("64.24", "57.50", "65.00");
+
+        AtomicBoolean swapping = new AtomicBoolean(true);
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch readers = new CountDownLatch(4);
+        for (int r = 0; r < 4; r++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    while (swapping.get()) {
+                        Order order = new Order(42L, "Jane Doe", "jdoe@example.com");
+                        order.setShippingAddress(address("US"));
+                        order.addOrderItem(new OrderItem(1L, "Product 1", "SKU-1", new BigDecimal("25.00"), 2));
+                        engine.price(order, null);
+                        seen.add(order.getFinalAmount().toPlainString());
+                    }
+                } finally {
+                    readers.countDown();
+                }
+            });
+            reader.start();
+        }
+
+        for (int i = 0; i < 500; i++) {
+            table.set(i % 2 == 0 ? cheap : expensive);
+            refresher.reload();
+        }
+        swapping.set(false);
+        readers.await();
+
+        assertThat(wholeSets).containsAll(seen);
+        assertThat(engine.getRules().getVersion()).isEqualTo(500);
+    }
+
+    private static PricingRule rule(PricingRuleType type, String region, BigDecimal amount, BigDecimal rate,
+                                    BigDecimal threshold) {
+        PricingRule rule = new PricingRule();
+        rule.setRuleType(type);
+        rule.setRegion(region);
+        rule.setAmount(amount);
+        rule.setRate(rate);
+        rule.setThreshold(threshold);
+        return rule;
+    }
+
+    private static ShippingAddress address(String country) {
+        return new ShippingAddress("Jane Doe", "1 Main St", "Springfield", null, "12345", country);
+    }
+}
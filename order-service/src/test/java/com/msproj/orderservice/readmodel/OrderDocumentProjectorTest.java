@@ -0,0 +1,131 @@
+package com.msproj.orderservice.readmodel;
+
+import com.msproj.orderservice.dto.OrderStatusStreamEventDto;
+import com.msproj.orderservice.entity.OrderStatus;
+import com.msproj.orderservice.repository.OrderDocumentStore;
+import com.msproj.orderservice.repository.OrderDocumentStore.CursorState;
+import com.msproj.orderservice.repository.OrderDocumentStore.SkippedRange;
+import com.msproj.orderservice.repository.OrderRepository;
+import com.msproj.orderservice.repository.OrderStatusEventStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * OrderDocumentProjector over a mocked status log: skipped log ids are
+ * re-checked, and an event that commits late still gets its order projected
+ * before the watermark moves on.
+ */
+class OrderDocumentProjectorTest {
+
+    private static final String CURSOR = OrderDocumentProjector.CURSOR_NAME;
+    private static final long LATE_COMMIT_WINDOW_MS = 60_000;
+
+    private final OrderStatusEventStore orderStatusEventStore = mock(OrderStatusEventStore.class);
+    private final OrderDocumentStore orderDocumentStore = mock(OrderDocumentStore.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+
+    private final List<SkippedRange> skippedRanges = new ArrayList<>();
+    private final List<Collection<Long>> projectedOrderIds = new ArrayList<>();
+
+    private OrderDocumentProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        projector = new OrderDocumentProjector(orderStatusEventStore, orderDocumentStore, orderRepository, null);
+
+        when(orderDocumentStore.findSkippedRanges(CURSOR)).thenAnswer(invocation -> List.copyOf(skippedRanges));
+        doAnswer(invocation -> {
+            List<SkippedRange> ranges = invocation.getArgument(1);
+            long id = skippedRanges.size() + 100;
+            for (SkippedRange range : ranges) {
+                skippedRanges.add(new SkippedRange(id++, range.fromId(), range.toId(), range.skippedAtMs()));
+            }
+            return null;
+        }).when(orderDocumentStore).addSkippedRanges(eq(CURSOR), anyList());
+        doAnswer(invocation -> {
+            List<SkippedRange> ranges = invocation.getArgument(0);
+            skippedRanges.removeAll(ranges);
+            return null;
+        }).when(orderDocumentStore).deleteSkippedRanges(anyList());
+        when(orderRepository.findAllWithItemsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            projectedOrderIds.add(List.copyOf(invocation.<Collection<Long>>getArgument(0)));
+            return List.of();
+        });
+        when(orderStatusEventStore.findAfter(anyLong(), anyInt())).thenReturn(List.of());
+    }
+
+    @Test
+    void lateCommitsInSkippedRangesAreProjected() {
+        cursorAt(10);
+        when(orderStatusEventStore.findAfter(10, 500)).thenReturn(List.of(event(13, 300)));
+
+        OrderDocumentProjector.StepResult first = projector.step(500, 500, 0, LATE_COMMIT_WINDOW_MS);
+
+        assertThat(first.cursor().position()).isEqualTo(13);
+        assertThat(skippedRanges).singleElement()
+                .satisfies(range -> assertThat(List.of(range.fromId(), range.toId())).containsExactly(11L, 12L));
+        assertThat(projectedOrderIds).containsExactly(List.of(300L));
+
+        // Id 12 commits after the skip; 11 is still missing
+        cursorAt(13);
+        when(orderStatusEventStore.findBetween(11, 12)).thenReturn(List.of(event(12, 200)));
+
+        OrderDocumentProjector.StepResult second = projector.step(500, 500, 0, LATE_COMMIT_WINDOW_MS);
+
+        assertThat(projectedOrderIds).last().isEqualTo(List.of(200L));
+        assertThat(second.caughtUp()).isTrue();
+        assertThat(skippedRanges).singleElement()
+                .satisfies(range -> assertThat(List.of(range.fromId(), range.toId())).containsExactly(11L, 11L));
+    }
+
+    @Test
+    void rangesOlderThanTheWindowAreDropped() {
+        skippedRanges.add(new SkippedRange(1L, 11, 12, System.currentTimeMillis() - LATE_COMMIT_WINDOW_MS - 1));
+        cursorAt(13);
+
+        projector.step(500, 500, 0, LATE_COMMIT_WINDOW_MS);
+
+        assertThat(skippedRanges).isEmpty();
+        verify(orderStatusEventStore, never()).findBetween(anyLong(), anyLong());
+    }
+
+    @Test
+    void gapsWithinTheWaitHoldTheCursor() {
+        cursorAt(10);
+        when(orderStatusEventStore.findAfter(10, 500)).thenReturn(List.of(event(12, 200)));
+
+        OrderDocumentProjector.StepResult result = projector.step(500, 500, 5_000, LATE_COMMIT_WINDOW_MS);
+
+        assertThat(result.cursor().position()).isEqualTo(10);
+        assertThat(result.caughtUp()).isFalse();
+        assertThat(skippedRanges).isEmpty();
+    }
+
+    private void cursorAt(long position) {
+        when(orderDocumentStore.lockCursor(CURSOR))
+                .thenReturn(Optional.of(new CursorState(position, null, -1, 0)));
+    }
+
+    private static OrderStatusStreamEventDto event(long eventId, long orderId) {
+        return new OrderStatusStreamEventDto(eventId, orderId, 7L, OrderStatus.PENDING, OrderStatus.CONFIRMED,
+                LocalDateTime.now());
+    }
+}
@@ -0,0 +1,211 @@
+package com.msproj.orderservice.service;
+
+import com.msproj.orderservice.archive.OrderArchiveService;
+import com.msproj.orderservice.archive.OrderArchiver;
+import com.msproj.orderservice.client.ProductServiceClient;
+import com.msproj.orderservice.client.UserServiceClient;
+import com.msproj.orderservice.coalescing.DownstreamLookupCoalescer;
+import com.msproj.orderservice.dto.OrderResponseDto;
+import com.msproj.orderservice.dto.OrderSearchCriteriaDto;
+import com.msproj.orderservice.dto.OrderSummaryDto;
+import com.msproj.orderservice.entity.Order;
+import com.msproj.orderservice.entity.OrderItem;
+import com.msproj.orderservice.entity.OrderStatus;
+import com.msproj.orderservice.event.OrderEventPublisher;
+import com.msproj.orderservice.popular.PopularProductsTracker;
+import com.msproj.orderservice.pricing.OrderPricingEngine;
+import com.msproj.orderservice.pricing.PricingRulesRefresher;
+import com.msproj.orderservice.readmodel.OrderReadModel;
+import com.msproj.orderservice.resilience.ConcurrencyLimiterRegistry;
+import com.msproj.orderservice.sharding.ShardRouter;
+import com.msproj.orderservice.sharding.ShardingProperties;
+import com.msproj.testsupport.QueryBudget;
+import com.msproj.testsupport.QueryBudgetTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * SQL statement budgets for the OrderServiceImpl list reads against the orders tables.
+ * <p>
+ * Reads run on a single unsharded database (the ShardRouter runs them inline)
+ * with the read model and the archive mocked away, so only the JPA path is
+ * measured: one query for the orders and one batch for their items. The
+ * seeded orders stay below hibernate.default_batch_fetch_size; loading items
+ * per order fails both the budget and the growth check.
+ */
+@QueryBudgetTest
+@Import({OrderServiceImpl.class, OrderServiceQueryBudgetTest.SingleShard.class})
+class OrderServiceQueryBudgetTest {
+
+    private static final int CUSTOMERS = 16;
+    private static final int ORDERS_PER_CUSTOMER = 3;
+
+    // Orders, then their items in one batch
+    private static final int LIST_BUDGET = 2;
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    @TestConfiguration
+    static class SingleShard {
+
+        @Bean
+        ShardRouter shardRouter(PlatformTransactionManager transactionManager) {
+            return new ShardRouter(new ShardingProperties(), Runnable::run, transactionManager);
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OrderService orderService;
+
+    @MockBean private UserServiceClient userServiceClient;
+    @MockBean private ProductServiceClient productServiceClient;
+    @MockBean private LoyaltyLedgerService loyaltyLedgerService;
+    @MockBean private OrderStatusBulkProcessor orderStatusBulkProcessor;
+    @MockBean private OrderEventPublisher orderEventPublisher;
+    @MockBean private OrderStatusHistoryService orderStatusHistoryService;
+    @MockBean private StaleOrderReaper staleOrderReaper;
+    @MockBean private RetryJobService retryJobService;
+    @MockBean private ConcurrencyLimiterRegistry concurrencyLimiterRegistry;
+    @MockBean private DownstreamLookupCoalescer downstreamLookupCoalescer;
+    @MockBean private OrderReadModel orderReadModel;
+    @MockBean private OrderArchiveService orderArchiveService;
+    @MockBean private OrderArchiver orderArchiver;
+    @MockBean private OrderPricingEngine orderPricingEngine;
+    @MockBean private PricingRulesRefresher pricingRulesRefresher;
+    @MockBean private PopularProductsTracker popularProductsTracker;
+
+    private QueryBudget queryBudget;
+    private int sequence;
+
+    @BeforeEach
+    void seedOrders() {
+        queryBudget = new QueryBudget(entityManager);
+
+        // Everything seeded is newer than the archive cutoff; the read model is never fresh (mock returns empty)
+        when(orderArchiveService.getCutoff()).thenReturn(LocalDateTime.now().minusYears(10));
+
+        for (long customerId = 1; customerId <= CUSTOMERS; customerId++) {
+            addOrders(customerId, ORDERS_PER_CUSTOMER);
+        }
+    }
+
+    @Test
+    void getOrdersByStatus() {
+        List<OrderResponseDto> orders = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> orderService.getOrdersByStatus(OrderStatus.CONFIRMED));
+
+        assertThat(orders).isNotEmpty();
+        assertThat(orders).allSatisfy(order -> assertThat(order.getItems()).isNotEmpty());
+    }
+
+    @Test
+    void getOrdersByStatusDoesNotQueryPerOrder() {
+        queryBudget.assertStatementsIndependentOfRows(() -> addOrders(1L, 12),
+                () -> orderService.getOrdersByStatus(OrderStatus.CONFIRMED));
+    }
+
+    @Test
+    void getOrdersByCustomer() {
+        List<OrderResponseDto> orders = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> orderService.getOrdersByCustomer(1L));
+
+        assertThat(orders).hasSize(ORDERS_PER_CUSTOMER);
+    }
+
+    @Test
+    void getOrdersByCustomerDoesNotQueryPerOrder() {
+        queryBudget.assertStatementsIndependentOfRows(() -> addOrders(1L, 12),
+                () -> orderService.getOrdersByCustomer(1L));
+    }
+
+    @Test
+    void getOrderHistory() {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<OrderResponseDto> orders = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> orderService.getOrderHistory(1L, now.minusYears(1), now.plusDays(1)));
+
+        assertThat(orders).hasSize(ORDERS_PER_CUSTOMER);
+    }
+
+    @Test
+    void getOrderSummariesByCustomer() {
+        List<OrderSummaryDto> summaries = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> orderService.getOrderSummariesByCustomer(1L));
+
+        assertThat(summaries).hasSize(ORDERS_PER_CUSTOMER);
+    }
+
+    @Test
+    void searchOrders() {
+        OrderSearchCriteriaDto criteria = new OrderSearchCriteriaDto();
+        criteria.setMinAmount("20.00");
+
+        List<OrderResponseDto> orders = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> orderService.searchOrders(criteria));
+
+        assertThat(orders).isNotEmpty();
+    }
+
+    @Test
+    void searchOrdersOfCustomer() {
+        OrderSearchCriteriaDto criteria = new OrderSearchCriteriaDto();
+        criteria.setCustomerId(2L);
+
+        List<OrderResponseDto> orders = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> orderService.searchOrders(criteria));
+
+        assertThat(orders).hasSize(ORDERS_PER_CUSTOMER);
+    }
+
+    @Test
+    void getHighValueOrders() {
+        List<OrderResponseDto> orders = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> orderService.getHighValueOrders(new BigDecimal("50.00")));
+
+        assertThat(orders).isNotEmpty();
+    }
+
+    @Test
+    void getHighValueOrdersDoesNotQueryPerOrder() {
+        queryBudget.assertStatementsIndependentOfRows(() -> addOrders(2L, 12),
+                () -> orderService.getHighValueOrders(BigDecimal.ZERO));
+    }
+
+    // Orders of one to four lines, spread over the statuses and the last few months
+    private void addOrders(Long customerId, int count) {
+        for (int i = 0; i < count; i++) {
+            int n = sequence++;
+            Order order = new Order(customerId, "Customer " + customerId, "customer" + customerId + "@example.com");
+            order.setOrderDate(LocalDateTime.now().minusDays(n % 90).minusMinutes(n));
+            order.setStatus(STATUSES[n % STATUSES.length]);
+
+            for (int line = 0; line <= n % 4; line++) {
+                long productId = 1 + (n + line) % 25;
+                OrderItem item = new OrderItem(productId, "Product " + productId, "SKU-" + productId,
+                        BigDecimal.valueOf(499 + productId * 250, 2), 1 + line % 3);
+                item.calculateSubtotal();
+                order.addOrderItem(item);
+            }
+            order.recalculateTotals();
+            entityManager.persist(order);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.msproj.orderservice.transport;
+
+import com.msproj.orderservice.config.HttpClientProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of the outbound Feign transports against a local stub of the
+ * product endpoint. Opt-in, since it measures rather than verifies:
+ * <pre>
+ * mvn test -Dtest=HttpTransportBenchmark -Dbenchmark=true [-Dbenchmark.threads=32 -Dbenchmark.seconds=10]
+ * </pre>
+ * The stub is HTTP/1.1 only, so the HTTP/2 client measures its fallback path;
+ * run it against a real product-service with server.http2.enabled for h2c.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HttpTransportBenchmark {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 10);
+
+    private static HttpServer server;
+    private static String baseUrl;
+    private static byte[] productJson;
+
+    @BeforeAll
+    static void startStub() throws IOException {
+        productJson = sampleProducts(50).getBytes(StandardCharsets.UTF_8);
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 512);
+        server.createContext("/api/products/batch", HttpTransportBenchmark::handle);
+        server.setExecutor(Executors.newFixedThreadPool(THREADS));
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    @Test
+    void compareTransports() throws Exception {
+        HttpClientProperties.Compression compression = new HttpClientProperties.Compression();
+
+        CloseableHttpClient pooled = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(THREADS * 2)
+                        .setMaxConnPerRoute(THREADS * 2)
+                        .build())
+                .disableAutomaticRetries()
+                .build();
+
+        try (pooled) {
+            Map<String, Client> transports = Map.of(
+                    "default (HttpURLConnection)", new CompressingClient(new Client.Default(null, null), compression),
+                    "pooled (Apache HttpClient 5)", new CompressingClient(new ApacheHttp5Client(pooled), compression),
+                    "http2 (JDK HttpClient)", new CompressingClient(new Http2Client(
+                            HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build()), compression));
+
+            for (Map.Entry<String, Client> transport : transports.entrySet()) {
+                // Warm up connections and JIT before measuring
+                measure(transport.getValue(), 2);
+                double callsPerSecond = measure(transport.getValue(), SECONDS);
+                System.out.printf("%-30s %10.1f calls/s (%d threads, %d s)%n",
+                        transport.getKey(), callsPerSecond, THREADS, SECONDS);
+                assertTrue(callsPerSecond > 0, transport.getKey() + " completed no calls");
+            }
+        }
+    }
+
+    private double measure(Client client, int seconds) throws InterruptedException {
+        Request request = Request.create(Request.HttpMethod.POST, baseUrl + "/api/products/batch",
+                Map.<String, Collection<String>>of("Content-Type", List.of("application/json")),
+                "[1,2,3,4,5,6,7,8,9,10]".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, null);
+        Request.Options options = new Request.Options(2, TimeUnit.SECONDS, 5, TimeUnit.SECONDS, false);
+
+        AtomicLong calls = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService workers = Executors.newFixedThreadPool(THREADS);
+
+        for (int i = 0; i < THREADS; i++) {
+            workers.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    try (Response response = client.execute(request, options);
+                         InputStream body = response.body().asInputStream()) {
+                        body.readAllBytes();
+                        if (response.status() == 200) {
+                            calls.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        // Counted as a missed call
+                    }
+                }
+            });
+        }
+
+        workers.shutdown();
+        workers.awaitTermination(seconds + 30L, TimeUnit.SECONDS);
+        return calls.get() / (double) seconds;
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream in = exchange.getRequestBody()) {
+            in.readAllBytes();
+
+            byte[] body = productJson;
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                body = gzip(body);
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(data);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String sampleProducts(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 1; i <= count; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"name\":\"Product ").append(i)
+                    .append("\",\"description\":\"Sample product used to size a typical catalog response\"")
+                    .append(",\"price\":").append(10 + i).append(".99")
+                    .append(",\"stockQuantity\":").append(100 + i)
+                    .append(",\"status\":\"ACTIVE\",\"categoryName\":\"Electronics\"}");
+        }
+        return json.append(']').toString();
+    }
+}
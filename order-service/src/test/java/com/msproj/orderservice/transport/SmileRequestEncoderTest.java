@@ -0,0 +1,64 @@
+package com.msproj.orderservice.transport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import feign.Request;
+import feign.RequestTemplate;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SmileRequestEncoder in front of SpringEncoder, as WireFormatConfig wires it.
+ */
+class SmileRequestEncoderTest {
+
+    private final HttpMessageConverters converters = new HttpMessageConverters(false, List.of(
+            new StringHttpMessageConverter(),
+            new MappingJackson2SmileHttpMessageConverter(
+                    Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build())));
+
+    private final SmileRequestEncoder encoder = new SmileRequestEncoder(new SpringEncoder(() -> converters));
+
+    @Test
+    void objectBodiesAreSentAsBinarySmile() throws Exception {
+        // Ids above 15 encode as multi-byte integers with bytes above 0x7F
+        List<Long> productIds = List.of(1L, 40L, 1_000L, 5_000_000_000L);
+        RequestTemplate template = new RequestTemplate();
+
+        encoder.encode(productIds, List.class, template);
+        Request request = request(template);
+
+        assertThat(request.headers().get("Content-Type")).containsExactly(SmileRequestEncoder.SMILE);
+        // A body with a charset is text to feign-hc5, which would send it as new String(body)
+        assertThat(request.isBinary()).isTrue();
+        assertThat(new ObjectMapper(new SmileFactory()).readValue(request.body(), Long[].class))
+                .containsExactly(1L, 40L, 1_000L, 5_000_000_000L);
+    }
+
+    @Test
+    void stringBodiesPassThrough() {
+        RequestTemplate template = new RequestTemplate();
+
+        encoder.encode("{}", String.class, template);
+        Request request = request(template);
+
+        assertThat(request.headers().get("Content-Type")).noneMatch(SmileRequestEncoder.SMILE::equals);
+        assertThat(request.isBinary()).isFalse();
+        assertThat(request.body()).containsExactly('{', '}');
+    }
+
+    private static Request request(RequestTemplate template) {
+        template.method(Request.HttpMethod.POST);
+        template.target("http://product-service");
+        return template.resolve(Map.of()).request();
+    }
+}
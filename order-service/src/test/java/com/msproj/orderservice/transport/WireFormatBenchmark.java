@@ -0,0 +1,143 @@
+package com.msproj.orderservice.transport;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.msproj.orderservice.dto.ProductDto;
+import com.msproj.orderservice.dto.UserDto;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of the inter-service payloads in JSON, Smile and CBOR.
+ * <p>
+ * Run main() from the IDE, or after mvn test-compile:
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) com.msproj.orderservice.transport.WireFormatBenchmark
+ * </pre>
+ * (cp.txt from mvn dependency:build-classpath -Dmdep.outputFile=cp.txt). Payload
+ * sizes per format are printed before the benchmarks start.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    public enum Format {
+        JSON(new JsonFactory()),
+        SMILE(new SmileFactory()),
+        CBOR(new CBORFactory());
+
+        private final JsonFactory factory;
+
+        Format(JsonFactory factory) {
+            this.factory = factory;
+        }
+
+        ObjectMapper mapper() {
+            return new ObjectMapper(factory).findAndRegisterModules();
+        }
+    }
+
+    /**
+     * PRODUCT_BATCH is the /api/products/batch1 response for a 50-line order,
+     * USER a single /api/users/{id} response.
+     */
+    public enum Payload {
+        PRODUCT_BATCH,
+        USER
+    }
+
+    @Param
+    public Format format;
+
+    @Param
+    public Payload payload;
+
+    private ObjectMapper mapper;
+    private Object value;
+    private JavaType type;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = format.mapper();
+
+        if (payload == Payload.PRODUCT_BATCH) {
+            value = products(50);
+            type = mapper.getTypeFactory().constructCollectionType(List.class, ProductDto.class);
+        } else {
+            value = user();
+            type = mapper.constructType(UserDto.class);
+        }
+
+        encoded = mapper.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return mapper.readValue(encoded, type);
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        for (Payload payload : Payload.values()) {
+            for (Format format : Format.values()) {
+                WireFormatBenchmark benchmark = new WireFormatBenchmark();
+                benchmark.format = format;
+                benchmark.payload = payload;
+                benchmark.setUp();
+                System.out.printf("%-14s %-6s %7d bytes%n", payload, format, benchmark.encoded.length);
+            }
+        }
+
+        new Runner(new OptionsBuilder()
+                .include(WireFormatBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static List<ProductDto> products(int count) {
+        List<ProductDto> products = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            products.add(new ProductDto(
+                    id,
+                    "Product " + id,
+                    "Sample product used to size a typical catalog response",
+                    new BigDecimal("19.99").add(BigDecimal.valueOf(id)),
+                    100 + (int) id,
+                    "SKU-" + (10000 + id),
+                    "ACTIVE",
+                    "Electronics",
+                    Set.of("electronics", "gadgets"),
+                    Map.of("color", "black", "warranty", "2 years"),
+                    4.5,
+                    true));
+        }
+        return products;
+    }
+
+    private static UserDto user() {
+        return new UserDto(42L, "jdoe", "jdoe@example.com", "Jane", "Doe", "Jane Doe",
+                "CUSTOMER", 1250, "GOLD", LocalDateTime.of(2024, 1, 15, 10, 30));
+    }
+}
@@ -0,0 +1,29 @@
+package com.msproj.productservice.config;
+
+import com.msproj.servicesupport.deadline.DeadlineFilter;
+import com.msproj.servicesupport.web.GzipRequestFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Servlet filters shared with the other services (service-support).
+ */
+@Configuration
+public class RequestFilterConfig {
+
+    @Bean
+    public GzipRequestFilter gzipRequestFilter() {
+        return new GzipRequestFilter();
+    }
+
+    // Only requests stamped by the gateway or order-service have a deadline here
+    @Bean
+    public DeadlineFilter deadlineFilter(MeterRegistry meterRegistry) {
+        return new DeadlineFilter(0, Counter.builder("product.deadline.exceeded")
+                .description("Work skipped because the request deadline had passed")
+                .tag("stage", "queued")
+                .register(meterRegistry));
+    }
+}
@@ -4,7 +4,6 @@ import com.google.common.base.Strings;
 import com.msproj.productservice.dto.*;
 import com.msproj.productservice.entity.Product;
 import com.msproj.productservice.entity.ProductStatus;
-import com.msproj.productservice.mapper.ProductMapper;
 import com.msproj.productservice.service.ProductService;
 import jakarta.validation.Valid;
 import org.apache.commons.lang3.StringUtils;
@@ -36,12 +35,10 @@ public class ProductController {
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
 
     private final ProductService productService;
-    private final ProductMapper productMapper;
 
     @Autowired
-    public ProductController(ProductService productService, ProductMapper productMapper) {
+    public ProductController(ProductService productService) {
         this.productService = productService;
-        this.productMapper = productMapper;
     }
 
     /**
@@ -83,13 +80,7 @@ public class ProductController {
 
     @PostMapping("/batch1")
     public ResponseEntity<List<ProductDto>> getProductsByIdsList1(@RequestBody List<Long> ids) {
-        List<Product> products = productService.getProductByIdsList(ids);
-
-        List<ProductDto> dtos = products.stream()
-                .map(productMapper::toDto)
-                .toList();
-
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok(productService.getProductDtosByIds(ids));
     }
 
     /**
@@ -267,6 +258,21 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Apply a batch of stock adjustments at most once per reference id
+     * POST /api/products/stock/adjustments
+     */
+    @PostMapping("/stock/adjustments")
+    public ResponseEntity<BulkStockAdjustmentResponseDto> applyStockAdjustments(
+            @Valid @RequestBody BulkStockAdjustmentRequestDto requestDto) {
+        logger.info("POST /api/products/stock/adjustments - Reference: {}, Adjustments: {}",
+                requestDto.getReferenceId(), requestDto.getAdjustments().size());
+
+        BulkStockAdjustmentResponseDto response = productService.applyStockAdjustments(requestDto);
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Add product review
      * POST /api/products/{id}/reviews
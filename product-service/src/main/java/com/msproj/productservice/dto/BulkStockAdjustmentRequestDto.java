@@ -0,0 +1,30 @@
+package com.msproj.productservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Bulk Stock Adjustment Request DTO
+ * <p>
+ * The referenceId is chosen by the caller and identifies the batch; a batch
+ * with a reference that was already applied is acknowledged without changes.
+ */
+public class BulkStockAdjustmentRequestDto {
+    @NotBlank(message = "Reference ID is required")
+    private String referenceId;
+
+    @NotEmpty(message = "At least one adjustment is required")
+    @Valid
+    private List<StockAdjustmentDto> adjustments;
+
+    public BulkStockAdjustmentRequestDto() {}
+
+    public String getReferenceId() { return referenceId; }
+    public void setReferenceId(String referenceId) { this.referenceId = referenceId; }
+
+    public List<StockAdjustmentDto> getAdjustments() { return adjustments; }
+    public void setAdjustments(List<StockAdjustmentDto> adjustments) { this.adjustments = adjustments; }
+}
@@ -0,0 +1,14 @@
+package com.msproj.productservice.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk stock adjustment. Rejected products either do not exist
+ * or do not have enough stock for a reduction.
+ */
+public record BulkStockAdjustmentResponseDto(
+        String referenceId,
+        boolean duplicate,
+        int applied,
+        List<Long> rejectedProductIds
+) {}
@@ -0,0 +1,27 @@
+package com.msproj.productservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * One signed stock change: positive adds stock, negative reduces it
+ */
+public class StockAdjustmentDto {
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    @NotNull(message = "Quantity is required")
+    private Integer quantity;
+
+    public StockAdjustmentDto() {}
+
+    public StockAdjustmentDto(Long productId, Integer quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
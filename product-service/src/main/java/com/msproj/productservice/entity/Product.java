@@ -2,6 +2,8 @@ package com.msproj.productservice.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.math.BigDecimal;
 import java.util.*;
@@ -46,7 +48,9 @@ public class Product extends BaseEntity {
     private Category category;
 
     // COLLECTIONS: Product attributes using Map
+    // Eager collections are loaded with one subselect per query rather than one select per product
     @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "product_attributes",
             joinColumns = @JoinColumn(name = "product_id"))
     @MapKeyColumn(name = "attribute_name")
@@ -55,6 +59,7 @@ public class Product extends BaseEntity {
 
     // COLLECTIONS: Product tags
     @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "product_tags",
             joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "tag")
@@ -62,6 +67,7 @@ public class Product extends BaseEntity {
 
     // COLLECTIONS: Product images
     @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "product_images",
             joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "image_url")
@@ -0,0 +1,40 @@
+package com.msproj.productservice.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Record of an applied stock adjustment batch.
+ * <p>
+ * The unique reference id makes batch application idempotent: a caller that
+ * resends the same batch after a timeout finds the row and nothing is applied twice.
+ */
+@Entity
+@Table(name = "stock_adjustment_batches")
+public class StockAdjustmentBatch extends BaseEntity {
+
+    @Column(name = "reference_id", nullable = false, unique = true, length = 100)
+    private String referenceId;
+
+    @Column(name = "applied_count", nullable = false)
+    private Integer appliedCount;
+
+    @Column(name = "total_quantity", nullable = false)
+    private Long totalQuantity;
+
+    public StockAdjustmentBatch() {}
+
+    public StockAdjustmentBatch(String referenceId, Integer appliedCount, Long totalQuantity) {
+        this.referenceId = referenceId;
+        this.appliedCount = appliedCount;
+        this.totalQuantity = totalQuantity;
+    }
+
+    public String getReferenceId() { return referenceId; }
+    public void setReferenceId(String referenceId) { this.referenceId = referenceId; }
+
+    public Integer getAppliedCount() { return appliedCount; }
+    public void setAppliedCount(Integer appliedCount) { this.appliedCount = appliedCount; }
+
+    public Long getTotalQuantity() { return totalQuantity; }
+    public void setTotalQuantity(Long totalQuantity) { this.totalQuantity = totalQuantity; }
+}
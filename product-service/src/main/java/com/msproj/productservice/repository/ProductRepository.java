@@ -122,6 +122,22 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity WHERE p.id IN :productIds")
     int bulkAddStock(@Param("productIds") List<Long> productIds, @Param("quantity") Integer quantity);
 
+    // Set-based equivalent of Product.addStock/reduceStock: the right-hand sides see the
+    // pre-update stock, and the guard rejects reductions below zero (0 rows updated)
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :delta, " +
+            "p.status = CASE " +
+            "WHEN p.stockQuantity + :delta = 0 AND :delta < 0 " +
+            "THEN com.msproj.productservice.entity.ProductStatus.OUT_OF_STOCK " +
+            "WHEN p.stockQuantity + :delta > 0 AND p.status = com.msproj.productservice.entity.ProductStatus.OUT_OF_STOCK " +
+            "THEN com.msproj.productservice.entity.ProductStatus.ACTIVE " +
+            "ELSE p.status END, " +
+            "p.version = p.version + 1, p.updatedAt = :now " +
+            "WHERE p.id = :productId AND p.stockQuantity + :delta >= 0")
+    int adjustStock(@Param("productId") Long productId,
+                    @Param("delta") Integer delta,
+                    @Param("now") LocalDateTime now);
+
     // 12. NATIVE QUERIES for complex operations
     @Query(value = "SELECT p.* FROM products p " +
             "JOIN product_tags pt ON p.id = pt.product_id " +
@@ -0,0 +1,14 @@
+package com.msproj.productservice.repository;
+
+import com.msproj.productservice.entity.StockAdjustmentBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Stock Adjustment Batch Repository
+ */
+@Repository
+public interface StockAdjustmentBatchRepository extends JpaRepository<StockAdjustmentBatch, Long> {
+
+    boolean existsByReferenceId(String referenceId);
+}
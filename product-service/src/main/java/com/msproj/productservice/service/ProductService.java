@@ -33,6 +33,8 @@ public interface ProductService {
 
     ProductResponseDto updateStock(Long productId, Integer quantity);
 
+    BulkStockAdjustmentResponseDto applyStockAdjustments(BulkStockAdjustmentRequestDto requestDto);
+
     void addProductReview(CreateReviewRequestDto requestDto);
 
     List<String> getPopularTags(int limit);
@@ -50,4 +52,6 @@ public interface ProductService {
     List<ProductResponseDto> findSimilarProducts(Long productId);
 
     List<Product> getProductByIdsList(List<Long> id);
+
+    List<ProductDto> getProductDtosByIds(List<Long> ids);
 }
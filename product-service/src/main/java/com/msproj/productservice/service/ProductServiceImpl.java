@@ -5,11 +5,14 @@ import com.msproj.productservice.entity.Category;
 import com.msproj.productservice.entity.Product;
 import com.msproj.productservice.entity.ProductReview;
 import com.msproj.productservice.entity.ProductStatus;
+import com.msproj.productservice.entity.StockAdjustmentBatch;
 import com.msproj.productservice.exception.CategoryNotFoundException;
 import com.msproj.productservice.exception.ProductNotFoundException;
+import com.msproj.productservice.mapper.ProductMapper;
 import com.msproj.productservice.repository.CategoryRepository;
 import com.msproj.productservice.repository.ProductRepository;
 import com.msproj.productservice.repository.ProductReviewRepository;
+import com.msproj.productservice.repository.StockAdjustmentBatchRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +20,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -41,14 +45,20 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ProductReviewRepository reviewRepository;
+    private final StockAdjustmentBatchRepository stockAdjustmentBatchRepository;
+    private final ProductMapper productMapper;
 
     @Autowired
     public ProductServiceImpl(ProductRepository productRepository,
                               CategoryRepository categoryRepository,
-                              ProductReviewRepository reviewRepository) {
+                              ProductReviewRepository reviewRepository,
+                              StockAdjustmentBatchRepository stockAdjustmentBatchRepository,
+                              ProductMapper productMapper) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
         this.reviewRepository = reviewRepository;
+        this.stockAdjustmentBatchRepository = stockAdjustmentBatchRepository;
+        this.productMapper = productMapper;
     }
 
     @Override
@@ -231,6 +241,51 @@ public class ProductServiceImpl implements ProductService {
         return ProductResponseDto.fromEntity(updatedProduct);
     }
 
+    /**
+     * Apply a batch of stock changes in one transaction, at most once per reference id.
+     * Adjustments for the same product are merged and applied in product ID order,
+     * one set-based UPDATE each, so concurrent batches lock rows in the same order.
+     */
+    @Override
+    public BulkStockAdjustmentResponseDto applyStockAdjustments(BulkStockAdjustmentRequestDto requestDto) {
+        String referenceId = requestDto.getReferenceId();
+
+        if (stockAdjustmentBatchRepository.existsByReferenceId(referenceId)) {
+            logger.info("Stock adjustment batch {} already applied", referenceId);
+            return new BulkStockAdjustmentResponseDto(referenceId, true, 0, List.of());
+        }
+
+        Map<Long, Integer> deltas = requestDto.getAdjustments().stream()
+                .filter(adjustment -> adjustment.getQuantity() != 0)
+                .collect(Collectors.toMap(StockAdjustmentDto::getProductId, StockAdjustmentDto::getQuantity,
+                        Math::addExact, TreeMap::new));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> rejected = new ArrayList<>();
+        long totalQuantity = 0;
+
+        for (Map.Entry<Long, Integer> entry : deltas.entrySet()) {
+            if (productRepository.adjustStock(entry.getKey(), entry.getValue(), now) == 1) {
+                totalQuantity += entry.getValue();
+            } else {
+                rejected.add(entry.getKey());
+            }
+        }
+
+        int applied = deltas.size() - rejected.size();
+
+        // Flush now so a concurrent resend of the same batch fails on the unique key and rolls back
+        stockAdjustmentBatchRepository.saveAndFlush(new StockAdjustmentBatch(referenceId, applied, totalQuantity));
+
+        if (!rejected.isEmpty()) {
+            logger.warn("Stock adjustment batch {} rejected products {}", referenceId, rejected);
+        }
+        logger.info("Stock adjustment batch {} applied to {} products (net quantity {})",
+                referenceId, applied, totalQuantity);
+
+        return new BulkStockAdjustmentResponseDto(referenceId, false, applied, rejected);
+    }
+
     @Override
     public void addProductReview(CreateReviewRequestDto requestDto) {
         logger.info("Adding review for product ID: {}", requestDto.getProductId());
@@ -356,9 +411,10 @@ public class ProductServiceImpl implements ProductService {
     }
 
     // PRIVATE HELPER METHODS using FUNCTIONAL INTERFACES
+    // (createProductFilter, createSortComparator and calculateSimilarity are package-private for the benchmarks module)
 
     // FUNCTIONAL INTERFACE: Create a product filter predicate
-    private Predicate<Product> createProductFilter(ProductSearchCriteria criteria) {
+    Predicate<Product> createProductFilter(ProductSearchCriteria criteria) {
         return product -> {
             // Combine multiple filter conditions using AND logic
             boolean nameMatch = criteria.getName() == null ||
@@ -439,7 +495,7 @@ public class ProductServiceImpl implements ProductService {
         return combinedPredicate.test(product);
     }
 
-    private Comparator<Product> createSortComparator(String sortBy, String sortOrder) {
+    Comparator<Product> createSortComparator(String sortBy, String sortOrder) {
         Comparator<Product> comparator = switch (sortBy != null ? sortBy : "name") {
             case "name" -> Comparator.comparing(Product::getName, String.CASE_INSENSITIVE_ORDER);
             case "price" -> Comparator.comparing(Product::getPrice);
@@ -523,8 +579,20 @@ public class ProductServiceImpl implements ProductService {
         return productRepository.findAllById(id);
     }
 
+    /**
+     * Batch lookup for order-service; mapped inside the transaction, which
+     * the lazy category and reviews need
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductDto> getProductDtosByIds(List<Long> ids) {
+        return productRepository.findAllById(ids).stream()
+                .map(productMapper::toDto)
+                .toList();
+    }
+
     // LAMBDA EXPRESSIONS: Custom similarity calculation
-    private ProductSimilarity calculateSimilarity(Product base, Product candidate) {
+    ProductSimilarity calculateSimilarity(Product base, Product candidate) {
         int score = 0;
 
         // Tag similarity using SET operations
@@ -570,7 +638,7 @@ public class ProductServiceImpl implements ProductService {
         }
     }
 
-    private static class ProductSimilarity {
+    static class ProductSimilarity {
         private final Product product;
         private final int score;
 
@@ -0,0 +1,216 @@
+package com.msproj.productservice.service;
+
+import com.msproj.productservice.dto.ProductFilterDto;
+import com.msproj.productservice.dto.ProductResponseDto;
+import com.msproj.productservice.dto.ProductSearchCriteria;
+import com.msproj.productservice.entity.Category;
+import com.msproj.productservice.entity.Product;
+import com.msproj.productservice.entity.ProductReview;
+import com.msproj.productservice.mapper.ProductMapper;
+import com.msproj.testsupport.QueryBudget;
+import com.msproj.testsupport.QueryBudgetTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SQL statement budgets for the ProductServiceImpl list reads.
+ * <p>
+ * A list read costs one query for the products, one subselect for each eager
+ * collection (attributes, tags, images), one batch for the reviews and one for
+ * the categories plus their tag sets, whatever the number of products. The
+ * catalog is seeded below hibernate.default_batch_fetch_size so the batches
+ * never split; a lazy association resolved per product adds dozens of
+ * statements and fails both the budget and the growth check.
+ */
+@QueryBudgetTest
+@Import({ProductServiceImpl.class, ProductMapper.class})
+class ProductServiceQueryBudgetTest {
+
+    private static final int PRODUCTS_PER_CATEGORY = 12;
+
+    // Products, three eager collections, reviews, categories and the tag sets of the seeded categories
+    private static final int LIST_BUDGET = 12;
+
+    private static final String[] TAGS = {"new", "sale", "bestseller", "eco", "premium", "gift"};
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductService productService;
+
+    private QueryBudget queryBudget;
+
+    private final List<Category> categories = new ArrayList<>();
+    private int sequence;
+
+    @BeforeEach
+    void seedCatalog() {
+        queryBudget = new QueryBudget(entityManager);
+
+        Category electronics = category("Electronics", "electronics");
+        Category phones = category("Phones", "mobile");
+        electronics.addSubcategory(phones);
+        categories.add(electronics);
+        categories.add(phones);
+        categories.add(category("Books", "reading"));
+        categories.add(category("Home & Garden", "home"));
+        categories.forEach(entityManager::persist);
+
+        addProducts(PRODUCTS_PER_CATEGORY);
+    }
+
+    @Test
+    void getAllProducts() {
+        List<ProductResponseDto> products = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> productService.getAllProducts());
+
+        assertThat(products).hasSize(categories.size() * PRODUCTS_PER_CATEGORY);
+    }
+
+    @Test
+    void getProductsByCategory() {
+        Long categoryId = categories.get(0).getId();
+
+        List<ProductResponseDto> products = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> productService.getProductsByCategory(categoryId));
+
+        assertThat(products).hasSize(PRODUCTS_PER_CATEGORY);
+    }
+
+    @Test
+    void searchProducts() {
+        ProductSearchCriteria criteria = ProductSearchCriteria.builder()
+                .priceRange(new BigDecimal("10.00"), new BigDecimal("200.00"))
+                .tags("sale")
+                .sortBy("price_desc")
+                .build();
+
+        queryBudget.assertMaxStatements(LIST_BUDGET, () -> productService.searchProducts(criteria));
+    }
+
+    @Test
+    void getProductsByTags() {
+        List<ProductResponseDto> products = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> productService.getProductsByTags(List.of("sale")));
+
+        assertThat(products).isNotEmpty();
+    }
+
+    @Test
+    void getProductsGroupedByCategory() {
+        Map<String, List<ProductResponseDto>> grouped = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> productService.getProductsGroupedByCategory());
+
+        assertThat(grouped).hasSize(categories.size());
+    }
+
+    @Test
+    void getProductsGroupedByCategoryDoesNotQueryPerProduct() {
+        queryBudget.assertStatementsIndependentOfRows(() -> addProducts(3),
+                () -> productService.getProductsGroupedByCategory());
+    }
+
+    @Test
+    void getTopRatedProducts() {
+        List<ProductResponseDto> products = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> productService.getTopRatedProducts(10));
+
+        assertThat(products).hasSize(10);
+    }
+
+    @Test
+    void getTopRatedProductsDoesNotQueryPerProduct() {
+        queryBudget.assertStatementsIndependentOfRows(() -> addProducts(3),
+                () -> productService.getTopRatedProducts(10));
+    }
+
+    @Test
+    void getLowStockProducts() {
+        List<ProductResponseDto> products = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> productService.getLowStockProducts(10));
+
+        assertThat(products).isNotEmpty();
+    }
+
+    @Test
+    void getPopularTags() {
+        List<String> tags = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> productService.getPopularTags(3));
+
+        assertThat(tags).hasSize(3);
+    }
+
+    @Test
+    void getRecommendedProducts() {
+        Long productId = firstProductId();
+
+        queryBudget.assertMaxStatements(LIST_BUDGET, () -> productService.getRecommendedProducts(productId, 5));
+    }
+
+    @Test
+    void findSimilarProducts() {
+        Long productId = firstProductId();
+
+        queryBudget.assertMaxStatements(LIST_BUDGET, () -> productService.findSimilarProducts(productId));
+    }
+
+    @Test
+    void getProductsWithFilters() {
+        List<ProductResponseDto> products = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> productService.getProductsWithFilters(new ProductFilterDto()));
+
+        assertThat(products).isNotEmpty();
+    }
+
+    @Test
+    void getProductsWithFiltersDoesNotQueryPerProduct() {
+        queryBudget.assertStatementsIndependentOfRows(() -> addProducts(3),
+                () -> productService.getProductsWithFilters(new ProductFilterDto()));
+    }
+
+    private Category category(String name, String tag) {
+        Category category = new Category(name, name + " department");
+        category.addTag(tag);
+        return category;
+    }
+
+    // Every product gets attributes, tags, images and one to three reviews
+    private void addProducts(int perCategory) {
+        for (Category category : categories) {
+            for (int i = 0; i < perCategory; i++) {
+                int n = sequence++;
+                Product product = new Product(category.getName() + " item " + n, "Seeded product " + n,
+                        BigDecimal.valueOf(500 + n * 397L % 19_500, 2), n % 25, category);
+                product.setSku("SKU-" + n);
+                product.addAttribute("color", n % 2 == 0 ? "black" : "white");
+                product.addAttribute("warranty", (1 + n % 3) + " years");
+                product.addTags(TAGS[n % TAGS.length], TAGS[(n + 2) % TAGS.length]);
+                product.addImageUrl("https://cdn.example.com/products/" + n + "/front.jpg");
+                product.addImageUrl("https://cdn.example.com/products/" + n + "/back.jpg");
+                entityManager.persist(product);
+
+                for (int r = 0; r <= n % 3; r++) {
+                    entityManager.persist(new ProductReview(product, 1000L + r, "Customer " + r,
+                            1 + (n + r) % 5, "Review " + r + " of product " + n));
+                }
+            }
+        }
+    }
+
+    private Long firstProductId() {
+        return entityManager.getEntityManager()
+                .createQuery("SELECT MIN(p.id) FROM Product p", Long.class)
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,49 @@
+package com.msproj.servicesupport.datasource;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Stamps X-Consistency-Token on successful writes under the service's API path.
+ * <p>
+ * The body is written after the controller returned, i.e. after the service
+ * transaction committed, so the token is never earlier than the write.
+ * Registered as a bean by the service, which is how the advice is found.
+ */
+@ControllerAdvice
+public class ConsistencyTokenAdvice implements ResponseBodyAdvice<Object> {
+
+    private final String pathPrefix;
+
+    /**
+     * @param pathPrefix request paths whose writes are stamped, e.g. /api/orders
+     */
+    public ConsistencyTokenAdvice(String pathPrefix) {
+        this.pathPrefix = pathPrefix;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request.getMethod() != HttpMethod.GET && request.getMethod() != HttpMethod.HEAD
+                && request.getURI().getPath().startsWith(pathPrefix)
+                && response instanceof ServletServerHttpResponse servletResponse
+                && servletResponse.getServletResponse().getStatus() < 400) {
+            response.getHeaders().set(ReadConsistency.HEADER, ReadConsistency.issue());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,47 @@
+package com.msproj.servicesupport.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the X-Consistency-Token of reads under the service's API path to the request thread.
+ */
+public class ConsistencyTokenFilter extends OncePerRequestFilter {
+
+    private final String pathPrefix;
+
+    /**
+     * @param pathPrefix request paths whose reads honour the token, e.g. /api/orders
+     */
+    public ConsistencyTokenFilter(String pathPrefix) {
+        this.pathPrefix = pathPrefix;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !request.getRequestURI().startsWith(pathPrefix);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long token = ReadConsistency.parse(request.getHeader(ReadConsistency.HEADER));
+
+        if (token == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ReadConsistency.set(token);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadConsistency.clear();
+        }
+    }
+}
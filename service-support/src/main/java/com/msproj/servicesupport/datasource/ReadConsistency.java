@@ -0,0 +1,50 @@
+package com.msproj.servicesupport.datasource;
+
+import java.util.OptionalLong;
+
+/**
+ * Read-your-writes token of the request being handled on the current thread.
+ * <p>
+ * Successful writes answer with X-Consistency-Token (epoch millis, taken after
+ * the write committed). A client that sends the token back on a read is only
+ * served by a replica known to have applied writes up to it; otherwise the
+ * read goes to the primary. Services with a projected read model also hold
+ * such reads until the projection's watermark has passed the token.
+ */
+public final class ReadConsistency {
+
+    public static final String HEADER = "X-Consistency-Token";
+
+    private static final ThreadLocal<Long> TOKEN = new ThreadLocal<>();
+
+    private ReadConsistency() {
+    }
+
+    public static void set(long tokenEpochMillis) {
+        TOKEN.set(tokenEpochMillis);
+    }
+
+    public static void clear() {
+        TOKEN.remove();
+    }
+
+    public static OptionalLong current() {
+        Long token = TOKEN.get();
+        return token != null ? OptionalLong.of(token) : OptionalLong.empty();
+    }
+
+    public static String issue() {
+        return String.valueOf(System.currentTimeMillis());
+    }
+
+    public static Long parse(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
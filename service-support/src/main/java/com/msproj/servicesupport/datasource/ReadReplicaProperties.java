@@ -0,0 +1,70 @@
+package com.msproj.servicesupport.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica settings, bound by each service under its own prefix
+ * (order.read-replicas.*, product.read-replicas.*, user.read-replicas.*).
+ * <p>
+ * Enabled, transactions marked readOnly run on one of the replicas and
+ * everything else on the primary (spring.datasource).
+ */
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+    private long healthCheckIntervalMs = 5000;
+    // Replicas further behind the primary than this get no reads; 0 disables the lag guard
+    private long maxLagMs = 0;
+    // Replay delay of a replica in milliseconds; the default is for PostgreSQL streaming replication
+    private String lagQuery = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) END";
+    // Without the lag guard, reads carrying a consistency token younger than this stay on the primary
+    private long stickyAfterWriteMs = 2000;
+    private List<Replica> replicas = new ArrayList<>();
+
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+
+        public String getDriverClassName() { return driverClassName; }
+        public void setDriverClassName(String driverClassName) { this.driverClassName = driverClassName; }
+
+        public int getMaximumPoolSize() { return maximumPoolSize; }
+        public void setMaximumPoolSize(int maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long getHealthCheckIntervalMs() { return healthCheckIntervalMs; }
+    public void setHealthCheckIntervalMs(long healthCheckIntervalMs) { this.healthCheckIntervalMs = healthCheckIntervalMs; }
+
+    public long getMaxLagMs() { return maxLagMs; }
+    public void setMaxLagMs(long maxLagMs) { this.maxLagMs = maxLagMs; }
+
+    public String getLagQuery() { return lagQuery; }
+    public void setLagQuery(String lagQuery) { this.lagQuery = lagQuery; }
+
+    public long getStickyAfterWriteMs() { return stickyAfterWriteMs; }
+    public void setStickyAfterWriteMs(long stickyAfterWriteMs) { this.stickyAfterWriteMs = stickyAfterWriteMs; }
+
+    public List<Replica> getReplicas() { return replicas; }
+    public void setReplicas(List<Replica> replicas) { this.replicas = replicas; }
+}
@@ -0,0 +1,192 @@
+package com.msproj.servicesupport.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Owns the replica pools and decides which replica may serve a read.
+ * <p>
+ * A background check runs the lag query on every replica each
+ * health-check-interval-ms; a replica that fails it (or fails to hand out a
+ * connection) is taken out of rotation until a later check succeeds.
+ * Selection is round robin over the replicas that are healthy, within
+ * max-lag-ms and - for a read carrying a consistency token - known to have
+ * applied writes up to that token.
+ */
+public class ReplicaHealthMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService checker;
+    private final Counter primaryReads;
+
+    private final long maxLagMs;
+    private final long stickyAfterWriteMs;
+    private final String lagQuery;
+
+    public ReplicaHealthMonitor(ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.maxLagMs = properties.getMaxLagMs();
+        this.stickyAfterWriteMs = properties.getStickyAfterWriteMs();
+        this.lagQuery = properties.getLagQuery();
+
+        List<ReadReplicaProperties.Replica> configured = properties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReadReplicaProperties.Replica replica = configured.get(i);
+            String name = replica.getName() != null ? replica.getName() : "replica-" + (i + 1);
+
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .driverClassName(replica.getDriverClassName())
+                    .build();
+            pool.setPoolName(name);
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            pool.setReadOnly(true);
+            pool.setMetricRegistry(meterRegistry);
+
+            replicas.add(new Replica(name, pool, meterRegistry));
+        }
+
+        this.primaryReads = Counter.builder("db.replica.reads")
+                .description("Read-only transactions by the pool that served them")
+                .tag("pool", "primary")
+                .register(meterRegistry);
+
+        this.checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ReplicaHealth");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::checkAll, 0, properties.getHealthCheckIntervalMs(), TimeUnit.MILLISECONDS);
+
+        logger.info("Routing read-only transactions over {} replicas (max lag {} ms)", replicas.size(), maxLagMs);
+    }
+
+    /**
+     * @return the next eligible replica, or null when the read must go to the primary
+     */
+    Replica select(OptionalLong consistencyToken) {
+        int count = replicas.size();
+        if (count == 0) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        int start = Math.floorMod(next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            if (isEligible(replica, consistencyToken, now)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    void recordPrimaryRead() {
+        primaryReads.increment();
+    }
+
+    void markDown(Replica replica, SQLException e) {
+        if (replica.healthy) {
+            logger.warn("Replica {} taken out of rotation: {}", replica.name, e.getMessage());
+        }
+        replica.healthy = false;
+    }
+
+    @Override
+    public void close() {
+        checker.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private boolean isEligible(Replica replica, OptionalLong consistencyToken, long now) {
+        if (!replica.healthy) {
+            return false;
+        }
+
+        if (maxLagMs > 0) {
+            if (replica.lagMs > maxLagMs) {
+                return false;
+            }
+            // Writes committed before checkedAt - lag are known to be applied on the replica
+            return consistencyToken.isEmpty() || replica.checkedAtMs - replica.lagMs >= consistencyToken.getAsLong();
+        }
+
+        return consistencyToken.isEmpty() || now - consistencyToken.getAsLong() >= stickyAfterWriteMs;
+    }
+
+    private void checkAll() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+
+                long lagMs = resultSet.next() ? Math.max(0, Math.round(resultSet.getDouble(1))) : 0;
+                if (!replica.healthy) {
+                    logger.info("Replica {} {} rotation (lag {} ms)",
+                            replica.name, replica.checkedAtMs == 0 ? "joined" : "back in", lagMs);
+                }
+
+                replica.lagMs = lagMs;
+                replica.checkedAtMs = System.currentTimeMillis();
+                replica.healthy = true;
+
+            } catch (SQLException e) {
+                markDown(replica, e);
+            } catch (RuntimeException e) {
+                logger.warn("Health check of replica {} failed: {}", replica.name, e.getMessage());
+                replica.healthy = false;
+            }
+        }
+    }
+
+    static final class Replica {
+
+        final String name;
+        final HikariDataSource pool;
+        final Counter reads;
+
+        volatile boolean healthy;
+        volatile long lagMs;
+        volatile long checkedAtMs;
+
+        private Replica(String name, HikariDataSource pool, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.pool = pool;
+            this.reads = Counter.builder("db.replica.reads")
+                    .description("Read-only transactions by the pool that served them")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+
+            Gauge.builder("db.replica.healthy", this, replica -> replica.healthy ? 1 : 0)
+                    .description("Whether the replica is in rotation")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+            Gauge.builder("db.replica.lag.ms", this, replica -> replica.lagMs)
+                    .description("Replication lag at the last health check")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.msproj.servicesupport.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out replica connections to read-only transactions and primary
+ * connections to everything else.
+ * <p>
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction's
+ * read-only flag is only published after the transaction manager asked for
+ * its connection, so the physical connection is fetched at the first
+ * statement instead. A replica that fails to hand out a connection is taken
+ * out of rotation and the read falls back to the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final ReplicaHealthMonitor replicaHealthMonitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaHealthMonitor replicaHealthMonitor) {
+        this.primary = primary;
+        this.replicaHealthMonitor = replicaHealthMonitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary.getConnection();
+        }
+
+        ReplicaHealthMonitor.Replica replica = replicaHealthMonitor.select(ReadConsistency.current());
+        if (replica != null) {
+            try {
+                Connection connection = replica.pool.getConnection();
+                replica.reads.increment();
+                return connection;
+            } catch (SQLException e) {
+                replicaHealthMonitor.markDown(replica, e);
+            }
+        }
+
+        replicaHealthMonitor.recordPrimaryRead();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+}
@@ -0,0 +1,75 @@
+package com.msproj.servicesupport.deadline;
+
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the request deadline (X-Request-Deadline, epoch millis) to the
+ * request thread for the duration of the request.
+ * <p>
+ * Requests without the header get the default budget, or no deadline when it
+ * is 0. Requests whose deadline passed while they were queued are answered
+ * with 504 without doing any work: the caller has already given up on them.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadlineFilter.class);
+
+    private final long defaultBudgetMs;
+    private final Counter expiredRequests;
+
+    /**
+     * @param defaultBudgetMs budget of requests arriving without the header; 0 leaves them without a deadline
+     * @param expiredRequests counts requests dropped because their deadline had passed
+     */
+    public DeadlineFilter(long defaultBudgetMs, Counter expiredRequests) {
+        this.defaultBudgetMs = defaultBudgetMs;
+        this.expiredRequests = expiredRequests;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long deadline = RequestDeadline.parse(request.getHeader(RequestDeadline.HEADER));
+
+        if (deadline == null) {
+            if (defaultBudgetMs <= 0) {
+                chain.doFilter(request, response);
+                return;
+            }
+            deadline = System.currentTimeMillis() + defaultBudgetMs;
+        }
+
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            expiredRequests.increment();
+            logger.warn("Dropping {} {}: deadline passed {} ms ago", request.getMethod(), request.getRequestURI(), -remaining);
+            response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(), "Request deadline passed before processing started");
+            return;
+        }
+
+        RequestDeadline.set(deadline);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+}
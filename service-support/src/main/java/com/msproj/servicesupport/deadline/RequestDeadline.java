@@ -0,0 +1,58 @@
+package com.msproj.servicesupport.deadline;
+
+import java.util.OptionalLong;
+
+/**
+ * Absolute deadline of the request being handled on the current thread.
+ * <p>
+ * The gateway stamps X-Request-Deadline (epoch millis) on incoming requests;
+ * DeadlineFilter binds it to the request thread, and order-service's
+ * DeadlineClient bounds every outbound Feign call by the remaining budget.
+ * Background work (@Async, schedulers) runs without a deadline. The header
+ * name and its parsing live here only, so the gateway and the services agree
+ * on both.
+ */
+public final class RequestDeadline {
+
+    public static final String HEADER = "X-Request-Deadline";
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    public static void set(long deadlineEpochMillis) {
+        DEADLINE.set(deadlineEpochMillis);
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    public static OptionalLong current() {
+        Long deadline = DEADLINE.get();
+        return deadline != null ? OptionalLong.of(deadline) : OptionalLong.empty();
+    }
+
+    /**
+     * @return milliseconds left (negative once passed), or Long.MAX_VALUE without a deadline
+     */
+    public static long remainingMillis() {
+        Long deadline = DEADLINE.get();
+        return deadline != null ? deadline - System.currentTimeMillis() : Long.MAX_VALUE;
+    }
+
+    /**
+     * @return the deadline in the header, or null when absent or malformed
+     */
+    public static Long parse(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
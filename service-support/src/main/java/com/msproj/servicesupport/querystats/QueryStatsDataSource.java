@@ -0,0 +1,44 @@
+package com.msproj.servicesupport.querystats;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSource wrapper that adds the time getConnection spends in the pool,
+ * including the wait for a free connection, to RequestQueryStats.
+ * <p>
+ * The pool's connections are handed out as they are, unwrapped: statements
+ * are timed by QueryStatsSessionListener, not here.
+ */
+public class QueryStatsDataSource extends DelegatingDataSource {
+
+    public QueryStatsDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long startedAt = System.nanoTime();
+        Connection connection = getTargetDataSource().getConnection();
+        acquired(startedAt);
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long startedAt = System.nanoTime();
+        Connection connection = getTargetDataSource().getConnection(username, password);
+        acquired(startedAt);
+        return connection;
+    }
+
+    private static void acquired(long startedAt) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.connectionAcquired(System.nanoTime() - startedAt);
+        }
+    }
+}
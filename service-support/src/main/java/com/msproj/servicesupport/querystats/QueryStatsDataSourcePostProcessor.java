@@ -0,0 +1,34 @@
+package com.msproj.servicesupport.querystats;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in QueryStatsDataSource.
+ * <p>
+ * Only the "dataSource" bean that JPA, JdbcTemplate and the transaction
+ * manager share is wrapped, so a connection is counted once whether it comes
+ * from the plain pool, a shard or a replica. When that bean is a
+ * LazyConnectionDataSourceProxy (sharding, read replicas) the wrapper goes
+ * underneath it: the lazy proxy hands out connection handles up front, and
+ * only below it does getConnection measure the actual wait for a pooled
+ * connection.
+ */
+public class QueryStatsDataSourcePostProcessor implements BeanPostProcessor {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        if (bean instanceof LazyConnectionDataSourceProxy lazy) {
+            lazy.setTargetDataSource(new QueryStatsDataSource(lazy.getTargetDataSource()));
+            return lazy;
+        }
+        return new QueryStatsDataSource(dataSource);
+    }
+}
@@ -0,0 +1,100 @@
+package com.msproj.servicesupport.querystats;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens RequestQueryStats for each API request and, for sampled requests,
+ * exports what the request did through JDBC, tagged by the controller method
+ * that handled it (endpoint=OrderController.getOrderById):
+ * <ul>
+ *   <li>db.request.statements - statements executed through Hibernate</li>
+ *   <li>db.request.jdbc - time spent executing statements</li>
+ *   <li>db.request.connection.wait - time spent getting connections from the pool</li>
+ * </ul>
+ * Unsampled requests are still timed statement by statement for the slow query log.
+ */
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryStatsFilter.class);
+
+    private static final String UNMAPPED = "UNMAPPED";
+
+    private final QueryStatsProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public QueryStatsFilter(QueryStatsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean sampled = ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+        RequestQueryStats.start(request.getMethod() + " " + request.getRequestURI(), sampled);
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // With async requests this covers the work done before the request thread was released
+            RequestQueryStats stats = RequestQueryStats.end();
+            if (stats != null && stats.isSampled()) {
+                record(endpoint(request), stats);
+            }
+        }
+    }
+
+    private void record(String endpoint, RequestQueryStats stats) {
+        DistributionSummary.builder("db.request.statements")
+                .description("JDBC statements executed per request")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("db.request.jdbc")
+                .description("Time per request spent executing JDBC statements")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        Timer.builder("db.request.connection.wait")
+                .description("Time per request spent getting connections from the pool")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(stats.getConnectionWaitNanos(), TimeUnit.NANOSECONDS);
+
+        int threshold = properties.getStatementWarnThreshold();
+        if (threshold > 0 && stats.getStatements() > threshold) {
+            logger.warn("{} ({}) executed {} SQL statements in {} ms",
+                    stats.getRequest(), endpoint, stats.getStatements(),
+                    TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos()));
+        }
+    }
+
+    // The matched controller method rather than the URI, so path variables do not multiply the series
+    private static String endpoint(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return UNMAPPED;
+    }
+}
@@ -0,0 +1,31 @@
+package com.msproj.servicesupport.querystats;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+
+import java.util.Map;
+
+/**
+ * Registers QueryStatsStatementInspector and QueryStatsSessionListener with
+ * the session factory.
+ * <p>
+ * A statement inspector that is already configured (QueryBudgetTest's
+ * SqlStatementCounter) is left in place; statements are then counted by it
+ * and not timed here.
+ */
+public class QueryStatsHibernateCustomizer implements HibernatePropertiesCustomizer {
+
+    private final QueryStatsStatementInspector inspector;
+
+    public QueryStatsHibernateCustomizer(QueryStatsStatementInspector inspector) {
+        this.inspector = inspector;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        if (hibernateProperties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, inspector) == null) {
+            hibernateProperties.putIfAbsent(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                    QueryStatsSessionListener.class.getName());
+        }
+    }
+}
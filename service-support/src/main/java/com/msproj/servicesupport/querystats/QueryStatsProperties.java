@@ -0,0 +1,36 @@
+package com.msproj.servicesupport.querystats;
+
+/**
+ * SQL instrumentation settings, bound by each service under its own prefix
+ * (order.query-stats.*, product.query-stats.*, user.query-stats.*).
+ * <p>
+ * Enabled, every statement Hibernate executes is timed for the slow query
+ * log, and a sample of requests also records statements, JDBC time and
+ * connection wait per controller method as Micrometer metrics.
+ */
+public class QueryStatsProperties {
+
+    private boolean enabled = true;
+    // Fraction of requests whose statements are counted and exported
+    private double sampleRate = 0.1;
+    // Statements running at least this long are logged with their SQL; 0 disables the log
+    private long slowQueryMs = 500;
+    // Sampled requests issuing more statements than this are logged (N+1 suspects); 0 disables
+    private int statementWarnThreshold = 50;
+    private int maxSqlLength = 1000;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public double getSampleRate() { return sampleRate; }
+    public void setSampleRate(double sampleRate) { this.sampleRate = sampleRate; }
+
+    public long getSlowQueryMs() { return slowQueryMs; }
+    public void setSlowQueryMs(long slowQueryMs) { this.slowQueryMs = slowQueryMs; }
+
+    public int getStatementWarnThreshold() { return statementWarnThreshold; }
+    public void setStatementWarnThreshold(int statementWarnThreshold) { this.statementWarnThreshold = statementWarnThreshold; }
+
+    public int getMaxSqlLength() { return maxSqlLength; }
+    public void setMaxSqlLength(int maxSqlLength) { this.maxSqlLength = maxSqlLength; }
+}
@@ -0,0 +1,36 @@
+package com.msproj.servicesupport.querystats;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times the statements and batches a Hibernate session executes, for
+ * RequestQueryStats and the slow query log (see QueryStatsStatementInspector).
+ * <p>
+ * Hibernate creates one per session from hibernate.session.events.auto, so it
+ * has no constructor arguments; a session is used by one thread at a time,
+ * so the start time is a plain field. Result sets are not touched.
+ */
+public class QueryStatsSessionListener implements SessionEventListener {
+
+    private long startedAt;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        startedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryStatsStatementInspector.executed(System.nanoTime() - startedAt, false);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        startedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryStatsStatementInspector.executed(System.nanoTime() - startedAt, true);
+    }
+}
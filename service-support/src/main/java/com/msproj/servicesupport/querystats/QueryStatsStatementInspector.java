@@ -0,0 +1,80 @@
+package com.msproj.servicesupport.querystats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hibernate StatementInspector that notes the SQL of each statement as it is
+ * prepared, so QueryStatsSessionListener can add its execution time to
+ * RequestQueryStats and log it when it is slow.
+ * <p>
+ * One instance per session factory, given to Hibernate as
+ * hibernate.session_factory.statement_inspector. Preparing and executing a
+ * statement happen on the same thread, so the SQL and this inspector are
+ * handed to the listener through a thread local. Only what Hibernate executes
+ * is seen: JdbcTemplate and plain JDBC bypass both.
+ */
+public class QueryStatsStatementInspector implements StatementInspector {
+
+    private static final Logger slowQueryLogger = LoggerFactory.getLogger(QueryStatsStatementInspector.class);
+
+    private static final ThreadLocal<Prepared> PREPARED = ThreadLocal.withInitial(Prepared::new);
+
+    private final long slowQueryNanos;
+    private final int maxSqlLength;
+    private final Counter slowStatements;
+
+    public QueryStatsStatementInspector(QueryStatsProperties properties, MeterRegistry meterRegistry) {
+        this.slowQueryNanos = properties.getSlowQueryMs() > 0 ? properties.getSlowQueryMs() * 1_000_000L : Long.MAX_VALUE;
+        this.maxSqlLength = properties.getMaxSqlLength();
+        this.slowStatements = Counter.builder("db.statements.slow")
+                .description("JDBC statements slower than the slow query threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Prepared prepared = PREPARED.get();
+        prepared.inspector = this;
+        prepared.sql = sql;
+        return sql;
+    }
+
+    /**
+     * Record a statement (or batch) the calling thread has just executed.
+     */
+    static void executed(long nanos, boolean batch) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.statementExecuted(nanos);
+        }
+        Prepared prepared = PREPARED.get();
+        if (prepared.inspector != null && nanos >= prepared.inspector.slowQueryNanos) {
+            prepared.inspector.logSlow(batch ? null : prepared.sql, nanos);
+        }
+    }
+
+    private void logSlow(String sql, long nanos) {
+        slowStatements.increment();
+        RequestQueryStats stats = RequestQueryStats.current();
+        slowQueryLogger.warn("Slow SQL ({} ms) in {}: {}", nanos / 1_000_000,
+                stats != null ? stats.getRequest() : Thread.currentThread().getName(), abbreviate(sql));
+    }
+
+    private String abbreviate(String sql) {
+        if (sql == null) {
+            return "<batch>";
+        }
+        String compact = sql.replaceAll("\\s+", " ").trim();
+        return compact.length() <= maxSqlLength ? compact : compact.substring(0, maxSqlLength) + "...";
+    }
+
+    // Reused per thread, so noting a statement allocates nothing
+    private static final class Prepared {
+        private QueryStatsStatementInspector inspector;
+        private String sql;
+    }
+}
@@ -0,0 +1,78 @@
+package com.msproj.servicesupport.querystats;
+
+/**
+ * JDBC work of one request, bound to the request thread.
+ * <p>
+ * QueryStatsFilter opens it, QueryStatsSessionListener and
+ * QueryStatsDataSource add to it and the filter exports it when the request
+ * ends. Only the owning thread touches it, so the counters are plain fields.
+ * Statements run on other threads (@Async work, parallel shard scans) are not
+ * attributed to the request.
+ */
+public final class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private final String request;
+    private final boolean sampled;
+
+    private long statements;
+    private long jdbcNanos;
+    private long connections;
+    private long connectionWaitNanos;
+
+    private RequestQueryStats(String request, boolean sampled) {
+        this.request = request;
+        this.sampled = sampled;
+    }
+
+    /**
+     * Start counting for the calling thread.
+     *
+     * @param request what to name the work in the slow query log
+     * @param sampled whether the request's statements are exported, not just timed for the slow query log
+     */
+    public static RequestQueryStats start(String request, boolean sampled) {
+        RequestQueryStats stats = new RequestQueryStats(request, sampled);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * @return the calling thread's stats, or null outside a request
+     */
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stop counting for the calling thread.
+     */
+    public static RequestQueryStats end() {
+        RequestQueryStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    void statementExecuted(long nanos) {
+        statements++;
+        jdbcNanos += nanos;
+    }
+
+    void connectionAcquired(long waitNanos) {
+        connections++;
+        connectionWaitNanos += waitNanos;
+    }
+
+    public String getRequest() { return request; }
+
+    public boolean isSampled() { return sampled; }
+
+    public long getStatements() { return statements; }
+
+    public long getJdbcNanos() { return jdbcNanos; }
+
+    public long getConnections() { return connections; }
+
+    public long getConnectionWaitNanos() { return connectionWaitNanos; }
+}
@@ -0,0 +1,170 @@
+package com.msproj.servicesupport.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Inflates request bodies sent with Content-Encoding: gzip.
+ * <p>
+ * The servlet container only compresses responses; internal clients also
+ * gzip large JSON request bodies, so they are decoded here before binding.
+ * Blocking reads inflate as they go. A non-blocking reader (setReadListener)
+ * is served once the whole compressed body has arrived: it is collected
+ * without blocking, then inflated in memory.
+ */
+public class GzipRequestFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String encoding = request.getHeader("Content-Encoding");
+        return encoding == null || !encoding.trim().equalsIgnoreCase("gzip");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(new GzipRequestWrapper(request), response);
+    }
+
+    private static final class GzipRequestWrapper extends HttpServletRequestWrapper {
+
+        private GzipInputStream inputStream;
+
+        private GzipRequestWrapper(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new GzipInputStream(super.getInputStream());
+            }
+            return inputStream;
+        }
+
+        // The decoded length is unknown and the body is no longer gzip
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isHidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isHidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        private static boolean isHidden(String name) {
+            return "Content-Encoding".equalsIgnoreCase(name) || "Content-Length".equalsIgnoreCase(name);
+        }
+    }
+
+    private static final class GzipInputStream extends ServletInputStream {
+
+        private final ServletInputStream compressed;
+
+        // Created at the first blocking read, or once a non-blocking reader has received the whole body
+        private InputStream inflated;
+        private boolean nonBlocking;
+        private boolean finished;
+
+        private GzipInputStream(ServletInputStream compressed) {
+            this.compressed = compressed;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = inflated().read();
+            finished = b < 0;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = inflated().read(buffer, offset, length);
+            finished = read < 0;
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return !nonBlocking || inflated != null;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            nonBlocking = true;
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+            compressed.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[8192];
+                    while (compressed.isReady()) {
+                        int read = compressed.read(buffer);
+                        if (read < 0) {
+                            return;
+                        }
+                        body.write(buffer, 0, read);
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    try {
+                        inflated = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()));
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                        return;
+                    }
+                    // The inflated body is in memory, so the reader drains it without waiting
+                    readListener.onDataAvailable();
+                    readListener.onAllDataRead();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    readListener.onError(t);
+                }
+            });
+        }
+
+        private InputStream inflated() throws IOException {
+            if (inflated == null) {
+                if (nonBlocking) {
+                    throw new IllegalStateException("Read before the request body was ready");
+                }
+                inflated = new GZIPInputStream(compressed);
+            }
+            return inflated;
+        }
+    }
+}
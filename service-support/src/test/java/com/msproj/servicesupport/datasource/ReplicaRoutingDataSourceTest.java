@@ -0,0 +1,121 @@
+package com.msproj.servicesupport.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ReplicaRoutingDataSource over two H2 databases that name themselves:
+ * read-only transactions go to the replica, everything after them on the
+ * same thread that writes goes to the primary.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String WHICH = "SELECT name FROM pool_name";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HikariDataSource primary;
+    private ReplicaHealthMonitor monitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate reads;
+    private TransactionTemplate writes;
+
+    @BeforeEach
+    void setUp() {
+        primary = pool("jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1");
+        seed(primary, "primary");
+        try (HikariDataSource replica = pool("jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1")) {
+            seed(replica, "replica-1");
+        }
+
+        ReadReplicaProperties.Replica replica = new ReadReplicaProperties.Replica();
+        replica.setName("replica-1");
+        replica.setUrl("jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1");
+        replica.setUsername("sa");
+        replica.setPassword("");
+        replica.setDriverClassName("org.h2.Driver");
+        ReadReplicaProperties properties = new ReadReplicaProperties();
+        properties.setLagQuery("SELECT 0");
+        properties.setReplicas(List.of(replica));
+        monitor = new ReplicaHealthMonitor(properties, meterRegistry);
+        awaitReplicaInRotation();
+
+        LazyConnectionDataSourceProxy dataSource =
+                new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, monitor));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+        writes = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadConsistency.clear();
+        monitor.close();
+        primary.close();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndLaterWritesThePrimary() {
+        assertThat(poolOf(reads)).isEqualTo("replica-1");
+
+        String written = writes.execute(status -> {
+            jdbcTemplate.update("INSERT INTO writes (id) VALUES (1)");
+            return jdbcTemplate.queryForObject(WHICH, String.class);
+        });
+
+        assertThat(written).isEqualTo("primary");
+        assertThat(new JdbcTemplate(primary).queryForObject("SELECT COUNT(*) FROM writes", Integer.class)).isEqualTo(1);
+        assertThat(poolOf(reads)).isEqualTo("replica-1");
+    }
+
+    @Test
+    void readsWithAFreshConsistencyTokenStayOnThePrimary() {
+        ReadConsistency.set(System.currentTimeMillis());
+
+        assertThat(poolOf(reads)).isEqualTo("primary");
+        assertThat(meterRegistry.get("db.replica.reads").tag("pool", "primary").counter().count()).isEqualTo(1);
+    }
+
+    private String poolOf(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject(WHICH, String.class));
+    }
+
+    private static HikariDataSource pool(String url) {
+        return DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username("sa").password("").driverClassName("org.h2.Driver")
+                .build();
+    }
+
+    private static void seed(HikariDataSource dataSource, String name) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS pool_name (name VARCHAR(32))");
+        jdbc.execute("CREATE TABLE IF NOT EXISTS writes (id INT)");
+        jdbc.update("DELETE FROM pool_name");
+        jdbc.update("DELETE FROM writes");
+        jdbc.update("INSERT INTO pool_name (name) VALUES (?)", name);
+    }
+
+    private void awaitReplicaInRotation() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("db.replica.healthy").tag("pool", "replica-1").gauge().value() < 1
+                && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.msproj.servicesupport.deadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * DeadlineFilter and the X-Request-Deadline parsing shared by the gateway and the services.
+ */
+class DeadlineFilterTest {
+
+    private final Counter expired = Counter.builder("test.deadline.exceeded").register(new SimpleMeterRegistry());
+
+    @Test
+    void parseAcceptsEpochMillisOnly() {
+        assertThat(RequestDeadline.parse(" 1700000000000 ")).isEqualTo(1_700_000_000_000L);
+        assertThat(RequestDeadline.parse(null)).isNull();
+        assertThat(RequestDeadline.parse(" ")).isNull();
+        assertThat(RequestDeadline.parse("soon")).isNull();
+    }
+
+    @Test
+    void bindsTheHeaderDeadlineForTheRequestOnly() throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        request.addHeader(RequestDeadline.HEADER, String.valueOf(deadline));
+        AtomicReference<OptionalLong> seen = new AtomicReference<>();
+
+        new DeadlineFilter(0, expired).doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> seen.set(RequestDeadline.current()));
+
+        assertThat(seen.get()).hasValue(deadline);
+        assertThat(RequestDeadline.current()).isEmpty();
+    }
+
+    @Test
+    void requestsWithoutTheHeaderGetTheDefaultBudget() throws Exception {
+        AtomicReference<OptionalLong> seen = new AtomicReference<>();
+
+        new DeadlineFilter(0, expired).doFilter(new MockHttpServletRequest("GET", "/api/products/1"),
+                new MockHttpServletResponse(), (req, res) -> seen.set(RequestDeadline.current()));
+        assertThat(seen.get()).isEmpty();
+
+        long before = System.currentTimeMillis();
+        new DeadlineFilter(5_000, expired).doFilter(new MockHttpServletRequest("GET", "/api/products/1"),
+                new MockHttpServletResponse(), (req, res) -> seen.set(RequestDeadline.current()));
+        assertThat(seen.get().getAsLong()).isBetween(before + 5_000, System.currentTimeMillis() + 5_000);
+    }
+
+    @Test
+    void expiredRequestsAreAnsweredWithoutRunning() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/products/check-availability");
+        request.addHeader(RequestDeadline.HEADER, String.valueOf(System.currentTimeMillis() - 1));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<Boolean> ran = new AtomicReference<>(false);
+
+        new DeadlineFilter(0, expired).doFilter(request, response, (req, res) -> ran.set(true));
+
+        assertThat(ran.get()).isFalse();
+        assertThat(response.getStatus()).isEqualTo(504);
+        assertThat(expired.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,113 @@
+package com.msproj.servicesupport.querystats;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hibernate on H2 with the query stats hooks: statements executed inside a
+ * request are counted and timed, connections are counted by the DataSource
+ * wrapper, and slow statements reach the slow query counter.
+ */
+class QueryStatsSessionListenerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HikariDataSource pool;
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        pool = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url("jdbc:h2:mem:query_stats;DB_CLOSE_DELAY=-1").username("sa").password("")
+                .driverClassName("org.h2.Driver")
+                .build();
+        QueryStatsProperties properties = new QueryStatsProperties();
+        properties.setSlowQueryMs(1);
+
+        Map<String, Object> hibernateProperties = new HashMap<>();
+        hibernateProperties.put("hibernate.hbm2ddl.auto", "create-drop");
+        new QueryStatsHibernateCustomizer(new QueryStatsStatementInspector(properties, meterRegistry))
+                .customize(hibernateProperties);
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource((DataSource) new QueryStatsDataSourcePostProcessor()
+                .postProcessAfterInitialization(pool, "dataSource"));
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setPackagesToScan(QueryStatsSessionListenerTest.class.getPackageName());
+        factory.setJpaPropertyMap(hibernateProperties);
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestQueryStats.end();
+        entityManagerFactory.close();
+        pool.close();
+    }
+
+    @Test
+    void statementsOfARequestAreCountedAndTimed() {
+        RequestQueryStats stats = RequestQueryStats.start("GET /api/notes", true);
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            entityManager.persist(new Note(1L));
+            entityManager.persist(new Note(2L));
+            entityManager.getTransaction().commit();
+            entityManager.clear();
+
+            assertThat(entityManager.createQuery("select n from Note n", Note.class)
+                    .getResultList()).hasSize(2);
+        } finally {
+            entityManager.close();
+        }
+
+        assertThat(stats.getStatements()).isEqualTo(3);
+        assertThat(stats.getJdbcNanos()).isPositive();
+        assertThat(stats.getConnections()).isPositive();
+    }
+
+    @Test
+    void slowStatementsAreCounted() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.createNativeQuery("SELECT SUM(MOD(X * 7, 13)) FROM SYSTEM_RANGE(1, 3000000)").getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+
+        assertThat(meterRegistry.get("db.statements.slow").counter().count()).isEqualTo(1);
+    }
+
+    @Entity(name = "Note")
+    static class Note {
+
+        @Id
+        private Long id;
+
+        protected Note() {
+        }
+
+        Note(Long id) {
+            this.id = id;
+        }
+    }
+}
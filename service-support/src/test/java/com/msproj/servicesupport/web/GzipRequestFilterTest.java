@@ -0,0 +1,218 @@
+package com.msproj.servicesupport.web;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * GzipRequestFilter with blocking and non-blocking (servlet 3.1) readers.
+ */
+class GzipRequestFilterTest {
+
+    private static final String BODY = "{\"productIds\":[1,2,3],\"note\":\"" + "x".repeat(20_000) + "\"}";
+
+    private final GzipRequestFilter filter = new GzipRequestFilter();
+
+    @Test
+    void blockingReadersSeeTheInflatedBody() throws Exception {
+        MockHttpServletRequest request = gzipRequest();
+        request.setContent(gzip(BODY));
+
+        HttpServletRequest filtered = filter(request);
+
+        assertThat(new String(filtered.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+        assertThat(filtered.getInputStream().isFinished()).isTrue();
+        assertThat(filtered.getHeader("Content-Encoding")).isNull();
+        assertThat(filtered.getContentLengthLong()).isEqualTo(-1);
+    }
+
+    @Test
+    void nonBlockingReadersGetTheBodyOnceItHasArrived() throws Exception {
+        byte[] compressed = gzip(BODY);
+        ChunkedInputStream chunks = new ChunkedInputStream();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/products") {
+            @Override
+            public ServletInputStream getInputStream() {
+                return chunks;
+            }
+        };
+        request.addHeader("Content-Encoding", "gzip");
+
+        ServletInputStream in = filter(request).getInputStream();
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        AtomicReference<Boolean> allDataRead = new AtomicReference<>(false);
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[1024];
+                while (in.isReady() && !in.isFinished()) {
+                    int read = in.read(buffer);
+                    if (read > 0) {
+                        received.write(buffer, 0, read);
+                    }
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allDataRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+
+        int half = compressed.length / 2;
+        chunks.arrive(Arrays.copyOfRange(compressed, 0, half));
+        assertThat(in.isReady()).isFalse();
+        assertThatThrownBy(in::read).isInstanceOf(IllegalStateException.class);
+
+        chunks.arrive(Arrays.copyOfRange(compressed, half, compressed.length));
+        chunks.complete();
+
+        assertThat(allDataRead.get()).isTrue();
+        assertThat(received.toString(StandardCharsets.UTF_8)).isEqualTo(BODY);
+    }
+
+    @Test
+    void nonBlockingReadersAreToldAboutCorruptBodies() throws Exception {
+        ChunkedInputStream chunks = new ChunkedInputStream();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/products") {
+            @Override
+            public ServletInputStream getInputStream() {
+                return chunks;
+            }
+        };
+        request.addHeader("Content-Encoding", "gzip");
+
+        ServletInputStream in = filter(request).getInputStream();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() {
+            }
+
+            @Override
+            public void onAllDataRead() {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                error.set(t);
+            }
+        });
+
+        chunks.arrive("not gzip".getBytes(StandardCharsets.UTF_8));
+        chunks.complete();
+
+        assertThat(error.get()).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void otherEncodingsPassThrough() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/products");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(filter(request)).isSameAs(request);
+    }
+
+    private HttpServletRequest filter(MockHttpServletRequest request) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        ServletRequest passed = chain.getRequest();
+        return (HttpServletRequest) passed;
+    }
+
+    private static MockHttpServletRequest gzipRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/products");
+        request.addHeader("Content-Encoding", "gzip");
+        return request;
+    }
+
+    private static byte[] gzip(String body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Container side of a non-blocking request body: bytes arrive in chunks and the listener is called as they do.
+     */
+    private static final class ChunkedInputStream extends ServletInputStream {
+
+        private byte[] available = new byte[0];
+        private int position;
+        private boolean complete;
+        private ReadListener listener;
+
+        void arrive(byte[] chunk) throws IOException {
+            available = Arrays.copyOfRange(available, position, available.length);
+            position = 0;
+            byte[] grown = Arrays.copyOf(available, available.length + chunk.length);
+            System.arraycopy(chunk, 0, grown, available.length, chunk.length);
+            available = grown;
+            listener.onDataAvailable();
+        }
+
+        void complete() throws IOException {
+            complete = true;
+            listener.onAllDataRead();
+        }
+
+        @Override
+        public int read() {
+            if (!isReady()) {
+                throw new IllegalStateException("Not ready");
+            }
+            return position < available.length ? available[position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (!isReady()) {
+                throw new IllegalStateException("Not ready");
+            }
+            if (position == available.length) {
+                return -1;
+            }
+            int read = Math.min(length, available.length - position);
+            System.arraycopy(available, position, buffer, offset, read);
+            position += read;
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return complete && position == available.length;
+        }
+
+        @Override
+        public boolean isReady() {
+            return position < available.length || complete;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            this.listener = readListener;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.msproj.testsupport;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * SQL statement assertions for JPA service methods.
+ * <p>
+ * Each measurement flushes the seeded data and clears the persistence
+ * context first, so the work loads everything it touches from the database the
+ * way it would in a fresh request; lazy associations resolved row by row show
+ * up as extra statements. Failures list the statements that ran.
+ */
+public class QueryBudget {
+
+    private final TestEntityManager entityManager;
+
+    public QueryBudget(TestEntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Run the work and fail if it issued more than max SQL statements.
+     *
+     * @return what the work returned
+     */
+    public <T> T assertMaxStatements(int max, Supplier<T> work) {
+        T result = measure(work);
+        int count = SqlStatementCounter.count();
+        if (count > max) {
+            throw new AssertionError("Expected at most " + max + " SQL statements but " + count + " ran"
+                    + describe(SqlStatementCounter.statements()));
+        }
+        return result;
+    }
+
+    /**
+     * Run the work, add rows, run it again, and fail if the second run issued
+     * more statements than the first: a per-row query regression.
+     *
+     * @param addRows seeds more of the rows the work reads; must stay within
+     *                hibernate.default_batch_fetch_size so batched loads do not split
+     */
+    public void assertStatementsIndependentOfRows(Runnable addRows, Supplier<?> work) {
+        measure(work);
+        List<String> before = SqlStatementCounter.statements();
+
+        addRows.run();
+
+        measure(work);
+        List<String> after = SqlStatementCounter.statements();
+        if (after.size() > before.size()) {
+            throw new AssertionError("SQL statements grew with the data from " + before.size() + " to "
+                    + after.size() + describe(after));
+        }
+    }
+
+    /**
+     * @return the number of SQL statements the work issued
+     */
+    public int countStatements(Supplier<?> work) {
+        measure(work);
+        return SqlStatementCounter.count();
+    }
+
+    private <T> T measure(Supplier<T> work) {
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementCounter.reset();
+        return work.get();
+    }
+
+    private static String describe(List<String> statements) {
+        StringBuilder description = new StringBuilder(":");
+        for (int i = 0; i < statements.size(); i++) {
+            description.append(System.lineSeparator()).append(i + 1).append(". ")
+                    .append(statements.get(i).replaceAll("\\s+", " ").trim());
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,32 @@
+package com.msproj.testsupport;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * JPA slice test whose SQL statements are recorded by SqlStatementCounter.
+ * <p>
+ * Runs as @DataJpaTest: entities and repositories on an embedded H2 database,
+ * one rolled-back transaction per test. Services under test are added with
+ * {@code @Import} and their non-JPA collaborators with {@code @MockBean}. The
+ * service's data.sql is not loaded; tests seed their own rows through
+ * TestEntityManager and measure with QueryBudget.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.msproj.testsupport.SqlStatementCounter",
+        "spring.sql.init.mode=never"
+})
+public @interface QueryBudgetTest {
+}
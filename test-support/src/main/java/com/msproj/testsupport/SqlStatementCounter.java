@@ -0,0 +1,49 @@
+package com.msproj.testsupport;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hibernate StatementInspector that records every SQL statement the session
+ * factory prepares.
+ * <p>
+ * Hibernate instantiates it by class name (see QueryBudgetTest), so the
+ * recording is static and shared by the whole test JVM; QueryBudget resets it
+ * around the code it measures. Only statements issued through JPA are seen:
+ * JdbcTemplate and plain JDBC bypass the inspector.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final List<String> statements = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (statements) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        synchronized (statements) {
+            statements.clear();
+        }
+    }
+
+    public static int count() {
+        synchronized (statements) {
+            return statements.size();
+        }
+    }
+
+    /**
+     * @return the statements recorded since the last reset, in execution order
+     */
+    public static List<String> statements() {
+        synchronized (statements) {
+            return List.copyOf(statements);
+        }
+    }
+}
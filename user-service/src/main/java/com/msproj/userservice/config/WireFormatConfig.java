@@ -0,0 +1,24 @@
+package com.msproj.userservice.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary wire format for service-to-service calls.
+ * <p>
+ * Internal clients send Accept: application/x-jackson-smile (and may send
+ * Smile request bodies); everyone else keeps getting JSON. The converter is
+ * built from Boot's Jackson builder so both formats share the same modules
+ * and serialization settings.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
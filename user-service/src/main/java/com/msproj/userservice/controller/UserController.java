@@ -140,6 +140,20 @@ public class UserController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Apply a batch of loyalty point grants (used by Order Service)
+     * POST /api/users/loyalty-points/bulk
+     */
+    @PostMapping("/loyalty-points/bulk")
+    public ResponseEntity<BulkLoyaltyPointsResponseDto> applyLoyaltyPointsBatch(
+            @RequestBody BulkLoyaltyPointsRequestDto requestDto) {
+        logger.info("POST /api/users/loyalty-points/bulk - Applying batch: {}", requestDto.getBatchId());
+
+        BulkLoyaltyPointsResponseDto response = userService.applyLoyaltyPointsBatch(requestDto);
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Assign role to user
      * POST /api/users/{id}/roles
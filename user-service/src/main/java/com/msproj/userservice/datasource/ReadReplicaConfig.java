@@ -0,0 +1,65 @@
+package com.msproj.userservice.datasource;
+
+import com.msproj.servicesupport.datasource.ConsistencyTokenAdvice;
+import com.msproj.servicesupport.datasource.ConsistencyTokenFilter;
+import com.msproj.servicesupport.datasource.ReadReplicaProperties;
+import com.msproj.servicesupport.datasource.ReplicaHealthMonitor;
+import com.msproj.servicesupport.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary pool (spring.datasource) plus replica pools behind one routing
+ * DataSource that JPA, Spring Data and the transaction manager share.
+ * The routing itself lives in service-support.
+ */
+@Configuration
+@ConditionalOnProperty(name = "user.read-replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("user.read-replicas")
+    public ReadReplicaProperties readReplicaProperties() {
+        return new ReadReplicaProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaHealthMonitor replicaHealthMonitor(ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        return new ReplicaHealthMonitor(properties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaHealthMonitor replicaHealthMonitor) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaHealthMonitor));
+    }
+
+    @Bean
+    public ConsistencyTokenFilter consistencyTokenFilter() {
+        return new ConsistencyTokenFilter("/api/users");
+    }
+
+    @Bean
+    public ConsistencyTokenAdvice consistencyTokenAdvice() {
+        return new ConsistencyTokenAdvice("/api/users");
+    }
+}
@@ -0,0 +1,32 @@
+package com.msproj.userservice.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk loyalty grant sent by Order Service, aggregated per customer.
+ * batchId is the idempotency key for the whole request.
+ */
+public class BulkLoyaltyPointsRequestDto {
+    private String batchId;
+    private List<LoyaltyPointsGrantDto> grants = new ArrayList<>();
+
+    public BulkLoyaltyPointsRequestDto() {
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public List<LoyaltyPointsGrantDto> getGrants() {
+        return grants;
+    }
+
+    public void setGrants(List<LoyaltyPointsGrantDto> grants) {
+        this.grants = grants;
+    }
+}
@@ -0,0 +1,15 @@
+package com.msproj.userservice.dto;
+
+import java.util.List;
+
+/**
+ * Result of a bulk loyalty grant. duplicate is true when the batch had
+ * already been applied and this request changed nothing.
+ */
+public record BulkLoyaltyPointsResponseDto(
+        String batchId,
+        boolean duplicate,
+        Integer appliedCustomers,
+        Long totalPoints,
+        List<Long> skippedCustomerIds
+) {}
@@ -0,0 +1,30 @@
+package com.msproj.userservice.dto;
+
+public class LoyaltyPointsGrantDto {
+    private Long customerId;
+    private Integer points;
+
+    public LoyaltyPointsGrantDto() {
+    }
+
+    public LoyaltyPointsGrantDto(Long customerId, Integer points) {
+        this.customerId = customerId;
+        this.points = points;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public Integer getPoints() {
+        return points;
+    }
+
+    public void setPoints(Integer points) {
+        this.points = points;
+    }
+}
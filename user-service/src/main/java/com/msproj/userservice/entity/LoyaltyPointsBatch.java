@@ -0,0 +1,59 @@
+package com.msproj.userservice.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Loyalty Points Batch - record of an applied bulk loyalty grant
+ *
+ * The unique batch_id is the idempotency key sent by Order Service: a batch
+ * that is resent after a timeout or crash is recognised and not applied twice.
+ */
+@Entity
+@Table(name = "loyalty_points_batches",
+        uniqueConstraints = @UniqueConstraint(columnNames = "batch_id"))
+public class LoyaltyPointsBatch extends BaseEntity {  // INHERITANCE
+
+    @Column(name = "batch_id", nullable = false, unique = true, length = 64)
+    private String batchId;
+
+    @Column(name = "applied_customers", nullable = false)
+    private Integer appliedCustomers = 0;
+
+    @Column(name = "total_points", nullable = false)
+    private Long totalPoints = 0L;
+
+    // Constructors
+    public LoyaltyPointsBatch() {
+        super();
+    }
+
+    public LoyaltyPointsBatch(String batchId) {
+        super();
+        this.batchId = batchId;
+    }
+
+    // Getters and Setters
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public Integer getAppliedCustomers() {
+        return appliedCustomers;
+    }
+
+    public void setAppliedCustomers(Integer appliedCustomers) {
+        this.appliedCustomers = appliedCustomers;
+    }
+
+    public Long getTotalPoints() {
+        return totalPoints;
+    }
+
+    public void setTotalPoints(Long totalPoints) {
+        this.totalPoints = totalPoints;
+    }
+}
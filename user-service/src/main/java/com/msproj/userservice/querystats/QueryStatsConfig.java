@@ -0,0 +1,51 @@
+package com.msproj.userservice.querystats;
+
+import com.msproj.servicesupport.querystats.QueryStatsDataSourcePostProcessor;
+import com.msproj.servicesupport.querystats.QueryStatsFilter;
+import com.msproj.servicesupport.querystats.QueryStatsHibernateCustomizer;
+import com.msproj.servicesupport.querystats.QueryStatsProperties;
+import com.msproj.servicesupport.querystats.QueryStatsStatementInspector;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * SQL instrumentation (user.query-stats.*): Hibernate statement timing, the
+ * connection wait of the application DataSource and the request filter that
+ * exports both. The instrumentation itself lives in service-support.
+ */
+@Configuration
+@ConditionalOnProperty(name = "user.query-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryStatsConfig {
+
+    @Bean
+    @ConfigurationProperties("user.query-stats")
+    public QueryStatsProperties queryStatsProperties() {
+        return new QueryStatsProperties();
+    }
+
+    @Bean
+    public static BeanPostProcessor queryStatsDataSourcePostProcessor() {
+        return new QueryStatsDataSourcePostProcessor();
+    }
+
+    @Bean
+    public QueryStatsStatementInspector queryStatsStatementInspector(QueryStatsProperties properties,
+                                                                     MeterRegistry meterRegistry) {
+        return new QueryStatsStatementInspector(properties, meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryStatsHibernateCustomizer(QueryStatsStatementInspector inspector) {
+        return new QueryStatsHibernateCustomizer(inspector);
+    }
+
+    @Bean
+    public QueryStatsFilter queryStatsFilter(QueryStatsProperties properties, MeterRegistry meterRegistry) {
+        return new QueryStatsFilter(properties, meterRegistry);
+    }
+}
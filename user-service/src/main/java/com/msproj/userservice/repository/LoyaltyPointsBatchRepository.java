@@ -0,0 +1,13 @@
+package com.msproj.userservice.repository;
+
+import com.msproj.userservice.entity.LoyaltyPointsBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional; /**
+ * Loyalty Points Batch Repository - idempotency log for bulk grants
+ */
+@Repository
+public interface LoyaltyPointsBatchRepository extends JpaRepository<LoyaltyPointsBatch, Long> {
+    Optional<LoyaltyPointsBatch> findByBatchId(String batchId);
+}
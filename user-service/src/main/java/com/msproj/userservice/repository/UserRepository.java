@@ -76,6 +76,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("UPDATE Customer c SET c.loyaltyPoints = c.loyaltyPoints + :points WHERE c.id = :customerId")
     int addLoyaltyPoints(@Param("customerId") Long customerId, @Param("points") Integer points);
 
+    // Tier thresholds mirror Customer.updateCustomerTier(); the version bump makes stale
+    // entity saves fail optimistically instead of overwriting set-based point updates
+    @Modifying
+    @Transactional
+    @Query("UPDATE Customer c SET c.customerTier = CASE " +
+            "WHEN c.loyaltyPoints >= 10000 THEN com.msproj.userservice.entity.CustomerTier.PLATINUM " +
+            "WHEN c.loyaltyPoints >= 5000 THEN com.msproj.userservice.entity.CustomerTier.GOLD " +
+            "WHEN c.loyaltyPoints >= 1000 THEN com.msproj.userservice.entity.CustomerTier.SILVER " +
+            "ELSE com.msproj.userservice.entity.CustomerTier.BRONZE END, " +
+            "c.version = c.version + 1 " +
+            "WHERE c.id IN :customerIds")
+    int recalculateCustomerTiers(@Param("customerIds") List<Long> customerIds);
+
     @Modifying
     @Transactional
     @Query("DELETE FROM UserRole ur WHERE ur.user.id = :userId AND ur.role.name = :roleName")
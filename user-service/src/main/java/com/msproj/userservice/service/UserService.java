@@ -1,5 +1,7 @@
 package com.msproj.userservice.service;
 
+import com.msproj.userservice.dto.BulkLoyaltyPointsRequestDto;
+import com.msproj.userservice.dto.BulkLoyaltyPointsResponseDto;
 import com.msproj.userservice.dto.CreateUserRequestDto;
 import com.msproj.userservice.dto.UserResponseDto;
 import com.msproj.userservice.dto.UserSummaryDto;
@@ -25,6 +27,8 @@ public interface UserService {
 
     void addLoyaltyPoints(Long customerId, Integer points);
 
+    BulkLoyaltyPointsResponseDto applyLoyaltyPointsBatch(BulkLoyaltyPointsRequestDto requestDto);
+
     void assignRole(Long userId, RoleName roleName);
 
     List<UserSummaryDto> getActiveUsersSummary();
@@ -3,6 +3,7 @@ package com.msproj.userservice.service;
 
 
 import com.msproj.userservice.entity.*;
+import com.msproj.userservice.exception.InvalidUserOperationException;
 import com.msproj.userservice.exception.UserAlreadyExistsException;
 import com.msproj.userservice.exception.UserNotFoundException;
 import com.msproj.userservice.service.*;
@@ -15,8 +16,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -38,15 +42,18 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final UserRoleRepository userRoleRepository;
+    private final LoyaltyPointsBatchRepository loyaltyPointsBatchRepository;
 
     // DEPENDENCY INJECTION through constructor (preferred over @Autowired fields)
     @Autowired
     public UserServiceImpl(UserRepository userRepository,
                            RoleRepository roleRepository,
-                           UserRoleRepository userRoleRepository) {
+                           UserRoleRepository userRoleRepository,
+                           LoyaltyPointsBatchRepository loyaltyPointsBatchRepository) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.userRoleRepository = userRoleRepository;
+        this.loyaltyPointsBatchRepository = loyaltyPointsBatchRepository;
     }
 
     @Override
@@ -147,6 +154,70 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    /**
+     * Apply an aggregated loyalty batch with set-based updates.
+     *
+     * The batch id is inserted first, so a resent batch is detected and a
+     * concurrent duplicate fails on the unique constraint and rolls back.
+     * Customers are updated in ID order to keep row-lock order consistent.
+     */
+    @Override
+    @Transactional
+    public BulkLoyaltyPointsResponseDto applyLoyaltyPointsBatch(BulkLoyaltyPointsRequestDto requestDto) {
+        String batchId = requestDto.getBatchId();
+        logger.info("Applying loyalty batch {} with {} grants", batchId,
+                requestDto.getGrants() != null ? requestDto.getGrants().size() : 0);
+
+        if (batchId == null || batchId.isBlank()) {
+            throw new InvalidUserOperationException("Loyalty batch ID is required");
+        }
+
+        Optional<LoyaltyPointsBatch> existing = loyaltyPointsBatchRepository.findByBatchId(batchId);
+        if (existing.isPresent()) {
+            logger.warn("Loyalty batch {} already applied, ignoring", batchId);
+            return new BulkLoyaltyPointsResponseDto(batchId, true,
+                    existing.get().getAppliedCustomers(), existing.get().getTotalPoints(), List.of());
+        }
+
+        // Merge grants per customer; TreeMap gives the ID ordering
+        Map<Long, Integer> pointsByCustomer = new TreeMap<>();
+        if (requestDto.getGrants() != null) {
+            for (LoyaltyPointsGrantDto grant : requestDto.getGrants()) {
+                if (grant.getCustomerId() == null || grant.getPoints() == null || grant.getPoints() <= 0) {
+                    throw new InvalidUserOperationException("Invalid loyalty grant in batch " + batchId);
+                }
+                pointsByCustomer.merge(grant.getCustomerId(), grant.getPoints(), Math::addExact);
+            }
+        }
+
+        LoyaltyPointsBatch batch = loyaltyPointsBatchRepository.saveAndFlush(new LoyaltyPointsBatch(batchId));
+
+        List<Long> appliedIds = new ArrayList<>();
+        List<Long> skippedIds = new ArrayList<>();
+        long totalPoints = 0;
+
+        for (Map.Entry<Long, Integer> grant : pointsByCustomer.entrySet()) {
+            if (userRepository.addLoyaltyPoints(grant.getKey(), grant.getValue()) > 0) {
+                appliedIds.add(grant.getKey());
+                totalPoints += grant.getValue();
+            } else {
+                skippedIds.add(grant.getKey());
+            }
+        }
+
+        if (!appliedIds.isEmpty()) {
+            userRepository.recalculateCustomerTiers(appliedIds);
+        }
+
+        batch.setAppliedCustomers(appliedIds.size());
+        batch.setTotalPoints(totalPoints);
+        loyaltyPointsBatchRepository.save(batch);
+
+        logger.info("Loyalty batch {} applied to {} customers ({} points), skipped: {}",
+                batchId, appliedIds.size(), totalPoints, skippedIds);
+        return new BulkLoyaltyPointsResponseDto(batchId, false, appliedIds.size(), totalPoints, skippedIds);
+    }
+
     @Override
     @Transactional
     public void assignRole(Long userId, RoleName roleName) {
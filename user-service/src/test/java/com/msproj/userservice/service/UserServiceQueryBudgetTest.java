@@ -0,0 +1,127 @@
+package com.msproj.userservice.service;
+
+import com.msproj.testsupport.QueryBudget;
+import com.msproj.testsupport.QueryBudgetTest;
+import com.msproj.userservice.dto.UserResponseDto;
+import com.msproj.userservice.dto.UserSummaryDto;
+import com.msproj.userservice.entity.Address;
+import com.msproj.userservice.entity.Admin;
+import com.msproj.userservice.entity.AdminLevel;
+import com.msproj.userservice.entity.Customer;
+import com.msproj.userservice.entity.Role;
+import com.msproj.userservice.entity.RoleName;
+import com.msproj.userservice.entity.User;
+import com.msproj.userservice.entity.UserRole;
+import com.msproj.userservice.entity.UserStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SQL statement budgets for the UserServiceImpl list reads.
+ * <p>
+ * User lists map columns of the users table only (customer and admin fields
+ * share it), so each read is a single query however many users and role
+ * assignments there are. Resolving roles or any other association per user
+ * fails both the budget and the growth check.
+ */
+@QueryBudgetTest
+@Import(UserServiceImpl.class)
+class UserServiceQueryBudgetTest {
+
+    private static final int CUSTOMERS = 40;
+    private static final int ADMINS = 5;
+
+    private static final int LIST_BUDGET = 1;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserService userService;
+
+    private QueryBudget queryBudget;
+
+    private Role customerRole;
+    private Role adminRole;
+    private int sequence;
+
+    @BeforeEach
+    void seedUsers() {
+        queryBudget = new QueryBudget(entityManager);
+
+        customerRole = entityManager.persist(new Role(RoleName.CUSTOMER, "Places orders"));
+        adminRole = entityManager.persist(new Role(RoleName.ADMIN, "Manages the shop"));
+
+        addCustomers(CUSTOMERS);
+        for (int i = 0; i < ADMINS; i++) {
+            Admin admin = new Admin("admin" + i, "admin" + i + "@example.com", "secret-" + i,
+                    "Admin", "Number" + i, "EMP-" + i, i % 2 == 0 ? "Operations" : "Support");
+            admin.setAdminLevel(AdminLevel.values()[i % AdminLevel.values().length]);
+            entityManager.persist(admin);
+            entityManager.persist(new UserRole(admin, adminRole));
+            entityManager.persist(new UserRole(admin, customerRole));
+        }
+    }
+
+    @Test
+    void getAllUsers() {
+        List<UserResponseDto> users = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> userService.getAllUsers());
+
+        assertThat(users).hasSize(CUSTOMERS + ADMINS);
+    }
+
+    @Test
+    void getAllUsersDoesNotQueryPerUser() {
+        queryBudget.assertStatementsIndependentOfRows(() -> addCustomers(10),
+                () -> userService.getAllUsers());
+    }
+
+    @Test
+    void getUsersByStatus() {
+        List<UserResponseDto> users = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> userService.getUsersByStatus(UserStatus.ACTIVE));
+
+        assertThat(users).isNotEmpty();
+    }
+
+    @Test
+    void getUsersByStatusDoesNotQueryPerUser() {
+        queryBudget.assertStatementsIndependentOfRows(() -> addCustomers(10),
+                () -> userService.getUsersByStatus(UserStatus.ACTIVE));
+    }
+
+    @Test
+    void getActiveUsersSummary() {
+        List<UserSummaryDto> users = queryBudget.assertMaxStatements(LIST_BUDGET,
+                () -> userService.getActiveUsersSummary());
+
+        assertThat(users).isNotEmpty();
+    }
+
+    // Customers with an address, a birth date and a role; every tenth is suspended
+    private void addCustomers(int count) {
+        for (int i = 0; i < count; i++) {
+            int n = sequence++;
+            Customer customer = new Customer("customer" + n, "customer" + n + "@example.com", "secret-" + n,
+                    "Customer", "Number" + n, "+1555" + String.format("%07d", n));
+            customer.setDateOfBirth(LocalDate.of(1960 + n % 40, 1 + n % 12, 1 + n % 28));
+            customer.setAddress(new Address(n + " Main Street", "Springfield", "IL",
+                    String.format("%05d", 62700 + n), "USA"));
+            customer.addLoyaltyPoints(n * 37 % 2_000);
+            if (n % 10 == 9) {
+                customer.setStatus(UserStatus.SUSPENDED);
+            }
+            User user = entityManager.persist(customer);
+            entityManager.persist(new UserRole(user, customerRole));
+        }
+    }
+}